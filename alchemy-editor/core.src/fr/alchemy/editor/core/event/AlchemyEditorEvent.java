@@ -1,8 +1,6 @@
 package fr.alchemy.editor.core.event;
 
 import java.nio.file.Path;
-import java.util.HashMap;
-import java.util.Map;
 
 import fr.alchemy.utilities.event.EventType;
 import javafx.event.Event;
@@ -10,6 +8,10 @@ import javafx.event.Event;
 /**
  * <code>AlchemyEditorEvent</code> is an implementation of the JavaFX {@link Event}
  * to store every events concerning the <code>Alchemy-Editor</code>.
+ * <p>
+ * Each {@link EventType} has its own typed event class carrying its payload as fields, the events published
+ * on every user interaction are pooled and should be published with {@link fr.alchemy.utilities.event.SingletonEventBus#publishRecyclable(EventType, 
+ * fr.alchemy.utilities.collections.pool.Reusable)} so that they don't produce any garbage.
  * 
  * @author GnosticOccultist
  */
@@ -17,143 +19,70 @@ public class AlchemyEditorEvent {
 	
 	/**
 	 * The event type to notify about a changed workspace, use {@link #newChangedCurrentWorkspaceEvent(Path)}
-	 * to create an event of this type. The new workspace path is stored with the key <b>"workspace"</b>.
+	 * to create an event of this type.
 	 */
-	public static final EventType<AlchemyEditorEvent> CHANGED_CURRENT_WORKSPACE = EventType.create("ChangedCurrentWorkspace", AlchemyEditorEvent.class);
+	public static final EventType<ChangedCurrentWorkspaceEvent> CHANGED_CURRENT_WORKSPACE = EventType.create("ChangedCurrentWorkspace", ChangedCurrentWorkspaceEvent.class);
 	/**
-	 * The event type to notify about a requested scene's creation, use {@link #newSceneCreationEvent}
+	 * The event type to notify about a requested file opening, use {@link #newOpenFileEvent(Path, boolean)}
 	 * to create an event of this type.
 	 */
-	public static final EventType<AlchemyEditorEvent> OPEN_FILE = EventType.create("OpenFile", AlchemyEditorEvent.class);
+	public static final EventType<OpenFileEvent> OPEN_FILE = EventType.create("OpenFile", OpenFileEvent.class);
 	/**
-	 * The event type to notify about a request of closing the editor.
+	 * The event type to notify about a request of closing the editor, use {@link #newClosingEditorEvent()}
+	 * to obtain an event of this type.
 	 */
 	public static final EventType<AlchemyEditorEvent> CLOSING_EDITOR = EventType.create("ClosingEditor", AlchemyEditorEvent.class);
 	
 	/**
-	 * The table mapping the objects concerned by an event.
-	 */
-	private final Map<String, Object> objects = new HashMap<>();
-	
-	/**
-	 * Instantiates a new <code>AlchemyEditorEvent</code> of {@link #CHANGED_CURRENT_WORKSPACE}
-	 * type. It stores the provided workspace path with the key <b>"workspace"</b>.
-	 * 
-	 * @param newWorkspace The new workspace path.
-	 * @return			   A new instance of an editor event to notify about a changed current workspace.
-	 */
-	public static AlchemyEditorEvent newChangedCurrentWorkspaceEvent(Path newWorkspace) {
-		return new AlchemyEditorEvent().setPath("workspace", newWorkspace);
-	}
-	
-	/**
-	 * Instantiates a new <code>AlchemyEditorEvent</code> of {@link #OPEN_FILE} type.
-	 * 
-	 * @return A new instance of an editor event to notify about a requested open file.
+	 * The event to notify about a request of closing the editor, which doesn't hold any state.
 	 */
-	public static AlchemyEditorEvent newOpenFileEvent(Path path) {
-		return newOpenFileEvent(path, false);
-	}
+	private static final AlchemyEditorEvent CLOSING_EDITOR_EVENT = new AlchemyEditorEvent();
 	
 	/**
-	 * Instantiates a new <code>AlchemyEditorEvent</code> of {@link #OPEN_FILE} type.
-	 * 
-	 * @param readOnly Whether the file should be opened in read-only mode.
-	 * @return 		   A new instance of an editor event to notify about a requested open file.
+	 * Instantiates a new <code>AlchemyEditorEvent</code> without any payload.
 	 */
-	public static AlchemyEditorEvent newOpenFileEvent(Path path, boolean readOnly) {
-		return new AlchemyEditorEvent().setPath("file", path).setBoolean("readOnly", readOnly);
-	}
+	protected AlchemyEditorEvent() {}
 	
 	/**
-	 * Return the stored {@link Path} in the <code>AlchemyEditorEvent</code> 
-	 * with the specified name.
+	 * Obtains a pooled {@link ChangedCurrentWorkspaceEvent} of {@link #CHANGED_CURRENT_WORKSPACE} type, 
+	 * with the provided workspace path.
 	 * 
-	 * @param name The name of the path to retrieve.
-	 * @return	   The path with the specified name? or null if none is found.
-	 */
-	public Path getPath(String name) {
-		return get(Path.class, name);
-	}
-	
-	/**
-	 * Stores the provided {@link Path} in the <code>AlchemyEditorEvent</code> 
-	 * with the specified name.
-	 * 
-	 * @param name The name of the path to store.
-	 * @param path The path to store with the key.
-	 */
-	public AlchemyEditorEvent setPath(String name, Path path) {
-		return set(name, path);
-	}
-	
-	/**
-	 * Return the stored boolean value in the <code>AlchemyEditorEvent</code> 
-	 * with the specified name.
-	 * 
-	 * @param name The name of the boolean value to retrieve.
-	 * @return	   The boolean value with the specified name? or null if none is found.
-	 */
-	public boolean getBoolean(String name) {
-		return get(boolean.class, name);
-	}
-	
-	/**
-	 * Stores the provided boolean value in the <code>AlchemyEditorEvent</code> 
-	 * with the specified name.
-	 * 
-	 * @param name The name of the boolean value to store.
-	 * @param path The boolean value to store with the key.
-	 */
-	public AlchemyEditorEvent setBoolean(String name, boolean path) {
-		return set(name, path);
-	}
-	
-	/**
-	 * Return the stored int value in the <code>AlchemyEditorEvent</code> 
-	 * with the specified name.
-	 * 
-	 * @param name The name of the int value to retrieve.
-	 * @return	   The int value with the specified name? or null if none is found.
+	 * @param newWorkspace The new workspace path.
+	 * @return			   An editor event to notify about a changed current workspace.
 	 */
-	public int getInteger(String name) {
-		return get(int.class, name);
+	public static ChangedCurrentWorkspaceEvent newChangedCurrentWorkspaceEvent(Path newWorkspace) {
+		return ChangedCurrentWorkspaceEvent.obtain(newWorkspace);
 	}
 	
 	/**
-	 * Stores the provided int value in the <code>AlchemyEditorEvent</code> 
-	 * with the specified name.
+	 * Obtains a pooled {@link OpenFileEvent} of {@link #OPEN_FILE} type, with the file to be opened
+	 * in write mode.
 	 * 
-	 * @param name The name of the int value to store.
-	 * @param path The int value to store with the key.
-	 * @return 
+	 * @param path The path of the file to open.
+	 * @return 	   An editor event to notify about a requested open file.
 	 */
-	public AlchemyEditorEvent setInteger(String name, int path) {
-		return set(name, path);
+	public static OpenFileEvent newOpenFileEvent(Path path) {
+		return newOpenFileEvent(path, false);
 	}
 	
 	/**
-	 * Return the stored object of the specified type and name in the 
-	 * <code>AlchemyEditorEvent</code>.
+	 * Obtains a pooled {@link OpenFileEvent} of {@link #OPEN_FILE} type.
 	 * 
-	 * @param type The type of the object to retrieve.
-	 * @param name The name of the object to retrieve.
-	 * @return	   The object with the specified name matching the type, or null if none is found.
+	 * @param path 	   The path of the file to open.
+	 * @param readOnly Whether the file should be opened in read-only mode.
+	 * @return 		   An editor event to notify about a requested open file.
 	 */
-	@SuppressWarnings("unchecked")
-	public <T> T get(Class<T> type, String name) {
-		return (T) objects.get(name);
+	public static OpenFileEvent newOpenFileEvent(Path path, boolean readOnly) {
+		return OpenFileEvent.obtain(path, readOnly);
 	}
 	
 	/**
-	 * Store the provided object in the <code>AlchemyEditorEvent</code>, ordered
-	 * by its name.
+	 * Return the <code>AlchemyEditorEvent</code> of {@link #CLOSING_EDITOR} type, which is shared 
+	 * since it doesn't hold any state.
 	 * 
-	 * @param name   The name of the object to store.
-	 * @param object The object to store.
+	 * @return The editor event to notify about a request of closing the editor.
 	 */
-	public AlchemyEditorEvent set(String name, Object object) {
-		objects.put(name, object);
-		return this;
+	public static AlchemyEditorEvent newClosingEditorEvent() {
+		return CLOSING_EDITOR_EVENT;
 	}
 }
@@ -0,0 +1,73 @@
+package fr.alchemy.editor.core.event;
+
+import java.nio.file.Path;
+
+import fr.alchemy.utilities.LocalVars;
+import fr.alchemy.utilities.LocalVars.Slot;
+import fr.alchemy.utilities.collections.pool.Reusable;
+
+/**
+ * <code>ChangedCurrentWorkspaceEvent</code> is an {@link AlchemyEditorEvent} of {@link AlchemyEditorEvent#CHANGED_CURRENT_WORKSPACE} 
+ * type, notifying about a change of the current workspace of the editor.
+ * <p>
+ * The events are pooled per thread, use {@link AlchemyEditorEvent#newChangedCurrentWorkspaceEvent(Path)} to obtain one
+ * and publish it with {@link fr.alchemy.utilities.event.SingletonEventBus#publishRecyclable(fr.alchemy.utilities.event.EventType, Reusable)}
+ * to release it once delivered. Listeners shouldn't keep any reference to the event.
+ * 
+ * @author GnosticOccultist
+ */
+public final class ChangedCurrentWorkspaceEvent extends AlchemyEditorEvent implements Reusable {
+	
+	/**
+	 * The slot of the events pooled per thread.
+	 */
+	private static final Slot<ChangedCurrentWorkspaceEvent> SLOT = LocalVars.slot(ChangedCurrentWorkspaceEvent.class, ChangedCurrentWorkspaceEvent::new);
+	
+	/**
+	 * The path of the new workspace.
+	 */
+	private Path workspace;
+	
+	/**
+	 * Private constructor to inhibit instantiation of <code>ChangedCurrentWorkspaceEvent</code>, use 
+	 * {@link AlchemyEditorEvent#newChangedCurrentWorkspaceEvent(Path)} instead.
+	 */
+	private ChangedCurrentWorkspaceEvent() {}
+	
+	/**
+	 * Obtains a <code>ChangedCurrentWorkspaceEvent</code> from the pool of the current thread, or 
+	 * instantiates a new one if the pool is empty.
+	 * 
+	 * @param workspace The path of the new workspace.
+	 * @return			A changed workspace event with the provided payload (not null).
+	 */
+	static ChangedCurrentWorkspaceEvent obtain(Path workspace) {
+		ChangedCurrentWorkspaceEvent event = SLOT.acquire();
+		event.workspace = workspace;
+		return event;
+	}
+	
+	/**
+	 * Return the path of the new workspace.
+	 * 
+	 * @return The path of the new workspace.
+	 */
+	public Path getWorkspace() {
+		return workspace;
+	}
+	
+	@Override
+	public void free() {
+		this.workspace = null;
+	}
+	
+	@Override
+	public void release() {
+		SLOT.release(this);
+	}
+	
+	@Override
+	public String toString() {
+		return getClass().getSimpleName() + " [workspace=" + workspace + "]";
+	}
+}
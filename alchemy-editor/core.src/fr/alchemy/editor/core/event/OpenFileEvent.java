@@ -0,0 +1,89 @@
+package fr.alchemy.editor.core.event;
+
+import java.nio.file.Path;
+
+import fr.alchemy.utilities.LocalVars;
+import fr.alchemy.utilities.LocalVars.Slot;
+import fr.alchemy.utilities.collections.pool.Reusable;
+
+/**
+ * <code>OpenFileEvent</code> is an {@link AlchemyEditorEvent} of {@link AlchemyEditorEvent#OPEN_FILE} type, 
+ * requesting the opening of a file in the editor.
+ * <p>
+ * The events are pooled per thread, use {@link AlchemyEditorEvent#newOpenFileEvent(Path, boolean)} to obtain one
+ * and publish it with {@link fr.alchemy.utilities.event.SingletonEventBus#publishRecyclable(fr.alchemy.utilities.event.EventType, Reusable)}
+ * to release it once delivered. Listeners shouldn't keep any reference to the event.
+ * 
+ * @author GnosticOccultist
+ */
+public final class OpenFileEvent extends AlchemyEditorEvent implements Reusable {
+	
+	/**
+	 * The slot of the events pooled per thread.
+	 */
+	private static final Slot<OpenFileEvent> SLOT = LocalVars.slot(OpenFileEvent.class, OpenFileEvent::new);
+	
+	/**
+	 * The path of the file to open.
+	 */
+	private Path file;
+	/**
+	 * Whether the file should be opened in read-only mode.
+	 */
+	private boolean readOnly;
+	
+	/**
+	 * Private constructor to inhibit instantiation of <code>OpenFileEvent</code>, use 
+	 * {@link AlchemyEditorEvent#newOpenFileEvent(Path, boolean)} instead.
+	 */
+	private OpenFileEvent() {}
+	
+	/**
+	 * Obtains an <code>OpenFileEvent</code> from the pool of the current thread, or instantiates
+	 * a new one if the pool is empty.
+	 * 
+	 * @param file	   The path of the file to open.
+	 * @param readOnly Whether the file should be opened in read-only mode.
+	 * @return		   An open file event with the provided payload (not null).
+	 */
+	static OpenFileEvent obtain(Path file, boolean readOnly) {
+		OpenFileEvent event = SLOT.acquire();
+		event.file = file;
+		event.readOnly = readOnly;
+		return event;
+	}
+	
+	/**
+	 * Return the path of the file to open.
+	 * 
+	 * @return The path of the file to open.
+	 */
+	public Path getFile() {
+		return file;
+	}
+	
+	/**
+	 * Return whether the file should be opened in read-only mode.
+	 * 
+	 * @return Whether the file should be opened in read-only mode.
+	 */
+	public boolean isReadOnly() {
+		return readOnly;
+	}
+	
+	@Override
+	public void free() {
+		this.file = null;
+		this.readOnly = false;
+	}
+	
+	@Override
+	public void release() {
+		SLOT.release(this);
+	}
+	
+	@Override
+	public String toString() {
+		return getClass().getSimpleName() + " [file=" + file + ", readOnly=" + readOnly + "]";
+	}
+}
@@ -27,7 +27,7 @@ public class ReadFileItem extends AbstractAssetItem {
 
 	@Override
 	protected void execute(ActionEvent event) {
-		SingletonEventBus.publish(AlchemyEditorEvent.OPEN_FILE, 
+		SingletonEventBus.publishRecyclable(AlchemyEditorEvent.OPEN_FILE, 
 				AlchemyEditorEvent.newOpenFileEvent(getElement().getFile(), true));
 	}
 
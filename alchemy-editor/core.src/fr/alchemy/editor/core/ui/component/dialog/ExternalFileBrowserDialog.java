@@ -73,7 +73,7 @@ public class ExternalFileBrowserDialog extends AlchemyDialog {
 	}
 	
 	private void openWorkspace(AssetElement element) {
-		SingletonEventBus.publish(AlchemyEditorEvent.CHANGED_CURRENT_WORKSPACE, 
+		SingletonEventBus.publishRecyclable(AlchemyEditorEvent.CHANGED_CURRENT_WORKSPACE, 
 				AlchemyEditorEvent.newChangedCurrentWorkspaceEvent(element.getFile()));
 		processClose();
 	}
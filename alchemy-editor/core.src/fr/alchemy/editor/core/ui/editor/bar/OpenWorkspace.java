@@ -60,7 +60,7 @@ public class OpenWorkspace extends MenuItem {
 		config.setCurrentWorkspace(workspace);
 		config.save();
 		
-		SingletonEventBus.publish(AlchemyEditorEvent.CHANGED_CURRENT_WORKSPACE, 
+		SingletonEventBus.publishRecyclable(AlchemyEditorEvent.CHANGED_CURRENT_WORKSPACE, 
 				AlchemyEditorEvent.newChangedCurrentWorkspaceEvent(workspace));
 	}
 }
@@ -38,7 +38,7 @@ public class EditorTabPane extends EditorLayout<TabPane, EditorTool> {
 	public EditorTabPane(String name, AlchemyEditorScene scene) {
 		super(name, scene);
 		
-		SingletonEventBus.addListener(AlchemyEditorEvent.CHANGED_CURRENT_WORKSPACE, this);
+		SingletonEventBus.addWeakListener(AlchemyEditorEvent.CHANGED_CURRENT_WORKSPACE, this);
 	}
 	
 	/**
@@ -11,8 +11,10 @@ import fr.alchemy.editor.api.editor.FileEditorRegistry;
 import fr.alchemy.editor.api.editor.layout.EditorLayout;
 import fr.alchemy.editor.core.config.EditorConfig;
 import fr.alchemy.editor.core.event.AlchemyEditorEvent;
+import fr.alchemy.editor.core.event.OpenFileEvent;
 import fr.alchemy.editor.core.ui.editor.scene.AlchemyEditorScene;
 import fr.alchemy.utilities.collections.dictionnary.ObjectDictionary;
+import fr.alchemy.utilities.event.EventListener;
 import fr.alchemy.utilities.event.EventType;
 import fr.alchemy.utilities.event.SingletonEventBus;
 import fr.alchemy.utilities.file.FileUtils;
@@ -25,11 +27,15 @@ public class FileEditorTabPane extends EditorLayout<TabPane, FileEditor> {
 	 * The table containing the opened editors.
 	 */
 	private final ObjectDictionary<Path, Tab> openedEditors = ObjectDictionary.ofType(Path.class, Tab.class);
+	/**
+	 * The listener opening the files, strongly referenced by the pane as it is registered weakly.
+	 */
+	private final EventListener<OpenFileEvent> openFileListener = (type, event) -> openFile(event.getFile(), event.isReadOnly());
 
 	public FileEditorTabPane(String name, AlchemyEditorScene scene) {
 		super(name, scene);
 		
-		SingletonEventBus.addListener(AlchemyEditorEvent.OPEN_FILE, this);
+		SingletonEventBus.addWeakListener(AlchemyEditorEvent.OPEN_FILE, openFileListener);
 	}
 
 	@Override
@@ -63,9 +69,7 @@ public class FileEditorTabPane extends EditorLayout<TabPane, FileEditor> {
 	
 	@Override
 	public void newEvent(EventType<AlchemyEditorEvent> type, AlchemyEditorEvent event) {
-		if(type.equals(AlchemyEditorEvent.OPEN_FILE)) {
-			openFile(event.getPath("file"), event.getBoolean("readOnly"));
-		}
+		// The opened files are handled by the typed open file listener.
 	}
 	
 	protected void openFile(Path file, boolean readOnly) {
@@ -1,17 +1,24 @@
 package fr.alchemy.utilities;
 
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Supplier;
 
 import fr.alchemy.utilities.collections.pool.FastReusablePool;
+import fr.alchemy.utilities.collections.pool.Lease;
 import fr.alchemy.utilities.collections.pool.Reusable;
 
 /**
  * <code>LocalVars</code> is the container with multiple <code>ReusablePoolObject</code>
  * registered from which the user can retrieve an object specific to a thread.
+ * <p>
+ * For hot paths, prefer resolving a {@link Slot} once with {@link #slot(Class, Supplier)} and acquiring through it,
+ * which only costs an array access into the thread's pool table and doesn't require any registration per thread.
  * 
- * @version 0.2.0
+ * @version 0.3.0
  * @since 0.1.0
  * 
  * @author GnosticOccultist
@@ -33,10 +40,41 @@ public final class LocalVars {
 		return THREAD_LOCAL.get();
 	}
 	
+	/**
+	 * The counter used to attribute a dense index to each slot.
+	 */
+	private static final AtomicInteger SLOT_INDEX = new AtomicInteger();
+	/**
+	 * The table containing the slots resolved for each variables class.
+	 */
+	private static final Map<Class<?>, Slot<?>> SLOTS = new ConcurrentHashMap<>();
+	
+	/**
+	 * Resolve the {@link Slot} for the specified type of variables, the slot is created only once for a given type
+	 * and the provided factory is only retained on this first call.
+	 * <p>
+	 * The slot should be stored in a static field and used to acquire variables, the corresponding {@link FastReusablePool}
+	 * is lazily created on each thread the first time it is accessed.
+	 * 
+	 * @param type	  The type of variables to store (not null).
+	 * @param factory The factory to instantiate new variables when the pool is empty (not null).
+	 * @return		  The slot for the type of variables (not null).
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T extends Reusable> Slot<T> slot(Class<T> type, Supplier<T> factory) {
+		Validator.nonNull(type, "The type of variable can't be null!");
+		Validator.nonNull(factory, "The variable factory can't be null!");
+		return (Slot<T>) SLOTS.computeIfAbsent(type, t -> new Slot<>(type, factory, SLOT_INDEX.getAndIncrement()));
+	}
+	
 	/**
 	 * The table containing the pools for each variables class.
 	 */
 	private final Map<Class<?>, FastReusablePool<?>> buffers;
+	/**
+	 * The table containing the pools for each resolved slots, indexed by their slot index.
+	 */
+	private FastReusablePool<?>[] pools;
 	
 	/**
 	 * Private constructor to inhibit instantiation of <code>LocalVars</code>.
@@ -44,6 +82,72 @@ public final class LocalVars {
 	 */
 	private LocalVars() {
 		this.buffers = new HashMap<>();
+		this.pools = new FastReusablePool<?>[Math.max(SLOT_INDEX.get(), 8)];
+	}
+	
+	/**
+	 * Acquire the next variable instance from the {@link FastReusablePool} of the given {@link Slot}, 
+	 * instantiating a new one with the slot's factory if the pool is empty.
+	 * 
+	 * @param slot The slot of the variables to acquire (not null).
+	 * @return	   A variable instance from the pool or a new one (not null).
+	 * 
+	 * @see #release(Slot, Reusable)
+	 */
+	public <T extends Reusable> T acquire(Slot<T> slot) {
+		return pool(slot).retrieve(slot.factory);
+	}
+	
+	/**
+	 * Release the provided variable instance previously acquired from the given {@link Slot}, by putting
+	 * it back into the slot's {@link FastReusablePool}.
+	 * 
+	 * @param slot	   The slot the variable was acquired from (not null).
+	 * @param localVar The variable instance to put back to its pool (not null).
+	 * 
+	 * @see #acquire(Slot)
+	 */
+	public <T extends Reusable> void release(Slot<T> slot, T localVar) {
+		pool(slot).inject(localVar);
+	}
+	
+	/**
+	 * Leases the next variable instance from the {@link FastReusablePool} of the given {@link Slot}, 
+	 * instantiating a new one with the slot's factory if the pool is empty. The variable is injected back
+	 * into the pool once the returned {@link Lease} is closed, which must happen on the same thread.
+	 * 
+	 * @param slot The slot of the variables to lease (not null).
+	 * @return	   A lease over a variable instance from the pool or a new one (not null).
+	 * 
+	 * @see #acquire(Slot)
+	 */
+	public <T extends Reusable> Lease<T> lease(Slot<T> slot) {
+		return pool(slot).lease(slot.factory);
+	}
+	
+	/**
+	 * Return the {@link FastReusablePool} of the given {@link Slot} for the thread, creating it if
+	 * it hasn't been accessed yet.
+	 * 
+	 * @param slot The slot to get the pool for (not null).
+	 * @return	   The pool for the slot (not null).
+	 */
+	@SuppressWarnings("unchecked")
+	<T extends Reusable> FastReusablePool<T> pool(Slot<T> slot) {
+		int index = slot.index;
+		FastReusablePool<?>[] pools = this.pools;
+		if(index < pools.length) {
+			FastReusablePool<?> pool = pools[index];
+			if(pool != null) {
+				return (FastReusablePool<T>) pool;
+			}
+		} else {
+			this.pools = pools = Arrays.copyOf(pools, Math.max(index + 1, pools.length << 1));
+		}
+		
+		FastReusablePool<T> pool = new FastReusablePool<>(slot.type, slot.factory);
+		pools[index] = pool;
+		return pool;
 	}
 	
 	/**
@@ -54,9 +158,7 @@ public final class LocalVars {
 	 */
 	public <T extends Reusable> void register(Class<T> type) {
 		Validator.nonNull(type, "The type of variable can't be null!");
-		if(!buffers.containsKey(type)) {
-			buffers.put(type, new FastReusablePool<>(type));
-		}
+		buffers.computeIfAbsent(type, FastReusablePool::new);
 	}
 	
 	/**
@@ -71,14 +173,10 @@ public final class LocalVars {
 	 * @param type The type of object to get (not null).
 	 * @return	   A new variable instance from the pool, or null if no pool exist.
 	 */
-	@SuppressWarnings("unchecked")
 	public <T> T acquireNext(Class<T> type) {
 		Validator.nonNull(type, "The type of variable can't be null!");
-		if(buffers.containsKey(type)) {
-			FastReusablePool pool = buffers.get(type);
-			return (T) pool.retrieve();
-		}
-		return null;
+		FastReusablePool<?> pool = buffers.get(type);
+		return pool != null ? type.cast(pool.retrieve()) : null;
 	}
 	
 	/**
@@ -98,11 +196,8 @@ public final class LocalVars {
 	public <T> T acquireNext(Class<T> type, Supplier<T> factory) {
 		Validator.nonNull(type, "The type of variable can't be null!");
 		Validator.nonNull(factory, "The variable factory can't be null!");
-		if(buffers.containsKey(type)) {
-			FastReusablePool pool = buffers.get(type);
-			return (T) pool.retrieve(factory);
-		}
-		return null;
+		FastReusablePool<Reusable> pool = buffer(type);
+		return pool != null ? type.cast(pool.retrieve((Supplier<Reusable>) factory)) : null;
 	}
 	
 	/**
@@ -116,15 +211,119 @@ public final class LocalVars {
 	 * @param localVar The variable instance to put back to its pool (not null).
 	 * @return		   Whether the local var has been successfully released.
 	 */
-	@SuppressWarnings("unchecked")
 	public <T extends Reusable> boolean release(T localVar) {
 		Validator.nonNull(localVar, "The local var to releas can't be null!");
-		Class<T> type = (Class<T>) localVar.getClass();
-		if(buffers.containsKey(type)) {
-			FastReusablePool pool = buffers.get(type);
+		FastReusablePool<T> pool = buffer(localVar.getClass());
+		if(pool != null) {
 			pool.inject(localVar);
 			return true;
 		}
 		return false;
 	}
+	
+	/**
+	 * Return the {@link FastReusablePool} registered for the provided type of variables.
+	 * 
+	 * @param type The type of variables (not null).
+	 * @return	   The pool of the variables, or null if none is registered.
+	 */
+	@SuppressWarnings("unchecked")
+	private <T extends Reusable> FastReusablePool<T> buffer(Class<?> type) {
+		return (FastReusablePool<T>) buffers.get(type);
+	}
+	
+	/**
+	 * <code>Slot</code> is a typed handle to a kind of thread-local variables, resolved once to a dense index
+	 * with {@link LocalVars#slot(Class, Supplier)}. Acquiring a variable through a slot is a simple array access
+	 * into the thread's pool table, without any lookup by class.
+	 * 
+	 * @param <T> The type of reusable variables.
+	 * 
+	 * @version 0.3.0
+	 * @since 0.3.0
+	 * 
+	 * @author GnosticOccultist
+	 */
+	public static final class Slot<T extends Reusable> {
+		
+		/**
+		 * The type of variables.
+		 */
+		private final Class<T> type;
+		/**
+		 * The factory to instantiate new variables.
+		 */
+		private final Supplier<T> factory;
+		/**
+		 * The dense index of the slot in the pool tables.
+		 */
+		private final int index;
+		
+		/**
+		 * Private constructor to inhibit instantiation of <code>Slot</code>.
+		 * Use {@link LocalVars#slot(Class, Supplier)} to resolve a slot.
+		 */
+		private Slot(Class<T> type, Supplier<T> factory, int index) {
+			this.type = type;
+			this.factory = factory;
+			this.index = index;
+		}
+		
+		/**
+		 * Acquire the next variable instance of the <code>Slot</code> for the current thread.
+		 * 
+		 * @return A variable instance from the pool or a new one (not null).
+		 * 
+		 * @see LocalVars#acquire(Slot)
+		 */
+		public T acquire() {
+			return THREAD_LOCAL.get().acquire(this);
+		}
+		
+		/**
+		 * Leases the next variable instance of the <code>Slot</code> for the current thread, the variable 
+		 * is injected back into the pool once the returned {@link Lease} is closed.
+		 * 
+		 * @return A lease over a variable instance from the pool or a new one (not null).
+		 * 
+		 * @see LocalVars#lease(Slot)
+		 */
+		public Lease<T> lease() {
+			return THREAD_LOCAL.get().lease(this);
+		}
+		
+		/**
+		 * Release the provided variable instance into the <code>Slot</code> pool for the current thread.
+		 * 
+		 * @param localVar The variable instance to put back to its pool (not null).
+		 * 
+		 * @see LocalVars#release(Slot, Reusable)
+		 */
+		public void release(T localVar) {
+			THREAD_LOCAL.get().release(this, localVar);
+		}
+		
+		/**
+		 * Return the type of variables of the <code>Slot</code>.
+		 * 
+		 * @return The type of variables (not null).
+		 */
+		public Class<T> getType() {
+			return type;
+		}
+		
+		/**
+		 * Return the dense index of the <code>Slot</code>.
+		 * 
+		 * @return The index of the slot (&ge;0).
+		 */
+		public int getIndex() {
+			return index;
+		}
+		
+		@Override
+		public String toString() {
+			return getClass().getSimpleName() + " [type=" + type.getSimpleName() + ", index=" + index + "]";
+		}
+	}
 }
@@ -105,6 +105,17 @@ public abstract class AbstractArray<E> implements Array<E> {
 		return size() == other.size() && Arrays.deepEquals(other.array(), array());
 	}
 	
+	@Override
+	public int hashCode() {
+		// Only hash the contained elements, to be consistent with equals.
+		E[] array = array();
+		int hash = 1;
+		for(int i = 0; i < size(); i++) {
+			hash = 31 * hash + (array[i] == null ? 0 : array[i].hashCode());
+		}
+		return hash;
+	}
+	
 	@Override
 	public String toString() {
 		return getClass().getSimpleName() + " size = " + size() 
@@ -0,0 +1,117 @@
+package fr.alchemy.utilities.collections.pool;
+
+import fr.alchemy.utilities.Validator;
+
+/**
+ * <code>Lease</code> is a scoped handle over an element retrieved from a {@link Pool}, which injects the element
+ * back into its original pool once closed. It is designed to be used with a <code>try-with-resources</code> statement:
+ *
+ * <pre>
+ * try (Lease&lt;Vector&gt; lease = pool.lease()) {
+ *     Vector vector = lease.get();
+ *     ...
+ * }
+ * </pre>
+ *
+ * The element shouldn't be used after the lease has been closed, {@link #get()} will throw an exception in that case.
+ * When the system property <code>alchemy.pool.debug</code> is set to <code>true</code>, the lease also records where it
+ * has been released, to help tracking use-after-release and double releases.
+ * <p>
+ * The lease isn't thread-safe and should be closed by the thread which acquired it, especially when using a non-concurrent pool.
+ *
+ * @param <E> The type of leased element.
+ *
+ * @version 0.3.0
+ * @since 0.3.0
+ *
+ * @see Pool#lease()
+ *
+ * @author GnosticOccultist
+ */
+public final class Lease<E> implements AutoCloseable {
+
+	/**
+	 * Whether the leases should record their release site for debugging.
+	 */
+	private static final boolean DEBUG = Boolean.getBoolean("alchemy.pool.debug");
+
+	/**
+	 * The pool the element was retrieved from.
+	 */
+	private final Pool<E> pool;
+	/**
+	 * The leased element, or null once released.
+	 */
+	private E element;
+	/**
+	 * The release site of the lease, only recorded in debug mode.
+	 */
+	private Throwable releaseSite;
+
+	/**
+	 * Instantiates a new <code>Lease</code> over the provided element, retrieved from the
+	 * given {@link Pool}.
+	 *
+	 * @param pool	  The pool the element was retrieved from (not null).
+	 * @param element The leased element (not null).
+	 */
+	public Lease(Pool<E> pool, E element) {
+		Validator.nonNull(pool, "The pool can't be null!");
+		Validator.nonNull(element, "The leased element can't be null!");
+		this.pool = pool;
+		this.element = element;
+	}
+
+	/**
+	 * Return the element leased by the <code>Lease</code>.
+	 *
+	 * @return The leased element (not null).
+	 *
+	 * @throws IllegalStateException Thrown if the lease has already been released.
+	 */
+	public E get() {
+		E element = this.element;
+		if(element == null) {
+			throw new IllegalStateException("The leased element has already been released!", releaseSite);
+		}
+		return element;
+	}
+
+	/**
+	 * Return whether the <code>Lease</code> has been released.
+	 *
+	 * @return Whether the element has been injected back to its pool.
+	 */
+	public boolean isReleased() {
+		return element == null;
+	}
+
+	/**
+	 * Release the <code>Lease</code> by injecting the element back to its original {@link Pool}.
+	 * Releasing an already released lease has no effect, unless the debug mode is enabled in which
+	 * case an exception is thrown.
+	 *
+	 * @throws IllegalStateException Thrown in debug mode if the lease has already been released.
+	 */
+	@Override
+	public void close() {
+		E element = this.element;
+		if(element == null) {
+			if(DEBUG) {
+				throw new IllegalStateException("The lease has already been released!", releaseSite);
+			}
+			return;
+		}
+
+		this.element = null;
+		if(DEBUG) {
+			this.releaseSite = new Throwable("Lease released here");
+		}
+		pool.inject(element);
+	}
+
+	@Override
+	public String toString() {
+		return getClass().getSimpleName() + " [" + (element != null ? element : "released") + "]";
+	}
+}
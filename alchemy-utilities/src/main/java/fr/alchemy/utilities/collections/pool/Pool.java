@@ -13,9 +13,10 @@ import fr.alchemy.utilities.collections.array.Array;
  * 
  * @param <E> The type of element to store into the pool.
  * 
- * @version 0.2.0
+ * @version 0.3.0
  * @since 0.2.0
  * 
+ * @see Lease
  * @see ReusablePool
  * @see AbstractPool
  * @see FastPool
@@ -78,6 +79,34 @@ public interface Pool<E> {
 		return take != null ? take : factory.get();
 	}
 
+	/**
+	 * Leases the element instance at the end of the <code>Pool</code>. The returned {@link Lease}
+	 * injects the element back into the pool once closed, it should therefore be used in a 
+	 * <code>try-with-resources</code> statement.
+	 * 
+	 * @return A lease over the element at the end of the pool, or null if none.
+	 * 
+	 * @see #lease(Supplier)
+	 */
+	default Lease<E> lease() {
+		E take = retrieve();
+		return take != null ? new Lease<>(this, take) : null;
+	}
+	
+	/**
+	 * Leases the element instance at the end of the <code>Pool</code> or instantiate a new one 
+	 * using the given factory if none. The returned {@link Lease} injects the element back into 
+	 * the pool once closed, it should therefore be used in a <code>try-with-resources</code> statement.
+	 * 
+	 * @param factory The factory to instantiate a new element (not null).
+	 * @return 		  A lease over the element at the end of the pool, or a new instance if none (not null).
+	 * 
+	 * @see #lease()
+	 */
+	default Lease<E> lease(Supplier<E> factory) {
+		return new Lease<>(this, retrieve(factory));
+	}
+
 	/**
 	 * Performs the given {@link Consumer} for each element instances currently in
 	 * the <code>Pool</code>.
@@ -5,9 +5,10 @@ package fr.alchemy.utilities.collections.pool;
  * Such object is capable of resetting" its state to its original one to be safely reused by its invoker.
  * <p>
  * The main usage of this interface reside in a pool where it can be retrieved and re-injected when needed for 
- * some temporary computations.
+ * some temporary computations. Note that the object isn't bound to its pool by default, prefer leasing it with
+ * {@link Pool#lease()} to have it injected back once the {@link Lease} is closed.
  * 
- * @version 0.2.0
+ * @version 0.3.0
  * @since 0.1.0
  * 
  * @author GnosticOccultist
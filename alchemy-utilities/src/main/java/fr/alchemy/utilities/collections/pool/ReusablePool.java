@@ -7,10 +7,12 @@ import fr.alchemy.utilities.task.actions.ModifierAction;
 
 /**
  * <code>ReusablePool</code> is an implementation of {@link ReusablePool} designed for {@link Reusable} elements.
+ * <p>
+ * The elements used by the <code>applyAndRelease</code> methods are injected back into the pool once the action is applied.
  * 
  * @param <E> The type of reusable element to store into the pool.
  * 
- * @version 0.2.0
+ * @version 0.3.0
  * @since 0.2.0
  * 
  * @see Pool
@@ -49,10 +51,9 @@ public interface ReusablePool<E extends Reusable> extends Pool<E> {
 		Validator.nonNull(action, "The modifier action can't be null!");
 		
 		E store = retrieved == null ? retrieve() : retrieved;
-		R result = action.apply(store);
-		
-		store.release();
-		return result;
+		try (Lease<E> lease = new Lease<>(this, store)) {
+			return action.apply(lease.get());
+		}
 	}
 	
 	/**
@@ -67,10 +68,10 @@ public interface ReusablePool<E extends Reusable> extends Pool<E> {
 	 * @see #applyWithAndRelease(ModifierAction, Reusable)
 	 */
 	default <R> R applyAndRelease(ModifierAction<E, R> action, Supplier<E> factory) {
-		E element = retrieve(factory);
-		R result = action.apply(element);
+		Validator.nonNull(action, "The modifier action can't be null!");
 		
-		element.release();
-		return result;
+		try (Lease<E> lease = lease(factory)) {
+			return action.apply(lease.get());
+		}
 	}
 }
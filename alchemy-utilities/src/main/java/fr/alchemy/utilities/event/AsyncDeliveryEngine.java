@@ -0,0 +1,81 @@
+package fr.alchemy.utilities.event;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <code>AsyncDeliveryEngine</code> is the pluggable engine used by the {@link EventBus} to deliver events asynchronously
+ * to its listeners. The engine is responsible for scheduling the deliveries, it should then notify the listener using 
+ * {@link EventBus#deliverTo(EventType, Object, EventListener)} or {@link EventBus#tryDeliverTo(EventType, Object, EventListener)} 
+ * so that errors are handled by the event bus.
+ * 
+ * @version 0.3.0
+ * @since 0.3.0
+ * 
+ * @see MailboxDeliveryEngine
+ * @see EventBus#setAsyncDeliveryEngine(AsyncDeliveryEngine)
+ * 
+ * @author GnosticOccultist
+ */
+public interface AsyncDeliveryEngine {
+	
+	/**
+	 * Schedules the delivery of the provided event to the given {@link EventListener}.
+	 * <p>
+	 * The default implementation schedules an untracked delivery with {@link #deliver(EventBus, EventType, Object, EventListener, DeliveryFuture)}.
+	 * 
+	 * @param <E> The event's type.
+	 * 
+	 * @param eventBus The event bus delivering the event (not null).
+	 * @param type	   The type of event to deliver (not null).
+	 * @param event	   The event to deliver.
+	 * @param listener The listener to deliver the event to (not null).
+	 * @return		   Whether the delivery has been accepted by the engine.
+	 */
+	default <E> boolean deliver(EventBus eventBus, EventType<E> type, E event, EventListener<? super E> listener) {
+		return deliver(eventBus, type, event, listener, null);
+	}
+	
+	/**
+	 * Schedules the delivery of the provided event to the given {@link EventListener}, notifying the 
+	 * {@link DeliveryFuture} if any once the listener has been notified.
+	 * <p>
+	 * The engine keeps the future alongside the original listener rather than wrapping the listener: an untracked delivery
+	 * is notified with {@link EventBus#deliverTo(EventType, Object, EventListener)}, whereas the outcome of a tracked one 
+	 * returned by {@link EventBus#tryDeliverTo(EventType, Object, EventListener)} is passed to {@link DeliveryFuture#delivered(Throwable)}.
+	 * 
+	 * @param <E> The event's type.
+	 * 
+	 * @param eventBus The event bus delivering the event (not null).
+	 * @param type	   The type of event to deliver (not null).
+	 * @param event	   The event to deliver.
+	 * @param listener The listener to deliver the event to (not null).
+	 * @param future   The future tracking the delivery, or null if not tracked.
+	 * @return		   Whether the delivery has been accepted by the engine, if not the future isn't notified.
+	 */
+	<E> boolean deliver(EventBus eventBus, EventType<E> type, E event, EventListener<? super E> listener, DeliveryFuture future);
+	
+	/**
+	 * Return the number of deliveries which are still pending in the <code>AsyncDeliveryEngine</code>.
+	 * 
+	 * @return The count of pending deliveries (&ge;0).
+	 */
+	int pending();
+	
+	/**
+	 * Initiates an orderly shutdown of the <code>AsyncDeliveryEngine</code>, the already accepted deliveries
+	 * are still executed but new ones are rejected.
+	 */
+	void shutdown();
+	
+	/**
+	 * Blocks until all the accepted deliveries have been executed after a shutdown request, or the timeout 
+	 * occurs, or the current thread is interrupted, whichever happens first.
+	 * 
+	 * @param timeout The maximum time to wait.
+	 * @param unit	  The time unit of the timeout argument (not null).
+	 * @return		  Whether the engine terminated before the timeout elapsed.
+	 * 
+	 * @throws InterruptedException Thrown if interrupted while waiting.
+	 */
+	boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException;
+}
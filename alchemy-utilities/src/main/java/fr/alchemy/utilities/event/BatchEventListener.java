@@ -0,0 +1,38 @@
+package fr.alchemy.utilities.event;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * <code>BatchEventListener</code> is an {@link EventListener} able to receive a batch of events of the
+ * same {@link EventType} in a single invocation. It is used by the {@link EventCoalescer} to deliver the
+ * coalesced events at once, other listeners being notified about each event of the batch.
+ * <p>
+ * When the listener is notified about a single event, it is delivered as a batch of one event.
+ * 
+ * @param <E> The class for the event.
+ * 
+ * @version 0.3.0
+ * @since 0.3.0
+ * 
+ * @see EventBus#createCoalescer(EventType, java.util.function.Function)
+ * 
+ * @author GnosticOccultist
+ */
+@FunctionalInterface
+public interface BatchEventListener<E> extends EventListener<E> {
+	
+	/**
+	 * Override this method to implement the code for catching a batch of dispatched
+	 * events and their {@link EventType} by the {@link EventBus}.
+	 * 
+	 * @param type   The type of the events.
+	 * @param events The events which were dispatched by an event bus, in publishing order (not null, not empty).
+	 */
+	void newEvents(EventType<E> type, List<E> events);
+	
+	@Override
+	default void newEvent(EventType<E> type, E event) {
+		newEvents(type, Collections.singletonList(event));
+	}
+}
@@ -0,0 +1,33 @@
+package fr.alchemy.utilities.event;
+
+/**
+ * <code>CancellableEvent</code> is an event which can be consumed by one of its listeners, preventing the
+ * {@link EventBus} from delivering it to the remaining listeners. Since the listeners are notified by decreasing 
+ * priority, a listener registered with a high priority can veto the event for the listeners with a lower priority.
+ * <p>
+ * The cancellation only short-circuits the synchronous delivery of {@link EventBus#publishEvent(EventType, Object)},
+ * an event published asynchronously is delivered to each listener independently.
+ * 
+ * @version 0.3.0
+ * @since 0.3.0
+ * 
+ * @see EventBus#addEventListener(EventType, EventListener, int)
+ * 
+ * @author GnosticOccultist
+ */
+public interface CancellableEvent {
+	
+	/**
+	 * Return whether the <code>CancellableEvent</code> has been cancelled by a listener,
+	 * in which case it isn't delivered to the remaining listeners.
+	 * 
+	 * @return Whether the event has been cancelled.
+	 */
+	boolean isCancelled();
+	
+	/**
+	 * Cancels the <code>CancellableEvent</code>, so that it isn't delivered to the remaining
+	 * listeners.
+	 */
+	void cancel();
+}
@@ -0,0 +1,116 @@
+package fr.alchemy.utilities.event;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+
+/**
+ * <code>DeliveryFuture</code> is a {@link CompletableFuture} tracking the asynchronous delivery of an event to a known count
+ * of listeners, returned by {@link EventBus#publishAsync(EventType, Object)}. It completes normally once every listener has
+ * been notified, or exceptionally with a {@link DeliveryException} if at least one of them failed, caused by the first
+ * failure and with the other failures added as suppressed exceptions.
+ * <p>
+ * The future counts the remaining deliveries itself, so that tracking an event doesn't allocate anything per listener.
+ * 
+ * @version 0.3.0
+ * @since 0.3.0
+ * 
+ * @see AsyncDeliveryEngine#deliver(EventBus, EventType, Object, EventListener, DeliveryFuture)
+ * 
+ * @author GnosticOccultist
+ */
+public final class DeliveryFuture extends CompletableFuture<Void> {
+	
+	/**
+	 * The updater of the remaining count of deliveries.
+	 */
+	private static final AtomicIntegerFieldUpdater<DeliveryFuture> REMAINING =
+			AtomicIntegerFieldUpdater.newUpdater(DeliveryFuture.class, "remaining");
+	
+	/**
+	 * The remaining count of deliveries.
+	 */
+	private volatile int remaining;
+	/**
+	 * The aggregated error of the failed deliveries, or null if none failed.
+	 */
+	private DeliveryException error;
+	
+	/**
+	 * Instantiates a new <code>DeliveryFuture</code> waiting for the provided count of deliveries,
+	 * it is already completed if no delivery is expected.
+	 * 
+	 * @param deliveries The count of deliveries to wait for (&ge;0).
+	 */
+	DeliveryFuture(int deliveries) {
+		this.remaining = deliveries;
+		if(deliveries == 0) {
+			complete(null);
+		}
+	}
+	
+	/**
+	 * Notifies the <code>DeliveryFuture</code> that a delivery has been executed, completing it if it was
+	 * the last one. This method is intended to be called by the {@link AsyncDeliveryEngine} exactly once per
+	 * delivery.
+	 * 
+	 * @param failure The error thrown by the listener, or null if the delivery succeeded.
+	 */
+	public void delivered(Throwable failure) {
+		if(failure != null) {
+			synchronized (this) {
+				if(error == null) {
+					error = new DeliveryException(failure);
+				} else {
+					error.addSuppressed(failure);
+				}
+			}
+		}
+		
+		if(REMAINING.decrementAndGet(this) == 0) {
+			DeliveryException error;
+			synchronized (this) {
+				error = this.error;
+			}
+			
+			if(error != null) {
+				completeExceptionally(error);
+			} else {
+				complete(null);
+			}
+		}
+	}
+	
+	/**
+	 * Return the remaining count of deliveries before the <code>DeliveryFuture</code> completes.
+	 * 
+	 * @return The remaining count of deliveries (&ge;0).
+	 */
+	public int getRemaining() {
+		return remaining;
+	}
+	
+	@Override
+	public String toString() {
+		return super.toString() + " [remaining=" + remaining + "]";
+	}
+	
+	/**
+	 * <code>DeliveryException</code> aggregates the errors thrown by the listeners while delivering an event
+	 * tracked by a {@link DeliveryFuture}.
+	 * 
+	 * @author GnosticOccultist
+	 */
+	public static final class DeliveryException extends RuntimeException {
+		
+		private static final long serialVersionUID = 1L;
+		
+		/**
+		 * Instantiates a new <code>DeliveryException</code> caused by the provided first failure.
+		 * 
+		 * @param cause The first error thrown by a listener (not null).
+		 */
+		DeliveryException(Throwable cause) {
+			super("Failed to deliver the event to a listener!", cause);
+		}
+	}
+}
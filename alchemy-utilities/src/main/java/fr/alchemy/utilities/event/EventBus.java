@@ -1,21 +1,32 @@
 package fr.alchemy.utilities.event;
 
-import java.lang.reflect.InvocationTargetException;
+import java.lang.ref.WeakReference;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
 
 import fr.alchemy.utilities.Validator;
 import fr.alchemy.utilities.collections.array.Array;
 import fr.alchemy.utilities.collections.array.StampedLockArray;
+import fr.alchemy.utilities.collections.pool.Reusable;
+import fr.alchemy.utilities.event.SubscriberMetadata.Subscriber;
 import fr.alchemy.utilities.logging.FactoryLogger;
 import fr.alchemy.utilities.logging.Logger;
+import fr.alchemy.utilities.logging.LoggerLevel;
 
 /**
  * <code>EventBus</code> dispatches events to listeners and provides a way for listeners to register
@@ -27,9 +38,15 @@ import fr.alchemy.utilities.logging.Logger;
  * dispatch and registration.
  * <li>Listeners can be added with an EventListener interface OR by using reflective 
  * methods (similar to Guava's event bus).
+ * <li>Listeners registered for a super type are also notified about the events of its sub-types,
+ * using a flattened dispatch table per type which is only recomputed after registration changes.
+ * <li>High-rate event types can be published through a pre-allocated {@link EventChannel}.
+ * <li>Redundant bursts of events can be coalesced and delivered as a batch with an {@link EventCoalescer}.
+ * <li>The activity of the bus can be recorded by enabling its {@link EventBusMetrics}.
+ * <li>Listeners can be registered weakly, to be pruned once garbage-collected.
  * </ul>
  * 
- * @version 0.2.0
+ * @version 0.3.0
  * @since 0.1.0
  * 
  * @see #addEventListener(EventType, EventListener)
@@ -43,19 +60,57 @@ public class EventBus {
 	 * The logger for homonculus events.
 	 */
 	private static final Logger logger = FactoryLogger.getLogger("alchemy.events");
+	/**
+	 * The default priority of the listeners.
+	 */
+	public static final int DEFAULT_PRIORITY = 0;
+	
+	/**
+	 * The empty listeners array.
+	 */
+	private static final EventListener<?>[] EMPTY_LISTENERS = new EventListener<?>[0];
+	/**
+	 * The updater of the listeners table.
+	 */
+	private static final AtomicReferenceFieldUpdater<EventBus, Listeners[]> TABLE = 
+			AtomicReferenceFieldUpdater.newUpdater(EventBus.class, Listeners[].class, "table");
+	/**
+	 * The updater of the listeners version.
+	 */
+	private static final AtomicIntegerFieldUpdater<EventBus> VERSION = 
+			AtomicIntegerFieldUpdater.newUpdater(EventBus.class, "version");
+	/**
+	 * The updater of the listeners entries.
+	 */
+	private static final AtomicReferenceFieldUpdater<Listeners, Entries> ENTRIES = 
+			AtomicReferenceFieldUpdater.newUpdater(Listeners.class, Entries.class, "entries");
 	
 	/**
 	 * The registered listeners list.
 	 */
 	private final Listeners all = new Listeners();
 	/**
-	 * The lock used for threading safety.
+	 * The lock used to lazily create the asynchronous delivery engine and the metrics.
 	 */
 	private final Lock lock = new ReentrantLock();
 	/**
-	 * The table containing the listeners ranged by their type.
+	 * The table containing the listeners indexed by their type identifier, 
+	 * implemented as 'copy on write'.
+	 */
+	private volatile Listeners[] table = new Listeners[16];
+	/**
+	 * The engine to deliver the events asynchronously, lazily created.
+	 */
+	private volatile AsyncDeliveryEngine asyncEngine;
+	/**
+	 * The version of the registered listeners, incremented on each registration change
+	 * to invalidate the dispatch tables.
 	 */
-	private final Map<EventType, Listeners> listenerMap = Collections.synchronizedMap(new ConcurrentHashMap<>());
+	private volatile int version;
+	/**
+	 * The metrics recording the activity of the bus, or null if disabled.
+	 */
+	private volatile EventBusMetrics metrics;
 	
 	/**
 	 * Instantiates a new <code>EventBus</code> with no listeners.
@@ -72,25 +127,60 @@ public class EventBus {
 	 * @param event The event to publish.
 	 */
 	public <E> void publishEvent(EventType<E> type, E event) {
-		logger.debug("Published event [" + type + ", " + event + "]");
+		boolean debug = logger.isActive(LoggerLevel.DEBUG);
+		if(debug) {
+			logger.debug("Published event [" + type + ", " + event + "]");
+		}
 		
 		// Deliver to any global listeners first and we don't factor
 		// them into the delivery check. The global list is usually used
 		// for thing like lifecycle logging and not actual event handling.
-		deliver(null, event, all);
+		deliver(null, event, all.getArray());
+		
+		EventListener<?>[] listeners = dispatch(type);
+		EventBusMetrics metrics = this.metrics;
+		if(metrics != null) {
+			metrics.published(type, listeners.length);
+		}
 		
-		boolean delivered = deliver(type, event, getListeners(type));
+		boolean delivered = deliver(type, event, listeners);
 		
-		if(!delivered) {
+		if(!delivered && debug) {
 			logger.debug("Undelivered event type:" + type + " Event:" + event);
 		}
 	}
 	
+	/**
+	 * Publishes the specified {@link Reusable} event to the <code>EventBus</code>, delivering it synchronously
+	 * to all listeners registered for the particular {@link EventType}, and releases it to its pool once every
+	 * listener has been notified.
+	 * <p>
+	 * This allows publishing pooled events without producing garbage, as long as the listeners don't keep 
+	 * any reference to the event after being notified, since it will be reused for a later publication. 
+	 * Such events shouldn't be published asynchronously.
+	 * 
+	 * @param <E> The event's type.
+	 * 
+	 * @param type  The type of event to be delivered.
+	 * @param event The reusable event to publish and release (not null).
+	 * 
+	 * @see Reusable#release()
+	 */
+	public <E extends Reusable> void publishRecyclableEvent(EventType<E> type, E event) {
+		Validator.nonNull(event, "The event to recycle can't be null!");
+		try {
+			publishEvent(type, event);
+		} finally {
+			event.release();
+		}
+	}
+	
 	/**
 	 * Publishes the specified event to the <code>EventBus</code>, delivering it asynchronously
 	 * to all listeners registered for the particular {@link EventType}.
 	 * <p>
-	 * The method uses the {@link ForkJoinPool#commonPool()} to deliver the event asynchronously.
+	 * The method uses the {@link AsyncDeliveryEngine} of the bus to deliver the event asynchronously,
+	 * which by default is a {@link MailboxDeliveryEngine} delivering the events in order to each listener.
 	 * 
 	 * @param <E> The event's type.
 	 * 
@@ -98,20 +188,154 @@ public class EventBus {
 	 * @param event The event to publish asynchronously.
 	 */
 	public <E> void publishAsyncEvent(EventType<E> type, E event) {
-		logger.debug("Published event [ type= " + type + ", event= " + event + "]");
+		boolean debug = logger.isActive(LoggerLevel.DEBUG);
+		if(debug) {
+			logger.debug("Published event [ type= " + type + ", event= " + event + "]");
+		}
 		
 		// Deliver to any global listeners first and we don't factor
 		// them into the delivery check. The global list is usually used
 		// for thing like lifecycle logging and not actual event handling.
-		deliverAsync(null, event, all);
+		deliverAsync(null, event, all.getArray());
+		
+		EventListener<?>[] listeners = dispatch(type);
+		EventBusMetrics metrics = this.metrics;
+		if(metrics != null) {
+			metrics.published(type, listeners.length);
+		}
 		
-		boolean delivered = deliverAsync(type, event, getListeners(type));
+		boolean delivered = deliverAsync(type, event, listeners);
 		
-		if(!delivered) {
+		if(!delivered && debug) {
 			logger.debug("Undelivered event type:" + type + " Event:" + event);
 		}
 	}
 	
+	/**
+	 * Publishes the specified event to the <code>EventBus</code>, delivering it asynchronously to all listeners 
+	 * registered for the particular {@link EventType}, and returns a {@link CompletableFuture} which completes once 
+	 * every listener has been notified.
+	 * <p>
+	 * The future completes exceptionally with a {@link DeliveryFuture.DeliveryException} if any of the listeners 
+	 * failed, or if a delivery has been discarded by the {@link AsyncDeliveryEngine}. Use {@link #publishAsyncEvent(EventType, Object)} 
+	 * if the completion doesn't need to be tracked.
+	 * 
+	 * @param <E> The event's type.
+	 * 
+	 * @param type  The type of event to be delivered asynchronously.
+	 * @param event The event to publish asynchronously.
+	 * @return		A future completing once the event has been delivered to all the listeners (not null).
+	 */
+	public <E> CompletableFuture<Void> publishAsync(EventType<E> type, E event) {
+		EventListener<?>[] globals = all.getArray();
+		EventListener<?>[] listeners = prepareTracked(type, event);
+		
+		DeliveryFuture future = new DeliveryFuture(globals.length + listeners.length);
+		AsyncDeliveryEngine engine = getAsyncDeliveryEngine();
+		deliverTracked(engine, null, event, globals, future);
+		deliverTracked(engine, type, event, listeners, future);
+		return future;
+	}
+	
+	/**
+	 * Publishes the specified event to the <code>EventBus</code>, delivering it asynchronously to all listeners 
+	 * registered for the particular {@link EventType}, and returns a {@link CompletableFuture} which completes once 
+	 * every listener has been notified, or exceptionally with a {@link java.util.concurrent.TimeoutException} if the
+	 * timeout elapses first.
+	 * 
+	 * @param <E> The event's type.
+	 * 
+	 * @param type	  The type of event to be delivered asynchronously.
+	 * @param event	  The event to publish asynchronously.
+	 * @param timeout The maximum time to wait for the deliveries.
+	 * @param unit	  The time unit of the timeout argument (not null).
+	 * @return		  A future completing once the event has been delivered to all the listeners (not null).
+	 */
+	public <E> CompletableFuture<Void> publishAsync(EventType<E> type, E event, long timeout, TimeUnit unit) {
+		Validator.nonNull(unit, "The time unit can't be null!");
+		return publishAsync(type, event).orTimeout(timeout, unit);
+	}
+	
+	/**
+	 * Publishes the specified event to the <code>EventBus</code>, delivering it to all listeners registered for the 
+	 * particular {@link EventType} using the provided {@link Executor} instead of the {@link AsyncDeliveryEngine}, and 
+	 * returns a {@link CompletableFuture} which completes once every listener has been notified.
+	 * <p>
+	 * Note that the ordering of the deliveries to a listener depends on the executor.
+	 * 
+	 * @param <E> The event's type.
+	 * 
+	 * @param type	   The type of event to be delivered asynchronously.
+	 * @param event	   The event to publish asynchronously.
+	 * @param executor The executor to deliver the event with (not null).
+	 * @return		   A future completing once the event has been delivered to all the listeners (not null).
+	 */
+	public <E> CompletableFuture<Void> publishAsync(EventType<E> type, E event, Executor executor) {
+		Validator.nonNull(executor, "The executor can't be null!");
+		EventListener<?>[] globals = all.getArray();
+		EventListener<?>[] listeners = prepareTracked(type, event);
+		
+		DeliveryFuture future = new DeliveryFuture(globals.length + listeners.length);
+		for(int i = 0; i < globals.length + listeners.length; i++) {
+			boolean global = i < globals.length;
+			EventListener<?> listener = global ? globals[i] : listeners[i - globals.length];
+			EventType<E> target = global ? null : type;
+			try {
+				executor.execute(() -> future.delivered(tryDeliverTo(target, event, typed(listener))));
+			} catch (RejectedExecutionException ex) {
+				future.delivered(ex);
+			}
+		}
+		return future;
+	}
+	
+	/**
+	 * Prepares the tracked publishing of the provided event, returning the listeners to deliver it to.
+	 * 
+	 * @param type  The type of event to be delivered asynchronously.
+	 * @param event The event to publish asynchronously.
+	 * @return		The listeners for the type (not null).
+	 */
+	private <E> EventListener<?>[] prepareTracked(EventType<E> type, E event) {
+		if(logger.isActive(LoggerLevel.DEBUG)) {
+			logger.debug("Published tracked event [ type= " + type + ", event= " + event + "]");
+		}
+		
+		EventListener<?>[] listeners = dispatch(type);
+		EventBusMetrics metrics = this.metrics;
+		if(metrics != null) {
+			metrics.published(type, listeners.length);
+		}
+		return listeners;
+	}
+	
+	/**
+	 * Delivers the provided {@link EventType} to all the given listeners asynchronously, notifying the 
+	 * {@link DeliveryFuture} for each delivery, or with an error if the delivery has been discarded.
+	 * 
+	 * @param engine	The asynchronous delivery engine (not null).
+	 * @param type		The type of event.
+	 * @param event		The event to deliver asynchronously.
+	 * @param listeners The listeners to deliver the event to.
+	 * @param future	The future tracking the deliveries (not null).
+	 */
+	private <E> void deliverTracked(AsyncDeliveryEngine engine, EventType<E> type, E event, EventListener<?>[] listeners, DeliveryFuture future) {
+		for(EventListener<?> listener : listeners) {
+			boolean accepted;
+			try {
+				accepted = engine.deliver(this, type, event, typed(listener), future);
+			} catch (RejectedExecutionException ex) {
+				future.delivered(ex);
+				continue;
+			}
+			
+			if(!accepted) {
+				future.delivered(new RejectedExecutionException("The delivery of event: " + event 
+						+ " to: " + listener + " has been discarded!"));
+			}
+		}
+	}
+	
 	/**
 	 * Adds an {@link EventListener} object that will be notified about events of the
 	 * specified {@link EventType}.
@@ -125,6 +349,77 @@ public class EventBus {
 		getListeners(type).add(listener);
 	}
 	
+	/**
+	 * Adds an {@link EventListener} object that will be notified about events of the
+	 * specified {@link EventType} with the given priority. The listeners with a higher priority 
+	 * are notified first, the ones with the same priority in their registration order.
+	 * <p>
+	 * The listeners are kept sorted by priority when registered, so that publishing an event doesn't
+	 * sort anything.
+	 * 
+	 * @param <E> The event's type.
+	 * 
+	 * @param type	   The type of event.
+	 * @param listener The event listener to register.
+	 * @param priority The priority of the listener, {@link #DEFAULT_PRIORITY} by default.
+	 */
+	public <E> void addEventListener(EventType<E> type, EventListener<? super E> listener, int priority) {
+		getListeners(type).addAll(new EventListener<?>[] { listener }, priority);
+	}
+	
+	/**
+	 * Adds all the provided {@link EventListener} objects that will be notified about events of the
+	 * specified {@link EventType}, the listeners of the type are rebuilt only once.
+	 * 
+	 * @param <E> The event's type.
+	 * 
+	 * @param type		The type of event.
+	 * @param listeners The event listeners to register.
+	 */
+	@SafeVarargs
+	public final <E> void addEventListeners(EventType<E> type, EventListener<? super E>... listeners) {
+		EventListener<?>[] array = new EventListener<?>[listeners.length];
+		for(int i = 0; i < listeners.length; i++) {
+			array[i] = listeners[i];
+		}
+		getListeners(type).addAll(array, DEFAULT_PRIORITY);
+	}
+	
+	/**
+	 * Adds an {@link EventListener} object that will be notified about events of the specified {@link EventType}, 
+	 * without preventing it from being garbage-collected. Once the listener has been collected, it is pruned from the 
+	 * listeners of the type during the next delivery.
+	 * <p>
+	 * The listener must be strongly referenced elsewhere for as long as it should be notified, registering a lambda
+	 * or an anonymous class only referenced by the bus will therefore have no effect.
+	 * 
+	 * @param <E> The event's type.
+	 * 
+	 * @param type	   The type of event.
+	 * @param listener The event listener to register weakly (not null).
+	 */
+	public <E> void addWeakEventListener(EventType<E> type, EventListener<? super E> listener) {
+		addWeakEventListener(type, listener, DEFAULT_PRIORITY);
+	}
+	
+	/**
+	 * Adds an {@link EventListener} object that will be notified about events of the specified {@link EventType} 
+	 * with the given priority, without preventing it from being garbage-collected.
+	 * 
+	 * @param <E> The event's type.
+	 * 
+	 * @param type	   The type of event.
+	 * @param listener The event listener to register weakly (not null).
+	 * @param priority The priority of the listener, {@link #DEFAULT_PRIORITY} by default.
+	 * 
+	 * @see #addWeakEventListener(EventType, EventListener)
+	 */
+	public <E> void addWeakEventListener(EventType<E> type, EventListener<? super E> listener, int priority) {
+		Validator.nonNull(listener, "The listener can't be null!");
+		Listeners listeners = getListeners(type);
+		listeners.addAll(new EventListener<?>[] { new WeakDispatcher(listener, listeners) }, priority);
+	}
+	
 	/**
 	 * Removes the {@link EventListener} object that will be notified about events of the
 	 * specified {@link EventType}.
@@ -138,6 +433,25 @@ public class EventBus {
 		getListeners(type).remove(listener);
 	}
 	
+	/**
+	 * Removes all the provided {@link EventListener} objects that will be notified about events of the
+	 * specified {@link EventType}, the listeners of the type are rebuilt only once.
+	 * 
+	 * @param <E> The event's type.
+	 * 
+	 * @param type		The type of event.
+	 * @param listeners The event listeners to unregister.
+	 */
+	@SafeVarargs
+	public final <E> void removeEventListeners(EventType<E> type, EventListener<? super E>... listeners) {
+		List<EventListener<?>> removed = new ArrayList<>(listeners.length);
+		for(EventListener<? super E> listener : listeners) {
+			removed.add(listener);
+		}
+		getListeners(type).removeIf(l -> removed.contains(l) || l instanceof WeakDispatcher 
+				&& removed.stream().anyMatch(((WeakDispatcher) l)::references));
+	}
+	
 	/**
 	 * Removes the {@link EventListener} object that will be notified about events of any
 	 * {@link EventType}.
@@ -147,8 +461,10 @@ public class EventBus {
 	 * @param listener The event listener to unregister from every types.
 	 */
 	public <E> void clearEventListener(EventListener<E> listener) {
-		for(EventType type : listenerMap.keySet()) {
-			listenerMap.get(type).remove(listener);
+		for(Listeners listeners : table) {
+			if(listeners != null) {
+				listeners.remove(listener);
+			}
 		}
 	}
 	
@@ -158,28 +474,23 @@ public class EventBus {
 	 * then the event type name is "FatalError" and the expected method name will be either "onFatalError" 
 	 * or "fatalError" with a single argument which is the concerned event.
 	 * <p>
-	 * Note that it is ok if the method isn't public if the current security settings allow overriding method
-	 * accessibility.
+	 * Note that it is ok if the method isn't public, the listening methods are resolved and compiled once per
+	 * listener class, so registering other instances of the class doesn't involve any reflective lookup.
 	 * 
 	 * @param listener The listener to register methods from.
 	 * @param types	   The events type to create listener for.
 	 * 
 	 * @throws IllegalArgumentException Thrown if any of the dispatch methods is missing.
 	 */
-	@SuppressWarnings("deprecation")
-	public void addListenerMethods(Object listener, EventType...types) {
-		Class clazz = listener.getClass();
-		for(EventType type : types) {
-			try {
-				Method method = findMethod(clazz, type);
-				if(!method.isAccessible()) {
-					method.setAccessible(true);
-				}
-				getListeners(type).add(new MethodDispatcher(listener, method));
-			} catch (NoSuchMethodException ex) {
+	public void addListenerMethods(Object listener, EventType<?>... types) {
+		SubscriberMetadata metadata = SubscriberMetadata.of(listener.getClass());
+		for(EventType<?> type : types) {
+			Subscriber subscriber = metadata.named(type);
+			if(subscriber == null) {
 				throw new IllegalArgumentException("Event method not found for: " + 
-						type + " on object: " + listener, ex);
+						type + " on object: " + listener);
 			}
+			getListeners(type).add(new MethodDispatcher(listener, subscriber));
 		}
 	}
 	
@@ -191,54 +502,56 @@ public class EventBus {
 	 * @param types	   The types of event.
 	 */
 	@SuppressWarnings("unchecked")
-	public void removeListenerMethods(Object listener, EventType...types) {
-		for(EventType type : types) {
-			Listeners listeners = getListeners(type);
-			for(EventListener l : listeners.getArray()) {
-				if(!(l instanceof MethodDispatcher)) {
-					continue;
-				}
-				MethodDispatcher md = (MethodDispatcher) l;
-				if(md.delegate == listener || md.delegate.equals(listener)) {
-					removeEventListener(type, md);
-				}
-			}
+	public void removeListenerMethods(Object listener, EventType<?>... types) {
+		for(EventType<?> type : types) {
+			getListeners(type).removeIf(l -> l instanceof MethodDispatcher 
+					&& (((MethodDispatcher) l).delegate == listener || ((MethodDispatcher) l).delegate.equals(listener)));
 		}
 	}
 	
-	public void addListenerAnnotatedMethods(Object listener, EventType...types) {
-		for(Method method : listener.getClass().getDeclaredMethods()) {
+	/**
+	 * Adds a generic listener which will have its events delivered to its methods annotated with {@link EventSubscriber}, 
+	 * if the annotation's types match the specified {@link EventType}. The annotated methods are resolved and compiled once
+	 * per listener class, and registered with the {@link EventSubscriber#priority()} of the method.
+	 * 
+	 * @param listener The listener to register annotated methods from.
+	 * @param types	   The events type to create listener for.
+	 * 
+	 * @throws IllegalArgumentException Thrown if an annotated method doesn't have a single argument or doesn't handle as many types.
+	 */
+	public void addListenerAnnotatedMethods(Object listener, EventType<?>... types) {
+		Map<EventType<?>, List<Subscriber>> subscribers = new LinkedHashMap<>();
+		for(Subscriber subscriber : SubscriberMetadata.of(listener.getClass()).annotated()) {
+			Method method = subscriber.method;
+			if(method.getParameterCount() != 1) {
+				throw new IllegalArgumentException("Method " + method + " has @EventSubscriber "
+						+ "annotation but has " + method.getParameterCount() + " arguments. Such methods "
+						+ "must require exactly one event argument.");
+			}
 			
-			// The compiler sometimes creates synthetic bridge methods as part of the
-			// type erasure process. As of JDK8, these methods now include the same 
-			// annotations as the original declarations. They should be ingnored from 
-			// the registering process.
-			if(method.isBridge()) {
-				continue;
+			String[] typeNames = subscriber.typeNames;
+			if(typeNames.length != types.length) {
+				throw new IllegalArgumentException("Method " + method + " has @EventSubscriber "
+						+ "annotation to handle " + typeNames.length + " event types!");
 			}
 			
-			if(method.isAnnotationPresent(EventSubscriber.class)) {
-				Class<?>[] parametersTypes = method.getParameterTypes();
-				if(parametersTypes.length == 0) {
-					throw new IllegalArgumentException("Method " + method + " has @EventSubscriber "
-							+ "annotation but has no arguments. Such methods must require at "
-							+ "least one argument.");
-				}
-				
-				EventSubscriber annotation = method.getAnnotation(EventSubscriber.class);
-				String[] typeNames = annotation.types();
-				if(typeNames.length != types.length) {
-					throw new IllegalArgumentException("Method " + method + " has @EventSubscriber "
-							+ "annotation to handle " + typeNames.length + " event types!");
-				}
-				
-				for(int i = 0; i < types.length; i++) {
-					if(types[i].equals(typeNames[i])) {
-						getListeners(types[i]).add(new MethodDispatcher(listener, method));
-					}
+			for(int i = 0; i < types.length; i++) {
+				if(types[i].equals(typeNames[i])) {
+					subscribers.computeIfAbsent(types[i], t -> new ArrayList<>()).add(subscriber);
 				}
 			}
 		}
+		
+		// Register all the methods of a type at once, to rebuild its array only once.
+		subscribers.forEach((type, list) -> {
+			EventListener<?>[] dispatchers = new EventListener<?>[list.size()];
+			int[] priorities = new int[list.size()];
+			for(int i = 0; i < dispatchers.length; i++) {
+				dispatchers[i] = new MethodDispatcher(listener, list.get(i));
+				priorities[i] = list.get(i).priority;
+			}
+			getListeners(type).addAll(dispatchers, priorities);
+		});
 	}
 	
 	/**
@@ -247,7 +560,7 @@ public class EventBus {
 	 * 
 	 * @param listener The global listener to register.
 	 */
-	public void listenAll(EventListener listener) {
+	public void listenAll(EventListener<?> listener) {
 		all.add(listener);
 	}
 	
@@ -257,26 +570,37 @@ public class EventBus {
 	 * 
 	 * @param listener The global listener to unregister.
 	 */
-	public void unlistenAll(EventListener listener) {
+	public void unlistenAll(EventListener<?> listener) {
 		all.remove(listener);
 	}
 	
 	/**
-	 * Delivers the provided {@link EventType} to all the given listeners.
+	 * Delivers the provided {@link EventType} to all the given listeners, in priority order.
+	 * If the event is a {@link CancellableEvent}, the delivery stops as soon as a listener cancels it.
 	 * 
 	 * @param type		The type of event.
 	 * @param event		The event to deliver.
 	 * @param listeners The listeners to deliver the event to.
 	 * @return			Whether the event has been delivered to at least one listeners.
 	 */
-	@SuppressWarnings("unchecked")
-	protected <E> boolean deliver(EventType<E> type, E event, Listeners listeners) {
-        if(listeners.isEmpty()) {
+	protected <E> boolean deliver(EventType<E> type, E event, EventListener<?>[] listeners) {
+        if(listeners.length == 0) {
             return false;
         }
         
-        for(EventListener listener : listeners.getArray()) {
-        	notify(type, event, listener);
+        if(event instanceof CancellableEvent) {
+        	CancellableEvent cancellable = (CancellableEvent) event;
+        	for(EventListener<?> listener : listeners) {
+        		if(cancellable.isCancelled()) {
+        			break;
+        		}
+        		notify(type, event, typed(listener));
+        	}
+        	return true;
+        }
+        
+        for(EventListener<?> listener : listeners) {
+        	notify(type, event, typed(listener));
         }
         
         return true;
@@ -290,19 +614,295 @@ public class EventBus {
 	 * @param listeners The listeners to deliver the event to.
 	 * @return			Whether the event has been delivered to at least one listeners.
 	 */
-	@SuppressWarnings("unchecked")
-	protected <E> boolean deliverAsync(EventType<E> type, E event, Listeners listeners) {
-        if(listeners.isEmpty()) {
+	protected <E> boolean deliverAsync(EventType<E> type, E event, EventListener<?>[] listeners) {
+        if(listeners.length == 0) {
             return false;
         }
         
-        for(EventListener listener : listeners.getArray()) {
-        	ForkJoinPool.commonPool().execute(() -> notify(type, event, listener));
+        AsyncDeliveryEngine engine = getAsyncDeliveryEngine();
+        for(EventListener<?> listener : listeners) {
+        	engine.deliver(this, type, event, typed(listener));
         }
         
         return true;
 	}
 	
+	/**
+	 * Delivers the provided event of the given {@link EventType} to the {@link EventListener} in the
+	 * calling thread. If an error occurs during the delivery, an {@link ErrorEvent} of type 
+	 * {@link ErrorEvent#DISPATCH_ERROR} will be published.
+	 * <p>
+	 * This method is intended to be used by the {@link AsyncDeliveryEngine} once they execute a delivery.
+	 * 
+	 * @param <E> The event's type.
+	 * 
+	 * @param type 	   The type of event.
+	 * @param event	   The event to deliver.
+	 * @param listener The listener to deliver the event to (not null).
+	 */
+	@SuppressWarnings("unchecked")
+	public <E> void deliverTo(EventType<E> type, E event, EventListener<? super E> listener) {
+		notify(type, event, (EventListener<E>) listener);
+	}
+	
+	/**
+	 * Delivers the provided event of the given {@link EventType} to the {@link EventListener} in the
+	 * calling thread, like {@link #deliverTo(EventType, Object, EventListener)} but returning the error
+	 * thrown by the listener, if any.
+	 * <p>
+	 * This method is intended to be used by the {@link AsyncDeliveryEngine} to notify a {@link DeliveryFuture}.
+	 * 
+	 * @param <E> The event's type.
+	 * 
+	 * @param type 	   The type of event.
+	 * @param event	   The event to deliver.
+	 * @param listener The listener to deliver the event to (not null).
+	 * @return		   The error thrown by the listener, or null if the delivery succeeded.
+	 */
+	@SuppressWarnings("unchecked")
+	public <E> Throwable tryDeliverTo(EventType<E> type, E event, EventListener<? super E> listener) {
+		return notify(type, event, (EventListener<E>) listener);
+	}
+	
+	/**
+	 * Return the {@link AsyncDeliveryEngine} used to deliver the events asynchronously by the <code>EventBus</code>,
+	 * creating a {@link MailboxDeliveryEngine} with dedicated threads if none has been set.
+	 * 
+	 * @return The asynchronous delivery engine of the bus (not null).
+	 */
+	public AsyncDeliveryEngine getAsyncDeliveryEngine() {
+		AsyncDeliveryEngine engine = asyncEngine;
+		if(engine == null) {
+			lock.lock();
+			try {
+				engine = asyncEngine;
+				if(engine == null) {
+					engine = new MailboxDeliveryEngine();
+					this.asyncEngine = engine;
+				}
+			} finally {
+				lock.unlock();
+			}
+		}
+		return engine;
+	}
+	
+	/**
+	 * Sets the {@link AsyncDeliveryEngine} to use to deliver the events asynchronously by the <code>EventBus</code>.
+	 * The previous engine, if any, isn't shutdown by this method.
+	 * 
+	 * @param engine The asynchronous delivery engine to use (not null).
+	 */
+	public void setAsyncDeliveryEngine(AsyncDeliveryEngine engine) {
+		Validator.nonNull(engine, "The asynchronous delivery engine can't be null!");
+		this.asyncEngine = engine;
+	}
+	
+	/**
+	 * Initiates an orderly shutdown of the asynchronous deliveries of the <code>EventBus</code>, and blocks until
+	 * the already published events have been delivered or the timeout occurs.
+	 * 
+	 * @param timeout The maximum time to wait.
+	 * @param unit	  The time unit of the timeout argument (not null).
+	 * @return		  Whether all the events have been delivered before the timeout elapsed.
+	 * 
+	 * @throws InterruptedException Thrown if interrupted while waiting.
+	 */
+	public boolean shutdownAsync(long timeout, TimeUnit unit) throws InterruptedException {
+		AsyncDeliveryEngine engine = asyncEngine;
+		if(engine == null) {
+			return true;
+		}
+		
+		engine.shutdown();
+		return engine.awaitTermination(timeout, unit);
+	}
+	
+	/**
+	 * Creates a new {@link EventChannel} for the specified {@link EventType}, publishing the event references
+	 * into a pre-allocated ring of the given capacity. The channel must be started once its consumers are added.
+	 *
+	 * @param <E> The event's type.
+	 *
+	 * @param type	   The type of event to publish in the channel (not null).
+	 * @param capacity The capacity of the ring, must be a power of two (&gt;0).
+	 * @return		   A new channel for the type (not null).
+	 *
+	 * @see EventChannel#start()
+	 */
+	public <E> EventChannel<E> createChannel(EventType<E> type, int capacity) {
+		return new EventChannel<>(this, type, capacity, null);
+	}
+	
+	/**
+	 * Creates a new {@link EventChannel} for the specified {@link EventType}, with a ring of the given capacity
+	 * filled with events pre-allocated by the factory. The events are then published by filling them with
+	 * {@link EventChannel#publish(java.util.function.BiConsumer, Object)}, without any allocation.
+	 *
+	 * @param <E> The event's type.
+	 *
+	 * @param type	   The type of event to publish in the channel (not null).
+	 * @param capacity The capacity of the ring, must be a power of two (&gt;0).
+	 * @param factory  The factory to pre-allocate the events (not null).
+	 * @return		   A new channel for the type (not null).
+	 *
+	 * @see EventChannel#start()
+	 */
+	public <E> EventChannel<E> createChannel(EventType<E> type, int capacity, Supplier<? extends E> factory) {
+		Validator.nonNull(factory, "The event factory can't be null!");
+		return new EventChannel<>(this, type, capacity, factory);
+	}
+	
+	/**
+	 * Creates a new {@link EventCoalescer} for the specified {@link EventType}, buffering the events and deduplicating
+	 * them by the key extractor, until they are delivered as a batch with {@link EventCoalescer#flush()}.
+	 * 
+	 * @param <E> The event's type.
+	 * 
+	 * @param type		   The type of event to coalesce (not null).
+	 * @param keyExtractor The function extracting the deduplication key of an event (not null).
+	 * @return			   A new coalescer for the type (not null).
+	 * 
+	 * @see BatchEventListener
+	 */
+	public <E> EventCoalescer<E> createCoalescer(EventType<E> type, Function<? super E, ?> keyExtractor) {
+		return new EventCoalescer<>(this, type, keyExtractor, 0L);
+	}
+	
+	/**
+	 * Creates a new {@link EventCoalescer} for the specified {@link EventType}, buffering the events and deduplicating
+	 * them by the key extractor, until they are delivered as a batch once the time window following the first buffered
+	 * event has elapsed, or when calling {@link EventCoalescer#flush()}.
+	 * 
+	 * @param <E> The event's type.
+	 * 
+	 * @param type		   The type of event to coalesce (not null).
+	 * @param keyExtractor The function extracting the deduplication key of an event (not null).
+	 * @param window	   The time window before delivering the buffered events (&gt;0).
+	 * @param unit		   The time unit of the window argument (not null).
+	 * @return			   A new coalescer for the type (not null).
+	 * 
+	 * @see BatchEventListener
+	 */
+	public <E> EventCoalescer<E> createCoalescer(EventType<E> type, Function<? super E, ?> keyExtractor, long window, TimeUnit unit) {
+		Validator.check(window > 0, "The time window must be strictly positive!");
+		Validator.nonNull(unit, "The time unit can't be null!");
+		return new EventCoalescer<>(this, type, keyExtractor, unit.toNanos(window));
+	}
+	
+	/**
+	 * Enables the {@link EventBusMetrics} of the <code>EventBus</code>, recording the published events per type,
+	 * the listeners invocation time and the dispatch errors. If the metrics are already enabled, the existing
+	 * instance is returned.
+	 * 
+	 * @return The enabled metrics of the bus (not null).
+	 */
+	public EventBusMetrics enableMetrics() {
+		EventBusMetrics metrics = this.metrics;
+		if(metrics == null) {
+			lock.lock();
+			try {
+				metrics = this.metrics;
+				if(metrics == null) {
+					metrics = new EventBusMetrics(this);
+					this.metrics = metrics;
+				}
+			} finally {
+				lock.unlock();
+			}
+		}
+		return metrics;
+	}
+	
+	/**
+	 * Disables the {@link EventBusMetrics} of the <code>EventBus</code>, the bus then only pays a null check
+	 * per delivery.
+	 */
+	public void disableMetrics() {
+		this.metrics = null;
+	}
+	
+	/**
+	 * Return the {@link EventBusMetrics} of the <code>EventBus</code>.
+	 * 
+	 * @return The metrics of the bus, or null if disabled.
+	 */
+	public EventBusMetrics getMetrics() {
+		return metrics;
+	}
+	
+	/**
+	 * Return the count of asynchronous deliveries waiting to be executed by the <code>EventBus</code>.
+	 * 
+	 * @return The count of pending asynchronous deliveries (&ge;0).
+	 */
+	int asyncPending() {
+		AsyncDeliveryEngine engine = asyncEngine;
+		return engine != null ? engine.pending() : 0;
+	}
+	
+	/**
+	 * Delivers the provided batch of events of the given {@link EventType} to the global listeners and the listeners
+	 * registered for the type. The {@link BatchEventListener} are notified once with the whole batch, the others
+	 * about each event.
+	 * 
+	 * @param type	 The type of the events (not null).
+	 * @param events The batch of events to deliver (not null, not empty).
+	 */
+	<E> void deliverBatch(EventType<E> type, List<E> events) {
+		if(logger.isActive(LoggerLevel.DEBUG)) {
+			logger.debug("Published batch [" + type + ", " + events.size() + " events]");
+		}
+		
+		EventListener<?>[] listeners = dispatch(type);
+		EventBusMetrics metrics = this.metrics;
+		if(metrics != null) {
+			for(int i = 0; i < events.size(); i++) {
+				metrics.published(type, listeners.length);
+			}
+		}
+		
+		deliverBatch(null, events, all.getArray());
+		deliverBatch(type, events, listeners);
+	}
+	
+	/**
+	 * Delivers the provided batch of events of the given {@link EventType} to all the given listeners.
+	 * 
+	 * @param type		The type of the events.
+	 * @param events	The batch of events to deliver.
+	 * @param listeners The listeners to deliver the events to.
+	 */
+	@SuppressWarnings("unchecked")
+	private <E> void deliverBatch(EventType<E> type, List<E> events, EventListener<?>[] listeners) {
+		for(EventListener<?> listener : listeners) {
+			if(listener instanceof BatchEventListener) {
+				EventBusMetrics metrics = this.metrics;
+				long start = metrics != null ? System.nanoTime() : 0L;
+				try {
+					((BatchEventListener<E>) listener).newEvents(type, events);
+				} catch(Throwable t) {
+					logger.error("Error handling batch of " + events.size() + " events for type:" + type + "  in handler:" + listener, t);
+					if(metrics != null && type != null) {
+						metrics.failed(type);
+					}
+					if(type != ErrorEvent.DISPATCH_ERROR) {
+						publishEvent(ErrorEvent.DISPATCH_ERROR, new ErrorEvent(t, type, events));
+					}
+				} finally {
+					if(metrics != null) {
+						metrics.invoked(type, registered(listener), System.nanoTime() - start, events.size());
+					}
+				}
+				continue;
+			}
+			
+			for(E event : events) {
+				notify(type, event, typed(listener));
+			}
+		}
+	}
+	
 	/**
 	 * Notify the provided {@link EventType} to the given {@link EventListener} safely.
 	 * If an error occurs during the invokation of the delivery method, an {@link ErrorEvent} of type 
@@ -311,15 +911,27 @@ public class EventBus {
 	 * @param type 	   The type of event.
 	 * @param event	   The event to deliver asynchronously.
 	 * @param listener The listener to deliver the event to.
+	 * @return		   The error thrown by the listener, or null if the delivery succeeded.
 	 */
-	private <E> void notify(EventType<E> type, E event, EventListener<E> listener) {
+	private <E> Throwable notify(EventType<E> type, E event, EventListener<E> listener) {
+		EventBusMetrics metrics = this.metrics;
+		long start = metrics != null ? System.nanoTime() : 0L;
 		try {
             listener.newEvent(type, event);
+            return null;
         } catch(Throwable t) {
             logger.error("Error handling event:" + event + " for type:" + type + "  in handler:" + listener, t);
+            if(metrics != null && type != null) {
+            	metrics.failed(type);
+            }
             if(type != ErrorEvent.DISPATCH_ERROR) {
             	publishEvent(ErrorEvent.DISPATCH_ERROR, new ErrorEvent(t, type, event));
             }
+            return t;
+        } finally {
+        	if(metrics != null) {
+        		metrics.invoked(type, registered(listener), System.nanoTime() - start, 1);
+        	}
         }
 	}
 	
@@ -331,81 +943,248 @@ public class EventBus {
 	 * @return	   The pre-existing list of listeners or a new filled one if not 
 	 * 			   already present.
 	 */
-	protected Listeners getListeners(EventType type) {
+	protected Listeners getListeners(EventType<?> type) {
 		Validator.nonNull(type, "The event type can't be null!");
 		
-		Listeners list = listenerMap.get(type);
-		if(list == null) {
-			// Now we need to get the lock so we are the only one
-			// writing.
-			lock.lock();
-			try {
-				// Check again to see if the list was created while 
-				// we waited to get the lock (safe double-checked locking).
-				list = listenerMap.get(type);
-				if(list != null) {
-					return list;
-				}
-				list = new Listeners();
-				listenerMap.put(type, list);
-			} finally {
-				lock.unlock();
+		int id = type.getId();
+		Listeners[] table = this.table;
+		Listeners list = id < table.length ? table[id] : null;
+		while (list == null) {
+			// Implement 'copy on write' so readers never see a partially filled table, 
+			// retrying if the table was replaced concurrently.
+			Listeners[] updated = Arrays.copyOf(table, Math.max(table.length, Integer.highestOneBit(id) << 1));
+			updated[id] = new Listeners();
+			if(TABLE.compareAndSet(this, table, updated)) {
+				return updated[id];
 			}
+			
+			table = this.table;
+			list = id < table.length ? table[id] : null;
 		}
 		return list;
 	}
 	
-	@SuppressWarnings("unchecked")
-	protected Method findMethod(Class clazz, EventType type) throws NoSuchMethodException {
-		
-		// First try the 'one' + name version.
-		String name = "on" + type.getName();
-		try {
-			return clazz.getDeclaredMethod(name, type.getEventClass());
-		} catch (NoSuchMethodException ex) {
-			// Handle the miss later.
+	/**
+	 * Return the array of {@link EventListener} to notify about events of the specified {@link EventType},
+	 * which includes the listeners registered for its super types, merged by decreasing priority.
+	 * <p>
+	 * The flattened array is computed once per type and only recomputed after a registration change,
+	 * so that publishing doesn't have to walk the type hierarchy.
+	 * 
+	 * @param type The event type to get the dispatch listeners for (not null).
+	 * @return	   The array of listeners to notify (not null, may be empty).
+	 */
+	EventListener<?>[] dispatch(EventType<?> type) {
+		if(type.getSuperType() == null) {
+			return listeners(type);
 		}
 		
-		// Else try with the direct name, lower-cased appropriately.
-		name = type.getName();
-		if(Character.isUpperCase(name.charAt(0)) && Character.isLowerCase(name.charAt(1))) {
-			name = Character.toLowerCase(name.charAt(0)) + name.substring(1);
+		// Read the version before the listeners, so that a concurrent change
+		// invalidates the computed table.
+		int version = this.version;
+		Listeners list = getListeners(type);
+		DispatchTable dispatch = list.dispatch;
+		if(dispatch == null || dispatch.version != version || !dispatch.type.equals(type)) {
+			List<EventListener<?>> flattened = new ArrayList<>();
+			List<int[]> priorities = new ArrayList<>();
+			for(EventType<?> current = type; current != null; current = current.getSuperType()) {
+				Entries entries = entries(current);
+				flattened.addAll(Arrays.asList(entries.listeners));
+				priorities.add(entries.priorities);
+			}
+			
+			// Merge the listeners by priority, the sub-type listeners coming first for the same priority.
+			EventListener<?>[] listeners = flattened.toArray(EMPTY_LISTENERS);
+			int[] order = priorities.stream().flatMapToInt(Arrays::stream).toArray();
+			sortByPriority(listeners, order);
+			
+			dispatch = new DispatchTable(type, listeners, version);
+			list.dispatch = dispatch;
 		}
-		
-		try {
-			return clazz.getDeclaredMethod(name, type.getEventClass());
-		} catch (NoSuchMethodException ex) {
-			// Handle the miss later.
+		return dispatch.listeners;
+	}
+	
+	/**
+	 * Return the array of {@link EventListener} registered for the specified {@link EventType}, 
+	 * without creating the list if it's absent. This only costs an array load into the table.
+	 * 
+	 * @param type The event type to get all listeners for (not null).
+	 * @return	   The array of listeners for the type (not null, may be empty).
+	 */
+	private EventListener<?>[] listeners(EventType<?> type) {
+		return entries(type).listeners;
+	}
+	
+	/**
+	 * Return the {@link Entries} registered for the specified {@link EventType}, without creating 
+	 * the list if it's absent.
+	 * 
+	 * @param type The event type to get all entries for (not null).
+	 * @return	   The entries for the type (not null, may be empty).
+	 */
+	private Entries entries(EventType<?> type) {
+		int id = type.getId();
+		Listeners[] table = this.table;
+		if(id < table.length) {
+			Listeners list = table[id];
+			if(list != null) {
+				return list.getEntries();
+			}
 		}
-		
-		if(clazz.getSuperclass() != null) {
-			// Try within the superclass methods.
-			return findMethod(clazz.getSuperclass(), type);
+		return Entries.EMPTY;
+	}
+	
+	/**
+	 * Return the listening method for the specified {@link EventType} declared by the provided class or one
+	 * of its superclasses, named either "on" + type name or the lower-cased type name.
+	 * 
+	 * @param clazz The listener class to find the method in (not null).
+	 * @param type	The event type to find the listening method for (not null).
+	 * @return		The listening method for the type (not null).
+	 * 
+	 * @throws NoSuchMethodException Thrown if no method matches the type.
+	 */
+	protected Method findMethod(Class<?> clazz, EventType<?> type) throws NoSuchMethodException {
+		Subscriber subscriber = SubscriberMetadata.of(clazz).named(type);
+		if(subscriber == null) {
+			throw new NoSuchMethodException("No methods matching the syntax 'on" + type.getName() 
+					+ " or " + type.getName() + " within " + clazz + " and its subclasses.");
 		}
-		
-		throw new NoSuchMethodException("No methods matching the syntax 'on" + type.getName() 
-				+ " or " + name + " within " + clazz + " and its subclasses.");
+		return subscriber.method;
 	}
 	
-	private class MethodDispatcher implements EventListener {
+	/**
+	 * Return the provided {@link EventListener} typed for the events it is notified about, as the listeners
+	 * of all the types are stored in arrays of wildcard listeners.
+	 * 
+	 * @param listener The listener to type.
+	 * @return		   The same listener.
+	 */
+	@SuppressWarnings("unchecked")
+	private static <E> EventListener<E> typed(EventListener<?> listener) {
+		return (EventListener<E>) listener;
+	}
+	
+	/**
+	 * Return the listener behind the provided {@link EventListener} as it was registered by the user, 
+	 * which is the object declaring a listening method or the referent of a weak listener.
+	 * 
+	 * @param listener The listener notified by the bus (not null).
+	 * @return		   The registered listener, or null if it has been garbage-collected.
+	 */
+	private static Object registered(EventListener<?> listener) {
+		if(listener instanceof MethodDispatcher) {
+			return ((MethodDispatcher) listener).delegate;
+		} else if(listener instanceof WeakDispatcher) {
+			return ((WeakDispatcher) listener).reference.get();
+		}
+		return listener;
+	}
+	
+	/**
+	 * <code>MethodDispatcher</code> is an implementation of {@link EventListener} which delivers the events to a listening
+	 * method of an object. The method is compiled once per class into an {@link EventInvoker} cached by the {@link SubscriberMetadata},
+	 * so that neither creating the dispatcher nor delivering an event involve any reflective call.
+	 * 
+	 * @author GnosticOccultist
+	 */
+	private static class MethodDispatcher implements EventListener<Object> {
 		
+		/**
+		 * The listener object declaring the method.
+		 */
 		private final Object delegate;
+		/**
+		 * The listening method.
+		 */
 		private final Method method;
+		/**
+		 * The compiled invoker of the method.
+		 */
+		private final EventInvoker invoker;
 		
-		public MethodDispatcher(Object delegate, Method method) {
-			Validator.nonNull(method, "The listening method can't be null!");
+		MethodDispatcher(Object delegate, Subscriber subscriber) {
+			Validator.nonNull(subscriber, "The subscriber can't be null!");
             this.delegate = delegate;
-            this.method = method;
+            this.method = subscriber.method;
+            this.invoker = subscriber.invoker();
 		}
-
+		
 		@Override
-		public void newEvent(EventType type, Object event) {
+		public void newEvent(EventType<Object> type, Object event) {
 			try {
-				method.invoke(delegate, event);
-			} catch (IllegalAccessException | IllegalArgumentException | InvocationTargetException ex) {
-				throw new RuntimeException("Error while calling: " + method + " for event: " + event, ex);
+				invoker.invoke(delegate, event);
+			} catch (RuntimeException | Error ex) {
+				throw ex;
+			} catch (Throwable t) {
+				throw new RuntimeException("Error while calling: " + method + " for event: " + event, t);
 			}
 		}
+		
+		@Override
+		public String toString() {
+			return getClass().getSimpleName() + " [" + method + "]";
+		}
+	}
+	
+	/**
+	 * <code>WeakDispatcher</code> is an implementation of {@link EventListener} which delivers the events to a weakly
+	 * referenced listener. Once the listener has been collected, the dispatcher asks its listeners to prune all the 
+	 * collected listeners at once.
+	 * 
+	 * @author GnosticOccultist
+	 */
+	private static class WeakDispatcher implements EventListener<Object> {
+		
+		/**
+		 * The weak reference to the listener.
+		 */
+		private final WeakReference<EventListener<?>> reference;
+		/**
+		 * The listeners containing the dispatcher.
+		 */
+		private final Listeners owner;
+		
+		WeakDispatcher(EventListener<?> listener, Listeners owner) {
+			this.reference = new WeakReference<>(listener);
+			this.owner = owner;
+		}
+		
+		@Override
+		public void newEvent(EventType<Object> type, Object event) {
+			EventListener<Object> listener = typed(reference.get());
+			if(listener == null) {
+				owner.prune();
+				return;
+			}
+			
+			listener.newEvent(type, event);
+		}
+		
+		/**
+		 * Return whether the <code>WeakDispatcher</code> delivers the events to the provided listener.
+		 * 
+		 * @param listener The listener to check.
+		 * @return		   Whether the dispatcher references the listener.
+		 */
+		boolean references(EventListener<?> listener) {
+			EventListener<?> referent = reference.get();
+			return referent != null && referent.equals(listener);
+		}
+		
+		/**
+		 * Return whether the listener of the <code>WeakDispatcher</code> has been collected.
+		 * 
+		 * @return Whether the listener has been collected.
+		 */
+		boolean isCleared() {
+			return reference.get() == null;
+		}
+		
+		@Override
+		public String toString() {
+			return getClass().getSimpleName() + " [" + reference.get() + "]";
+		}
 	}
 	
 	/**
@@ -420,8 +1199,8 @@ public class EventBus {
 	 * @see SingleEventDispatcherBuilder
 	 * @see CombinedEventDispatcherBuilder
 	 */
-	private static class RunnableDispatcher implements EventListener {
-
+	private static class RunnableDispatcher implements EventListener<Object> {
+		
 		/**
 		 * The event bus to which the dispatcher is listening.
 		 */
@@ -450,8 +1229,8 @@ public class EventBus {
 		
 		@Override
 		@SuppressWarnings("unchecked")
-		public void newEvent(EventType type, Object event) {
-
+		public void newEvent(EventType<Object> type, Object event) {
+			
 			logger.debug(this + " received event '" + type + "'.");
 			
 			eventTypes.applyInWriteLock(type, Array::remove);
@@ -504,7 +1283,7 @@ public class EventBus {
         public static CombinedEventDispatcherBuilder of(Runnable handler) {
             return new CombinedEventDispatcherBuilder(SingletonEventBus.getInstance(), handler);
         }
-
+        
         /**
          * Instantiates a new <code>CombinedEventDispatcherBuilder</code> which will execute 
          * the provided {@link Runnable}.
@@ -518,7 +1297,7 @@ public class EventBus {
         public static CombinedEventDispatcherBuilder of(EventBus eventBus, Runnable handler) {
             return new CombinedEventDispatcherBuilder(eventBus, handler);
         }
-
+        
         /**
 		 * The event bus to register the listener to.
 		 */
@@ -531,7 +1310,7 @@ public class EventBus {
          * The result handler for the events.
          */
         private final Runnable handler;
-
+        
         /**
          * Private constructor to inhibit instantiation of <code>CombinedEventDispatcherBuilder</code>.
          * Please use {@link #of(Runnable)} or {@link #of(EventBus, Runnable)}.
@@ -543,7 +1322,7 @@ public class EventBus {
             this.handler = handler;
             this.eventTypes = Array.ofType(EventType.class);
         }
-
+        
         /**
          * Add the provided {@link EventType} for the dispatcher to listen to once before executing 
          * its handler.
@@ -554,7 +1333,7 @@ public class EventBus {
         public CombinedEventDispatcherBuilder add(EventType<?> eventType) {
             return add(eventType, 1);
         }
-
+        
         /**
          * Add the provided {@link EventType} for the dispatcher to listen to a certain number of times 
          * before executing its handler.
@@ -570,7 +1349,7 @@ public class EventBus {
             for (int i = 0; i < count; i++) {
                 eventTypes.add(eventType);
             }
-
+            
             return this;
         }
         
@@ -585,19 +1364,19 @@ public class EventBus {
         	this.eventTypes.addAll(types);
         	return this;
         }
-
+        
         /**
          * Creates and register a corresponding {@link RunnableDispatcher} to the {@link EventBus}.
          */
         @SuppressWarnings("unchecked")
 		public void register() {
-
+            
             if (eventTypes.isEmpty()) {
                 throw new IllegalStateException("The list of listened events should not be empty.");
             }
-
+            
             RunnableDispatcher resultHandler = new RunnableDispatcher(eventBus, eventTypes, Array.of(handler));
-
+            
             Array<EventType<?>> eventTypesSet = resultHandler.eventTypesSet;
             eventTypesSet.forEach(eventType ->
                     eventBus.addEventListener(eventType, resultHandler));
@@ -703,58 +1482,225 @@ public class EventBus {
 		}
 	}
 	
+	/**
+	 * <code>DispatchTable</code> is a flattened array of listeners to notify about an {@link EventType}, 
+	 * valid for a specific version of the registered listeners.
+	 * 
+	 * @author GnosticOccultist
+	 */
+	private static final class DispatchTable {
+		
+		/**
+		 * The event type whose hierarchy has been flattened.
+		 */
+		private final EventType<?> type;
+		/**
+		 * The flattened listeners, starting with the most specific type.
+		 */
+		private final EventListener<?>[] listeners;
+		/**
+		 * The version of the registered listeners the table was computed for.
+		 */
+		private final int version;
+		
+		DispatchTable(EventType<?> type, EventListener<?>[] listeners, int version) {
+			this.type = type;
+			this.listeners = listeners;
+			this.version = version;
+		}
+	}
+	
+	/**
+	 * Sorts the provided listeners by decreasing priority, keeping the registration order of the listeners
+	 * with the same priority. The arrays are expected to be almost sorted, so an insertion sort is used.
+	 * 
+	 * @param listeners  The listeners to sort (not null).
+	 * @param priorities The priorities of the listeners (not null).
+	 */
+	private static void sortByPriority(EventListener<?>[] listeners, int[] priorities) {
+		for(int i = 1; i < listeners.length; i++) {
+			EventListener<?> listener = listeners[i];
+			int priority = priorities[i];
+			int j = i - 1;
+			for(; j >= 0 && priorities[j] < priority; j--) {
+				listeners[j + 1] = listeners[j];
+				priorities[j + 1] = priorities[j];
+			}
+			listeners[j + 1] = listener;
+			priorities[j + 1] = priority;
+		}
+	}
+	
+	/**
+	 * <code>Entries</code> is an immutable snapshot of the listeners registered for an {@link EventType}, 
+	 * sorted by decreasing priority along with their priorities.
+	 * 
+	 * @author GnosticOccultist
+	 */
+	private static final class Entries {
+		
+		/**
+		 * The empty entries.
+		 */
+		static final Entries EMPTY = new Entries(EMPTY_LISTENERS, new int[0]);
+		
+		/**
+		 * The listeners sorted by decreasing priority.
+		 */
+		final EventListener<?>[] listeners;
+		/**
+		 * The priorities of the listeners.
+		 */
+		final int[] priorities;
+		
+		Entries(EventListener<?>[] listeners, int[] priorities) {
+			this.listeners = listeners;
+			this.priorities = priorities;
+		}
+	}
+	
+	/**
+	 * <code>Listeners</code> holds the {@link EventListener} registered for an {@link EventType} in a 'copy on write'
+	 * array pre-sorted by priority, which is replaced using a CAS so that registering listeners for a type never blocks 
+	 * the registrations or the deliveries for the other types. The array is rebuilt only once per bulk registration or removal.
+	 * 
+	 * @author GnosticOccultist
+	 */
 	private class Listeners {
 		
-		private final List<EventListener> list = new ArrayList<>();
-		private volatile EventListener[] array = null;
+		/**
+		 * The 'copy on write' entries of listeners, only replaced through a CAS.
+		 */
+		private volatile Entries entries = Entries.EMPTY;
+		/**
+		 * The cached dispatch table including the super types listeners.
+		 */
+		private volatile DispatchTable dispatch = null;
 		
-		public Listeners() {
-			resetArray();
+		public void add(EventListener<?> listener) {
+			addAll(new EventListener<?>[] { listener }, DEFAULT_PRIORITY);
 		}
 		
-		public void add(EventListener listener) {
-			// Go ahead and grab the central lock.
-			lock.lock();
-			try {
-				list.add(listener);
-				
-				// Implement 'copy on write'.
-				resetArray();
-			} finally {
-				lock.unlock();
+		/**
+		 * Adds all the provided {@link EventListener} with the given priority, rebuilding the array only once.
+		 * The listeners are notified after the already registered listeners with the same priority.
+		 * 
+		 * @param listeners The listeners to add (not null).
+		 * @param priority  The priority of the listeners.
+		 */
+		public void addAll(EventListener<?>[] listeners, int priority) {
+			int[] priorities = new int[listeners.length];
+			Arrays.fill(priorities, priority);
+			addAll(listeners, priorities);
+		}
+		
+		/**
+		 * Adds all the provided {@link EventListener} with their priorities, rebuilding the array only once.
+		 * The listeners are notified after the already registered listeners with the same priority.
+		 * 
+		 * @param listeners  The listeners to add (not null).
+		 * @param priorities The priorities of the listeners (not null).
+		 */
+		public void addAll(EventListener<?>[] listeners, int[] priorities) {
+			if(listeners.length == 0) {
+				return;
 			}
+			
+			Entries current, updated;
+			do {
+				current = entries;
+				int length = current.listeners.length;
+				EventListener<?>[] array = Arrays.copyOf(current.listeners, length + listeners.length);
+				int[] order = Arrays.copyOf(current.priorities, length + listeners.length);
+				System.arraycopy(listeners, 0, array, length, listeners.length);
+				System.arraycopy(priorities, 0, order, length, listeners.length);
+				sortByPriority(array, order);
+				updated = new Entries(array, order);
+			} while (!ENTRIES.compareAndSet(this, current, updated));
+			
+			VERSION.incrementAndGet(EventBus.this);
 		}
 		
-		public void remove(EventListener listener) {
-			// Go ahead and grab the central lock.
-			lock.lock();
-			try {
-				list.remove(listener);
+		public void remove(EventListener<?> listener) {
+			boolean[] found = new boolean[1];
+			removeIf(l -> {
+				// Only remove the first matching listener.
+				if(!found[0] && (l.equals(listener) || l instanceof WeakDispatcher 
+						&& ((WeakDispatcher) l).references(listener))) {
+					found[0] = true;
+					return true;
+				}
+				return false;
+			}, found);
+		}
+		
+		/**
+		 * Removes all the {@link EventListener} matching the provided filter, rebuilding 
+		 * the array only once.
+		 * 
+		 * @param filter The filter of the listeners to remove (not null).
+		 * @return		 Whether any listener has been removed.
+		 */
+		public boolean removeIf(Predicate<EventListener<?>> filter) {
+			return removeIf(filter, null);
+		}
+		
+		/**
+		 * Removes all the {@link EventListener} matching the provided filter, rebuilding 
+		 * the array only once.
+		 * 
+		 * @param filter The filter of the listeners to remove (not null).
+		 * @param state	 The state of the filter to reset before retrying, or null.
+		 * @return		 Whether any listener has been removed.
+		 */
+		private boolean removeIf(Predicate<EventListener<?>> filter, boolean[] state) {
+			Entries current, updated;
+			do {
+				if(state != null) {
+					Arrays.fill(state, false);
+				}
 				
-				// Implement 'copy on write'.
-				resetArray();
-			} finally {
-				lock.unlock();
-			}
+				current = entries;
+				int count = 0;
+				int length = current.listeners.length;
+				EventListener<?>[] array = new EventListener<?>[length];
+				int[] priorities = new int[length];
+				for(int i = 0; i < length; i++) {
+					if(!filter.test(current.listeners[i])) {
+						array[count] = current.listeners[i];
+						priorities[count++] = current.priorities[i];
+					}
+				}
+				
+				if(count == length) {
+					return false;
+				}
+				updated = count == 0 ? Entries.EMPTY : new Entries(Arrays.copyOf(array, count), 
+						Arrays.copyOf(priorities, count));
+			} while (!ENTRIES.compareAndSet(this, current, updated));
+			
+			VERSION.incrementAndGet(EventBus.this);
+			return true;
+		}
+		
+		/**
+		 * Removes all the {@link WeakDispatcher} whose listener has been collected, rebuilding 
+		 * the array only once.
+		 */
+		public void prune() {
+			removeIf(l -> l instanceof WeakDispatcher && ((WeakDispatcher) l).isCleared());
 		}
 		
 		protected boolean isEmpty() {
-			// Relatively safe here because we know a little about how
-			// ArrayList is implemented and our constant usage of a volatile
-			// variable means this threads view of the data structure is likely
-			// to be up to date.
-			return list.isEmpty();
+			return entries.listeners.length == 0;
 		}
 		
-		protected final void resetArray() {
-			// Presumes we already have the lock.
-			// Can't reuse the array or we create the exact threading problem
-			// we were trying to avoid.
-			array = list.toArray(new EventListener[list.size()]);
+		protected final Entries getEntries() {
+			return entries;
 		}
 		
-		protected final EventListener[] getArray() {
-			return array;
+		protected final EventListener<?>[] getArray() {
+			return entries.listeners;
 		}
 	}
 }
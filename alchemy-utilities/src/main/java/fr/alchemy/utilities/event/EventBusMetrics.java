@@ -0,0 +1,714 @@
+package fr.alchemy.utilities.event;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * <code>EventBusMetrics</code> records the activity of an {@link EventBus} once enabled with {@link EventBus#enableMetrics()}:
+ * <ul>
+ * <li>The count of published, delivered and undelivered events and of dispatch errors per {@link EventType}.
+ * <li>The invocation time of each {@link EventListener} in a {@link LatencyHistogram}, the listeners being weakly referenced
+ * so that the metrics don't prevent them from being garbage-collected.
+ * <li>The count of pending asynchronous deliveries.
+ * </ul>
+ * The counters are striped {@link LongAdder} and the per-type counters are indexed by the type identifier, so that recording
+ * doesn't contend between publishing threads. When the metrics are disabled, the bus only pays a null check per delivery.
+ * <p>
+ * The metrics can be queried at runtime or exported at once using {@link #snapshot()}.
+ * 
+ * @version 0.3.0
+ * @since 0.3.0
+ * 
+ * @author GnosticOccultist
+ */
+public final class EventBusMetrics {
+	
+	/**
+	 * The event bus recorded by the metrics.
+	 */
+	private final EventBus eventBus;
+	/**
+	 * The time when the metrics were created in nanoseconds.
+	 */
+	private final long startTime = System.nanoTime();
+	/**
+	 * The counters indexed by the type identifier, implemented as 'copy on write'.
+	 */
+	private volatile TypeCounters[] counters = new TypeCounters[16];
+	/**
+	 * The reusable key of each thread to look up the histograms without allocating.
+	 */
+	private static final ThreadLocal<LookupKey> LOOKUP = ThreadLocal.withInitial(LookupKey::new);
+	
+	/**
+	 * The latency histograms per listener, weakly keyed by identity.
+	 */
+	private final Map<ListenerKey, LatencyHistogram> latencies = new ConcurrentHashMap<>();
+	/**
+	 * The queue of the keys whose listener has been garbage-collected.
+	 */
+	private final ReferenceQueue<Object> collected = new ReferenceQueue<>();
+	
+	/**
+	 * Instantiates a new <code>EventBusMetrics</code> recording the provided {@link EventBus}.
+	 * 
+	 * @param eventBus The event bus to record (not null).
+	 */
+	EventBusMetrics(EventBus eventBus) {
+		this.eventBus = eventBus;
+	}
+	
+	/**
+	 * Records the publishing of an event of the provided {@link EventType}, dispatched to the given count of listeners.
+	 * 
+	 * @param type		The type of the published event (not null).
+	 * @param listeners The count of listeners the event is dispatched to (&ge;0).
+	 */
+	void published(EventType<?> type, int listeners) {
+		TypeCounters counters = counters(type);
+		counters.published.increment();
+		if(listeners == 0) {
+			counters.undelivered.increment();
+		}
+	}
+	
+	/**
+	 * Records the invocation of the provided listener with events of the given {@link EventType}.
+	 * 
+	 * @param type	   The type of the delivered events, or null for a global listener.
+	 * @param listener The invoked listener as registered to the bus, or null if it has been collected.
+	 * @param nanos	   The invocation time in nanoseconds (&ge;0).
+	 * @param events   The count of events delivered by the invocation (&gt;0).
+	 */
+	void invoked(EventType<?> type, Object listener, long nanos, int events) {
+		if(type != null) {
+			counters(type).delivered.add(events);
+		}
+		if(listener == null) {
+			return;
+		}
+		
+		LatencyHistogram histogram = find(listener);
+		if(histogram == null) {
+			expunge();
+			histogram = latencies.computeIfAbsent(new ListenerKey(listener, collected), k -> new LatencyHistogram());
+		}
+		histogram.record(nanos);
+	}
+	
+	/**
+	 * Removes the histograms of the listeners which have been garbage-collected.
+	 */
+	private void expunge() {
+		Reference<?> key;
+		while ((key = collected.poll()) != null) {
+			latencies.remove(key);
+		}
+	}
+	
+	/**
+	 * Records a dispatch error while delivering an event of the provided {@link EventType}.
+	 * 
+	 * @param type The type of the event which failed to be delivered (not null).
+	 */
+	void failed(EventType<?> type) {
+		counters(type).errors.increment();
+	}
+	
+	/**
+	 * Return the count of published events of the provided {@link EventType}.
+	 * 
+	 * @param type The type of event (not null).
+	 * @return	   The count of published events (&ge;0).
+	 */
+	public long getPublished(EventType<?> type) {
+		TypeCounters counters = find(type);
+		return counters != null ? counters.published.sum() : 0L;
+	}
+	
+	/**
+	 * Return the count of deliveries of events of the provided {@link EventType}, an event delivered to
+	 * multiple listeners being counted once per listener actually invoked. The asynchronous deliveries
+	 * are therefore counted once executed, and a cancelled event isn't counted for the skipped listeners.
+	 * 
+	 * @param type The type of event (not null).
+	 * @return	   The count of deliveries (&ge;0).
+	 */
+	public long getDelivered(EventType<?> type) {
+		TypeCounters counters = find(type);
+		return counters != null ? counters.delivered.sum() : 0L;
+	}
+	
+	/**
+	 * Return the count of published events of the provided {@link EventType} which had no listeners.
+	 * 
+	 * @param type The type of event (not null).
+	 * @return	   The count of undelivered events (&ge;0).
+	 */
+	public long getUndelivered(EventType<?> type) {
+		TypeCounters counters = find(type);
+		return counters != null ? counters.undelivered.sum() : 0L;
+	}
+	
+	/**
+	 * Return the count of dispatch errors while delivering events of the provided {@link EventType}.
+	 * 
+	 * @param type The type of event (not null).
+	 * @return	   The count of dispatch errors (&ge;0).
+	 */
+	public long getErrors(EventType<?> type) {
+		TypeCounters counters = find(type);
+		return counters != null ? counters.errors.sum() : 0L;
+	}
+	
+	/**
+	 * Return the {@link LatencyHistogram} of the provided listener, as it was registered to the {@link EventBus}: 
+	 * either an {@link EventListener}, registered weakly or not, or an object whose listening methods were registered,
+	 * in which case the invocations of all its methods are recorded together.
+	 * 
+	 * @param listener The listener to get the histogram of (not null).
+	 * @return		   The latency histogram, or null if the listener wasn't invoked.
+	 */
+	public LatencyHistogram getLatency(Object listener) {
+		return find(listener);
+	}
+	
+	/**
+	 * Return the {@link LatencyHistogram} of the provided listener, looking it up with the reusable key 
+	 * of the thread so that it doesn't allocate.
+	 * 
+	 * @param listener The listener to get the histogram of (not null).
+	 * @return		   The latency histogram, or null if the listener wasn't invoked.
+	 */
+	private LatencyHistogram find(Object listener) {
+		LookupKey lookup = LOOKUP.get();
+		lookup.listener = listener;
+		try {
+			return latencies.get(lookup);
+		} finally {
+			lookup.listener = null;
+		}
+	}
+	
+	/**
+	 * Return the count of asynchronous deliveries waiting to be executed by the {@link EventBus}.
+	 * 
+	 * @return The count of pending asynchronous deliveries (&ge;0).
+	 */
+	public int getAsyncPending() {
+		return eventBus.asyncPending();
+	}
+	
+	/**
+	 * Return the counters for the provided {@link EventType}, without creating them.
+	 * 
+	 * @param type The type of event (not null).
+	 * @return	   The counters for the type, or null if none were recorded.
+	 */
+	private TypeCounters find(EventType<?> type) {
+		int id = type.getId();
+		TypeCounters[] counters = this.counters;
+		return id < counters.length ? counters[id] : null;
+	}
+	
+	/**
+	 * Return the counters for the provided {@link EventType}, creating them if necessary.
+	 * 
+	 * @param type The type of event (not null).
+	 * @return	   The counters for the type (not null).
+	 */
+	private TypeCounters counters(EventType<?> type) {
+		int id = type.getId();
+		TypeCounters[] counters = this.counters;
+		TypeCounters result = id < counters.length ? counters[id] : null;
+		if(result == null) {
+			synchronized (this) {
+				counters = this.counters;
+				result = id < counters.length ? counters[id] : null;
+				if(result == null) {
+					counters = Arrays.copyOf(counters, Math.max(counters.length, Integer.highestOneBit(id) << 1));
+					result = new TypeCounters(type);
+					counters[id] = result;
+					this.counters = counters;
+				}
+			}
+		}
+		return result;
+	}
+	
+	/**
+	 * Resets all the counters and histograms of the <code>EventBusMetrics</code>.
+	 */
+	public void reset() {
+		for(TypeCounters counters : this.counters) {
+			if(counters != null) {
+				counters.reset();
+			}
+		}
+		latencies.clear();
+	}
+	
+	/**
+	 * Takes a snapshot of the <code>EventBusMetrics</code>, which can then be exported.
+	 * 
+	 * @return An immutable snapshot of the metrics (not null).
+	 */
+	public Snapshot snapshot() {
+		List<TypeSnapshot> types = new ArrayList<>();
+		for(TypeCounters counters : this.counters) {
+			if(counters != null) {
+				types.add(new TypeSnapshot(counters));
+			}
+		}
+		
+		expunge();
+		List<ListenerSnapshot> listeners = new ArrayList<>();
+		latencies.forEach((key, histogram) -> {
+			Object listener = key.get();
+			if(listener != null) {
+				listeners.add(new ListenerSnapshot(listener.toString(), histogram));
+			}
+		});
+		return new Snapshot(System.nanoTime() - startTime, types, listeners, getAsyncPending());
+	}
+	
+	@Override
+	public String toString() {
+		return snapshot().toString();
+	}
+	
+	/**
+	 * <code>ListenerKey</code> weakly references a listener to key its histogram, comparing the listeners 
+	 * by identity.
+	 * 
+	 * @author GnosticOccultist
+	 */
+	private static final class ListenerKey extends WeakReference<Object> {
+		
+		/**
+		 * The identity hash code of the listener.
+		 */
+		private final int hash;
+		
+		ListenerKey(Object listener, ReferenceQueue<Object> queue) {
+			super(listener, queue);
+			this.hash = System.identityHashCode(listener);
+		}
+		
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+		
+		@Override
+		public boolean equals(Object o) {
+			if(this == o) {
+				return true;
+			}
+			
+			Object listener = get();
+			if(o instanceof LookupKey) {
+				return listener != null && listener == ((LookupKey) o).listener;
+			}
+			return o instanceof ListenerKey && listener != null && listener == ((ListenerKey) o).get();
+		}
+	}
+	
+	/**
+	 * <code>LookupKey</code> strongly references a listener only while looking up its histogram, comparing 
+	 * equal to the {@link ListenerKey} of the same listener. It is reused by its thread to avoid allocating 
+	 * a key per recorded invocation.
+	 * 
+	 * @author GnosticOccultist
+	 */
+	private static final class LookupKey {
+		
+		/**
+		 * The listener being looked up, or null.
+		 */
+		private Object listener;
+		
+		@Override
+		public int hashCode() {
+			return System.identityHashCode(listener);
+		}
+		
+		@Override
+		public boolean equals(Object o) {
+			return o instanceof ListenerKey && listener != null && listener == ((ListenerKey) o).get();
+		}
+	}
+	
+	/**
+	 * <code>TypeCounters</code> holds the counters of an {@link EventType}.
+	 * 
+	 * @author GnosticOccultist
+	 */
+	private static final class TypeCounters {
+		
+		/**
+		 * The type of event.
+		 */
+		final EventType<?> type;
+		/**
+		 * The count of published events.
+		 */
+		final LongAdder published = new LongAdder();
+		/**
+		 * The count of deliveries to listeners.
+		 */
+		final LongAdder delivered = new LongAdder();
+		/**
+		 * The count of published events without listeners.
+		 */
+		final LongAdder undelivered = new LongAdder();
+		/**
+		 * The count of dispatch errors.
+		 */
+		final LongAdder errors = new LongAdder();
+		
+		TypeCounters(EventType<?> type) {
+			this.type = type;
+		}
+		
+		void reset() {
+			published.reset();
+			delivered.reset();
+			undelivered.reset();
+			errors.reset();
+		}
+	}
+	
+	/**
+	 * <code>LatencyHistogram</code> records latencies in nanoseconds into buckets of power of two, which allows to
+	 * record a value with a few atomic operations and to estimate its percentiles within a factor of two.
+	 * 
+	 * @author GnosticOccultist
+	 */
+	public static final class LatencyHistogram {
+		
+		/**
+		 * The count of values per bucket, the bucket i containing values in [2^(i-1), 2^i).
+		 */
+		private final AtomicLongArray buckets = new AtomicLongArray(Long.SIZE + 1);
+		/**
+		 * The sum of recorded values.
+		 */
+		private final LongAdder sum = new LongAdder();
+		/**
+		 * The maximum recorded value.
+		 */
+		private final LongAccumulator max = new LongAccumulator(Math::max, 0L);
+		
+		/**
+		 * Records the provided value in the <code>LatencyHistogram</code>.
+		 * 
+		 * @param nanos The latency to record in nanoseconds (&ge;0).
+		 */
+		public void record(long nanos) {
+			nanos = Math.max(0L, nanos);
+			buckets.incrementAndGet(Long.SIZE - Long.numberOfLeadingZeros(nanos));
+			sum.add(nanos);
+			max.accumulate(nanos);
+		}
+		
+		/**
+		 * Return the count of values recorded by the <code>LatencyHistogram</code>.
+		 * 
+		 * @return The count of recorded values (&ge;0).
+		 */
+		public long count() {
+			long count = 0;
+			for(int i = 0; i < buckets.length(); i++) {
+				count += buckets.get(i);
+			}
+			return count;
+		}
+		
+		/**
+		 * Return the mean of the values recorded by the <code>LatencyHistogram</code>.
+		 * 
+		 * @return The mean latency in nanoseconds, or 0 if empty (&ge;0).
+		 */
+		public double mean() {
+			long count = count();
+			return count > 0 ? (double) sum.sum() / count : 0D;
+		}
+		
+		/**
+		 * Return the maximum value recorded by the <code>LatencyHistogram</code>.
+		 * 
+		 * @return The maximum latency in nanoseconds (&ge;0).
+		 */
+		public long max() {
+			return max.get();
+		}
+		
+		/**
+		 * Return an estimation of the provided percentile of the values recorded by the <code>LatencyHistogram</code>,
+		 * as the upper bound of the bucket containing it.
+		 * 
+		 * @param percentile The percentile to estimate, between 0 and 100.
+		 * @return			 The estimated latency in nanoseconds, or 0 if empty (&ge;0).
+		 */
+		public long percentile(double percentile) {
+			long count = count();
+			if(count == 0) {
+				return 0L;
+			}
+			
+			long rank = (long) Math.ceil(count * Math.min(100D, Math.max(0D, percentile)) / 100D);
+			long seen = 0;
+			for(int i = 0; i < buckets.length(); i++) {
+				seen += buckets.get(i);
+				if(seen >= Math.max(1L, rank)) {
+					// Don't overestimate beyond the actual maximum.
+					return i == 0 ? 0L : Math.min(max(), i == Long.SIZE ? Long.MAX_VALUE : (1L << i) - 1);
+				}
+			}
+			return max();
+		}
+		
+		@Override
+		public String toString() {
+			return "count=" + count() + ", mean=" + (long) mean() + "ns, p50=" + percentile(50D) + "ns, p99="
+					+ percentile(99D) + "ns, max=" + max() + "ns";
+		}
+	}
+	
+	/**
+	 * <code>Snapshot</code> is an immutable view of the {@link EventBusMetrics} at a given time.
+	 * 
+	 * @author GnosticOccultist
+	 */
+	public static final class Snapshot {
+		
+		private final long elapsedNanos;
+		private final List<TypeSnapshot> types;
+		private final List<ListenerSnapshot> listeners;
+		private final int asyncPending;
+		
+		Snapshot(long elapsedNanos, List<TypeSnapshot> types, List<ListenerSnapshot> listeners, int asyncPending) {
+			this.elapsedNanos = elapsedNanos;
+			this.types = Collections.unmodifiableList(types);
+			this.listeners = Collections.unmodifiableList(listeners);
+			this.asyncPending = asyncPending;
+		}
+		
+		/**
+		 * Return the time elapsed since the metrics were enabled.
+		 * 
+		 * @return The elapsed time in nanoseconds (&ge;0).
+		 */
+		public long getElapsedNanos() {
+			return elapsedNanos;
+		}
+		
+		/**
+		 * Return the snapshots of the counters per {@link EventType}.
+		 * 
+		 * @return The unmodifiable list of type snapshots (not null).
+		 */
+		public List<TypeSnapshot> getTypes() {
+			return types;
+		}
+		
+		/**
+		 * Return the snapshots of the latencies per {@link EventListener}.
+		 * 
+		 * @return The unmodifiable list of listener snapshots (not null).
+		 */
+		public List<ListenerSnapshot> getListeners() {
+			return listeners;
+		}
+		
+		/**
+		 * Return the count of asynchronous deliveries waiting to be executed.
+		 * 
+		 * @return The count of pending asynchronous deliveries (&ge;0).
+		 */
+		public int getAsyncPending() {
+			return asyncPending;
+		}
+		
+		@Override
+		public String toString() {
+			StringBuilder sb = new StringBuilder("EventBusMetrics [elapsed=")
+					.append(elapsedNanos / 1_000_000L).append("ms, asyncPending=").append(asyncPending).append("]");
+			for(TypeSnapshot type : types) {
+				sb.append(System.lineSeparator()).append("  ").append(type);
+			}
+			for(ListenerSnapshot listener : listeners) {
+				sb.append(System.lineSeparator()).append("  ").append(listener);
+			}
+			return sb.toString();
+		}
+	}
+	
+	/**
+	 * <code>TypeSnapshot</code> is an immutable view of the counters of an {@link EventType}.
+	 * 
+	 * @author GnosticOccultist
+	 */
+	public static final class TypeSnapshot {
+		
+		private final EventType<?> type;
+		private final long published;
+		private final long delivered;
+		private final long undelivered;
+		private final long errors;
+		
+		TypeSnapshot(TypeCounters counters) {
+			this.type = counters.type;
+			this.published = counters.published.sum();
+			this.delivered = counters.delivered.sum();
+			this.undelivered = counters.undelivered.sum();
+			this.errors = counters.errors.sum();
+		}
+		
+		/**
+		 * Return the type of event of the snapshot.
+		 * 
+		 * @return The event type (not null).
+		 */
+		public EventType<?> getType() {
+			return type;
+		}
+		
+		/**
+		 * Return the count of published events of the type.
+		 * 
+		 * @return The count of published events (&ge;0).
+		 */
+		public long getPublished() {
+			return published;
+		}
+		
+		/**
+		 * Return the count of deliveries of events of the type.
+		 * 
+		 * @return The count of deliveries (&ge;0).
+		 */
+		public long getDelivered() {
+			return delivered;
+		}
+		
+		/**
+		 * Return the count of published events of the type which had no listeners.
+		 * 
+		 * @return The count of undelivered events (&ge;0).
+		 */
+		public long getUndelivered() {
+			return undelivered;
+		}
+		
+		/**
+		 * Return the count of dispatch errors for the type.
+		 * 
+		 * @return The count of dispatch errors (&ge;0).
+		 */
+		public long getErrors() {
+			return errors;
+		}
+		
+		@Override
+		public String toString() {
+			return type.getName() + ": published=" + published + ", delivered=" + delivered
+					+ ", undelivered=" + undelivered + ", errors=" + errors;
+		}
+	}
+	
+	/**
+	 * <code>ListenerSnapshot</code> is an immutable view of the latencies of an {@link EventListener}.
+	 * 
+	 * @author GnosticOccultist
+	 */
+	public static final class ListenerSnapshot {
+		
+		private final String listener;
+		private final long count;
+		private final double mean;
+		private final long p50;
+		private final long p99;
+		private final long max;
+		
+		ListenerSnapshot(String listener, LatencyHistogram histogram) {
+			this.listener = listener;
+			this.count = histogram.count();
+			this.mean = histogram.mean();
+			this.p50 = histogram.percentile(50D);
+			this.p99 = histogram.percentile(99D);
+			this.max = histogram.max();
+		}
+		
+		/**
+		 * Return the description of the listener.
+		 * 
+		 * @return The listener description (not null).
+		 */
+		public String getListener() {
+			return listener;
+		}
+		
+		/**
+		 * Return the count of invocations of the listener.
+		 * 
+		 * @return The count of invocations (&ge;0).
+		 */
+		public long getCount() {
+			return count;
+		}
+		
+		/**
+		 * Return the mean invocation time of the listener.
+		 * 
+		 * @return The mean latency in nanoseconds (&ge;0).
+		 */
+		public double getMean() {
+			return mean;
+		}
+		
+		/**
+		 * Return the estimated median invocation time of the listener.
+		 * 
+		 * @return The median latency in nanoseconds (&ge;0).
+		 */
+		public long getP50() {
+			return p50;
+		}
+		
+		/**
+		 * Return the estimated 99th percentile invocation time of the listener.
+		 * 
+		 * @return The 99th percentile latency in nanoseconds (&ge;0).
+		 */
+		public long getP99() {
+			return p99;
+		}
+		
+		/**
+		 * Return the maximum invocation time of the listener.
+		 * 
+		 * @return The maximum latency in nanoseconds (&ge;0).
+		 */
+		public long getMax() {
+			return max;
+		}
+		
+		@Override
+		public String toString() {
+			return listener + ": count=" + count + ", mean=" + (long) mean + "ns, p50=" + p50
+					+ "ns, p99=" + p99 + "ns, max=" + max + "ns";
+		}
+	}
+}
@@ -0,0 +1,597 @@
+package fr.alchemy.utilities.event;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+
+import fr.alchemy.utilities.Validator;
+
+/**
+ * <code>EventChannel</code> is a pre-allocated ring-buffer channel for high-rate {@link EventType}, created with
+ * {@link EventBus#createChannel(EventType, int)}. Publishers claim a slot of the ring, fill it and publish it, then
+ * each {@link Consumer} running on a dedicated thread processes the published slots in batches, without any allocation
+ * per event.
+ * <p>
+ * The channel supports multiple publishers and multiple consumers. Each consumer tracks its own sequence and waits on a
+ * barrier made of the publishers cursor and optionally the sequences of other consumers, which allows to build processing
+ * stages. The publishers are gated by the slowest consumer, so that no slot is overwritten before being consumed. When
+ * publishing references, a slot is cleared once processed by all the consumers, so the channel doesn't retain the events.
+ * <p>
+ * If no consumer is added before {@link #start()}, a single consumer publishing the events on the {@link EventBus} is used,
+ * notifying both the listeners registered for the type and the global ones.
+ *
+ * <pre>
+ * EventChannel&lt;Position&gt; channel = eventBus.createChannel(POSITION, 1024, Position::new);
+ * channel.addConsumer(listener, WaitStrategy.YIELD);
+ * channel.start();
+ *
+ * channel.publish((position, x) -&gt; position.setX(x), 10);
+ * </pre>
+ *
+ * @param <E> The type of event published in the channel.
+ *
+ * @version 0.3.0
+ * @since 0.3.0
+ *
+ * @author GnosticOccultist
+ */
+public final class EventChannel<E> {
+	
+	/**
+	 * The initial value of the sequences, before any slot is published.
+	 */
+	private static final long INITIAL_SEQUENCE = -1L;
+	/**
+	 * The time to park a waiting thread in nanoseconds.
+	 */
+	private static final long PARK_NANOS = 1000L;
+	
+	/**
+	 * The event bus which created the channel.
+	 */
+	private final EventBus eventBus;
+	/**
+	 * The type of the published events.
+	 */
+	private final EventType<E> type;
+	/**
+	 * The slots of the ring.
+	 */
+	private final Object[] entries;
+	/**
+	 * Whether the slots are pre-allocated events to fill.
+	 */
+	private final boolean preallocated;
+	/**
+	 * The mask to compute the index of a sequence in the ring.
+	 */
+	private final int mask;
+	/**
+	 * The shift to compute the round of a sequence in the ring.
+	 */
+	private final int indexShift;
+	/**
+	 * The round of the last published sequence of each slot, for multiple publishers.
+	 */
+	private final AtomicIntegerArray available;
+	/**
+	 * The count of consumers which have processed each slot, to clear the published references, 
+	 * or null if the slots are pre-allocated events.
+	 */
+	private final AtomicIntegerArray processed;
+	/**
+	 * The highest sequence claimed by the publishers.
+	 */
+	private final AtomicLong cursor = new AtomicLong(INITIAL_SEQUENCE);
+	/**
+	 * The cached minimum sequence of the consumers, to avoid reading them on every claim.
+	 */
+	private final AtomicLong gatingCache = new AtomicLong(INITIAL_SEQUENCE);
+	/**
+	 * The consumers of the channel.
+	 */
+	private final List<Consumer> consumers = new ArrayList<>();
+	/**
+	 * The sequences of the consumers gating the publishers.
+	 */
+	private volatile AtomicLong[] gatingSequences = new AtomicLong[0];
+	/**
+	 * Whether the channel has been started.
+	 */
+	private volatile boolean started;
+	
+	/**
+	 * Instantiates a new <code>EventChannel</code> for the provided {@link EventType}, with the given capacity and
+	 * optionally a factory to pre-allocate the events.
+	 *
+	 * @param eventBus The event bus creating the channel (not null).
+	 * @param type	   The type of the published events (not null).
+	 * @param capacity The capacity of the ring, must be a power of two (&gt;0).
+	 * @param factory  The factory to pre-allocate the events, or null to publish references.
+	 */
+	EventChannel(EventBus eventBus, EventType<E> type, int capacity, Supplier<? extends E> factory) {
+		Validator.nonNull(eventBus, "The event bus can't be null!");
+		Validator.nonNull(type, "The event type can't be null!");
+		Validator.positive(capacity, "The capacity must be strictly positive!");
+		Validator.check(Integer.bitCount(capacity) == 1, "The capacity must be a power of two!");
+		
+		this.eventBus = eventBus;
+		this.type = type;
+		this.entries = new Object[capacity];
+		this.preallocated = factory != null;
+		this.mask = capacity - 1;
+		this.indexShift = Integer.numberOfTrailingZeros(capacity);
+		this.available = new AtomicIntegerArray(capacity);
+		this.processed = preallocated ? null : new AtomicIntegerArray(capacity);
+		for(int i = 0; i < capacity; i++) {
+			available.set(i, -1);
+			if(preallocated) {
+				entries[i] = Validator.nonNull(factory.get(), "The pre-allocated event can't be null!");
+			}
+		}
+	}
+	
+	/**
+	 * Adds a {@link Consumer} delivering the published events to the provided {@link EventListener},
+	 * and yielding its thread when waiting for events.
+	 *
+	 * @param listener The listener to deliver the events to (not null).
+	 * @return		   The consumer, which can be used as a dependency for other consumers (not null).
+	 *
+	 * @throws IllegalStateException Thrown if the channel has already been started.
+	 */
+	public Consumer addConsumer(EventListener<? super E> listener) {
+		return addConsumer(listener, WaitStrategy.YIELD);
+	}
+	
+	/**
+	 * Adds a {@link Consumer} delivering the published events to the provided {@link EventListener}, only
+	 * once they have been processed by all the given dependencies.
+	 *
+	 * @param listener	   The listener to deliver the events to (not null).
+	 * @param strategy	   The strategy to wait for available events (not null).
+	 * @param dependencies The consumers which must process an event before this one.
+	 * @return			   The consumer, which can be used as a dependency for other consumers (not null).
+	 *
+	 * @throws IllegalStateException Thrown if the channel has already been started.
+	 */
+	@SafeVarargs
+	public final synchronized Consumer addConsumer(EventListener<? super E> listener, WaitStrategy strategy, Consumer... dependencies) {
+		Validator.nonNull(listener, "The listener can't be null!");
+		Validator.nonNull(strategy, "The wait strategy can't be null!");
+		if(started) {
+			throw new IllegalStateException("Unable to add a consumer to an already started channel!");
+		}
+		
+		AtomicLong[] barrier = new AtomicLong[dependencies.length];
+		for(int i = 0; i < dependencies.length; i++) {
+			Validator.check(dependencies[i].channel() == this, "The dependency must be a consumer of the same channel!");
+			barrier[i] = dependencies[i].sequence;
+		}
+		
+		Consumer consumer = new Consumer(listener, strategy, barrier, consumers.size());
+		consumers.add(consumer);
+		return consumer;
+	}
+	
+	/**
+	 * Starts the <code>EventChannel</code>, each {@link Consumer} is started on its own daemon thread.
+	 * If no consumer has been added, one delivering the events to the listeners of the {@link EventBus}
+	 * for the type is added.
+	 *
+	 * @return The channel for chaining purposes (not null).
+	 *
+	 * @throws IllegalStateException Thrown if the channel has already been started.
+	 */
+	public synchronized EventChannel<E> start() {
+		if(started) {
+			throw new IllegalStateException("The channel has already been started!");
+		}
+		
+		if(consumers.isEmpty()) {
+			// Publish through the bus, so that the global listeners are notified as well.
+			addConsumer((t, event) -> eventBus.publishEvent(type, event), WaitStrategy.YIELD);
+		}
+		
+		AtomicLong[] gating = new AtomicLong[consumers.size()];
+		for(int i = 0; i < gating.length; i++) {
+			gating[i] = consumers.get(i).sequence;
+		}
+		this.gatingSequences = gating;
+		this.started = true;
+		
+		for(Consumer consumer : consumers) {
+			consumer.start();
+		}
+		return this;
+	}
+	
+	/**
+	 * Publishes the provided event reference in the next slot of the <code>EventChannel</code>, waiting for
+	 * a slot to be available if the ring is full.
+	 *
+	 * @param event The event to publish.
+	 *
+	 * @throws IllegalStateException Thrown if the channel uses pre-allocated events.
+	 */
+	public void publish(E event) {
+		if(preallocated) {
+			throw new IllegalStateException("The channel uses pre-allocated events, use a translator to fill them!");
+		}
+		
+		long sequence = next();
+		entries[(int) sequence & mask] = event;
+		publish(sequence);
+	}
+	
+	/**
+	 * Publishes the next slot of the <code>EventChannel</code> by filling its pre-allocated event with the
+	 * provided translator, waiting for a slot to be available if the ring is full.
+	 *
+	 * @param <A> The type of argument for the translator.
+	 *
+	 * @param translator The translator to fill the pre-allocated event with the argument (not null).
+	 * @param argument	 The argument to pass to the translator.
+	 *
+	 * @throws IllegalStateException Thrown if the channel doesn't use pre-allocated events.
+	 */
+	public <A> void publish(BiConsumer<? super E, A> translator, A argument) {
+		if(!preallocated) {
+			throw new IllegalStateException("The channel doesn't use pre-allocated events!");
+		}
+		
+		long sequence = next();
+		try {
+			translator.accept(get(sequence), argument);
+		} finally {
+			// Always publish the claimed sequence, or the consumers would be stuck.
+			publish(sequence);
+		}
+	}
+	
+	/**
+	 * Claims the next sequence of the <code>EventChannel</code> for publishing, waiting for the slowest consumer
+	 * if the ring is full. The claimed sequence must be published with {@link #publish(long)} once filled.
+	 *
+	 * @return The claimed sequence (&ge;0).
+	 *
+	 * @throws IllegalStateException Thrown if the channel hasn't been started.
+	 */
+	public long next() {
+		if(!started) {
+			throw new IllegalStateException("The channel must be started before publishing!");
+		}
+		
+		while (true) {
+			long current = cursor.get();
+			long next = current + 1;
+			long wrapPoint = next - entries.length;
+			long cachedGating = gatingCache.get();
+			
+			if(wrapPoint > cachedGating || cachedGating > current) {
+				long gating = minimumSequence(current);
+				if(wrapPoint > gating) {
+					// The ring is full, wait for the slowest consumer.
+					LockSupport.parkNanos(1L);
+					continue;
+				}
+				gatingCache.set(gating);
+			} else if(cursor.compareAndSet(current, next)) {
+				return next;
+			}
+		}
+	}
+	
+	/**
+	 * Return the event stored in the slot of the provided sequence.
+	 *
+	 * @param sequence The claimed or published sequence (&ge;0).
+	 * @return		   The event in the slot.
+	 */
+	@SuppressWarnings("unchecked")
+	public E get(long sequence) {
+		return (E) entries[(int) sequence & mask];
+	}
+	
+	/**
+	 * Publishes the provided claimed sequence, making its slot visible to the consumers.
+	 *
+	 * @param sequence The sequence claimed with {@link #next()} (&ge;0).
+	 */
+	public void publish(long sequence) {
+		available.lazySet((int) sequence & mask, (int) (sequence >>> indexShift));
+	}
+	
+	/**
+	 * Return the highest sequence claimed by the publishers of the <code>EventChannel</code>.
+	 *
+	 * @return The cursor of the channel (&ge;-1).
+	 */
+	public long getCursor() {
+		return cursor.get();
+	}
+	
+	/**
+	 * Return the capacity of the ring of the <code>EventChannel</code>.
+	 *
+	 * @return The count of slots in the ring (&gt;0).
+	 */
+	public int capacity() {
+		return entries.length;
+	}
+	
+	/**
+	 * Return the count of published events which haven't been processed yet by all the consumers
+	 * of the <code>EventChannel</code>.
+	 *
+	 * @return The count of pending events (&ge;0).
+	 */
+	public long pending() {
+		long current = cursor.get();
+		return current - minimumSequence(current);
+	}
+	
+	/**
+	 * Return the {@link EventType} of the events published in the <code>EventChannel</code>.
+	 *
+	 * @return The type of the events (not null).
+	 */
+	public EventType<E> getType() {
+		return type;
+	}
+	
+	/**
+	 * Shuts the <code>EventChannel</code> down once all the claimed events have been processed by the consumers,
+	 * or the timeout occurs, whichever happens first. The consumers threads are then halted.
+	 *
+	 * @param timeout The maximum time to wait.
+	 * @param unit	  The time unit of the timeout argument (not null).
+	 * @return		  Whether all the events have been processed before the timeout elapsed.
+	 *
+	 * @throws InterruptedException Thrown if interrupted while waiting.
+	 */
+	public boolean shutdown(long timeout, TimeUnit unit) throws InterruptedException {
+		long deadline = System.nanoTime() + unit.toNanos(timeout);
+		boolean drained = true;
+		while (pending() > 0) {
+			if(System.nanoTime() - deadline >= 0) {
+				drained = false;
+				break;
+			}
+			if(Thread.interrupted()) {
+				throw new InterruptedException();
+			}
+			LockSupport.parkNanos(PARK_NANOS);
+		}
+		
+		halt();
+		for(Consumer consumer : consumers) {
+			consumer.thread.join(Math.max(1, TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime())));
+		}
+		return drained;
+	}
+	
+	/**
+	 * Halts the consumers of the <code>EventChannel</code> immediately, the pending events won't be processed.
+	 */
+	public void halt() {
+		for(Consumer consumer : consumers) {
+			consumer.running = false;
+		}
+	}
+	
+	/**
+	 * Return the minimum sequence of the consumers gating the publishers.
+	 *
+	 * @param minimum The default minimum if no consumers are gating.
+	 * @return		  The minimum sequence processed by all the consumers.
+	 */
+	private long minimumSequence(long minimum) {
+		for(AtomicLong sequence : gatingSequences) {
+			minimum = Math.min(minimum, sequence.get());
+		}
+		return minimum;
+	}
+	
+	/**
+	 * Releases the slot of the provided sequence once processed by a consumer. When the slot holds a published
+	 * reference and all the consumers have processed it, the reference is cleared so that the event can be
+	 * garbage collected.
+	 * <p>
+	 * This must be called before the consumer advances its sequence, so that the slot can't be claimed again
+	 * while clearing it.
+	 *
+	 * @param sequence The sequence processed by the consumer (&ge;0).
+	 */
+	private void release(long sequence) {
+		if(processed == null) {
+			return;
+		}
+		
+		int slot = (int) sequence & mask;
+		if(processed.incrementAndGet(slot) == gatingSequences.length) {
+			processed.set(slot, 0);
+			entries[slot] = null;
+		}
+	}
+	
+	/**
+	 * Return the highest published sequence between the provided bounds, as the publishers
+	 * can publish their claimed sequences out of order.
+	 *
+	 * @param lowerBound	 The first sequence to check.
+	 * @param availableBound The highest claimed sequence.
+	 * @return				 The highest contiguous published sequence, or lowerBound - 1 if none.
+	 */
+	private long highestPublished(long lowerBound, long availableBound) {
+		for(long sequence = lowerBound; sequence <= availableBound; sequence++) {
+			if(available.get((int) sequence & mask) != (int) (sequence >>> indexShift)) {
+				return sequence - 1;
+			}
+		}
+		return availableBound;
+	}
+	
+	@Override
+	public String toString() {
+		return getClass().getSimpleName() + " [type=" + type + ", capacity=" + entries.length
+				+ ", cursor=" + cursor.get() + ", consumers=" + consumers.size() + "]";
+	}
+	
+	/**
+	 * <code>WaitStrategy</code> enumerates the strategies used by a {@link Consumer} to wait for
+	 * events to be published.
+	 *
+	 * @author GnosticOccultist
+	 */
+	public enum WaitStrategy {
+		/**
+		 * Busy spin on the sequences, lowest latency but burns a core.
+		 */
+		BUSY_SPIN,
+		/**
+		 * Spin for a while, then yield the thread to others.
+		 */
+		YIELD,
+		/**
+		 * Spin for a while, then park the thread for a short time, lowest CPU usage.
+		 */
+		PARK;
+		
+		/**
+		 * The count of spins before yielding or parking.
+		 */
+		private static final int SPIN_TRIES = 100;
+		
+		/**
+		 * Waits once according to the <code>WaitStrategy</code>.
+		 *
+		 * @param counter The count of times the consumer has been waiting.
+		 */
+		void idle(int counter) {
+			if(this == BUSY_SPIN || counter < SPIN_TRIES) {
+				Thread.onSpinWait();
+			} else if(this == YIELD) {
+				Thread.yield();
+			} else {
+				LockSupport.parkNanos(PARK_NANOS);
+			}
+		}
+	}
+	
+	/**
+	 * <code>Consumer</code> processes the events published in the {@link EventChannel} on a dedicated thread, delivering
+	 * them in batches to its {@link EventListener}.
+	 *
+	 * @author GnosticOccultist
+	 */
+	public final class Consumer implements Runnable {
+		
+		/**
+		 * The listener to deliver the events to.
+		 */
+		private final EventListener<? super E> listener;
+		/**
+		 * The strategy to wait for available events.
+		 */
+		private final WaitStrategy strategy;
+		/**
+		 * The sequences of the dependencies to wait for.
+		 */
+		private final AtomicLong[] barrier;
+		/**
+		 * The sequence processed by the consumer.
+		 */
+		private final AtomicLong sequence = new AtomicLong(INITIAL_SEQUENCE);
+		/**
+		 * The thread running the consumer.
+		 */
+		private final Thread thread;
+		/**
+		 * Whether the consumer is running.
+		 */
+		private volatile boolean running = true;
+		
+		Consumer(EventListener<? super E> listener, WaitStrategy strategy, AtomicLong[] barrier, int index) {
+			this.listener = listener;
+			this.strategy = strategy;
+			this.barrier = barrier;
+			this.thread = new Thread(this, "EventChannel-" + type + "-" + index);
+			this.thread.setDaemon(true);
+		}
+		
+		void start() {
+			thread.start();
+		}
+		
+		@Override
+		public void run() {
+			long next = sequence.get() + 1;
+			int counter = 0;
+			while (running) {
+				long availableBound = waitFor(next);
+				if(availableBound < next) {
+					strategy.idle(counter++);
+					continue;
+				}
+				
+				long highest = highestPublished(next, availableBound);
+				for(long current = next; current <= highest; current++) {
+					eventBus.deliverTo(type, get(current), listener);
+					release(current);
+				}
+				
+				if(highest >= next) {
+					counter = 0;
+					sequence.lazySet(highest);
+					next = highest + 1;
+				} else {
+					strategy.idle(counter++);
+				}
+			}
+		}
+		
+		/**
+		 * Return the highest sequence which is available to the <code>Consumer</code>, according
+		 * to the cursor and the sequences of its dependencies.
+		 *
+		 * @param next The next sequence to process.
+		 * @return	   The highest available sequence, which might be lower than the next sequence.
+		 */
+		private long waitFor(long next) {
+			long availableBound = cursor.get();
+			for(AtomicLong dependency : barrier) {
+				availableBound = Math.min(availableBound, dependency.get());
+			}
+			return availableBound;
+		}
+		
+		/**
+		 * Return the sequence processed by the <code>Consumer</code>.
+		 *
+		 * @return The processed sequence (&ge;-1).
+		 */
+		public long getSequence() {
+			return sequence.get();
+		}
+		
+		/**
+		 * Return the {@link EventChannel} of the <code>Consumer</code>.
+		 *
+		 * @return The channel of the consumer (not null).
+		 */
+		EventChannel<E> channel() {
+			return EventChannel.this;
+		}
+		
+		@Override
+		public String toString() {
+			return getClass().getSimpleName() + " [listener=" + listener + ", sequence=" + sequence.get() + "]";
+		}
+	}
+}
@@ -0,0 +1,217 @@
+package fr.alchemy.utilities.event;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import fr.alchemy.utilities.Validator;
+
+/**
+ * <code>EventCoalescer</code> buffers the events of an {@link EventType} published in bursts, deduplicates them by a key
+ * and delivers them at once to the listeners of the {@link EventBus}, created with {@link EventBus#createCoalescer(EventType, Function)}.
+ * <p>
+ * An event published with the same key as a buffered one replaces it, keeping the position of the first one. The buffered events
+ * are delivered either manually when calling {@link #flush()}, for example at a frame boundary, or automatically after a time window
+ * following the first buffered event. The listeners implementing {@link BatchEventListener} receive the whole batch in a single
+ * invocation, the others are notified about each event of the batch.
+ * 
+ * <pre>
+ * EventCoalescer&lt;Path&gt; coalescer = eventBus.createCoalescer(FILE_CHANGED, Function.identity());
+ * coalescer.publish(path);
+ * ...
+ * coalescer.flush();
+ * </pre>
+ * 
+ * @param <E> The type of coalesced event.
+ * 
+ * @version 0.3.0
+ * @since 0.3.0
+ * 
+ * @author GnosticOccultist
+ */
+public final class EventCoalescer<E> {
+	
+	/**
+	 * The event bus delivering the batches.
+	 */
+	private final EventBus eventBus;
+	/**
+	 * The type of the coalesced events.
+	 */
+	private final EventType<E> type;
+	/**
+	 * The function extracting the deduplication key of an event.
+	 */
+	private final Function<? super E, ?> keyExtractor;
+	/**
+	 * The buffered events by their key, in publishing order.
+	 */
+	private final Map<Object, E> buffer = new LinkedHashMap<>();
+	/**
+	 * The time window in nanoseconds before flushing automatically, or 0 for manual flushing only.
+	 */
+	private final long windowNanos;
+	/**
+	 * The pending automatic flush, or null if none is scheduled.
+	 */
+	private ScheduledFuture<?> scheduled;
+	/**
+	 * The generation of the automatic flushes, incremented on each flush so that a stale
+	 * automatic flush doesn't deliver the events buffered after it.
+	 */
+	private long generation;
+	
+	/**
+	 * Instantiates a new <code>EventCoalescer</code> for the provided {@link EventType} which deduplicates
+	 * the events using the key extractor.
+	 * 
+	 * @param eventBus	   The event bus delivering the batches (not null).
+	 * @param type		   The type of the coalesced events (not null).
+	 * @param keyExtractor The function extracting the deduplication key of an event (not null).
+	 * @param windowNanos  The time window before flushing automatically, or 0 for manual flushing only (&ge;0).
+	 */
+	EventCoalescer(EventBus eventBus, EventType<E> type, Function<? super E, ?> keyExtractor, long windowNanos) {
+		Validator.nonNull(eventBus, "The event bus can't be null!");
+		Validator.nonNull(type, "The event type can't be null!");
+		Validator.nonNull(keyExtractor, "The key extractor can't be null!");
+		Validator.nonNegative(windowNanos, "The time window can't be negative!");
+		
+		this.eventBus = eventBus;
+		this.type = type;
+		this.keyExtractor = keyExtractor;
+		this.windowNanos = windowNanos;
+	}
+	
+	/**
+	 * Publishes the provided event to the <code>EventCoalescer</code>, replacing any buffered event with the
+	 * same key. The event will be delivered on the next flush.
+	 * 
+	 * @param event The event to publish (not null).
+	 */
+	public void publish(E event) {
+		Validator.nonNull(event, "The event can't be null!");
+		Object key = keyExtractor.apply(event);
+		
+		synchronized (buffer) {
+			buffer.put(key, event);
+			if(windowNanos > 0 && scheduled == null) {
+				long current = generation;
+				scheduled = Scheduler.INSTANCE.schedule(() -> flush(current), windowNanos, TimeUnit.NANOSECONDS);
+			}
+		}
+	}
+	
+	/**
+	 * Flushes the buffered events of the <code>EventCoalescer</code>, delivering them as a single batch
+	 * to the listeners of the {@link EventBus} in the calling thread.
+	 * 
+	 * @return The count of delivered events (&ge;0).
+	 */
+	public int flush() {
+		List<E> events;
+		synchronized (buffer) {
+			events = drain();
+		}
+		
+		if(events == null) {
+			return 0;
+		}
+		eventBus.deliverBatch(type, events);
+		return events.size();
+	}
+	
+	/**
+	 * Flushes the buffered events of the <code>EventCoalescer</code> automatically, unless they have already
+	 * been flushed since the automatic flush was scheduled.
+	 * 
+	 * @param expected The generation of the automatic flush.
+	 */
+	private void flush(long expected) {
+		List<E> events;
+		synchronized (buffer) {
+			if(generation != expected) {
+				return;
+			}
+			events = drain();
+		}
+		
+		if(events != null) {
+			eventBus.deliverBatch(type, events);
+		}
+	}
+	
+	/**
+	 * Drains the buffered events of the <code>EventCoalescer</code> and cancels the pending automatic flush, 
+	 * presumes we already have the lock.
+	 * 
+	 * @return The drained events, or null if none were buffered.
+	 */
+	private List<E> drain() {
+		generation++;
+		if(scheduled != null) {
+			scheduled.cancel(false);
+			scheduled = null;
+		}
+		
+		if(buffer.isEmpty()) {
+			return null;
+		}
+		
+		List<E> events = new ArrayList<>(buffer.values());
+		buffer.clear();
+		return events;
+	}
+	
+	/**
+	 * Return the count of buffered events waiting for the next flush of the <code>EventCoalescer</code>.
+	 * 
+	 * @return The count of pending events (&ge;0).
+	 */
+	public int pending() {
+		synchronized (buffer) {
+			return buffer.size();
+		}
+	}
+	
+	/**
+	 * Return the {@link EventType} of the events coalesced by the <code>EventCoalescer</code>.
+	 * 
+	 * @return The type of the events (not null).
+	 */
+	public EventType<E> getType() {
+		return type;
+	}
+	
+	@Override
+	public String toString() {
+		return getClass().getSimpleName() + " [type=" + type + ", pending=" + pending() + "]";
+	}
+	
+	/**
+	 * <code>Scheduler</code> holds the daemon thread flushing the coalescers with a time window, lazily
+	 * created on first use.
+	 * 
+	 * @author GnosticOccultist
+	 */
+	private static final class Scheduler {
+		
+		/**
+		 * The scheduler of the automatic flushes.
+		 */
+		private static final ScheduledThreadPoolExecutor INSTANCE = new ScheduledThreadPoolExecutor(1, runnable -> {
+			Thread thread = new Thread(runnable, "EventBus-Coalescer");
+			thread.setDaemon(true);
+			return thread;
+		});
+		
+		static {
+			// Don't keep the cancelled flushes in the queue until their delay elapses.
+			INSTANCE.setRemoveOnCancelPolicy(true);
+		}
+	}
+}
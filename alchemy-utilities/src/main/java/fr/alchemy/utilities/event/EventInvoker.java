@@ -0,0 +1,28 @@
+package fr.alchemy.utilities.event;
+
+/**
+ * <code>EventInvoker</code> is a functional interface to invoke a listening method on its listener object, 
+ * it is implemented by compiled invokers to avoid reflective calls on every delivered event.
+ * <p>
+ * The interface needs to be public, as the compiled implementations are defined alongside the listener class.
+ * 
+ * @version 0.3.0
+ * @since 0.3.0
+ * 
+ * @see EventInvokers
+ * 
+ * @author GnosticOccultist
+ */
+@FunctionalInterface
+public interface EventInvoker {
+	
+	/**
+	 * Invokes the listening method on the provided listener object with the given event.
+	 * 
+	 * @param listener The listener object declaring the method (not null).
+	 * @param event	   The event to pass to the method.
+	 * 
+	 * @throws Throwable Thrown by the listening method itself.
+	 */
+	void invoke(Object listener, Object event) throws Throwable;
+}
@@ -0,0 +1,113 @@
+package fr.alchemy.utilities.event;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodHandles.Lookup;
+import java.lang.invoke.MethodType;
+import java.lang.invoke.WrongMethodTypeException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import fr.alchemy.utilities.logging.FactoryLogger;
+import fr.alchemy.utilities.logging.Logger;
+
+/**
+ * <code>EventInvokers</code> compiles listening methods into {@link EventInvoker} using the {@link LambdaMetafactory},
+ * so that invoking them costs about the same as a direct interface call. The compiled invokers are cached per declaring
+ * class and method.
+ * <p>
+ * If the method can't be compiled, for example because of access restrictions, the invoker falls back to an 
+ * adapted {@link MethodHandle} which still avoids the access checks and arguments boxing of reflective calls.
+ * 
+ * @version 0.3.0
+ * @since 0.3.0
+ * 
+ * @author GnosticOccultist
+ */
+final class EventInvokers {
+	
+	/**
+	 * The logger for homonculus events.
+	 */
+	private static final Logger logger = FactoryLogger.getLogger("alchemy.events");
+	/**
+	 * The type of the invoker method once erased.
+	 */
+	private static final MethodType INVOKE_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+	/**
+	 * The cache of compiled invokers per declaring class and method.
+	 */
+	private static final ClassValue<Map<Method, EventInvoker>> CACHE = new ClassValue<>() {
+		
+		@Override
+		protected Map<Method, EventInvoker> computeValue(Class<?> type) {
+			return new ConcurrentHashMap<>();
+		}
+	};
+	
+	/**
+	 * Private constructor to inhibit instantiation of <code>EventInvokers</code>.
+	 */
+	private EventInvokers() {}
+	
+	/**
+	 * Return the {@link EventInvoker} for the provided listening method, compiling it if it
+	 * hasn't been done yet.
+	 * 
+	 * @param method The listening method with a single event parameter (not null).
+	 * @return		 The invoker for the method (not null).
+	 * 
+	 * @throws IllegalArgumentException Thrown if the method can't be accessed or doesn't have a single parameter.
+	 */
+	static EventInvoker of(Method method) {
+		return CACHE.get(method.getDeclaringClass()).computeIfAbsent(method, EventInvokers::compile);
+	}
+	
+	/**
+	 * Compiles the provided listening method into an {@link EventInvoker}.
+	 * 
+	 * @param method The listening method with a single event parameter (not null).
+	 * @return		 The compiled invoker for the method (not null).
+	 * 
+	 * @throws IllegalArgumentException Thrown if the method can't be accessed or doesn't have a single parameter.
+	 */
+	private static EventInvoker compile(Method method) {
+		Class<?> declaringClass = method.getDeclaringClass();
+		MethodHandle handle;
+		Lookup lookup;
+		try {
+			lookup = MethodHandles.privateLookupIn(declaringClass, MethodHandles.lookup());
+			handle = lookup.unreflect(method);
+		} catch (IllegalAccessException ex) {
+			throw new IllegalArgumentException("Unable to access the listening method " + method, ex);
+		}
+		
+		if(!Modifier.isStatic(method.getModifiers())) {
+			try {
+				Class<?> eventClass = MethodType.methodType(method.getParameterTypes()[0]).wrap().returnType();
+				CallSite site = LambdaMetafactory.metafactory(lookup, "invoke", MethodType.methodType(EventInvoker.class),
+						INVOKE_TYPE, handle, MethodType.methodType(void.class, declaringClass, eventClass));
+				return (EventInvoker) site.getTarget().invoke();
+			} catch (Throwable t) {
+				logger.debug("Unable to compile listening method " + method + ", falling back to a method handle: " + t);
+			}
+		} else {
+			// Static method doesn't need the listener object.
+			handle = MethodHandles.dropArguments(handle, 0, Object.class);
+		}
+		
+		MethodHandle adapted;
+		try {
+			adapted = handle.asType(INVOKE_TYPE);
+		} catch (WrongMethodTypeException ex) {
+			throw new IllegalArgumentException("The listening method " + method + " must have a single event parameter!", ex);
+		}
+		return (listener, event) -> {
+			adapted.invokeExact(listener, event);
+		};
+	}
+}
@@ -11,8 +11,11 @@ import java.lang.annotation.Target;
  * <p>
  * A method using the annotation must have at least one parameter representing the event to be listening to,
  * but it can also provides the specific event type if desired so.
+ * <p>
+ * The {@link #priority()} of the method defines its position in the listeners of the types, the methods 
+ * with a higher priority being notified first.
  * 
- * @version 0.2.0
+ * @version 0.3.0
  * @since 0.1.0
  * 
  * @author GnosticOccultist
@@ -22,4 +25,11 @@ import java.lang.annotation.Target;
 public @interface EventSubscriber {
 	
 	String[] types() default {};
+	
+	/**
+	 * Return the priority of the listening method, higher priorities being notified first.
+	 * 
+	 * @return The priority of the method, {@link EventBus#DEFAULT_PRIORITY} by default.
+	 */
+	int priority() default EventBus.DEFAULT_PRIORITY;
 }
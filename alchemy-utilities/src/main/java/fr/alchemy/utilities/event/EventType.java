@@ -1,43 +1,80 @@
 package fr.alchemy.utilities.event;
 
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import fr.alchemy.utilities.Validator;
+
 /**
  * <code>EventType</code> represents the event type for an event. This helps the
  * listeners to only catch the event of their interest.
+ * <p>
+ * Each event type is attributed a dense integer identifier on creation, which is used by the {@link EventBus}
+ * to index its listeners without hashing. Equal event types share the same identifier, so the types only differing
+ * by their super type are attributed distinct identifiers.
+ * <p>
+ * The event types are meant to be constants stored in static fields: the table of identifiers keeps every created type 
+ * strongly reachable, and each distinct type widens the listener tables of the event buses. Creating event types dynamically, 
+ * for example one per entity or per request, therefore leaks memory.
+ * <p>
+ * An event type can be created with a super type, in which case the listeners of the super type are also notified
+ * about events of this type. This allows to listen to a family of events with a single coarse listener. Two event types
+ * are equal only if they share the same name, event class and super type.
  * 
  * @param <E> The class for the event.
  * 
- * @version 0.2.0
+ * @version 0.3.0
  * @since 0.1.0
  * 
  * @author GnosticOccultist
  */
 public class EventType<E> {
+	
+	/**
+	 * The counter used to attribute a dense identifier to each event type.
+	 */
+	private static final AtomicInteger NEXT_ID = new AtomicInteger();
+	/**
+	 * The table containing the identifiers attributed to the event types, which are never removed.
+	 */
+	private static final Map<EventType<?>, Integer> IDS = new ConcurrentHashMap<>();
 
 	/**
 	 * The name of the event type.
 	 */
-	private String name;
+	private final String name;
 	/**
 	 * The class for the event.
 	 */
-	private Class<E> eventClass;
+	private final Class<E> eventClass;
+	/**
+	 * The super type of the event type, or null if none.
+	 */
+	private final EventType<? super E> superType;
+	/**
+	 * The dense identifier of the event type.
+	 */
+	private final int id;
 
 	/**
 	 * Protected constructor to inhibit instantiation of this class. Use
 	 * {@link #create(String, Class)} instead.
 	 */
 	protected EventType(String name, Class<E> eventClass) {
-		this.name = name;
-		this.eventClass = eventClass;
+		this(name, eventClass, null);
 	}
 
 	/**
 	 * Protected constructor to inhibit instantiation of this class. Use
-	 * {@link #create(String, Class)} instead.
+	 * {@link #create(String, Class, EventType)} instead.
 	 */
 	protected EventType(String name, Class<E> eventClass, EventType<? super E> superType) {
 		this.name = name;
 		this.eventClass = eventClass;
+		this.superType = superType;
+		this.id = IDS.computeIfAbsent(this, type -> NEXT_ID.getAndIncrement());
 	}
 
 	/**
@@ -53,6 +90,23 @@ public class EventType<E> {
 	public static <E> EventType<E> create(String name, Class<E> eventClass) {
 		return new EventType<>(name, eventClass);
 	}
+	
+	/**
+	 * Creates a new <code>EventType</code> with the given name, for the specified event class and
+	 * as a sub-type of the provided super type. The listeners of the super type will also be notified 
+	 * about the events of the created type.
+	 * 
+	 * @param <E> The event's type.
+	 * 
+	 * @param name       The name of the event type.
+	 * @param eventClass The class of the event.
+	 * @param superType  The super type of the event type (not null).
+	 * @return 			 A new event type instance.
+	 */
+	public static <E> EventType<E> create(String name, Class<E> eventClass, EventType<? super E> superType) {
+		Validator.nonNull(superType, "The super type can't be null!");
+		return new EventType<>(name, eventClass, superType);
+	}
 
 	/**
 	 * Return the name of the <code>EventType</code>.
@@ -63,6 +117,42 @@ public class EventType<E> {
 		return name;
 	}
 
+	/**
+	 * Return the dense identifier of the <code>EventType</code>, which is shared by
+	 * all the equal event types.
+	 * 
+	 * @return The identifier of the event type (&ge;0).
+	 */
+	public int getId() {
+		return id;
+	}
+
+	/**
+	 * Return the super type of the <code>EventType</code>, whose listeners are also 
+	 * notified about the events of this type.
+	 * 
+	 * @return The super type of the event type, or null if none.
+	 */
+	public EventType<? super E> getSuperType() {
+		return superType;
+	}
+	
+	/**
+	 * Return whether the <code>EventType</code> is the same as or a sub-type of the 
+	 * provided event type.
+	 * 
+	 * @param type The event type to check (not null).
+	 * @return	   Whether the event type is a sub-type of the given one.
+	 */
+	public boolean isSubTypeOf(EventType<?> type) {
+		for(EventType<?> current = this; current != null; current = current.superType) {
+			if(current.equals(type)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
 	/**
 	 * Return the class of event for the <code>EventType</code>.
 	 * 
@@ -102,11 +192,19 @@ public class EventType<E> {
 
 		if (getClass() == obj.getClass()) {
 			EventType<?> other = (EventType<?>) obj;
-			return name.equals(other.name) && eventClass.equals(other.eventClass);
+			// The super type is part of the identity, since it changes the listeners to notify.
+			return name.equals(other.name) && eventClass.equals(other.eventClass) 
+					&& Objects.equals(superType, other.superType);
 		}
 
 		return super.equals(obj);
 	}
+	
+	@Override
+	public int hashCode() {
+		// Only use the name, so it stays consistent with the equality on names.
+		return name.hashCode();
+	}
 
 	@Override
 	public String toString() {
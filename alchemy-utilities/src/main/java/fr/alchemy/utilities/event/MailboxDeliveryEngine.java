@@ -0,0 +1,502 @@
+package fr.alchemy.utilities.event;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import fr.alchemy.utilities.Validator;
+import fr.alchemy.utilities.logging.FactoryLogger;
+import fr.alchemy.utilities.logging.Logger;
+
+/**
+ * <code>MailboxDeliveryEngine</code> is the default implementation of {@link AsyncDeliveryEngine}, which uses a dedicated
+ * executor and a serial mailbox per listener. The events are therefore delivered in FIFO order to each listener, while 
+ * different listeners are notified in parallel.
+ * <p>
+ * The count of pending deliveries is bounded by a capacity, once reached the {@link BackPressurePolicy} of the engine
+ * decides what happens to the new deliveries. Note that a listener publishing from a dedicated thread of a full blocking engine
+ * is notified in place to avoid dead-locking the engine. If the executor rejects a mailbox, its deliveries are not executed in the 
+ * publishing thread but fail their {@link DeliveryFuture}, or publish an {@link ErrorEvent} when they aren't tracked. 
+ * The mailboxes don't allocate anything per event, they store the deliveries
+ * in circular arrays which are reused.
+ * 
+ * @version 0.3.0
+ * @since 0.3.0
+ * 
+ * @author GnosticOccultist
+ */
+public class MailboxDeliveryEngine implements AsyncDeliveryEngine {
+	
+	/**
+	 * The logger for homonculus events.
+	 */
+	private static final Logger logger = FactoryLogger.getLogger("alchemy.events");
+	/**
+	 * The default capacity of pending deliveries.
+	 */
+	public static final int DEFAULT_CAPACITY = 65536;
+	/**
+	 * The maximum number of deliveries executed by a mailbox before yielding its thread.
+	 */
+	private static final int BATCH_SIZE = 64;
+	/**
+	 * The counter of engines to name the threads.
+	 */
+	private static final AtomicInteger ENGINE_COUNT = new AtomicInteger();
+	
+	/**
+	 * The executor running the mailboxes.
+	 */
+	private final ExecutorService executor;
+	/**
+	 * The permits for pending deliveries, to bound the engine.
+	 */
+	private final Semaphore permits;
+	/**
+	 * The policy to apply when the engine is full.
+	 */
+	private final BackPressurePolicy policy;
+	/**
+	 * The table of mailboxes per listener.
+	 */
+	private final Map<EventListener<?>, Mailbox> mailboxes = new ConcurrentHashMap<>();
+	/**
+	 * The count of pending deliveries.
+	 */
+	private final AtomicInteger pending = new AtomicInteger();
+	/**
+	 * Whether the engine has been shutdown.
+	 */
+	private volatile boolean shutdown;
+	
+	/**
+	 * Instantiates a new <code>MailboxDeliveryEngine</code> with a dedicated daemon thread per available
+	 * processor, a capacity of {@value #DEFAULT_CAPACITY} pending deliveries and blocking the publishers
+	 * when full.
+	 */
+	public MailboxDeliveryEngine() {
+		this(Runtime.getRuntime().availableProcessors(), DEFAULT_CAPACITY, BackPressurePolicy.BLOCK);
+	}
+	
+	/**
+	 * Instantiates a new <code>MailboxDeliveryEngine</code> with the given count of dedicated daemon threads,
+	 * capacity of pending deliveries and {@link BackPressurePolicy}.
+	 * 
+	 * @param threads  The count of threads to deliver the events (&gt;0).
+	 * @param capacity The maximum count of pending deliveries (&gt;0).
+	 * @param policy   The policy to apply when the engine is full (not null).
+	 */
+	public MailboxDeliveryEngine(int threads, int capacity, BackPressurePolicy policy) {
+		this(Executors.newFixedThreadPool(Validator.positive(threads, "The count of threads must be strictly positive!"), 
+				new DeliveryThreadFactory()), capacity, policy);
+	}
+	
+	/**
+	 * Instantiates a new <code>MailboxDeliveryEngine</code> using the provided {@link ExecutorService}, which 
+	 * is shutdown along with the engine.
+	 * 
+	 * @param executor The executor to run the mailboxes (not null).
+	 * @param capacity The maximum count of pending deliveries (&gt;0).
+	 * @param policy   The policy to apply when the engine is full (not null).
+	 */
+	public MailboxDeliveryEngine(ExecutorService executor, int capacity, BackPressurePolicy policy) {
+		Validator.nonNull(executor, "The executor can't be null!");
+		Validator.positive(capacity, "The capacity must be strictly positive!");
+		Validator.nonNull(policy, "The back-pressure policy can't be null!");
+		this.executor = executor;
+		this.permits = new Semaphore(capacity);
+		this.policy = policy;
+	}
+	
+	/**
+	 * Enqueues the delivery of the provided event to the mailbox of the given {@link EventListener}, applying
+	 * the {@link BackPressurePolicy} if the engine is full.
+	 * 
+	 * @param eventBus The event bus delivering the event (not null).
+	 * @param type	   The type of event to deliver (not null).
+	 * @param event	   The event to deliver.
+	 * @param listener The listener to deliver the event to (not null).
+	 * @param future   The future tracking the delivery, or null if not tracked.
+	 * @return		   Whether the delivery has been accepted by the engine.
+	 */
+	@Override
+	public <E> boolean deliver(EventBus eventBus, EventType<E> type, E event, EventListener<? super E> listener, DeliveryFuture future) {
+		if(shutdown) {
+			throw new RejectedExecutionException("The delivery engine has been shutdown!");
+		}
+		
+		if(!permits.tryAcquire()) {
+			switch (policy) {
+				case BLOCK:
+					if(Thread.currentThread() instanceof DeliveryThread) {
+						// Blocking a delivery thread could dead-lock the engine, deliver in place.
+						deliverNow(eventBus, type, event, listener, future);
+						return true;
+					}
+					permits.acquireUninterruptibly();
+					break;
+				case CALLER_RUNS:
+					deliverNow(eventBus, type, event, listener, future);
+					return true;
+				case DISCARD:
+					logger.debug("Discarded delivery of event: " + event + " for type: " + type + " to: " + listener);
+					return false;
+				case ABORT:
+				default:
+					throw new RejectedExecutionException("The delivery engine is full, unable to deliver event: " 
+							+ event + " for type: " + type);
+			}
+		}
+		
+		pending.incrementAndGet();
+		
+		Mailbox mailbox;
+		do {
+			mailbox = mailboxes.computeIfAbsent(listener, Mailbox::new);
+		} while (!mailbox.offer(eventBus, type, event, future));
+		
+		return true;
+	}
+	
+	/**
+	 * Delivers the provided event to the given {@link EventListener} in the calling thread, notifying the
+	 * {@link DeliveryFuture} if any.
+	 * 
+	 * @param eventBus The event bus delivering the event (not null).
+	 * @param type	   The type of event to deliver (not null).
+	 * @param event	   The event to deliver.
+	 * @param listener The listener to deliver the event to (not null).
+	 * @param future   The future tracking the delivery, or null if not tracked.
+	 */
+	private static <E> void deliverNow(EventBus eventBus, EventType<E> type, E event, EventListener<? super E> listener, DeliveryFuture future) {
+		if(future == null) {
+			eventBus.deliverTo(type, event, listener);
+		} else {
+			future.delivered(eventBus.tryDeliverTo(type, event, listener));
+		}
+	}
+	
+	@Override
+	public int pending() {
+		return pending.get();
+	}
+	
+	/**
+	 * Return the {@link BackPressurePolicy} of the <code>MailboxDeliveryEngine</code>.
+	 * 
+	 * @return The policy applied when the engine is full (not null).
+	 */
+	public BackPressurePolicy getPolicy() {
+		return policy;
+	}
+	
+	@Override
+	public void shutdown() {
+		this.shutdown = true;
+		// Previously submitted mailboxes are still executed by the executor.
+		executor.shutdown();
+	}
+	
+	@Override
+	public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+		return executor.awaitTermination(timeout, unit);
+	}
+	
+	/**
+	 * Schedules the provided {@link Mailbox} on the executor, or reject its pending deliveries if the
+	 * executor refuses it, for example when it has been shutdown concurrently.
+	 * <p>
+	 * The deliveries are never executed in the caller thread, as it would silently make the publication
+	 * synchronous: the tracked deliveries fail their {@link DeliveryFuture} with the rejection, while an 
+	 * {@link ErrorEvent} of type {@link ErrorEvent#DISPATCH_ERROR} is published for the other ones.
+	 * 
+	 * @param mailbox The mailbox to schedule (not null).
+	 */
+	private void schedule(Mailbox mailbox) {
+		try {
+			executor.execute(mailbox);
+		} catch (RejectedExecutionException ex) {
+			mailbox.reject(ex);
+		}
+	}
+	
+	@Override
+	public String toString() {
+		return getClass().getSimpleName() + " [pending=" + pending() + ", policy=" + policy + "]";
+	}
+	
+	/**
+	 * <code>BackPressurePolicy</code> enumerates the policies applied by a {@link MailboxDeliveryEngine}
+	 * when its capacity of pending deliveries is reached.
+	 * 
+	 * @author GnosticOccultist
+	 */
+	public enum BackPressurePolicy {
+		/**
+		 * The publisher blocks until a delivery slot is available.
+		 */
+		BLOCK,
+		/**
+		 * The publisher delivers the event itself, note that it breaks the ordering
+		 * of the listener's mailbox.
+		 */
+		CALLER_RUNS,
+		/**
+		 * The delivery is silently discarded.
+		 */
+		DISCARD,
+		/**
+		 * A {@link RejectedExecutionException} is thrown to the publisher.
+		 */
+		ABORT;
+	}
+	
+	/**
+	 * <code>Mailbox</code> is a serial queue of deliveries to a single {@link EventListener}. It is scheduled on the
+	 * executor when it receives a delivery while idle, and retires itself once drained.
+	 * 
+	 * @author GnosticOccultist
+	 */
+	private final class Mailbox implements Runnable {
+		
+		/**
+		 * The listener to deliver the events to.
+		 */
+		private final EventListener<Object> listener;
+		/**
+		 * The circular arrays of pending deliveries.
+		 */
+		private Object[] buses, types, events;
+		/**
+		 * The circular array of futures tracking the pending deliveries, lazily allocated.
+		 */
+		private DeliveryFuture[] futures;
+		/**
+		 * The index of the head of the queue.
+		 */
+		private int head;
+		/**
+		 * The count of pending deliveries in the mailbox.
+		 */
+		private int size;
+		/**
+		 * Whether the mailbox is scheduled or being executed.
+		 */
+		private boolean scheduled;
+		/**
+		 * Whether the mailbox has been retired and shouldn't accept deliveries.
+		 */
+		private boolean retired;
+		
+		@SuppressWarnings("unchecked")
+		Mailbox(EventListener<?> listener) {
+			this.listener = (EventListener<Object>) listener;
+			this.buses = new Object[8];
+			this.types = new Object[8];
+			this.events = new Object[8];
+		}
+		
+		/**
+		 * Offers the provided delivery to the <code>Mailbox</code>, scheduling it if it was idle.
+		 * 
+		 * @return Whether the delivery was accepted, or false if the mailbox is retired.
+		 */
+		boolean offer(EventBus eventBus, EventType<?> type, Object event, DeliveryFuture future) {
+			boolean schedule;
+			synchronized (this) {
+				if(retired) {
+					return false;
+				}
+				
+				if(size == events.length) {
+					grow();
+				}
+				
+				int tail = (head + size) & (events.length - 1);
+				buses[tail] = eventBus;
+				types[tail] = type;
+				events[tail] = event;
+				if(future != null) {
+					if(futures == null) {
+						futures = new DeliveryFuture[events.length];
+					}
+					futures[tail] = future;
+				}
+				size++;
+				
+				schedule = !scheduled;
+				scheduled = true;
+			}
+			
+			if(schedule) {
+				schedule(this);
+			}
+			return true;
+		}
+		
+		@Override
+		@SuppressWarnings("unchecked")
+		public void run() {
+			for(int count = 0; ; count++) {
+				EventBus eventBus;
+				EventType<Object> type;
+				Object event;
+				DeliveryFuture future = null;
+				synchronized (this) {
+					if(size == 0) {
+						// Retire the mailbox, so that idle listeners don't leak.
+						scheduled = false;
+						retired = true;
+						mailboxes.remove(listener, this);
+						return;
+					}
+					
+					if(count == BATCH_SIZE && !shutdown) {
+						// Yield the thread to the other mailboxes, staying scheduled.
+						break;
+					}
+					
+					eventBus = (EventBus) buses[head];
+					type = (EventType<Object>) types[head];
+					event = events[head];
+					buses[head] = types[head] = events[head] = null;
+					if(futures != null) {
+						future = futures[head];
+						futures[head] = null;
+					}
+					head = (head + 1) & (events.length - 1);
+					size--;
+				}
+				
+				try {
+					deliverNow(eventBus, type, event, listener, future);
+				} finally {
+					pending.decrementAndGet();
+					permits.release();
+				}
+			}
+			
+			schedule(this);
+		}
+		
+		/**
+		 * Rejects all the pending deliveries of the <code>Mailbox</code> and retires it, because the executor
+		 * refused to run it.
+		 * 
+		 * @param ex The exception thrown by the executor (not null).
+		 */
+		void reject(RejectedExecutionException ex) {
+			Object[] buses, types, events;
+			DeliveryFuture[] futures;
+			int count;
+			synchronized (this) {
+				buses = new Object[size];
+				types = new Object[size];
+				events = new Object[size];
+				futures = this.futures != null ? new DeliveryFuture[size] : null;
+				for(int i = 0; i < size; i++) {
+					buses[i] = this.buses[head];
+					types[i] = this.types[head];
+					events[i] = this.events[head];
+					this.buses[head] = this.types[head] = this.events[head] = null;
+					if(futures != null) {
+						futures[i] = this.futures[head];
+						this.futures[head] = null;
+					}
+					head = (head + 1) & (this.events.length - 1);
+				}
+				count = size;
+				size = 0;
+				// New deliveries will go to a new mailbox, which is scheduled again.
+				scheduled = false;
+				retired = true;
+				mailboxes.remove(listener, this);
+			}
+			
+			for(int i = 0; i < count; i++) {
+				EventType<?> type = (EventType<?>) types[i];
+				try {
+					if(futures != null && futures[i] != null) {
+						futures[i].delivered(ex);
+					} else {
+						logger.error("Rejected delivery of event: " + events[i] + " for type: " + type + " to: " + listener, ex);
+						if(type != ErrorEvent.DISPATCH_ERROR) {
+							((EventBus) buses[i]).publishEvent(ErrorEvent.DISPATCH_ERROR, new ErrorEvent(ex, type, events[i]));
+						}
+					}
+				} finally {
+					pending.decrementAndGet();
+					permits.release();
+				}
+			}
+		}
+		
+		/**
+		 * Doubles the capacity of the circular arrays, presumes we already have the lock.
+		 */
+		private void grow() {
+			int length = events.length;
+			Object[] newBuses = new Object[length << 1];
+			Object[] newTypes = new Object[length << 1];
+			Object[] newEvents = new Object[length << 1];
+			DeliveryFuture[] newFutures = futures != null ? new DeliveryFuture[length << 1] : null;
+			for(int i = 0; i < size; i++) {
+				int index = (head + i) & (length - 1);
+				newBuses[i] = buses[index];
+				newTypes[i] = types[index];
+				newEvents[i] = events[index];
+				if(newFutures != null) {
+					newFutures[i] = futures[index];
+				}
+			}
+			this.futures = newFutures;
+			this.buses = newBuses;
+			this.types = newTypes;
+			this.events = newEvents;
+			this.head = 0;
+		}
+	}
+	
+	/**
+	 * <code>DeliveryThreadFactory</code> creates the daemon threads used to deliver the events.
+	 * 
+	 * @author GnosticOccultist
+	 */
+	private static final class DeliveryThreadFactory implements ThreadFactory {
+		
+		/**
+		 * The index of the engine.
+		 */
+		private final int engineIndex = ENGINE_COUNT.incrementAndGet();
+		/**
+		 * The counter of created threads.
+		 */
+		private final AtomicInteger threadCount = new AtomicInteger();
+		
+		@Override
+		public Thread newThread(Runnable runnable) {
+			Thread thread = new DeliveryThread(runnable, "EventBus-Delivery-" + engineIndex + "-" + threadCount.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		}
+	}
+	
+	/**
+	 * <code>DeliveryThread</code> is a thread created to deliver the events of a <code>MailboxDeliveryEngine</code>,
+	 * it allows to detect re-entrant publishing from the listeners.
+	 * 
+	 * @author GnosticOccultist
+	 */
+	private static final class DeliveryThread extends Thread {
+		
+		DeliveryThread(Runnable runnable, String name) {
+			super(runnable, name);
+		}
+	}
+}
@@ -1,10 +1,12 @@
 package fr.alchemy.utilities.event;
 
+import fr.alchemy.utilities.collections.pool.Reusable;
+
 /**
  * <code>SingletonEventBus</code> is a singleton implementation of {@link EventBus} which provides static methods to publish 
  * an {@link EventType} or add an {@link EventListener}.
  * 
- * @version 0.2.0
+ * @version 0.3.0
  * @since 0.2.0
  * 
  * @see EventBus
@@ -49,19 +51,19 @@ public final class SingletonEventBus extends EventBus {
 	}
 	
 	/**
-	 * Publishes the specified event to the <code>EventBus</code>, delivering it 
-	 * to all listeners registered for the particular {@link EventType}.
+	 * Publishes the specified {@link Reusable} event to the <code>EventBus</code>, delivering it 
+	 * to all listeners registered for the particular {@link EventType} and releasing it afterwards.
 	 * <p>
-	 * This is the same as calling {@link EventBus#publishEvent(EventType, Object)}, 
+	 * This is the same as calling {@link EventBus#publishRecyclableEvent(EventType, Reusable)}, 
 	 * except it first get the singleton-instance of the event bus.
 	 * 
 	 * @param <E> The event's type.
 	 * 
 	 * @param type	The type of event to be delivered.
-	 * @param event The event to publish.
+	 * @param event The reusable event to publish and release (not null).
 	 */
-	public static <E> void publishAsync(EventType<E> type, E event) {
-		getInstance().publishAsyncEvent(type, event);
+	public static <E extends Reusable> void publishRecyclable(EventType<E> type, E event) {
+		getInstance().publishRecyclableEvent(type, event);
 	}
 	
 	/**
@@ -80,6 +82,22 @@ public final class SingletonEventBus extends EventBus {
 		getInstance().addEventListener(type, listener);
 	}
 	
+	/**
+	 * Adds an {@link EventListener} object that will be notified about events of the
+	 * specified {@link EventType}, without preventing it from being garbage-collected.
+	 * <p>
+	 * This is the same as calling {@link #addWeakEventListener(EventType, EventListener)},
+	 * except it first get the singleton-instance of the event bus.
+	 * 
+	 * @param <E> The event's type.
+	 * 
+	 * @param type	   The type of event.
+	 * @param listener The event listener to register weakly.
+	 */
+	public static <E> void addWeakListener(EventType<E> type, EventListener<? super E> listener) {
+		getInstance().addWeakEventListener(type, listener);
+	}
+	
 	/**
 	 * Removes the {@link EventListener} object that will be notified about events of the
 	 * specified {@link EventType}.
@@ -0,0 +1,203 @@
+package fr.alchemy.utilities.event;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * <code>SubscriberMetadata</code> caches the listening methods of a listener class, so that registering an instance to
+ * the {@link EventBus} doesn't involve any reflective lookup once the first instance of the class has been registered.
+ * <p>
+ * The methods annotated with {@link EventSubscriber} are resolved when the metadata is computed, while the methods matching
+ * an {@link EventType} name are resolved once per type. Each listening method is compiled into an {@link EventInvoker}.
+ * 
+ * @version 0.3.0
+ * @since 0.3.0
+ * 
+ * @author GnosticOccultist
+ */
+final class SubscriberMetadata {
+	
+	/**
+	 * The cache of subscriber metadata per listener class.
+	 */
+	private static final ClassValue<SubscriberMetadata> CACHE = new ClassValue<>() {
+		
+		@Override
+		protected SubscriberMetadata computeValue(Class<?> type) {
+			return new SubscriberMetadata(type);
+		}
+	};
+	/**
+	 * The marker of an event type without any listening method.
+	 */
+	private static final Subscriber MISSING = new Subscriber(null, null, new String[0], EventBus.DEFAULT_PRIORITY);
+	
+	/**
+	 * The listener class.
+	 */
+	private final Class<?> type;
+	/**
+	 * The listening methods annotated with {@link EventSubscriber}.
+	 */
+	private final Subscriber[] annotated;
+	/**
+	 * The listening methods matching the name of an event type.
+	 */
+	private final Map<EventType<?>, Subscriber> named = new ConcurrentHashMap<>();
+	
+	/**
+	 * Instantiates a new <code>SubscriberMetadata</code> for the provided listener class.
+	 * 
+	 * @param type The listener class (not null).
+	 */
+	private SubscriberMetadata(Class<?> type) {
+		this.type = type;
+		
+		List<Subscriber> annotated = new ArrayList<>();
+		for(Method method : type.getDeclaredMethods()) {
+			
+			// The compiler sometimes creates synthetic bridge methods as part of the
+			// type erasure process. As of JDK8, these methods now include the same
+			// annotations as the original declarations. They should be ingnored from
+			// the registering process.
+			if(method.isBridge()) {
+				continue;
+			}
+			
+			EventSubscriber annotation = method.getAnnotation(EventSubscriber.class);
+			if(annotation != null) {
+				annotated.add(new Subscriber(method, null, annotation.types(), annotation.priority()));
+			}
+		}
+		this.annotated = annotated.toArray(new Subscriber[annotated.size()]);
+	}
+	
+	/**
+	 * Return the <code>SubscriberMetadata</code> of the provided listener class, computing it
+	 * on first access.
+	 * 
+	 * @param type The listener class (not null).
+	 * @return	   The subscriber metadata of the class (not null).
+	 */
+	static SubscriberMetadata of(Class<?> type) {
+		return CACHE.get(type);
+	}
+	
+	/**
+	 * Return the {@link Subscriber} annotated with {@link EventSubscriber} declared by the listener class.
+	 * 
+	 * @return The annotated subscribers (not null, may be empty).
+	 */
+	Subscriber[] annotated() {
+		return annotated;
+	}
+	
+	/**
+	 * Return the {@link Subscriber} whose method is named after the provided {@link EventType}, either
+	 * "on" + type name or the lower-cased type name, looking in the listener class and its superclasses.
+	 * 
+	 * @param eventType The event type to find the listening method for (not null).
+	 * @return			The subscriber for the type, or null if no method matches.
+	 */
+	Subscriber named(EventType<?> eventType) {
+		Subscriber subscriber = named.computeIfAbsent(eventType, this::resolve);
+		return subscriber != MISSING ? subscriber : null;
+	}
+	
+	/**
+	 * Resolves the {@link Subscriber} whose method is named after the provided {@link EventType}.
+	 * 
+	 * @param eventType The event type to find the listening method for (not null).
+	 * @return			The subscriber for the type, or {@link #MISSING} if no method matches.
+	 */
+	private Subscriber resolve(EventType<?> eventType) {
+		String prefixed = "on" + eventType.getName();
+		
+		String name = eventType.getName();
+		if(Character.isUpperCase(name.charAt(0)) && Character.isLowerCase(name.charAt(1))) {
+			name = Character.toLowerCase(name.charAt(0)) + name.substring(1);
+		}
+		
+		for(Class<?> clazz = type; clazz != null; clazz = clazz.getSuperclass()) {
+			Method candidate = null;
+			for(Method method : clazz.getDeclaredMethods()) {
+				if(method.getParameterCount() != 1 || method.getParameterTypes()[0] != eventType.getEventClass()) {
+					continue;
+				}
+				
+				// The 'on' + name version takes precedence over the direct name.
+				if(method.getName().equals(prefixed)) {
+					candidate = method;
+					break;
+				} else if(candidate == null && method.getName().equals(name)) {
+					candidate = method;
+				}
+			}
+			
+			if(candidate != null) {
+				return new Subscriber(candidate, EventInvokers.of(candidate), null, EventBus.DEFAULT_PRIORITY);
+			}
+		}
+		return MISSING;
+	}
+	
+	@Override
+	public String toString() {
+		return getClass().getSimpleName() + " [type=" + type + ", annotated=" + annotated.length + "]";
+	}
+	
+	/**
+	 * <code>Subscriber</code> describes a listening method with its compiled {@link EventInvoker}.
+	 * 
+	 * @author GnosticOccultist
+	 */
+	static final class Subscriber {
+		
+		/**
+		 * The listening method.
+		 */
+		final Method method;
+		/**
+		 * The names of the event types listened by the method, or null if not annotated.
+		 */
+		final String[] typeNames;
+		/**
+		 * The priority of the method.
+		 */
+		final int priority;
+		/**
+		 * The compiled invoker of the method, lazily compiled for annotated methods.
+		 */
+		private volatile EventInvoker invoker;
+		
+		Subscriber(Method method, EventInvoker invoker, String[] typeNames, int priority) {
+			this.method = method;
+			this.invoker = invoker;
+			this.typeNames = typeNames;
+			this.priority = priority;
+		}
+		
+		/**
+		 * Return the compiled {@link EventInvoker} of the listening method, compiling it
+		 * on first access.
+		 * 
+		 * @return The invoker of the method (not null).
+		 */
+		EventInvoker invoker() {
+			EventInvoker invoker = this.invoker;
+			if(invoker == null) {
+				invoker = EventInvokers.of(method);
+				this.invoker = invoker;
+			}
+			return invoker;
+		}
+		
+		@Override
+		public String toString() {
+			return getClass().getSimpleName() + " [" + method + "]";
+		}
+	}
+}
@@ -95,13 +95,13 @@ public final class FastBufferedWriter extends Writer {
 	@Override
 	public void flush() throws IOException {
 		flushBuffer();
-		wrapped.close();
+		wrapped.flush();
 	}
 
 	@Override
 	public void close() throws IOException {
 		flushBuffer();
-		wrapped.flush();
+		wrapped.close();
 	}
 	
 	private void flushBuffer() throws IOException {
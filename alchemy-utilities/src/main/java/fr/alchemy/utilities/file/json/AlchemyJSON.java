@@ -1,8 +1,15 @@
 package fr.alchemy.utilities.file.json;
 
 import java.io.IOException;
+import java.io.OutputStream;
 import java.io.Reader;
 import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 
 import fr.alchemy.utilities.Validator;
 import fr.alchemy.utilities.file.json.JSONLiteral.JSONFalseLiteral;
@@ -40,12 +47,181 @@ public final class AlchemyJSON {
 	}
 
 	public static JSONValue parse(Reader reader) throws IOException {
+		return parse(reader, null);
+	}
+	
+	/**
+	 * Parses the JSON document from the provided {@link Reader}, canonicalizing the member names with the provided
+	 * {@link JSONSymbolTable}, which can be shared across the parses of documents with similar names.
+	 * 
+	 * @param reader  The reader of the JSON document (not null).
+	 * @param symbols The symbol table for the member names, or null to use one for this parse only.
+	 * @return		  The parsed JSON value (not null).
+	 * @throws IOException Thrown if an I/O error occurs in the reader or if the document is malformed.
+	 */
+	public static JSONValue parse(Reader reader, JSONSymbolTable symbols) throws IOException {
 		Validator.nonNull(reader);
-		JSONParser parser = JSONParser.newParser(reader);
+		JSONParser parser = JSONParser.newParser(reader, symbols);
 		parser.parse();
 		return parser.value;
 	}
 	
+	/**
+	 * Parses the JSON document encoded in UTF-8 between the position and the limit of the provided 
+	 * {@link ByteBuffer}, working directly on the bytes without decoding the document into characters.
+	 * <p>
+	 * The strings without escape sequences are decoded on first access, so the parsed values keep a reference 
+	 * to the buffer which mustn't be modified afterwards.
+	 * 
+	 * @param buffer The buffer containing the UTF-8 document (not null).
+	 * @return		 The parsed JSON value (not null).
+	 * @throws IOException Thrown if the document is malformed.
+	 */
+	public static JSONValue parse(ByteBuffer buffer) throws IOException {
+		return parse(buffer, null);
+	}
+	
+	/**
+	 * Parses the JSON document encoded in UTF-8 between the position and the limit of the provided 
+	 * {@link ByteBuffer}, canonicalizing the member names with the provided {@link JSONSymbolTable}.
+	 * 
+	 * @param buffer  The buffer containing the UTF-8 document (not null).
+	 * @param symbols The symbol table for the member names, or null to use one for this parse only.
+	 * @return		  The parsed JSON value (not null).
+	 * @throws IOException Thrown if the document is malformed.
+	 * 
+	 * @see #parse(ByteBuffer)
+	 */
+	public static JSONValue parse(ByteBuffer buffer, JSONSymbolTable symbols) throws IOException {
+		return new JSONByteParser(buffer, symbols).parse();
+	}
+	
+	/**
+	 * Parses the JSON document encoded in UTF-8 in the provided file, which is memory-mapped to be parsed
+	 * directly from its bytes.
+	 * 
+	 * @param file The path of the file to parse (not null).
+	 * @return	   The parsed JSON value (not null).
+	 * @throws IOException Thrown if the file can't be read, is too large to be mapped or is malformed.
+	 * 
+	 * @see #parse(ByteBuffer)
+	 */
+	public static JSONValue parse(Path file) throws IOException {
+		return parse(file, null);
+	}
+	
+	/**
+	 * Parses the JSON document encoded in UTF-8 in the provided file, canonicalizing the member names with 
+	 * the provided {@link JSONSymbolTable}.
+	 * 
+	 * @param file	  The path of the file to parse (not null).
+	 * @param symbols The symbol table for the member names, or null to use one for this parse only.
+	 * @return		  The parsed JSON value (not null).
+	 * @throws IOException Thrown if the file can't be read, is too large to be mapped or is malformed.
+	 * 
+	 * @see #parse(Path)
+	 */
+	public static JSONValue parse(Path file, JSONSymbolTable symbols) throws IOException {
+		return parse(map(file), symbols);
+	}
+	
+	/**
+	 * Parses the JSON document encoded in UTF-8 between the position and the limit of the provided 
+	 * {@link ByteBuffer} lazily: the document is validated and indexed at once, but its objects, arrays
+	 * and strings are only materialized on first access.
+	 * <p>
+	 * This is suited to large documents of which only a few parts are read, as indexing the document is 
+	 * faster and retains less memory than building its whole tree. The values keep a reference to the 
+	 * buffer which mustn't be modified afterwards.
+	 * <p>
+	 * Note that the objects and arrays which aren't materialized yet, including the returned value, aren't
+	 * instances of {@link JSONObject} or {@link JSONArray}: they must be tested with {@link JSONValue#isObject()} 
+	 * or {@link JSONValue#isArray()} and accessed with {@link JSONValue#asObject()} or {@link JSONValue#asArray()}, 
+	 * which materialize them once, rather than with <code>instanceof</code> and casts. The document can be read
+	 * concurrently, but the materialized values mustn't be modified while being read by other threads.
+	 * 
+	 * @param buffer The buffer containing the UTF-8 document (not null).
+	 * @return		 The lazily parsed JSON value (not null).
+	 * @throws IOException Thrown if the document is malformed.
+	 * 
+	 * @see #parse(ByteBuffer)
+	 */
+	public static JSONValue parseLazily(ByteBuffer buffer) throws IOException {
+		return new JSONByteParser(buffer, null).index().root();
+	}
+	
+	/**
+	 * Parses the JSON document encoded in UTF-8 in the provided file lazily, the file being memory-mapped
+	 * and its objects, arrays and strings only materialized on first access.
+	 * 
+	 * @param file The path of the file to parse (not null).
+	 * @return	   The lazily parsed JSON value (not null).
+	 * @throws IOException Thrown if the file can't be read, is too large to be mapped or is malformed.
+	 * 
+	 * @see #parseLazily(ByteBuffer)
+	 */
+	public static JSONValue parseLazily(Path file) throws IOException {
+		return parseLazily(map(file));
+	}
+	
+	private static ByteBuffer map(Path file) throws IOException {
+		Validator.nonNull(file, "The file to parse can't be null!");
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			long size = channel.size();
+			if(size > Integer.MAX_VALUE) {
+				throw new IOException("The file " + file + " is too large to be mapped!");
+			}
+			return channel.map(MapMode.READ_ONLY, 0, size);
+		}
+	}
+	
+	/**
+	 * Opens the provided file in the JSON Lines format, holding one JSON value per line, to parse
+	 * its records in parallel.
+	 * 
+	 * @param file The path of the file to read (not null).
+	 * @return	   A new reader of the records in the file (not null).
+	 * @throws IOException Thrown if the file can't be mapped or contains a line too large to be mapped.
+	 * 
+	 * @see JSONLines#open(Path)
+	 */
+	public static JSONLines lines(Path file) throws IOException {
+		return JSONLines.open(file);
+	}
+	
+	/**
+	 * Creates a new {@link JSONReader} to read the JSON document from the provided {@link Reader} 
+	 * as a stream of tokens, without building the whole document tree in memory.
+	 * 
+	 * @param reader The reader of the JSON document (not null).
+	 * @return		 A new streaming reader of the document (not null).
+	 */
+	public static JSONReader reader(Reader reader) {
+		return new JSONReader(reader);
+	}
+	
+	/**
+	 * Creates a new {@link JSONGenerator} to write a JSON document encoded in UTF-8 to the provided 
+	 * {@link OutputStream}, without building the document tree in memory.
+	 * 
+	 * @param output The output stream to write the document to (not null).
+	 * @return		 A new streaming generator of the document (not null).
+	 */
+	public static JSONGenerator generator(OutputStream output) {
+		return new JSONGenerator(output);
+	}
+	
+	/**
+	 * Creates a new {@link JSONGenerator} to write a JSON document encoded in UTF-8 to the provided 
+	 * {@link WritableByteChannel}, without building the document tree in memory.
+	 * 
+	 * @param channel The channel to write the document to (not null).
+	 * @return		  A new streaming generator of the document (not null).
+	 */
+	public static JSONGenerator generator(WritableByteChannel channel) {
+		return new JSONGenerator(channel);
+	}
+	
 	public static JSONObject object() {
 		return new JSONObject();
 	}
@@ -58,6 +234,31 @@ public final class AlchemyJSON {
 		return value == null ? NULL : new JSONString(value);
 	}
 	
+	/**
+	 * Return a {@link JSONValue} representing the provided long value.
+	 * 
+	 * @param value The value to represent.
+	 * @return		A JSON number representing the value (not null).
+	 */
+	public static JSONValue value(long value) {
+		return new JSONNumber(value, 0);
+	}
+	
+	/**
+	 * Return a {@link JSONValue} representing the provided double value.
+	 * 
+	 * @param value The value to represent, which must be finite.
+	 * @return		A JSON number representing the value (not null).
+	 * 
+	 * @throws IllegalArgumentException Thrown if the value is infinite or NaN.
+	 */
+	public static JSONValue value(double value) {
+		if(Double.isInfinite(value) || Double.isNaN(value)) {
+			throw new IllegalArgumentException("JSON doesn't support infinite or NaN numbers!");
+		}
+		return new JSONNumber(Double.toString(value));
+	}
+	
 	public static JSONValue value(boolean value) {
 		return value ? TRUE : FALSE;
 	}
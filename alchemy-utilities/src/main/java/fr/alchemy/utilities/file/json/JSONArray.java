@@ -168,11 +168,12 @@ public class JSONArray extends JSONValue implements Iterable<JSONValue> {
 			return true;
 		}
 		
-		if(o == null || getClass() != o.getClass()) {
+		// A lazily parsed array is compared through its materialized value.
+		if(!(o instanceof JSONValue) || !((JSONValue) o).isArray()) {
 			return false;
 		}
 		
-		JSONArray other = (JSONArray) o;
+		JSONArray other = ((JSONValue) o).asArray();
 		return values.equals(other.values);
 	}
 }
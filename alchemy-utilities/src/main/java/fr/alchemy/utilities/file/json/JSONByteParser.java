@@ -0,0 +1,846 @@
+package fr.alchemy.utilities.file.json;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import fr.alchemy.utilities.Validator;
+import fr.alchemy.utilities.file.json.JSONNumbers.Decimal;
+
+/**
+ * <code>JSONByteParser</code> is a parser of JSON documents encoded in UTF-8, working directly on the bytes of a {@link ByteBuffer}
+ * such as a memory-mapped file, without decoding the document into characters first.
+ * <p>
+ * The structural characters, numbers and literals are all ASCII, so they are read byte by byte. The strings without any escape
+ * sequence are only referenced by their range of bytes and decoded on first access, while the escaped strings are decoded at
+ * once, with a fast path for the ASCII ones. The member names are canonicalized by a {@link JSONSymbolTable}. The UTF-8 sequences are strictly validated while
+ * reading, so the lazily decoded strings can't be malformed, but they keep the buffer reachable as long as they are.
+ * 
+ * @version 0.3.0
+ * @since 0.3.0
+ * 
+ * @see AlchemyJSON#parse(ByteBuffer)
+ * 
+ * @author GnosticOccultist
+ */
+final class JSONByteParser {
+	
+	/**
+	 * The buffer containing the UTF-8 bytes of the document.
+	 */
+	private final ByteBuffer input;
+	/**
+	 * The end position of the document in the buffer.
+	 */
+	private final int end;
+	/**
+	 * The end position of the bytes to read, which is the end of the current line while reading a record.
+	 */
+	private int limit;
+	/**
+	 * The current position in the buffer.
+	 */
+	private int position;
+	/**
+	 * The current nesting level.
+	 */
+	private int nestingLevel;
+	/**
+	 * The decimal representation of the last read number.
+	 */
+	private final Decimal decimal = new Decimal();
+	/**
+	 * The stack of the members of the objects being read, interleaving their names and values.
+	 */
+	private Object[] members = new Object[32];
+	/**
+	 * The top of the members stack.
+	 */
+	private int membersTop;
+	/**
+	 * The builder used to decode the escaped strings, lazily created.
+	 */
+	private StringBuilder builder;
+	/**
+	 * The symbol table canonicalizing the member names.
+	 */
+	private final JSONSymbolTable symbols;
+	/**
+	 * The tape of the structural index being built, or null if not indexing.
+	 */
+	private long[] tape;
+	/**
+	 * The number of entries in the tape.
+	 */
+	private int tapeSize;
+	
+	/**
+	 * Instantiates a new <code>JSONByteParser</code> to parse the document between the position
+	 * and the limit of the provided {@link ByteBuffer}.
+	 * 
+	 * @param input   The buffer containing the UTF-8 bytes of the document (not null).
+	 * @param symbols The symbol table for the member names, or null to use one for this parser only.
+	 */
+	JSONByteParser(ByteBuffer input, JSONSymbolTable symbols) {
+		this(input, input.position(), input.limit(), symbols);
+	}
+	
+	/**
+	 * Instantiates a new <code>JSONByteParser</code> to parse the document between the provided 
+	 * positions of the {@link ByteBuffer}, which is left untouched.
+	 * 
+	 * @param input   The buffer containing the UTF-8 bytes of the document (not null).
+	 * @param start   The start position of the document in the buffer (&ge;0).
+	 * @param end	  The end position of the document in the buffer (&ge;start).
+	 * @param symbols The symbol table for the member names, or null to use one for this parser only.
+	 */
+	JSONByteParser(ByteBuffer input, int start, int end, JSONSymbolTable symbols) {
+		Validator.nonNull(input, "The input buffer can't be null!");
+		this.input = input;
+		this.symbols = symbols != null ? symbols : new JSONSymbolTable();
+		this.position = start;
+		this.end = end;
+		this.limit = end;
+	}
+	
+	/**
+	 * Parses the document as a JSON value. The input must contain a valid JSON value, optionally
+	 * padded with whitespace and preceded by a byte order mark.
+	 * 
+	 * @return The parsed JSON value (not null).
+	 * @throws IOException Thrown if the document is malformed.
+	 */
+	JSONValue parse() throws IOException {
+		skipBOM();
+		trim();
+		JSONValue value = readValue();
+		trim();
+		if(position != limit) {
+			throw error("end of input");
+		}
+		return value;
+	}
+	
+	/**
+	 * Indexes the structure of the document without building any value. The whole document is validated
+	 * the same way than by {@link #parse()}, and the values are then materialized on demand by the 
+	 * returned index through this parser.
+	 * 
+	 * @return The structural index of the document (not null).
+	 * @throws IOException Thrown if the document is malformed.
+	 */
+	JSONStructuralIndex index() throws IOException {
+		skipBOM();
+		trim();
+		tape = new long[((limit - position) >> 3) + 16];
+		tapeSize = 0;
+		indexValue();
+		trim();
+		if(position != limit) {
+			throw error("end of input");
+		}
+		
+		long[] entries = tapeSize == tape.length ? tape : Arrays.copyOf(tape, tapeSize);
+		tape = null;
+		return new JSONStructuralIndex(this, input, entries);
+	}
+	
+	/**
+	 * Reads the member name starting at the provided position, which has already been validated while indexing.
+	 * 
+	 * @param offset The position of the opening quote of the name (&ge;0).
+	 * @return		 The read member name (not null).
+	 * @throws IOException Thrown if the name is malformed.
+	 */
+	String readName(int offset) throws IOException {
+		position = offset;
+		return readName();
+	}
+	
+	/**
+	 * Reads the string, number or literal starting at the provided position, which has already been validated while indexing.
+	 * 
+	 * @param offset The position of the first byte of the value (&ge;0).
+	 * @return		 The read JSON value (not null).
+	 * @throws IOException Thrown if the value is malformed.
+	 */
+	JSONValue readScalar(int offset) throws IOException {
+		position = offset;
+		return readValue();
+	}
+	
+	private void skipBOM() {
+		// Skip the UTF-8 byte order mark.
+		if(limit - position >= 3 && input.get(position) == (byte) 0xEF
+				&& input.get(position + 1) == (byte) 0xBB && input.get(position + 2) == (byte) 0xBF) {
+			position += 3;
+		}
+	}
+	
+	/**
+	 * Parses the next record of the document as a JSON value, the records being written one per line
+	 * as in the JSON Lines format. The blank lines are skipped, whereas a record can't span several lines.
+	 * 
+	 * @return The parsed JSON value, or null if the end of the document is reached.
+	 * @throws IOException Thrown if the record is malformed, spans several lines or is followed by anything
+	 * 					   else on its line.
+	 */
+	JSONValue nextRecord() throws IOException {
+		trim();
+		if(position == limit) {
+			return null;
+		}
+		
+		// Read the record up to the end of its line only.
+		int lineEnd = position;
+		while (lineEnd < end && input.get(lineEnd) != '\n') {
+			lineEnd++;
+		}
+		
+		this.limit = lineEnd;
+		JSONValue value;
+		try {
+			value = readValue();
+			trim();
+			if(position < limit) {
+				throw error("end of line");
+			}
+		} finally {
+			this.limit = end;
+		}
+		
+		if(position < limit) {
+			// Skip the line feed.
+			position++;
+		}
+		return value;
+	}
+	
+	private JSONValue readValue() throws IOException {
+		switch (peek()) {
+			case 'n':
+				readLiteral("null");
+				return AlchemyJSON.NULL;
+			case 't':
+				readLiteral("true");
+				return AlchemyJSON.TRUE;
+			case 'f':
+				readLiteral("false");
+				return AlchemyJSON.FALSE;
+			case '"':
+				return readString();
+			case '[':
+				return readArray();
+			case '{':
+				return readObject();
+			case '-':
+			case '0':
+			case '1':
+			case '2':
+			case '3':
+			case '4':
+			case '5':
+			case '6':
+			case '7':
+			case '8':
+			case '9':
+				return readNumber();
+			default:
+				throw error("value");
+		}
+	}
+	
+	private JSONArray readArray() throws IOException {
+		JSONArray array = new JSONArray();
+		position++;
+		if(++nestingLevel > JSONParser.MAX_NESTING_LEVEL) {
+			throw new IOException("Nesting too deep");
+		}
+		
+		trim();
+		if(!readByte(']')) {
+			do {
+				trim();
+				array.add(readValue());
+				trim();
+			} while (readByte(','));
+			
+			if(!readByte(']')) {
+				throw error("',' or ']'");
+			}
+		}
+		
+		nestingLevel--;
+		return array;
+	}
+	
+	private JSONObject readObject() throws IOException {
+		int base = membersTop;
+		position++;
+		if(++nestingLevel > JSONParser.MAX_NESTING_LEVEL) {
+			throw new IOException("Nesting too deep");
+		}
+		
+		trim();
+		if(!readByte('}')) {
+			do {
+				trim();
+				if(peek() != '"') {
+					throw error("name");
+				}
+				String name = readName();
+				trim();
+				if(!readByte(':')) {
+					throw error("':'");
+				}
+				trim();
+				pushMember(name, readValue());
+				trim();
+			} while (readByte(','));
+			
+			if(!readByte('}')) {
+				throw error("',' or '}'");
+			}
+		}
+		
+		nestingLevel--;
+		return popObject(base);
+	}
+	
+	private void indexValue() throws IOException {
+		switch (peek()) {
+			case 'n':
+				append(0);
+				readLiteral("null");
+				break;
+			case 't':
+				append(0);
+				readLiteral("true");
+				break;
+			case 'f':
+				append(0);
+				readLiteral("false");
+				break;
+			case '"':
+				append(0);
+				skipString();
+				break;
+			case '[':
+				indexArray();
+				break;
+			case '{':
+				indexObject();
+				break;
+			case '-':
+			case '0':
+			case '1':
+			case '2':
+			case '3':
+			case '4':
+			case '5':
+			case '6':
+			case '7':
+			case '8':
+			case '9':
+				append(0);
+				skipNumber();
+				break;
+			default:
+				throw error("value");
+		}
+	}
+	
+	private void indexArray() throws IOException {
+		int open = append(0);
+		position++;
+		if(++nestingLevel > JSONParser.MAX_NESTING_LEVEL) {
+			throw new IOException("Nesting too deep");
+		}
+		
+		trim();
+		if(!readByte(']')) {
+			do {
+				trim();
+				indexValue();
+				trim();
+			} while (readByte(','));
+			
+			if(!readByte(']')) {
+				throw error("',' or ']'");
+			}
+		}
+		
+		nestingLevel--;
+		close(open);
+	}
+	
+	private void indexObject() throws IOException {
+		int open = append(0);
+		position++;
+		if(++nestingLevel > JSONParser.MAX_NESTING_LEVEL) {
+			throw new IOException("Nesting too deep");
+		}
+		
+		trim();
+		if(!readByte('}')) {
+			do {
+				trim();
+				if(peek() != '"') {
+					throw error("name");
+				}
+				append(0);
+				skipString();
+				trim();
+				if(!readByte(':')) {
+					throw error("':'");
+				}
+				trim();
+				indexValue();
+				trim();
+			} while (readByte(','));
+			
+			if(!readByte('}')) {
+				throw error("',' or '}'");
+			}
+		}
+		
+		nestingLevel--;
+		close(open);
+	}
+	
+	/**
+	 * Appends an entry for the token at the current position to the tape, with the provided tape index 
+	 * of its matching bracket.
+	 * 
+	 * @param match The tape index of the matching bracket, or 0 if none.
+	 * @return		The tape index of the appended entry.
+	 */
+	private int append(int match) {
+		if(tapeSize == tape.length) {
+			tape = Arrays.copyOf(tape, tape.length + (tape.length >> 1));
+		}
+		tape[tapeSize] = (long) position << 32 | match;
+		return tapeSize++;
+	}
+	
+	/**
+	 * Appends an entry for the closing bracket just read, matching it with the entry of its opening bracket.
+	 * 
+	 * @param open The tape index of the opening bracket.
+	 */
+	private void close(int open) {
+		position--;
+		int close = append(open);
+		position++;
+		tape[open] |= close;
+	}
+	
+	/**
+	 * Validates the string starting at the current position without decoding it, unless it contains
+	 * an escape sequence.
+	 * 
+	 * @throws IOException Thrown if the string is malformed.
+	 */
+	private void skipString() throws IOException {
+		int start = ++position;
+		while (position < limit) {
+			byte b = input.get(position);
+			if(b == '"') {
+				position++;
+				return;
+			} else if(b == '\\') {
+				decodeEscaped(start);
+				return;
+			} else if(b >= 0 && b < 0x20) {
+				throw error("valid string character");
+			} else if(b < 0) {
+				position++;
+				decodeCodePoint(b);
+				continue;
+			}
+			position++;
+		}
+		throw error("'\"'");
+	}
+	
+	/**
+	 * Validates the number starting at the current position against the full JSON number grammar, 
+	 * without computing its value.
+	 * 
+	 * @throws IOException Thrown if the number is malformed.
+	 */
+	private void skipNumber() throws IOException {
+		readByte('-');
+		if(!digit()) {
+			throw error("digit");
+		}
+		if(!readByte('0')) {
+			do {
+				position++;
+			} while (digit());
+		}
+		
+		if(readByte('.')) {
+			if(!digit()) {
+				throw error("digit");
+			}
+			do {
+				position++;
+			} while (digit());
+		}
+		
+		if(readByte('e') || readByte('E')) {
+			if(!readByte('-')) {
+				readByte('+');
+			}
+			if(!digit()) {
+				throw error("digit");
+			}
+			do {
+				position++;
+			} while (digit());
+		}
+	}
+	
+	/**
+	 * Reads the member name starting at the current position, decoding it at once unless it is an ASCII
+	 * name already in the symbol table.
+	 * 
+	 * @return The read member name (not null).
+	 * @throws IOException Thrown if the name is malformed.
+	 */
+	private String readName() throws IOException {
+		int start = ++position;
+		boolean ascii = true;
+		int hash = 0;
+		while (position < limit) {
+			byte b = input.get(position);
+			if(b == '"') {
+				String name = ascii ? symbols.intern(input, start, position - start, hash) 
+						: symbols.intern(decode(input, start, position - start, false));
+				position++;
+				return name;
+			} else if(b == '\\') {
+				return symbols.intern(decodeEscaped(start));
+			} else if(b >= 0 && b < 0x20) {
+				throw error("valid string character");
+			} else if(b < 0) {
+				// Validate the sequence now, as the name is decoded without any check.
+				ascii = false;
+				position++;
+				decodeCodePoint(b);
+				continue;
+			}
+			hash = 31 * hash + b;
+			position++;
+		}
+		throw error("'\"'");
+	}
+	
+	/**
+	 * Reads the string starting at the current position. If the string doesn't contain any escape sequence,
+	 * it is lazily decoded from its range of bytes.
+	 * 
+	 * @return The read JSON string (not null).
+	 * @throws IOException Thrown if the string is malformed.
+	 */
+	private JSONString readString() throws IOException {
+		int start = ++position;
+		boolean ascii = true;
+		while (position < limit) {
+			byte b = input.get(position);
+			if(b == '"') {
+				JSONString string = new JSONString(input, start, position - start, ascii);
+				position++;
+				return string;
+			} else if(b == '\\') {
+				return new JSONString(decodeEscaped(start));
+			} else if(b >= 0 && b < 0x20) {
+				throw error("valid string character");
+			} else if(b < 0) {
+				// Validate the sequence now, as the string is lazily decoded without any check.
+				ascii = false;
+				position++;
+				decodeCodePoint(b);
+				continue;
+			}
+			position++;
+		}
+		throw error("'\"'");
+	}
+	
+	/**
+	 * Decodes the string starting at the provided position which contains escape sequences, up to
+	 * its closing quote.
+	 * 
+	 * @param start The position of the first byte of the string.
+	 * @return		The decoded string (not null).
+	 * @throws IOException Thrown if the string is malformed.
+	 */
+	private String decodeEscaped(int start) throws IOException {
+		if(builder == null) {
+			builder = new StringBuilder();
+		}
+		builder.setLength(0);
+		
+		position = start;
+		while (true) {
+			if(position >= limit) {
+				throw error("'\"'");
+			}
+			
+			int b = input.get(position++);
+			if(b == '"') {
+				return builder.toString();
+			} else if(b == '\\') {
+				readEscape();
+			} else if(b >= 0x20) {
+				builder.append((char) b);
+			} else if(b >= 0) {
+				position--;
+				throw error("valid string character");
+			} else {
+				builder.appendCodePoint(decodeCodePoint(b));
+			}
+		}
+	}
+	
+	private void readEscape() throws IOException {
+		int b = peek();
+		position++;
+		switch (b) {
+			case '"':
+			case '/':
+			case '\\':
+				builder.append((char) b);
+				break;
+			case 'b':
+				builder.append('\b');
+				break;
+			case 'f':
+				builder.append('\f');
+				break;
+			case 'n':
+				builder.append('\n');
+				break;
+			case 'r':
+				builder.append('\r');
+				break;
+			case 't':
+				builder.append('\t');
+				break;
+			case 'u':
+				int ch = 0;
+				for(int i = 0; i < 4; i++) {
+					int digit = Character.digit(peek(), 16);
+					if(digit < 0) {
+						throw error("hexadecimal digit");
+					}
+					ch = ch << 4 | digit;
+					position++;
+				}
+				builder.append((char) ch);
+				break;
+			default:
+				position--;
+				throw error("valid escape sequence");
+		}
+	}
+	
+	/**
+	 * Decodes the code point of the multi-byte UTF-8 sequence starting with the provided byte, rejecting
+	 * the overlong encodings, the surrogates and the code points beyond U+10FFFF as the JDK decoder would
+	 * otherwise replace them.
+	 * 
+	 * @param lead The leading byte of the sequence, which has already been consumed.
+	 * @return	   The decoded code point.
+	 * @throws IOException Thrown if the sequence isn't valid UTF-8.
+	 */
+	private int decodeCodePoint(int lead) throws IOException {
+		int start = position - 1;
+		int count, codePoint, min;
+		if((lead & 0xE0) == 0xC0) {
+			count = 1;
+			codePoint = lead & 0x1F;
+			min = 0x80;
+		} else if((lead & 0xF0) == 0xE0) {
+			count = 2;
+			codePoint = lead & 0x0F;
+			min = 0x800;
+		} else if((lead & 0xF8) == 0xF0) {
+			count = 3;
+			codePoint = lead & 0x07;
+			min = 0x10000;
+		} else {
+			position = start;
+			throw error("valid UTF-8 sequence");
+		}
+		
+		for(int i = 0; i < count; i++) {
+			if(position >= limit || (input.get(position) & 0xC0) != 0x80) {
+				position = start;
+				throw error("valid UTF-8 sequence");
+			}
+			codePoint = codePoint << 6 | input.get(position++) & 0x3F;
+		}
+		
+		if(codePoint < min || codePoint > Character.MAX_CODE_POINT
+				|| (codePoint >= Character.MIN_SURROGATE && codePoint <= Character.MAX_SURROGATE)) {
+			position = start;
+			throw error("valid UTF-8 sequence");
+		}
+		return codePoint;
+	}
+	
+	/**
+	 * Reads the number starting at the current position, following the full JSON number grammar.
+	 * 
+	 * @return The read JSON number (not null).
+	 * @throws IOException Thrown if the number is malformed.
+	 */
+	private JSONNumber readNumber() throws IOException {
+		int start = position;
+		decimal.reset();
+		
+		boolean negative = readByte('-');
+		if(!digit()) {
+			throw error("digit");
+		}
+		// A leading zero can't be followed by other digits.
+		if(!readByte('0')) {
+			do {
+				decimal.append(input.get(position++) - '0', false);
+			} while (digit());
+		}
+		
+		if(readByte('.')) {
+			if(!digit()) {
+				throw error("digit");
+			}
+			do {
+				decimal.append(input.get(position++) - '0', true);
+			} while (digit());
+		}
+		
+		boolean lowerCase = readByte('e');
+		if(lowerCase || readByte('E')) {
+			boolean negativeExponent = readByte('-');
+			boolean plus = !negativeExponent && readByte('+');
+			if(!digit()) {
+				throw error("digit");
+			}
+			int exponent = 0;
+			do {
+				exponent = Decimal.appendExponent(exponent, input.get(position++) - '0');
+			} while (digit());
+			decimal.exponent(exponent, negativeExponent, !lowerCase, plus);
+		}
+		
+		decimal.finish(negative);
+		if(decimal.exact) {
+			return new JSONNumber(decimal.significand, decimal.exponent, decimal.notation);
+		}
+		return new JSONNumber(decode(input, start, position - start, true));
+	}
+	
+	private void readLiteral(String literal) throws IOException {
+		for(int i = 0; i < literal.length(); i++) {
+			if(!readByte(literal.charAt(i))) {
+				throw error("'" + literal.charAt(i) + "'");
+			}
+		}
+	}
+	
+	private boolean readByte(char ch) {
+		if(position < limit && input.get(position) == ch) {
+			position++;
+			return true;
+		}
+		return false;
+	}
+	
+	private boolean digit() {
+		if(position >= limit) {
+			return false;
+		}
+		byte b = input.get(position);
+		return b >= '0' && b <= '9';
+	}
+	
+	private int peek() {
+		return position < limit ? input.get(position) & 0xFF : -1;
+	}
+	
+	private void trim() {
+		while (position < limit) {
+			byte b = input.get(position);
+			if(b != ' ' && b != '\t' && b != '\n' && b != '\r') {
+				return;
+			}
+			position++;
+		}
+	}
+	
+	private IOException error(String expected) {
+		String found = position >= limit ? (limit < end ? "end of line" : "end of input") : "byte 0x" + Integer.toHexString(peek());
+		return new IOException("Expected " + expected + " but found " + found + " at offset " + position + "!");
+	}
+	
+	/**
+	 * Decodes the provided range of UTF-8 bytes, which doesn't contain any escape sequence, into a string.
+	 * The ASCII bytes are directly copied into the string.
+	 * 
+	 * @param input	 The buffer containing the bytes (not null).
+	 * @param offset The offset of the bytes in the buffer (&ge;0).
+	 * @param length The length of the bytes to decode (&ge;0).
+	 * @param ascii	 Whether all the bytes are ASCII.
+	 * @return		 The decoded string (not null).
+	 */
+	static String decode(ByteBuffer input, int offset, int length, boolean ascii) {
+		if(length == 0) {
+			return "";
+		}
+		
+		// Latin-1 decoding simply copies the bytes into a compact string.
+		Charset charset = ascii ? StandardCharsets.ISO_8859_1 : StandardCharsets.UTF_8;
+		if(input.hasArray()) {
+			return new String(input.array(), input.arrayOffset() + offset, length, charset);
+		}
+		
+		byte[] bytes = new byte[length];
+		ByteBuffer duplicate = input.duplicate();
+		duplicate.position(offset);
+		duplicate.get(bytes);
+		return new String(bytes, charset);
+	}
+	
+	/**
+	 * Pushes the provided member on the stack of the members of the objects being read.
+	 * 
+	 * @param name  The name of the member (not null).
+	 * @param value The value of the member (not null).
+	 */
+	private void pushMember(String name, JSONValue value) {
+		if(membersTop + 2 > members.length) {
+			members = Arrays.copyOf(members, members.length << 1);
+		}
+		members[membersTop++] = name;
+		members[membersTop++] = value;
+	}
+	
+	/**
+	 * Pops the members pushed since the provided base of the stack into a new {@link JSONObject},
+	 * whose members array is sized exactly.
+	 * 
+	 * @param base The top of the members stack when the object started.
+	 * @return	   The object with the popped members (not null).
+	 */
+	private JSONObject popObject(int base) {
+		JSONObject object = new JSONObject(Arrays.copyOfRange(members, base, membersTop));
+		Arrays.fill(members, base, membersTop, null);
+		this.membersTop = base;
+		return object;
+	}
+}
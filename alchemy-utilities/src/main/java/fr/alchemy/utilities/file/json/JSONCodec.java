@@ -0,0 +1,41 @@
+package fr.alchemy.utilities.file.json;
+
+import java.io.IOException;
+
+/**
+ * <code>JSONCodec</code> converts instances of a Java type to and from a JSON document, streaming them directly through a
+ * {@link JSONGenerator} and a {@link JSONReader} without building any {@link JSONValue} tree.
+ * <p>
+ * The codecs of the classes are built once and cached by the {@link JSONMapper}, which can be used to retrieve them.
+ * 
+ * @param <T> The type of values converted by the codec.
+ * 
+ * @version 0.3.0
+ * @since 0.3.0
+ * 
+ * @see JSONMapper#codec(Class)
+ * 
+ * @author GnosticOccultist
+ */
+public interface JSONCodec<T> {
+	
+	/**
+	 * Writes the provided value as the next JSON value of the {@link JSONGenerator}.
+	 * 
+	 * @param generator The generator to write the value to (not null).
+	 * @param value		The value to write, null to write a <code>null</code> literal.
+	 * @throws IOException Thrown if an I/O error occurs while writing to the output.
+	 */
+	void write(JSONGenerator generator, T value) throws IOException;
+	
+	/**
+	 * Reads the JSON value starting at the current token of the {@link JSONReader}, leaving the reader
+	 * on the last token of the value.
+	 * 
+	 * @param reader The reader positioned on the first token of the value (not null).
+	 * @return		 The read value, or null for a <code>null</code> literal.
+	 * @throws IOException Thrown if an I/O error occurs in the reader, if the document is malformed or
+	 * 					   if the value doesn't match the type of the codec.
+	 */
+	T read(JSONReader reader) throws IOException;
+}
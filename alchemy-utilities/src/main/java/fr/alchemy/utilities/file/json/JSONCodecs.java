@@ -0,0 +1,763 @@
+package fr.alchemy.utilities.file.json;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Type;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.net.URI;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import fr.alchemy.utilities.file.json.JSONReader.Token;
+
+/**
+ * <code>JSONCodecs</code> contains the implementations of {@link JSONCodec} for the scalar types, the enums, the containers
+ * and the dynamically typed values, used by the {@link JSONMapper}.
+ * 
+ * @version 0.3.0
+ * @since 0.3.0
+ * 
+ * @author GnosticOccultist
+ */
+final class JSONCodecs {
+	
+	/**
+	 * The codec of strings.
+	 */
+	static final JSONCodec<String> STRING = new JSONCodec<String>() {
+		
+		@Override
+		public void write(JSONGenerator generator, String value) throws IOException {
+			generator.value(value);
+		}
+		
+		@Override
+		public String read(JSONReader reader) throws IOException {
+			Token token = reader.currentToken();
+			if(token == Token.NULL) {
+				return null;
+			}
+			if(token != Token.STRING) {
+				throw mismatch(reader, "a string");
+			}
+			return reader.stringValue();
+		}
+	};
+	/**
+	 * The codec of characters, represented as strings of one character.
+	 */
+	static final JSONCodec<Character> CHARACTER = new JSONCodec<Character>() {
+		
+		@Override
+		public void write(JSONGenerator generator, Character value) throws IOException {
+			generator.value(value == null ? null : value.toString());
+		}
+		
+		@Override
+		public Character read(JSONReader reader) throws IOException {
+			String value = STRING.read(reader);
+			if(value != null && value.length() != 1) {
+				throw mismatch(reader, "a single character");
+			}
+			return value == null ? null : value.charAt(0);
+		}
+	};
+	/**
+	 * The codec of booleans.
+	 */
+	static final JSONCodec<Boolean> BOOLEAN = new JSONCodec<Boolean>() {
+		
+		@Override
+		public void write(JSONGenerator generator, Boolean value) throws IOException {
+			if(value == null) {
+				generator.nullValue();
+			} else {
+				generator.value(value.booleanValue());
+			}
+		}
+		
+		@Override
+		public Boolean read(JSONReader reader) throws IOException {
+			Token token = reader.currentToken();
+			if(token == Token.NULL) {
+				return null;
+			}
+			if(token != Token.TRUE && token != Token.FALSE) {
+				throw mismatch(reader, "a boolean");
+			}
+			return token == Token.TRUE;
+		}
+	};
+	/**
+	 * The codec of longs.
+	 */
+	static final JSONCodec<Long> LONG = new IntegerCodec<>(Long.MIN_VALUE, Long.MAX_VALUE, Long::valueOf);
+	/**
+	 * The codec of integers.
+	 */
+	static final JSONCodec<Integer> INTEGER = new IntegerCodec<>(Integer.MIN_VALUE, Integer.MAX_VALUE, value -> (int) value);
+	/**
+	 * The codec of shorts.
+	 */
+	static final JSONCodec<Short> SHORT = new IntegerCodec<>(Short.MIN_VALUE, Short.MAX_VALUE, value -> (short) value);
+	/**
+	 * The codec of bytes.
+	 */
+	static final JSONCodec<Byte> BYTE = new IntegerCodec<>(Byte.MIN_VALUE, Byte.MAX_VALUE, value -> (byte) value);
+	/**
+	 * The codec of doubles.
+	 */
+	static final JSONCodec<Double> DOUBLE = new JSONCodec<Double>() {
+		
+		@Override
+		public void write(JSONGenerator generator, Double value) throws IOException {
+			if(value == null) {
+				generator.nullValue();
+			} else {
+				generator.value(value.doubleValue());
+			}
+		}
+		
+		@Override
+		public Double read(JSONReader reader) throws IOException {
+			return checkNumber(reader) ? reader.doubleValue() : null;
+		}
+	};
+	/**
+	 * The codec of floats.
+	 */
+	static final JSONCodec<Float> FLOAT = new JSONCodec<Float>() {
+		
+		@Override
+		public void write(JSONGenerator generator, Float value) throws IOException {
+			if(value == null) {
+				generator.nullValue();
+			} else if(value.isInfinite() || value.isNaN()) {
+				throw new IllegalArgumentException("JSON doesn't support infinite or NaN numbers!");
+			} else {
+				// Write the shortest text of the float, not the one of its double value.
+				generator.numberValue(value.toString());
+			}
+		}
+		
+		@Override
+		public Float read(JSONReader reader) throws IOException {
+			return checkNumber(reader) ? reader.floatValue() : null;
+		}
+	};
+	/**
+	 * The codec of big decimals.
+	 */
+	static final JSONCodec<BigDecimal> BIG_DECIMAL = new JSONCodec<BigDecimal>() {
+		
+		@Override
+		public void write(JSONGenerator generator, BigDecimal value) throws IOException {
+			if(value == null) {
+				generator.nullValue();
+			} else {
+				generator.numberValue(value.toString());
+			}
+		}
+		
+		@Override
+		public BigDecimal read(JSONReader reader) throws IOException {
+			return checkNumber(reader) ? reader.decimalValue() : null;
+		}
+	};
+	/**
+	 * The codec of big integers.
+	 */
+	static final JSONCodec<BigInteger> BIG_INTEGER = new JSONCodec<BigInteger>() {
+		
+		@Override
+		public void write(JSONGenerator generator, BigInteger value) throws IOException {
+			if(value == null) {
+				generator.nullValue();
+			} else {
+				generator.numberValue(value.toString());
+			}
+		}
+		
+		@Override
+		public BigInteger read(JSONReader reader) throws IOException {
+			if(!checkNumber(reader)) {
+				return null;
+			}
+			
+			try {
+				return reader.decimalValue().toBigIntegerExact();
+			} catch (ArithmeticException ex) {
+				throw new IOException("Expected an integer but found the number " + reader.stringValue() + " at " + reader.location() + "!", ex);
+			}
+		}
+	};
+	/**
+	 * The codec of {@link JSONValue} trees.
+	 */
+	static final JSONCodec<JSONValue> TREE = new JSONCodec<JSONValue>() {
+		
+		@Override
+		public void write(JSONGenerator generator, JSONValue value) throws IOException {
+			generator.value(value);
+		}
+		
+		@Override
+		public JSONValue read(JSONReader reader) throws IOException {
+			return reader.currentValue();
+		}
+	};
+	/**
+	 * The codec of dynamically typed values. They are written with the codec of their actual class, and read
+	 * as strings, longs, doubles, booleans, lists and maps.
+	 */
+	static final JSONCodec<Object> DYNAMIC = new JSONCodec<Object>() {
+		
+		@Override
+		public void write(JSONGenerator generator, Object value) throws IOException {
+			if(value == null) {
+				generator.nullValue();
+			} else if(value.getClass() == Object.class) {
+				generator.beginObject().endObject();
+			} else {
+				JSONMapper.codec((Type) value.getClass()).write(generator, value);
+			}
+		}
+		
+		@Override
+		public Object read(JSONReader reader) throws IOException {
+			switch (reader.currentToken()) {
+				case BEGIN_OBJECT:
+					Map<String, Object> map = new LinkedHashMap<>();
+					while (reader.nextToken() == Token.NAME) {
+						String name = reader.name();
+						reader.nextToken();
+						map.put(name, read(reader));
+					}
+					return map;
+				case BEGIN_ARRAY:
+					List<Object> list = new ArrayList<>();
+					while (reader.nextToken() != Token.END_ARRAY) {
+						list.add(read(reader));
+					}
+					return list;
+				case STRING:
+					return reader.stringValue();
+				case NUMBER:
+					return reader.numberValue();
+				case TRUE:
+					return Boolean.TRUE;
+				case FALSE:
+					return Boolean.FALSE;
+				case NULL:
+					return null;
+				default:
+					throw mismatch(reader, "a value");
+			}
+		}
+	};
+	
+	/**
+	 * Private constructor to inhibit instantiation of <code>JSONCodecs</code>.
+	 */
+	private JSONCodecs() {}
+	
+	/**
+	 * Return the built-in codec for the provided class, if any.
+	 * 
+	 * @param type The class to get the codec of (not null).
+	 * @return	   The built-in codec of the class, or null if none.
+	 */
+	static JSONCodec<?> builtin(Class<?> type) {
+		if(type == String.class) {
+			return STRING;
+		} else if(type == int.class || type == Integer.class) {
+			return INTEGER;
+		} else if(type == long.class || type == Long.class) {
+			return LONG;
+		} else if(type == double.class || type == Double.class) {
+			return DOUBLE;
+		} else if(type == boolean.class || type == Boolean.class) {
+			return BOOLEAN;
+		} else if(type == float.class || type == Float.class) {
+			return FLOAT;
+		} else if(type == short.class || type == Short.class) {
+			return SHORT;
+		} else if(type == byte.class || type == Byte.class) {
+			return BYTE;
+		} else if(type == char.class || type == Character.class) {
+			return CHARACTER;
+		} else if(type == BigDecimal.class) {
+			return BIG_DECIMAL;
+		} else if(type == BigInteger.class) {
+			return BIG_INTEGER;
+		} else if(type == UUID.class) {
+			return new TextCodec<>(UUID::fromString);
+		} else if(type == URI.class) {
+			return new TextCodec<>(URI::create);
+		} else if(type == Instant.class) {
+			return new TextCodec<>(Instant::parse);
+		} else if(type == LocalDate.class) {
+			return new TextCodec<>(LocalDate::parse);
+		} else if(type == LocalTime.class) {
+			return new TextCodec<>(LocalTime::parse);
+		} else if(type == LocalDateTime.class) {
+			return new TextCodec<>(LocalDateTime::parse);
+		} else if(type == Duration.class) {
+			return new TextCodec<>(Duration::parse);
+		} else if(type == Optional.class) {
+			return new OptionalCodec<>(DYNAMIC);
+		} else if(type == Object.class) {
+			return DYNAMIC;
+		} else if(JSONValue.class.isAssignableFrom(type)) {
+			return TREE;
+		}
+		return null;
+	}
+	
+	/**
+	 * Checks that the current token of the reader is a number or a <code>null</code> literal.
+	 * 
+	 * @param reader The reader to check the current token of (not null).
+	 * @return		 Whether the current token is a number.
+	 * @throws IOException Thrown if the current token is neither a number nor a <code>null</code> literal.
+	 */
+	static boolean checkNumber(JSONReader reader) throws IOException {
+		Token token = reader.currentToken();
+		if(token != Token.NUMBER && token != Token.NULL) {
+			throw mismatch(reader, "a number");
+		}
+		return token == Token.NUMBER;
+	}
+	
+	/**
+	 * Creates the exception thrown when the current token of the reader doesn't match the expected one.
+	 * 
+	 * @param reader   The reader whose current token doesn't match (not null).
+	 * @param expected The description of the expected value (not null).
+	 * @return		   A new exception describing the mismatch (not null).
+	 */
+	static IOException mismatch(JSONReader reader, String expected) {
+		return new IOException("Expected " + expected + " but found " + reader.currentToken() + " at " + reader.location() + "!");
+	}
+	
+	/**
+	 * Rethrows the provided throwable raised by a method handle, wrapping it if it is a checked exception.
+	 * 
+	 * @param throwable The throwable to rethrow (not null).
+	 * @return			Never returns, only to be used in a <code>throw</code> statement.
+	 */
+	static RuntimeException rethrow(Throwable throwable) {
+		if(throwable instanceof RuntimeException) {
+			throw (RuntimeException) throwable;
+		} else if(throwable instanceof Error) {
+			throw (Error) throwable;
+		}
+		throw new IllegalStateException(throwable);
+	}
+	
+	/**
+	 * <code>IntegerCodec</code> is an implementation of {@link JSONCodec} for the integer types, which checks the range
+	 * of the read numbers.
+	 * 
+	 * @param <T> The type of integers.
+	 */
+	static final class IntegerCodec<T extends Number> implements JSONCodec<T> {
+		
+		/**
+		 * The minimum value of the type.
+		 */
+		final long min;
+		/**
+		 * The maximum value of the type.
+		 */
+		final long max;
+		/**
+		 * The function boxing a value in the range of the type.
+		 */
+		private final LongFunction<T> boxing;
+		
+		IntegerCodec(long min, long max, LongFunction<T> boxing) {
+			this.min = min;
+			this.max = max;
+			this.boxing = boxing;
+		}
+		
+		@Override
+		public void write(JSONGenerator generator, T value) throws IOException {
+			if(value == null) {
+				generator.nullValue();
+			} else {
+				generator.value(value.longValue());
+			}
+		}
+		
+		@Override
+		public T read(JSONReader reader) throws IOException {
+			return checkNumber(reader) ? boxing.apply(readLong(reader, min, max)) : null;
+		}
+		
+		/**
+		 * Reads the current number of the reader as a long in the provided range.
+		 * 
+		 * @param reader The reader positioned on a number (not null).
+		 * @param min	 The minimum value allowed.
+		 * @param max	 The maximum value allowed.
+		 * @return		 The read number.
+		 * 
+		 * @throws IOException Thrown if the number isn't an integer in the range.
+		 */
+		static long readLong(JSONReader reader, long min, long max) throws IOException {
+			long value = reader.longValue();
+			if(value < min || value > max) {
+				throw new IOException("Expected an integer in the range [" + min + ", " + max + "] but found the number " 
+						+ value + " at " + reader.location() + "!");
+			}
+			return value;
+		}
+	}
+	
+	/**
+	 * <code>LongFunction</code> boxes a long value into an integer type, without the overhead of a boxed argument.
+	 * 
+	 * @param <T> The type of integers.
+	 */
+	@FunctionalInterface
+	interface LongFunction<T> {
+		
+		T apply(long value);
+	}
+	
+	/**
+	 * <code>TextCodec</code> is an implementation of {@link JSONCodec} for the value types of the JDK, which are represented
+	 * by the string returned by their <code>toString()</code> method.
+	 * 
+	 * @param <T> The type of values.
+	 */
+	static final class TextCodec<T> implements JSONCodec<T> {
+		
+		/**
+		 * The function parsing a value from its string representation.
+		 */
+		private final Function<String, T> parser;
+		
+		TextCodec(Function<String, T> parser) {
+			this.parser = parser;
+		}
+		
+		@Override
+		public void write(JSONGenerator generator, T value) throws IOException {
+			generator.value(value == null ? null : value.toString());
+		}
+		
+		@Override
+		public T read(JSONReader reader) throws IOException {
+			String text = STRING.read(reader);
+			if(text == null) {
+				return null;
+			}
+			
+			try {
+				return parser.apply(text);
+			} catch (RuntimeException ex) {
+				throw new IOException("The string '" + text + "' isn't a valid value at " + reader.location() + "!", ex);
+			}
+		}
+	}
+	
+	/**
+	 * <code>OptionalCodec</code> is an implementation of {@link JSONCodec} for {@link Optional}, which are represented
+	 * by their value or by a <code>null</code> literal if they are empty.
+	 * 
+	 * @param <T> The type of values.
+	 */
+	static final class OptionalCodec<T> implements JSONCodec<Optional<T>> {
+		
+		/**
+		 * The codec of the values.
+		 */
+		private final JSONCodec<T> valueCodec;
+		
+		OptionalCodec(JSONCodec<T> valueCodec) {
+			this.valueCodec = valueCodec;
+		}
+		
+		@Override
+		public void write(JSONGenerator generator, Optional<T> value) throws IOException {
+			if(value == null || !value.isPresent()) {
+				generator.nullValue();
+			} else {
+				valueCodec.write(generator, value.get());
+			}
+		}
+		
+		@Override
+		public Optional<T> read(JSONReader reader) throws IOException {
+			if(reader.currentToken() == Token.NULL) {
+				return Optional.empty();
+			}
+			return Optional.ofNullable(valueCodec.read(reader));
+		}
+	}
+	
+	/**
+	 * <code>EnumCodec</code> is an implementation of {@link JSONCodec} for enums, which are represented by the name
+	 * of their constants.
+	 * 
+	 * @param <E> The type of enum.
+	 */
+	static final class EnumCodec<E extends Enum<E>> implements JSONCodec<E> {
+		
+		/**
+		 * The constants of the enum by their name.
+		 */
+		private final Map<String, E> constants = new HashMap<>();
+		
+		EnumCodec(Class<E> type) {
+			for(E constant : type.getEnumConstants()) {
+				constants.put(constant.name(), constant);
+			}
+		}
+		
+		@Override
+		public void write(JSONGenerator generator, E value) throws IOException {
+			generator.value(value == null ? null : value.name());
+		}
+		
+		@Override
+		public E read(JSONReader reader) throws IOException {
+			String name = STRING.read(reader);
+			if(name == null) {
+				return null;
+			}
+			
+			E constant = constants.get(name);
+			if(constant == null) {
+				throw mismatch(reader, "one of " + constants.keySet());
+			}
+			return constant;
+		}
+	}
+	
+	/**
+	 * <code>CollectionCodec</code> is an implementation of {@link JSONCodec} for collections, including the {@link fr.alchemy.utilities.collections.array.Array},
+	 * which are represented by JSON arrays.
+	 * 
+	 * @param <C> The type of collection.
+	 * @param <E> The type of elements.
+	 */
+	static final class CollectionCodec<C extends Collection<E>, E> implements JSONCodec<C> {
+		
+		/**
+		 * The factory of new collections.
+		 */
+		private final Supplier<C> factory;
+		/**
+		 * The codec of the elements.
+		 */
+		private final JSONCodec<E> elementCodec;
+		
+		CollectionCodec(Supplier<C> factory, JSONCodec<E> elementCodec) {
+			this.factory = factory;
+			this.elementCodec = elementCodec;
+		}
+		
+		@Override
+		public void write(JSONGenerator generator, C value) throws IOException {
+			if(value == null) {
+				generator.nullValue();
+				return;
+			}
+			
+			generator.beginArray();
+			for(E element : value) {
+				elementCodec.write(generator, element);
+			}
+			generator.endArray();
+		}
+		
+		@Override
+		public C read(JSONReader reader) throws IOException {
+			Token token = reader.currentToken();
+			if(token == Token.NULL) {
+				return null;
+			}
+			if(token != Token.BEGIN_ARRAY) {
+				throw mismatch(reader, "an array");
+			}
+			
+			C collection = factory.get();
+			while (reader.nextToken() != Token.END_ARRAY) {
+				collection.add(elementCodec.read(reader));
+			}
+			return collection;
+		}
+	}
+	
+	/**
+	 * <code>MapCodec</code> is an implementation of {@link JSONCodec} for maps with string keys, which are represented by
+	 * JSON objects. The keys of the raw maps are written with their string representation.
+	 * 
+	 * @param <M> The type of map.
+	 * @param <V> The type of values.
+	 */
+	static final class MapCodec<M extends Map<String, V>, V> implements JSONCodec<M> {
+		
+		/**
+		 * The factory of new maps.
+		 */
+		private final Supplier<M> factory;
+		/**
+		 * The codec of the values.
+		 */
+		private final JSONCodec<V> valueCodec;
+		
+		MapCodec(Supplier<M> factory, JSONCodec<V> valueCodec) {
+			this.factory = factory;
+			this.valueCodec = valueCodec;
+		}
+		
+		@Override
+		public void write(JSONGenerator generator, M value) throws IOException {
+			if(value == null) {
+				generator.nullValue();
+				return;
+			}
+			
+			generator.beginObject();
+			// The keys of the raw maps may not be strings.
+			for(Entry<?, V> entry : value.entrySet()) {
+				generator.name(String.valueOf(entry.getKey()));
+				valueCodec.write(generator, entry.getValue());
+			}
+			generator.endObject();
+		}
+		
+		@Override
+		public M read(JSONReader reader) throws IOException {
+			Token token = reader.currentToken();
+			if(token == Token.NULL) {
+				return null;
+			}
+			if(token != Token.BEGIN_OBJECT) {
+				throw mismatch(reader, "an object");
+			}
+			
+			M map = factory.get();
+			while (reader.nextToken() == Token.NAME) {
+				String name = reader.name();
+				reader.nextToken();
+				map.put(name, valueCodec.read(reader));
+			}
+			return map;
+		}
+	}
+	
+	/**
+	 * <code>ArrayCodec</code> is an implementation of {@link JSONCodec} for Java arrays, which are represented by JSON arrays.
+	 * The elements are accessed through method handles, so the arrays of any component type are supported.
+	 */
+	static final class ArrayCodec implements JSONCodec<Object> {
+		
+		/**
+		 * The codec of the components.
+		 */
+		private final JSONCodec<Object> componentCodec;
+		/**
+		 * The handle returning the length of an array.
+		 */
+		private final MethodHandle length;
+		/**
+		 * The handle returning a component of an array, boxed if needed.
+		 */
+		private final MethodHandle getter;
+		/**
+		 * The handle setting a component of an array, unboxed if needed.
+		 */
+		private final MethodHandle setter;
+		/**
+		 * The handle creating a new array.
+		 */
+		private final MethodHandle constructor;
+		/**
+		 * The primitive type of the components, or null if they are references.
+		 */
+		private final Class<?> primitive;
+		
+		ArrayCodec(Class<?> type, JSONCodec<Object> componentCodec) {
+			this.componentCodec = componentCodec;
+			this.primitive = type.getComponentType().isPrimitive() ? type.getComponentType() : null;
+			this.length = MethodHandles.arrayLength(type).asType(MethodType.methodType(int.class, Object.class));
+			this.getter = MethodHandles.arrayElementGetter(type).asType(MethodType.methodType(Object.class, Object.class, int.class));
+			this.setter = MethodHandles.arrayElementSetter(type).asType(MethodType.methodType(void.class, Object.class, int.class, Object.class));
+			this.constructor = MethodHandles.arrayConstructor(type).asType(MethodType.methodType(Object.class, int.class));
+		}
+		
+		@Override
+		public void write(JSONGenerator generator, Object value) throws IOException {
+			if(value == null) {
+				generator.nullValue();
+				return;
+			}
+			
+			try {
+				generator.beginArray();
+				int size = (int) length.invokeExact(value);
+				for(int i = 0; i < size; i++) {
+					componentCodec.write(generator, (Object) getter.invokeExact(value, i));
+				}
+				generator.endArray();
+			} catch (IOException ex) {
+				throw ex;
+			} catch (Throwable ex) {
+				throw rethrow(ex);
+			}
+		}
+		
+		@Override
+		public Object read(JSONReader reader) throws IOException {
+			Token token = reader.currentToken();
+			if(token == Token.NULL) {
+				return null;
+			}
+			if(token != Token.BEGIN_ARRAY) {
+				throw mismatch(reader, "an array");
+			}
+			
+			List<Object> components = new ArrayList<>();
+			while (reader.nextToken() != Token.END_ARRAY) {
+				Object component = componentCodec.read(reader);
+				if(component == null && primitive != null) {
+					throw mismatch(reader, "a " + primitive.getName());
+				}
+				components.add(component);
+			}
+			
+			try {
+				Object array = (Object) constructor.invokeExact(components.size());
+				for(int i = 0; i < components.size(); i++) {
+					setter.invokeExact(array, i, components.get(i));
+				}
+				return array;
+			} catch (Throwable ex) {
+				throw rethrow(ex);
+			}
+		}
+	}
+}
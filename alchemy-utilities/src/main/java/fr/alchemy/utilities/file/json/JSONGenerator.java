@@ -0,0 +1,699 @@
+package fr.alchemy.utilities.file.json;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import fr.alchemy.utilities.Validator;
+import fr.alchemy.utilities.collections.pool.FastPool;
+import fr.alchemy.utilities.file.json.JSONObject.JSONPair;
+
+/**
+ * <code>JSONGenerator</code> is a push-based streaming writer of a JSON document, which encodes the document in UTF-8 directly
+ * into an {@link OutputStream} or a {@link WritableByteChannel}, without building a {@link JSONValue} tree nor buffering characters.
+ * <p>
+ * The document is written with {@link #beginObject()}, {@link #name(String)}, the <code>value</code> methods and their matching
+ * {@link #endObject()} or {@link #endArray()}. The commas and colons are inserted automatically, and a call which would produce
+ * an invalid document throws an {@link IllegalStateException}. The bytes are encoded into a buffer which is pooled for each thread
+ * and written to the output once full, the strings being escaped using a lookup table of their ASCII characters.
+ * <pre>
+ * try (JSONGenerator generator = AlchemyJSON.generator(output)) {
+ *     generator.beginObject();
+ *     generator.name("id").value(12L);
+ *     generator.name("tags").beginArray().value("a").value("b").endArray();
+ *     generator.endObject();
+ * }
+ * </pre>
+ * 
+ * @version 0.3.0
+ * @since 0.3.0
+ * 
+ * @see AlchemyJSON#generator(OutputStream)
+ * @see AlchemyJSON#generator(WritableByteChannel)
+ * 
+ * @author GnosticOccultist
+ */
+public final class JSONGenerator implements Closeable, Flushable {
+	
+	/**
+	 * The size of the output buffers, by default 8192.
+	 */
+	static final int BUFFER_SIZE = 8192;
+	/**
+	 * The maximum number of output buffers kept in the pool of a thread, by default 4.
+	 */
+	static final int MAX_POOLED_BUFFERS = 4;
+	/**
+	 * The pool of output buffers of each thread, which is bounded since a generator may be closed by another thread 
+	 * than the one it has been created on.
+	 */
+	private static final ThreadLocal<FastPool<byte[]>> BUFFERS = ThreadLocal.withInitial(
+			() -> new FastPool<>(byte[].class, () -> new byte[BUFFER_SIZE], 1));
+	/**
+	 * The hexadecimal digits.
+	 */
+	private static final byte[] HEX_DIGITS = { '0', '1', '2', '3', '4', '5', '6', '7', '8', '9', 'a', 'b', 'c', 'd', 'e', 'f' };
+	/**
+	 * The escape of each ASCII character: 0 if it doesn't need any, the character following the backslash for
+	 * the short escapes, or 'u' for the unicode escapes.
+	 */
+	private static final byte[] ESCAPES = new byte[128];
+	
+	static {
+		for(int i = 0; i < 0x20; i++) {
+			ESCAPES[i] = 'u';
+		}
+		ESCAPES['"'] = '"';
+		ESCAPES['\\'] = '\\';
+		ESCAPES['\n'] = 'n';
+		ESCAPES['\r'] = 'r';
+		ESCAPES['\t'] = 't';
+		ESCAPES['\b'] = 'b';
+		ESCAPES['\f'] = 'f';
+	}
+	
+	/**
+	 * The context of the document's root, before its value has been written.
+	 */
+	private static final int EMPTY_DOCUMENT = 0;
+	/**
+	 * The context of the document's root, after its value has been written.
+	 */
+	private static final int NONEMPTY_DOCUMENT = 1;
+	/**
+	 * The context of an array without any element written yet.
+	 */
+	private static final int EMPTY_ARRAY = 2;
+	/**
+	 * The context of an array with at least one element written.
+	 */
+	private static final int NONEMPTY_ARRAY = 3;
+	/**
+	 * The context of an object without any member written yet.
+	 */
+	private static final int EMPTY_OBJECT = 4;
+	/**
+	 * The context of an object whose member name has been written, but not its value.
+	 */
+	private static final int DANGLING_NAME = 5;
+	/**
+	 * The context of an object with at least one member written.
+	 */
+	private static final int NONEMPTY_OBJECT = 6;
+	
+	/**
+	 * The output stream to write to, or null if writing to a channel.
+	 */
+	private final OutputStream output;
+	/**
+	 * The channel to write to, or null if writing to a stream.
+	 */
+	private final WritableByteChannel channel;
+	/**
+	 * The buffer of encoded bytes, or null if the generator is closed.
+	 */
+	private byte[] buffer;
+	/**
+	 * The view of the buffer used to write to the channel, or null if writing to a stream.
+	 */
+	private ByteBuffer view;
+	/**
+	 * The position in the buffer.
+	 */
+	private int position;
+	/**
+	 * The stack of contexts of the nested arrays and objects.
+	 */
+	private int[] stack = new int[32];
+	/**
+	 * The size of the stack of contexts.
+	 */
+	private int depth;
+	
+	/**
+	 * Instantiates a new <code>JSONGenerator</code> writing the JSON document to the provided {@link OutputStream}.
+	 * Use {@link AlchemyJSON#generator(OutputStream)} instead.
+	 * 
+	 * @param output The output stream to write the document to (not null).
+	 */
+	JSONGenerator(OutputStream output) {
+		Validator.nonNull(output, "The output stream can't be null!");
+		this.output = output;
+		this.channel = null;
+		this.buffer = BUFFERS.get().retrieve(() -> new byte[BUFFER_SIZE]);
+		this.stack[depth++] = EMPTY_DOCUMENT;
+	}
+	
+	/**
+	 * Instantiates a new <code>JSONGenerator</code> writing the JSON document to the provided {@link WritableByteChannel}.
+	 * Use {@link AlchemyJSON#generator(WritableByteChannel)} instead.
+	 * 
+	 * @param channel The channel to write the document to (not null).
+	 */
+	JSONGenerator(WritableByteChannel channel) {
+		Validator.nonNull(channel, "The channel can't be null!");
+		this.output = null;
+		this.channel = channel;
+		this.buffer = BUFFERS.get().retrieve(() -> new byte[BUFFER_SIZE]);
+		this.view = ByteBuffer.wrap(buffer);
+		this.stack[depth++] = EMPTY_DOCUMENT;
+	}
+	
+	/**
+	 * Begins a new JSON object, as a value of the current context.
+	 * 
+	 * @return The generator itself, to enable method chaining.
+	 * @throws IOException Thrown if an I/O error occurs while writing to the output.
+	 */
+	public JSONGenerator beginObject() throws IOException {
+		return begin(EMPTY_OBJECT, '{');
+	}
+	
+	/**
+	 * Ends the current JSON object.
+	 * 
+	 * @return The generator itself, to enable method chaining.
+	 * @throws IOException Thrown if an I/O error occurs while writing to the output.
+	 * 
+	 * @throws IllegalStateException Thrown if the current context isn't an object, or if a member name is
+	 * 								 waiting for its value.
+	 */
+	public JSONGenerator endObject() throws IOException {
+		return end(EMPTY_OBJECT, NONEMPTY_OBJECT, '}');
+	}
+	
+	/**
+	 * Begins a new JSON array, as a value of the current context.
+	 * 
+	 * @return The generator itself, to enable method chaining.
+	 * @throws IOException Thrown if an I/O error occurs while writing to the output.
+	 */
+	public JSONGenerator beginArray() throws IOException {
+		return begin(EMPTY_ARRAY, '[');
+	}
+	
+	/**
+	 * Ends the current JSON array.
+	 * 
+	 * @return The generator itself, to enable method chaining.
+	 * @throws IOException Thrown if an I/O error occurs while writing to the output.
+	 * 
+	 * @throws IllegalStateException Thrown if the current context isn't an array.
+	 */
+	public JSONGenerator endArray() throws IOException {
+		return end(EMPTY_ARRAY, NONEMPTY_ARRAY, ']');
+	}
+	
+	/**
+	 * Writes the name of the next member of the current JSON object, which must be followed by its value.
+	 * 
+	 * @param name The name of the member (not null).
+	 * @return	   The generator itself, to enable method chaining.
+	 * @throws IOException Thrown if an I/O error occurs while writing to the output.
+	 * 
+	 * @throws IllegalStateException Thrown if the current context isn't an object, or if the previous name
+	 * 								 hasn't received its value.
+	 */
+	public JSONGenerator name(String name) throws IOException {
+		Validator.nonNull(name, "The member name can't be null!");
+		
+		beforeName();
+		writeString(name);
+		writeByte(':');
+		return this;
+	}
+	
+	/**
+	 * Writes the name of the next member of the current JSON object, already encoded with its quotes
+	 * by {@link #encodeName(String)}.
+	 * 
+	 * @param encodedName The encoded name of the member (not null).
+	 * @return			  The generator itself, to enable method chaining.
+	 * @throws IOException Thrown if an I/O error occurs while writing to the output.
+	 */
+	JSONGenerator name(byte[] encodedName) throws IOException {
+		beforeName();
+		if(position > buffer.length - encodedName.length - 1) {
+			flushBuffer();
+		}
+		if(encodedName.length >= buffer.length) {
+			writeBytes(encodedName);
+		} else {
+			System.arraycopy(encodedName, 0, buffer, position, encodedName.length);
+			position += encodedName.length;
+		}
+		writeByte(':');
+		return this;
+	}
+	
+	/**
+	 * Encodes the provided member name in UTF-8 between quotes, to be written repeatedly with {@link #name(byte[])}
+	 * without escaping it each time.
+	 * 
+	 * @param name The name of the member (not null).
+	 * @return	   The encoded name (not null).
+	 */
+	static byte[] encodeName(String name) {
+		ByteArrayOutputStream output = new ByteArrayOutputStream(name.length() + 2);
+		try (JSONGenerator generator = new JSONGenerator(output)) {
+			generator.value(name);
+		} catch (IOException ex) {
+			throw new UncheckedIOException(ex);
+		}
+		return output.toByteArray();
+	}
+	
+	/**
+	 * Writes the provided string value, or a <code>null</code> literal if it is null.
+	 * 
+	 * @param value The string value to write.
+	 * @return		The generator itself, to enable method chaining.
+	 * @throws IOException Thrown if an I/O error occurs while writing to the output.
+	 */
+	public JSONGenerator value(String value) throws IOException {
+		if(value == null) {
+			return nullValue();
+		}
+		
+		beforeValue();
+		writeString(value);
+		return this;
+	}
+	
+	/**
+	 * Writes the provided long value.
+	 * 
+	 * @param value The long value to write.
+	 * @return		The generator itself, to enable method chaining.
+	 * @throws IOException Thrown if an I/O error occurs while writing to the output.
+	 */
+	public JSONGenerator value(long value) throws IOException {
+		beforeValue();
+		writeLong(value);
+		return this;
+	}
+	
+	/**
+	 * Writes the provided double value.
+	 * 
+	 * @param value The double value to write, which must be finite.
+	 * @return		The generator itself, to enable method chaining.
+	 * @throws IOException Thrown if an I/O error occurs while writing to the output.
+	 * 
+	 * @throws IllegalArgumentException Thrown if the value is infinite or NaN.
+	 */
+	public JSONGenerator value(double value) throws IOException {
+		if(Double.isInfinite(value) || Double.isNaN(value)) {
+			throw new IllegalArgumentException("JSON doesn't support infinite or NaN numbers!");
+		}
+		
+		beforeValue();
+		if(value == (long) value && Math.abs(value) < 1e15 && Double.doubleToRawLongBits(value) != Long.MIN_VALUE) {
+			// Write the integral values without the useless fraction.
+			writeLong((long) value);
+		} else {
+			writeAscii(Double.toString(value));
+		}
+		return this;
+	}
+	
+	/**
+	 * Writes the provided boolean value.
+	 * 
+	 * @param value The boolean value to write.
+	 * @return		The generator itself, to enable method chaining.
+	 * @throws IOException Thrown if an I/O error occurs while writing to the output.
+	 */
+	public JSONGenerator value(boolean value) throws IOException {
+		beforeValue();
+		writeAscii(value ? "true" : "false");
+		return this;
+	}
+	
+	/**
+	 * Writes a <code>null</code> literal.
+	 * 
+	 * @return The generator itself, to enable method chaining.
+	 * @throws IOException Thrown if an I/O error occurs while writing to the output.
+	 */
+	public JSONGenerator nullValue() throws IOException {
+		beforeValue();
+		writeAscii("null");
+		return this;
+	}
+	
+	/**
+	 * Writes the provided text of a number, which must follow the JSON number grammar.
+	 * 
+	 * @param text The text of the number to write (not null).
+	 * @return	   The generator itself, to enable method chaining.
+	 * @throws IOException Thrown if an I/O error occurs while writing to the output.
+	 */
+	JSONGenerator numberValue(String text) throws IOException {
+		beforeValue();
+		writeAscii(text);
+		return this;
+	}
+	
+	/**
+	 * Writes the provided {@link JSONValue} tree, or a <code>null</code> literal if it is null.
+	 * 
+	 * @param value The JSON value to write.
+	 * @return		The generator itself, to enable method chaining.
+	 * @throws IOException Thrown if an I/O error occurs while writing to the output.
+	 */
+	public JSONGenerator value(JSONValue value) throws IOException {
+		if(value == null || value.isNull()) {
+			return nullValue();
+		} else if(value.isObject()) {
+			beginObject();
+			for(JSONPair pair : value.asObject()) {
+				name(pair.getName());
+				value(pair.getValue());
+			}
+			return endObject();
+		} else if(value.isArray()) {
+			beginArray();
+			for(JSONValue element : value.asArray()) {
+				value(element);
+			}
+			return endArray();
+		} else if(value.isString()) {
+			return value(value.asString());
+		} else if(value.isNumber()) {
+			return numberValue(value.toString());
+		}
+		return value(value.isTrue());
+	}
+	
+	/**
+	 * Return the current nesting depth of the <code>JSONGenerator</code>, 0 being the document's root.
+	 * 
+	 * @return The current nesting depth (&ge;0).
+	 */
+	public int depth() {
+		return depth - 1;
+	}
+	
+	/**
+	 * Writes the encoded bytes to the output and flushes it.
+	 * 
+	 * @throws IOException Thrown if an I/O error occurs while writing to the output.
+	 */
+	@Override
+	public void flush() throws IOException {
+		checkOpen();
+		flushBuffer();
+		if(output != null) {
+			output.flush();
+		}
+	}
+	
+	/**
+	 * Writes the encoded bytes to the output and closes it, releasing the buffer of the <code>JSONGenerator</code>.
+	 * 
+	 * @throws IOException Thrown if an I/O error occurs while writing to the output.
+	 * 
+	 * @throws IllegalStateException Thrown if the document is incomplete.
+	 */
+	@Override
+	public void close() throws IOException {
+		if(buffer == null) {
+			return;
+		}
+		
+		try {
+			flushBuffer();
+		} finally {
+			FastPool<byte[]> buffers = BUFFERS.get();
+			if(buffers.size() < MAX_POOLED_BUFFERS) {
+				buffers.inject(buffer);
+			}
+			this.buffer = null;
+			this.view = null;
+			
+			if(output != null) {
+				output.close();
+			} else {
+				channel.close();
+			}
+		}
+		
+		if(depth != 1 || stack[0] != NONEMPTY_DOCUMENT) {
+			throw new IllegalStateException("The JSON document is incomplete!");
+		}
+	}
+	
+	/**
+	 * Begins a new array or object, as a value of the current context.
+	 * 
+	 * @param context The context of the new array or object.
+	 * @param bracket The opening bracket to write.
+	 * @return		  The generator itself, to enable method chaining.
+	 * @throws IOException Thrown if an I/O error occurs while writing to the output.
+	 */
+	private JSONGenerator begin(int context, char bracket) throws IOException {
+		beforeValue();
+		if(depth == stack.length) {
+			stack = Arrays.copyOf(stack, depth << 1);
+		}
+		stack[depth++] = context;
+		writeByte(bracket);
+		return this;
+	}
+	
+	/**
+	 * Ends the current array or object.
+	 * 
+	 * @param empty	   The context of the array or object without any value.
+	 * @param nonempty The context of the array or object with at least one value.
+	 * @param bracket  The closing bracket to write.
+	 * @return		   The generator itself, to enable method chaining.
+	 * @throws IOException Thrown if an I/O error occurs while writing to the output.
+	 */
+	private JSONGenerator end(int empty, int nonempty, char bracket) throws IOException {
+		int context = peek();
+		if(context != empty && context != nonempty) {
+			throw new IllegalStateException("Can't end an " + (empty == EMPTY_ARRAY ? "array" : "object")
+					+ " in the current context!");
+		}
+		
+		depth--;
+		writeByte(bracket);
+		return this;
+	}
+	
+	/**
+	 * Prepares the current object for a new member name, writing a separator if needed.
+	 * 
+	 * @throws IOException Thrown if an I/O error occurs while writing to the output.
+	 */
+	private void beforeName() throws IOException {
+		int context = peek();
+		if(context == NONEMPTY_OBJECT) {
+			writeByte(',');
+		} else if(context != EMPTY_OBJECT) {
+			throw new IllegalStateException("A member name can only be written in an object!");
+		}
+		stack[depth - 1] = DANGLING_NAME;
+	}
+	
+	/**
+	 * Prepares the current context for a new value, writing a separator if needed.
+	 * 
+	 * @throws IOException Thrown if an I/O error occurs while writing to the output.
+	 */
+	private void beforeValue() throws IOException {
+		switch (peek()) {
+			case EMPTY_DOCUMENT:
+				stack[depth - 1] = NONEMPTY_DOCUMENT;
+				break;
+			case EMPTY_ARRAY:
+				stack[depth - 1] = NONEMPTY_ARRAY;
+				break;
+			case NONEMPTY_ARRAY:
+				writeByte(',');
+				break;
+			case DANGLING_NAME:
+				stack[depth - 1] = NONEMPTY_OBJECT;
+				break;
+			case NONEMPTY_DOCUMENT:
+				throw new IllegalStateException("The JSON document can only contain a single root value!");
+			default:
+				throw new IllegalStateException("A value in an object must be preceded by its member name!");
+		}
+	}
+	
+	private int peek() {
+		checkOpen();
+		return stack[depth - 1];
+	}
+	
+	private void checkOpen() {
+		if(buffer == null) {
+			throw new IllegalStateException("The JSON generator is closed!");
+		}
+	}
+	
+	/**
+	 * Encodes the provided string in UTF-8 between quotes, escaping the quotes, backslashes, control characters
+	 * and the unpaired surrogates, as well as U+2028 and U+2029 which count as line endings in JavaScript.
+	 * 
+	 * @param value The string to write (not null).
+	 * @throws IOException Thrown if an I/O error occurs while writing to the output.
+	 */
+	private void writeString(String value) throws IOException {
+		writeByte('"');
+		
+		int length = value.length();
+		for(int i = 0; i < length; i++) {
+			// The worst case of a character is a 6 bytes unicode escape.
+			if(position > buffer.length - 6) {
+				flushBuffer();
+			}
+			
+			char ch = value.charAt(i);
+			if(ch < 0x80) {
+				byte escape = ESCAPES[ch];
+				if(escape == 0) {
+					buffer[position++] = (byte) ch;
+				} else if(escape == 'u') {
+					writeUnicodeEscape(ch);
+				} else {
+					buffer[position++] = '\\';
+					buffer[position++] = escape;
+				}
+			} else if(ch < 0x800) {
+				buffer[position++] = (byte) (0xC0 | ch >> 6);
+				buffer[position++] = (byte) (0x80 | ch & 0x3F);
+			} else if(Character.isHighSurrogate(ch) && i + 1 < length && Character.isLowSurrogate(value.charAt(i + 1))) {
+				int codePoint = Character.toCodePoint(ch, value.charAt(++i));
+				buffer[position++] = (byte) (0xF0 | codePoint >> 18);
+				buffer[position++] = (byte) (0x80 | codePoint >> 12 & 0x3F);
+				buffer[position++] = (byte) (0x80 | codePoint >> 6 & 0x3F);
+				buffer[position++] = (byte) (0x80 | codePoint & 0x3F);
+			} else if(Character.isSurrogate(ch) || ch == '\u2028' || ch == '\u2029') {
+				writeUnicodeEscape(ch);
+			} else {
+				buffer[position++] = (byte) (0xE0 | ch >> 12);
+				buffer[position++] = (byte) (0x80 | ch >> 6 & 0x3F);
+				buffer[position++] = (byte) (0x80 | ch & 0x3F);
+			}
+		}
+		
+		writeByte('"');
+	}
+	
+	private void writeUnicodeEscape(char ch) {
+		buffer[position++] = '\\';
+		buffer[position++] = 'u';
+		buffer[position++] = HEX_DIGITS[ch >> 12];
+		buffer[position++] = HEX_DIGITS[ch >> 8 & 0xF];
+		buffer[position++] = HEX_DIGITS[ch >> 4 & 0xF];
+		buffer[position++] = HEX_DIGITS[ch & 0xF];
+	}
+	
+	/**
+	 * Writes the decimal digits of the provided long value, without allocating its text.
+	 * 
+	 * @param value The long value to write.
+	 * @throws IOException Thrown if an I/O error occurs while writing to the output.
+	 */
+	private void writeLong(long value) throws IOException {
+		if(value == Long.MIN_VALUE) {
+			writeAscii(Long.toString(value));
+			return;
+		}
+		// A long has at most 19 digits and a sign.
+		if(position > buffer.length - 20) {
+			flushBuffer();
+		}
+		
+		if(value < 0) {
+			buffer[position++] = '-';
+			value = -value;
+		}
+		
+		int end = position + digits(value);
+		position = end;
+		do {
+			buffer[--end] = (byte) ('0' + value % 10);
+			value /= 10;
+		} while (value != 0);
+	}
+	
+	private static int digits(long value) {
+		int count = 1;
+		for(long limit = 10; count < 19 && value >= limit; limit *= 10) {
+			count++;
+		}
+		return count;
+	}
+	
+	private void writeAscii(String value) throws IOException {
+		int length = value.length();
+		if(position > buffer.length - length) {
+			flushBuffer();
+		}
+		if(length > buffer.length) {
+			writeBytes(value.getBytes(StandardCharsets.US_ASCII));
+			return;
+		}
+		for(int i = 0; i < length; i++) {
+			buffer[position++] = (byte) value.charAt(i);
+		}
+	}
+	
+	/**
+	 * Writes the provided bytes directly to the output, after the encoded bytes of the buffer.
+	 * 
+	 * @param bytes The bytes to write (not null).
+	 * @throws IOException Thrown if an I/O error occurs while writing to the output.
+	 */
+	private void writeBytes(byte[] bytes) throws IOException {
+		flushBuffer();
+		if(output != null) {
+			output.write(bytes);
+		} else {
+			ByteBuffer wrapped = ByteBuffer.wrap(bytes);
+			while (wrapped.hasRemaining()) {
+				channel.write(wrapped);
+			}
+		}
+	}
+	
+	private void writeByte(char ch) throws IOException {
+		if(position == buffer.length) {
+			flushBuffer();
+		}
+		buffer[position++] = (byte) ch;
+	}
+	
+	/**
+	 * Writes the encoded bytes of the buffer to the output.
+	 * 
+	 * @throws IOException Thrown if an I/O error occurs while writing to the output.
+	 */
+	private void flushBuffer() throws IOException {
+		if(position == 0) {
+			return;
+		}
+		
+		if(output != null) {
+			output.write(buffer, 0, position);
+		} else {
+			view.clear().limit(position);
+			while (view.hasRemaining()) {
+				channel.write(view);
+			}
+		}
+		position = 0;
+	}
+}
@@ -0,0 +1,104 @@
+package fr.alchemy.utilities.file.json;
+
+import java.io.IOException;
+import java.io.ObjectStreamException;
+
+/**
+ * <code>JSONLazyValue</code> is an implementation of {@link JSONValue} standing for a JSON object or array of a document
+ * indexed by a {@link JSONStructuralIndex}, which is only materialized on its first access.
+ * <p>
+ * Testing the type of the value doesn't materialize it, whereas casting, writing or comparing it does, once. The materialized
+ * {@link JSONObject} or {@link JSONArray} is then returned by every cast, so its modifications are kept.
+ * 
+ * @version 0.3.0
+ * @since 0.3.0
+ * 
+ * @see AlchemyJSON#parseLazily(java.nio.ByteBuffer)
+ * 
+ * @author GnosticOccultist
+ */
+final class JSONLazyValue extends JSONValue {
+	
+	private static final long serialVersionUID = 1L;
+	
+	/**
+	 * The structural index of the document.
+	 */
+	private final transient JSONStructuralIndex index;
+	/**
+	 * The tape index of the opening bracket of the value.
+	 */
+	private final transient int entry;
+	/**
+	 * The materialized value, or null if not accessed yet.
+	 */
+	private transient volatile JSONValue value;
+	
+	/**
+	 * Instantiates a new <code>JSONLazyValue</code> for the container at the provided tape index.
+	 * 
+	 * @param index The structural index of the document (not null).
+	 * @param entry The tape index of the opening bracket of the value (&ge;0).
+	 */
+	JSONLazyValue(JSONStructuralIndex index, int entry) {
+		this.index = index;
+		this.entry = entry;
+	}
+	
+	/**
+	 * Return the materialized object or array, materializing it on the first call.
+	 * 
+	 * @return The materialized value (not null).
+	 */
+	JSONValue materialize() {
+		JSONValue result = value;
+		if(result == null) {
+			synchronized (this) {
+				result = value;
+				if(result == null) {
+					value = result = index.materialize(entry);
+				}
+			}
+		}
+		return result;
+	}
+	
+	@Override
+	public boolean isObject() {
+		return index.isObject(entry);
+	}
+	
+	@Override
+	public boolean isArray() {
+		return !index.isObject(entry);
+	}
+	
+	@Override
+	public JSONObject asObject() {
+		return isObject() ? materialize().asObject() : super.asObject();
+	}
+	
+	@Override
+	public JSONArray asArray() {
+		return isArray() ? materialize().asArray() : super.asArray();
+	}
+	
+	@Override
+	void write(JSONWriter writer) throws IOException {
+		materialize().write(writer);
+	}
+	
+	@Override
+	public int hashCode() {
+		return materialize().hashCode();
+	}
+	
+	@Override
+	public boolean equals(Object o) {
+		return this == o || materialize().equals(o);
+	}
+	
+	private Object writeReplace() throws ObjectStreamException {
+		return materialize();
+	}
+}
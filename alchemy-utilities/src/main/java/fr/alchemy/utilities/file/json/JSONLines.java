@@ -0,0 +1,590 @@
+package fr.alchemy.utilities.file.json;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import fr.alchemy.utilities.Validator;
+import fr.alchemy.utilities.collections.array.Array;
+
+/**
+ * <code>JSONLines</code> is a parallel reader of documents in the JSON Lines format, also known as newline-delimited JSON,
+ * where each line of a UTF-8 file holds one JSON value, called a record.
+ * <p>
+ * The file is memory-mapped and split at newline boundaries into chunks of roughly the same size, which are parsed independently
+ * by {@link JSONByteParser} on a {@link ForkJoinPool}. The records can be delivered to a sink in any order with {@link #forEach(Consumer)},
+ * in the order of the file with {@link #forEachOrdered(Consumer)}, or as a parallel {@link Stream}. The blank lines are skipped.
+ * <p>
+ * The mapping is released by the garbage collector once the reader and the parsed strings which are still lazily decoded
+ * from it are no longer reachable.
+ * 
+ * @version 0.3.0
+ * @since 0.3.0
+ * 
+ * @see AlchemyJSON#lines(Path)
+ * 
+ * @author GnosticOccultist
+ */
+public final class JSONLines {
+	
+	/**
+	 * The default size in bytes of the chunks parsed in parallel &rarr; 1 MB.
+	 */
+	public static final int DEFAULT_CHUNK_SIZE = 1 << 20;
+	
+	/**
+	 * Opens the provided JSON Lines file for reading, splitting it into chunks of the default size.
+	 * 
+	 * @param file The path of the file to read (not null).
+	 * @return	   A new reader of the records in the file (not null).
+	 * @throws IOException Thrown if the file can't be mapped or contains a line too large to be mapped.
+	 * 
+	 * @see #open(Path, int)
+	 */
+	public static JSONLines open(Path file) throws IOException {
+		return open(file, DEFAULT_CHUNK_SIZE);
+	}
+	
+	/**
+	 * Opens the provided JSON Lines file for reading, splitting it into chunks of the provided size.
+	 * The files larger than 2 GB are mapped in several regions, each ending at a newline.
+	 * 
+	 * @param file		The path of the file to read (not null).
+	 * @param chunkSize The minimal size in bytes of the chunks, the last one of each region excepted (&gt;0).
+	 * @return			A new reader of the records in the file (not null).
+	 * @throws IOException Thrown if the file can't be mapped or contains a line too large to be mapped.
+	 */
+	public static JSONLines open(Path file, int chunkSize) throws IOException {
+		Validator.nonNull(file, "The file to read can't be null!");
+		Validator.positive(chunkSize, "The chunk size must be strictly positive!");
+		
+		List<Chunk> chunks = new ArrayList<>();
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			long size = channel.size();
+			long offset = 0;
+			while (offset < size) {
+				int length = (int) Math.min(size - offset, Integer.MAX_VALUE);
+				ByteBuffer region = channel.map(MapMode.READ_ONLY, offset, length);
+				if(offset + length < size) {
+					// Truncate the region after its last newline, the next one starts there.
+					while (length > 0 && region.get(length - 1) != '\n') {
+						length--;
+					}
+					if(length == 0) {
+						throw new IOException("The file " + file + " contains a line too large to be mapped at offset " + offset + "!");
+					}
+				}
+				
+				split(region, offset == 0 ? skipBOM(region, 0, length) : 0, length, offset, chunkSize, chunks);
+				offset += length;
+			}
+		}
+		return new JSONLines(chunks.toArray(new Chunk[chunks.size()]));
+	}
+	
+	/**
+	 * Creates a reader of the JSON Lines document between the position and the limit of the provided
+	 * {@link ByteBuffer}, splitting it into chunks of the default size. The buffer is left untouched.
+	 * 
+	 * @param buffer The buffer containing the UTF-8 bytes of the document (not null).
+	 * @return		 A new reader of the records in the buffer (not null).
+	 * 
+	 * @see #of(ByteBuffer, int)
+	 */
+	public static JSONLines of(ByteBuffer buffer) {
+		return of(buffer, DEFAULT_CHUNK_SIZE);
+	}
+	
+	/**
+	 * Creates a reader of the JSON Lines document between the position and the limit of the provided
+	 * {@link ByteBuffer}, splitting it into chunks of the provided size. The buffer is left untouched.
+	 * 
+	 * @param buffer	The buffer containing the UTF-8 bytes of the document (not null).
+	 * @param chunkSize The minimal size in bytes of the chunks, the last one excepted (&gt;0).
+	 * @return			A new reader of the records in the buffer (not null).
+	 */
+	public static JSONLines of(ByteBuffer buffer, int chunkSize) {
+		Validator.nonNull(buffer, "The input buffer can't be null!");
+		Validator.positive(chunkSize, "The chunk size must be strictly positive!");
+		
+		List<Chunk> chunks = new ArrayList<>();
+		split(buffer, skipBOM(buffer, buffer.position(), buffer.limit()), buffer.limit(), 0, chunkSize, chunks);
+		return new JSONLines(chunks.toArray(new Chunk[chunks.size()]));
+	}
+	
+	/**
+	 * Splits the provided range of the buffer into chunks ending right after a newline, the last one excepted.
+	 */
+	private static void split(ByteBuffer buffer, int start, int end, long base, int chunkSize, List<Chunk> chunks) {
+		while (start < end) {
+			int stop = end - start <= chunkSize ? end : start + chunkSize;
+			while (stop < end && buffer.get(stop - 1) != '\n') {
+				stop++;
+			}
+			
+			chunks.add(new Chunk(buffer, start, stop, base));
+			start = stop;
+		}
+	}
+	
+	private static int skipBOM(ByteBuffer buffer, int start, int end) {
+		if(end - start >= 3 && buffer.get(start) == (byte) 0xEF
+				&& buffer.get(start + 1) == (byte) 0xBB && buffer.get(start + 2) == (byte) 0xBF) {
+			return start + 3;
+		}
+		return start;
+	}
+	
+	/**
+	 * The chunks of the document, in the order of the document.
+	 */
+	private final Chunk[] chunks;
+	
+	/**
+	 * Instantiates a new <code>JSONLines</code> reading the provided chunks.
+	 * 
+	 * @param chunks The chunks of the document in order (not null).
+	 */
+	private JSONLines(Chunk[] chunks) {
+		this.chunks = chunks;
+	}
+	
+	/**
+	 * Parses the records on the common {@link ForkJoinPool} and delivers them to the provided sink
+	 * in any order. The sink is called concurrently, so it must be thread-safe.
+	 * 
+	 * @param sink The sink to deliver the records to (not null).
+	 * @throws IOException Thrown if a record is malformed.
+	 * 
+	 * @see #forEach(ForkJoinPool, Consumer)
+	 */
+	public void forEach(Consumer<? super JSONValue> sink) throws IOException {
+		forEach(ForkJoinPool.commonPool(), sink);
+	}
+	
+	/**
+	 * Parses the records on the provided {@link ForkJoinPool} and delivers them to the provided sink
+	 * in any order. The sink is called concurrently, so it must be thread-safe.
+	 * 
+	 * @param pool The pool to parse the chunks on (not null).
+	 * @param sink The sink to deliver the records to (not null).
+	 * @throws IOException Thrown if a record is malformed.
+	 */
+	public void forEach(ForkJoinPool pool, Consumer<? super JSONValue> sink) throws IOException {
+		Validator.nonNull(sink, "The sink can't be null!");
+		invoke(pool, chunks.length, index -> {
+			Chunk chunk = chunks[index];
+			JSONByteParser parser = chunk.newParser();
+			JSONValue value;
+			while ((value = chunk.next(parser)) != null) {
+				sink.accept(value);
+			}
+		});
+	}
+	
+	/**
+	 * Parses the records on the common {@link ForkJoinPool} and delivers them to the provided sink
+	 * in the order of the document. The sink is called by one thread at a time.
+	 * 
+	 * @param sink The sink to deliver the records to (not null).
+	 * @throws IOException Thrown if a record is malformed.
+	 * 
+	 * @see #forEachOrdered(ForkJoinPool, Consumer)
+	 */
+	public void forEachOrdered(Consumer<? super JSONValue> sink) throws IOException {
+		forEachOrdered(ForkJoinPool.commonPool(), sink);
+	}
+	
+	/**
+	 * Parses the records on the provided {@link ForkJoinPool} and delivers them to the provided sink
+	 * in the order of the document. The sink is called by one thread at a time, as soon as all the
+	 * records before the ones of a parsed chunk have been delivered.
+	 * <p>
+	 * The chunks are claimed in order by one task per thread of the pool, and a task waits before
+	 * claiming a chunk more than twice the parallelism of the pool ahead of the next chunk to deliver,
+	 * so that a slow chunk or sink doesn't hold back the records of the whole document in memory.
+	 * 
+	 * @param pool The pool to parse the chunks on (not null).
+	 * @param sink The sink to deliver the records to (not null).
+	 * @throws IOException Thrown if a record is malformed.
+	 */
+	public void forEachOrdered(ForkJoinPool pool, Consumer<? super JSONValue> sink) throws IOException {
+		Validator.nonNull(pool, "The fork/join pool can't be null!");
+		Validator.nonNull(sink, "The sink can't be null!");
+		int parallelism = pool.getParallelism();
+		OrderedSink ordered = new OrderedSink(sink, chunks.length, parallelism << 1);
+		invoke(pool, Math.min(parallelism, chunks.length), task -> {
+			try {
+				int index;
+				while ((index = ordered.claim()) >= 0) {
+					Chunk chunk = chunks[index];
+					JSONByteParser parser = chunk.newParser();
+					Array<JSONValue> values = Array.ofType(JSONValue.class);
+					JSONValue value;
+					while ((value = chunk.next(parser)) != null) {
+						values.add(value);
+					}
+					ordered.deliver(index, values);
+				}
+			} catch (IOException | RuntimeException | Error ex) {
+				// Release the tasks waiting for the failed chunk to be delivered.
+				ordered.abort();
+				throw ex;
+			}
+		});
+	}
+	
+	/**
+	 * Return a parallel {@link Stream} of the records in the order of the document, which are parsed
+	 * lazily as the stream is consumed. A malformed record is reported by an {@link UncheckedIOException}.
+	 * 
+	 * @return A parallel stream of the records (not null).
+	 */
+	public Stream<JSONValue> stream() {
+		return StreamSupport.stream(new RecordSpliterator(null, 0, chunks.length), true);
+	}
+	
+	/**
+	 * Return the number of chunks in which the document is split.
+	 * 
+	 * @return The number of chunks (&ge;0).
+	 */
+	public int chunkCount() {
+		return chunks.length;
+	}
+	
+	private void invoke(ForkJoinPool pool, int count, ChunkAction action) throws IOException {
+		Validator.nonNull(pool, "The fork/join pool can't be null!");
+		if(count == 0) {
+			return;
+		}
+		
+		try {
+			pool.invoke(new ChunkTask(action, 0, count));
+		} catch (UncheckedIOException ex) {
+			throw ex.getCause();
+		}
+	}
+	
+	/**
+	 * <code>ChunkAction</code> processes one of the chunks of the document, or claims them in order
+	 * when reading the records in the order of the document.
+	 */
+	@FunctionalInterface
+	private interface ChunkAction {
+		
+		/**
+		 * Processes the chunk, or runs the task, at the provided index.
+		 * 
+		 * @param index The index of the chunk or task to process (&ge;0).
+		 * @throws IOException Thrown if a record of the chunk is malformed.
+		 */
+		void process(int index) throws IOException;
+	}
+	
+	/**
+	 * <code>ChunkTask</code> processes a range of chunks, forking one task per chunk by halving the range.
+	 */
+	private static final class ChunkTask extends RecursiveAction {
+		
+		private static final long serialVersionUID = 1L;
+		
+		/**
+		 * The action to process each chunk with.
+		 */
+		private final transient ChunkAction action;
+		/**
+		 * The index of the first chunk to process.
+		 */
+		private final int from;
+		/**
+		 * The index after the last chunk to process.
+		 */
+		private final int to;
+		
+		private ChunkTask(ChunkAction action, int from, int to) {
+			this.action = action;
+			this.from = from;
+			this.to = to;
+		}
+		
+		@Override
+		protected void compute() {
+			if(to - from == 1) {
+				try {
+					action.process(from);
+				} catch (IOException ex) {
+					throw new UncheckedIOException(ex);
+				}
+				return;
+			}
+			
+			int middle = (from + to) >>> 1;
+			invokeAll(new ChunkTask(action, from, middle), new ChunkTask(action, middle, to));
+		}
+	}
+	
+	/**
+	 * <code>OrderedSink</code> delivers the records of the parsed chunks in the order of the document,
+	 * holding back the chunks parsed before their predecessors within a bounded window.
+	 * <p>
+	 * The sink is called outside of the lock by a single draining thread at a time, which delivers the
+	 * chunks handed over by the other threads until none is ready.
+	 */
+	private static final class OrderedSink {
+		
+		/**
+		 * The sink to deliver the records to.
+		 */
+		private final Consumer<? super JSONValue> sink;
+		/**
+		 * The records of the parsed chunks waiting for their predecessors.
+		 */
+		private final Array<?>[] pending;
+		/**
+		 * The maximum number of chunks claimed ahead of the next chunk to deliver.
+		 */
+		private final int window;
+		/**
+		 * The index of the next chunk to claim.
+		 */
+		private int claimed;
+		/**
+		 * The index of the next chunk to deliver.
+		 */
+		private int next;
+		/**
+		 * Whether a thread is delivering the ready chunks to the sink.
+		 */
+		private boolean draining;
+		/**
+		 * Whether a chunk has failed to be parsed or delivered.
+		 */
+		private boolean aborted;
+		
+		private OrderedSink(Consumer<? super JSONValue> sink, int count, int window) {
+			this.sink = sink;
+			this.pending = new Array<?>[count];
+			this.window = window;
+		}
+		
+		/**
+		 * Claims the next chunk to parse, waiting while it is too far ahead of the next chunk to deliver.
+		 * <p>
+		 * The wait can't deadlock, since every chunk before it has been claimed by a task which is parsing
+		 * it or has handed it over already.
+		 * 
+		 * @return The index of the claimed chunk, or -1 if all the chunks are claimed or the delivery is aborted.
+		 * @throws InterruptedIOException Thrown if the thread is interrupted while waiting.
+		 */
+		private synchronized int claim() throws InterruptedIOException {
+			while (!aborted && claimed < pending.length && claimed - next >= window) {
+				try {
+					wait();
+				} catch (InterruptedException ex) {
+					Thread.currentThread().interrupt();
+					throw new InterruptedIOException("Interrupted while waiting to parse a chunk!");
+				}
+			}
+			return aborted || claimed == pending.length ? -1 : claimed++;
+		}
+		
+		/**
+		 * Hands over the records of the chunk at the provided index, and delivers the ready chunks
+		 * unless another thread is already delivering them.
+		 * 
+		 * @param index	  The index of the parsed chunk (&ge;0).
+		 * @param records The records of the chunk in order (not null).
+		 */
+		@SuppressWarnings("unchecked")
+		private void deliver(int index, Array<JSONValue> records) {
+			synchronized (this) {
+				pending[index] = records;
+				if(draining) {
+					return;
+				}
+				draining = true;
+			}
+			
+			try {
+				while (true) {
+					Array<JSONValue> ready;
+					synchronized (this) {
+						if(aborted || next == pending.length || pending[next] == null) {
+							draining = false;
+							return;
+						}
+						ready = (Array<JSONValue>) pending[next];
+						pending[next++] = null;
+						// Allow the waiting tasks to claim the chunks in the new window.
+						notifyAll();
+					}
+					
+					for (int i = 0; i < ready.size(); i++) {
+						sink.accept(ready.get(i));
+					}
+				}
+			} catch (RuntimeException | Error ex) {
+				// Don't leave the delivery claimed by this thread if the sink fails.
+				abort();
+				throw ex;
+			}
+		}
+		
+		/**
+		 * Aborts the delivery, releasing the waiting tasks.
+		 */
+		private synchronized void abort() {
+			aborted = true;
+			draining = false;
+			notifyAll();
+		}
+	}
+	
+	/**
+	 * <code>RecordSpliterator</code> parses the records of a range of chunks as they are traversed,
+	 * splitting the range in halves.
+	 */
+	private final class RecordSpliterator implements Spliterator<JSONValue> {
+		
+		/**
+		 * The parser of the chunk being traversed, or null if none.
+		 */
+		private JSONByteParser parser;
+		/**
+		 * The chunk being traversed, or null if none.
+		 */
+		private Chunk chunk;
+		/**
+		 * The index of the next chunk to traverse.
+		 */
+		private int index;
+		/**
+		 * The index after the last chunk to traverse.
+		 */
+		private final int fence;
+		
+		private RecordSpliterator(Chunk chunk, int index, int fence) {
+			this.chunk = chunk;
+			this.parser = chunk != null ? chunk.newParser() : null;
+			this.index = index;
+			this.fence = fence;
+		}
+		
+		@Override
+		public boolean tryAdvance(Consumer<? super JSONValue> action) {
+			while (true) {
+				if(chunk == null) {
+					if(index >= fence) {
+						return false;
+					}
+					chunk = chunks[index++];
+					parser = chunk.newParser();
+				}
+				
+				JSONValue value;
+				try {
+					value = chunk.next(parser);
+				} catch (IOException ex) {
+					throw new UncheckedIOException(ex);
+				}
+				if(value != null) {
+					action.accept(value);
+					return true;
+				}
+				chunk = null;
+				parser = null;
+			}
+		}
+		
+		@Override
+		public Spliterator<JSONValue> trySplit() {
+			if(fence - index < 2) {
+				return null;
+			}
+			
+			// The prefix takes over the chunk being traversed to keep the order.
+			int middle = (index + fence) >>> 1;
+			RecordSpliterator prefix = new RecordSpliterator(null, index, middle);
+			prefix.chunk = chunk;
+			prefix.parser = parser;
+			chunk = null;
+			parser = null;
+			index = middle;
+			return prefix;
+		}
+		
+		@Override
+		public long estimateSize() {
+			// Assume about one record per kilobyte of the remaining chunks.
+			long bytes = 0;
+			for (int i = index; i < fence; i++) {
+				bytes += chunks[i].end - chunks[i].start;
+			}
+			return Math.max(bytes >> 10, fence - index);
+		}
+		
+		@Override
+		public int characteristics() {
+			return ORDERED | NONNULL | IMMUTABLE;
+		}
+	}
+	
+	/**
+	 * <code>Chunk</code> is a range of lines of a mapped region of the document.
+	 */
+	private static final class Chunk {
+		
+		/**
+		 * The buffer containing the region.
+		 */
+		private final ByteBuffer buffer;
+		/**
+		 * The start position of the chunk in the buffer.
+		 */
+		private final int start;
+		/**
+		 * The end position of the chunk in the buffer.
+		 */
+		private final int end;
+		/**
+		 * The offset of the region in the file.
+		 */
+		private final long base;
+		
+		private Chunk(ByteBuffer buffer, int start, int end, long base) {
+			this.buffer = buffer;
+			this.start = start;
+			this.end = end;
+			this.base = base;
+		}
+		
+		private JSONByteParser newParser() {
+			return new JSONByteParser(buffer, start, end, new JSONSymbolTable());
+		}
+		
+		private JSONValue next(JSONByteParser parser) throws IOException {
+			try {
+				return parser.nextRecord();
+			} catch (IOException ex) {
+				if(base == 0) {
+					throw ex;
+				}
+				throw new IOException(ex.getMessage() + " (in the region mapped at file offset " + base + ")", ex);
+			}
+		}
+	}
+}
@@ -0,0 +1,352 @@
+package fr.alchemy.utilities.file.json;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.lang.reflect.WildcardType;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.function.Supplier;
+
+import fr.alchemy.utilities.Validator;
+import fr.alchemy.utilities.collections.array.Array;
+import fr.alchemy.utilities.collections.array.FastArray;
+import fr.alchemy.utilities.file.json.JSONCodecs.ArrayCodec;
+import fr.alchemy.utilities.file.json.JSONCodecs.CollectionCodec;
+import fr.alchemy.utilities.file.json.JSONCodecs.EnumCodec;
+import fr.alchemy.utilities.file.json.JSONCodecs.MapCodec;
+import fr.alchemy.utilities.file.json.JSONCodecs.OptionalCodec;
+import fr.alchemy.utilities.file.json.JSONReader.Token;
+
+/**
+ * <code>JSONMapper</code> binds Java objects to JSON documents, streaming them directly through a {@link JSONGenerator} and
+ * a {@link JSONReader} without building any {@link JSONValue} tree.
+ * <p>
+ * The {@link JSONCodec} of a class is built once on first use and cached in a {@link ClassValue}. The following types are supported:
+ * <ul>
+ * <li>the primitive types and their wrappers, the strings, {@link java.math.BigDecimal} and {@link java.math.BigInteger},</li>
+ * <li>the enums, represented by the name of their constants,</li>
+ * <li>the {@link Collection}, the {@link Array} and the Java arrays, represented by JSON arrays,</li>
+ * <li>the {@link Map} with string keys, represented by JSON objects,</li>
+ * <li>{@link java.util.UUID}, {@link java.net.URI} and the main <code>java.time</code> types, represented by strings,</li>
+ * <li>the {@link Optional}, represented by their value or by a <code>null</code> literal if empty,</li>
+ * <li>the {@link JSONValue} trees, and the {@link Object} whose actual type is used,</li>
+ * <li>any other class whose package is open to the mapper, represented by a JSON object with a member for each of its instance fields.</li>
+ * </ul>
+ * The element types of the collections and maps are resolved from the generic type of the fields.
+ * <pre>
+ * String json = JSONMapper.toJSON(player);
+ * Player copy = JSONMapper.fromJSON(json, Player.class);
+ * </pre>
+ * 
+ * @version 0.3.0
+ * @since 0.3.0
+ * 
+ * @see JSONCodec
+ * 
+ * @author GnosticOccultist
+ */
+public final class JSONMapper {
+	
+	/**
+	 * The cached codec of each class.
+	 */
+	private static final ClassValue<JSONCodec<?>> CODECS = new ClassValue<JSONCodec<?>>() {
+		
+		@Override
+		protected JSONCodec<?> computeValue(Class<?> type) {
+			return create(type);
+		}
+	};
+	
+	/**
+	 * Private constructor to inhibit instantiation of <code>JSONMapper</code>.
+	 */
+	private JSONMapper() {}
+	
+	/**
+	 * Writes the provided object as the next JSON value of the {@link JSONGenerator}.
+	 * 
+	 * @param generator The generator to write the object to (not null).
+	 * @param value		The object to write, null to write a <code>null</code> literal.
+	 * @throws IOException Thrown if an I/O error occurs while writing to the output.
+	 */
+	public static void write(JSONGenerator generator, Object value) throws IOException {
+		Validator.nonNull(generator, "The generator can't be null!");
+		JSONCodecs.DYNAMIC.write(generator, value);
+	}
+	
+	/**
+	 * Writes the provided object as a JSON document encoded in UTF-8 to the {@link OutputStream},
+	 * which is closed afterwards.
+	 * 
+	 * @param output The output stream to write the document to (not null).
+	 * @param value	 The object to write, null to write a <code>null</code> literal.
+	 * @throws IOException Thrown if an I/O error occurs while writing to the output.
+	 */
+	public static void write(OutputStream output, Object value) throws IOException {
+		try (JSONGenerator generator = AlchemyJSON.generator(output)) {
+			write(generator, value);
+		}
+	}
+	
+	/**
+	 * Reads the next JSON value of the {@link JSONReader} as an instance of the provided class.
+	 * 
+	 * @param <T>	 The type of object to read.
+	 * @param reader The reader of the JSON document (not null).
+	 * @param type	 The class of the object to read (not null).
+	 * @return		 The read object, or null for a <code>null</code> literal.
+	 * @throws IOException Thrown if an I/O error occurs in the reader, if the document is malformed or
+	 * 					   if it doesn't match the class.
+	 */
+	public static <T> T read(JSONReader reader, Class<T> type) throws IOException {
+		Validator.nonNull(reader, "The reader can't be null!");
+		Token token = reader.nextToken();
+		if(token == Token.END_DOCUMENT || token == Token.END_ARRAY || token == Token.END_OBJECT) {
+			throw new IOException("Expected a value but found " + token + "!");
+		}
+		return codec(type).read(reader);
+	}
+	
+	/**
+	 * Reads the JSON document of the {@link Reader} as an instance of the provided class.
+	 * 
+	 * @param <T>	 The type of object to read.
+	 * @param reader The reader of the JSON document (not null).
+	 * @param type	 The class of the object to read (not null).
+	 * @return		 The read object, or null for a <code>null</code> literal.
+	 * @throws IOException Thrown if an I/O error occurs in the reader, if the document is malformed or
+	 * 					   if it doesn't match the class.
+	 */
+	public static <T> T read(Reader reader, Class<T> type) throws IOException {
+		try (JSONReader json = AlchemyJSON.reader(reader)) {
+			T value = read(json, type);
+			if(json.nextToken() != Token.END_DOCUMENT) {
+				throw new IOException("Expected the end of the document!");
+			}
+			return value;
+		}
+	}
+	
+	/**
+	 * Return the JSON document representing the provided object.
+	 * 
+	 * @param value The object to convert, or null.
+	 * @return		The JSON document of the object (not null).
+	 */
+	public static String toJSON(Object value) {
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		try {
+			write(output, value);
+		} catch (IOException ex) {
+			throw new UncheckedIOException(ex);
+		}
+		return new String(output.toByteArray(), StandardCharsets.UTF_8);
+	}
+	
+	/**
+	 * Return the instance of the provided class represented by the JSON document.
+	 * 
+	 * @param <T>  The type of object to read.
+	 * @param json The JSON document to convert (not null).
+	 * @param type The class of the object to read (not null).
+	 * @return	   The read object, or null for a <code>null</code> literal.
+	 * 
+	 * @throws UncheckedIOException Thrown if the document is malformed or doesn't match the class.
+	 */
+	public static <T> T fromJSON(String json, Class<T> type) {
+		Validator.nonNull(json, "The JSON document can't be null!");
+		try {
+			return read(new StringReader(json), type);
+		} catch (IOException ex) {
+			throw new UncheckedIOException(ex);
+		}
+	}
+	
+	/**
+	 * Return the {@link JSONCodec} of the provided class, building it on first use.
+	 * 
+	 * @param <T>  The type of values converted by the codec.
+	 * @param type The class to get the codec of (not null).
+	 * @return	   The codec of the class (not null).
+	 * 
+	 * @throws IllegalArgumentException Thrown if the class can't be bound to JSON.
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T> JSONCodec<T> codec(Class<T> type) {
+		Validator.nonNull(type, "The type can't be null!");
+		return (JSONCodec<T>) CODECS.get(type);
+	}
+	
+	/**
+	 * Return the {@link JSONCodec} of the provided generic type, resolving the element types of the
+	 * collections, maps and arrays.
+	 * 
+	 * @param type The generic type to get the codec of (not null).
+	 * @return	   The codec of the type (not null).
+	 */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	static JSONCodec<Object> codec(Type type) {
+		if(type instanceof Class) {
+			return (JSONCodec<Object>) CODECS.get((Class<?>) type);
+		} else if(type instanceof ParameterizedType) {
+			ParameterizedType parameterized = (ParameterizedType) type;
+			Class<?> raw = (Class<?>) parameterized.getRawType();
+			Type[] arguments = parameterized.getActualTypeArguments();
+			if(Collection.class.isAssignableFrom(raw)) {
+				return collection(raw, arguments[0]);
+			} else if(Map.class.isAssignableFrom(raw)) {
+				checkKey(raw, arguments[0]);
+				return map(raw, arguments[1]);
+			} else if(raw == Optional.class) {
+				return (JSONCodec) new OptionalCodec<>(codec(arguments[0]));
+			}
+			return codec((Type) raw);
+		} else if(type instanceof GenericArrayType) {
+			Type component = ((GenericArrayType) type).getGenericComponentType();
+			return new ArrayCodec(java.lang.reflect.Array.newInstance(raw(component), 0).getClass(), codec(component));
+		}
+		return codec((Type) raw(type));
+	}
+	
+	/**
+	 * Creates the {@link JSONCodec} of the provided class.
+	 * 
+	 * @param type The class to create the codec of (not null).
+	 * @return	   A new codec for the class (not null).
+	 */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private static JSONCodec<?> create(Class<?> type) {
+		JSONCodec<?> codec = JSONCodecs.builtin(type);
+		if(codec != null) {
+			return codec;
+		} else if(type.isEnum()) {
+			return new EnumCodec(type);
+		} else if(type.getSuperclass() != null && type.getSuperclass().isEnum()) {
+			// The constants with a body are anonymous subclasses of their enum.
+			return CODECS.get(type.getSuperclass());
+		} else if(type.isArray()) {
+			return new ArrayCodec(type, codec((Type) type.getComponentType()));
+		} else if(Collection.class.isAssignableFrom(type)) {
+			return collection(type, Object.class);
+		} else if(Map.class.isAssignableFrom(type)) {
+			return map(type, Object.class);
+		}
+		return new JSONObjectCodec<>(type);
+	}
+	
+	/**
+	 * Creates the {@link JSONCodec} of the provided collection type.
+	 * 
+	 * @param type	  The class of the collection (not null).
+	 * @param element The generic type of the elements (not null).
+	 * @return		  A new codec for the collection (not null).
+	 */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private static JSONCodec<Object> collection(Class<?> type, Type element) {
+		Supplier<Collection<Object>> factory;
+		if(Array.class.isAssignableFrom(type) && type.isAssignableFrom(FastArray.class)) {
+			Class<Object> elementType = (Class<Object>) raw(element);
+			factory = () -> Array.ofType(elementType);
+		} else if(type.isAssignableFrom(ArrayList.class)) {
+			factory = ArrayList::new;
+		} else if(type.isAssignableFrom(LinkedHashSet.class)) {
+			factory = LinkedHashSet::new;
+		} else if(type.isAssignableFrom(TreeSet.class)) {
+			factory = TreeSet::new;
+		} else if(type.isAssignableFrom(ArrayDeque.class)) {
+			factory = ArrayDeque::new;
+		} else {
+			factory = (Supplier) instantiator(type);
+		}
+		return (JSONCodec) new CollectionCodec<>(factory, codec(element));
+	}
+	
+	/**
+	 * Creates the {@link JSONCodec} of the provided map type.
+	 * 
+	 * @param type  The class of the map (not null).
+	 * @param value The generic type of the values (not null).
+	 * @return		A new codec for the map (not null).
+	 */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private static JSONCodec<Object> map(Class<?> type, Type value) {
+		Supplier<Map<String, Object>> factory;
+		if(type.isAssignableFrom(LinkedHashMap.class)) {
+			factory = LinkedHashMap::new;
+		} else if(type.isAssignableFrom(TreeMap.class)) {
+			factory = TreeMap::new;
+		} else {
+			factory = (Supplier) instantiator(type);
+		}
+		return (JSONCodec) new MapCodec<>(factory, codec(value));
+	}
+	
+	/**
+	 * Creates a factory of the provided concrete container type, using its constructor without parameters.
+	 * 
+	 * @param type The class of the container (not null).
+	 * @return	   A factory of the container (not null).
+	 * 
+	 * @throws IllegalArgumentException Thrown if the container type can't be instantiated.
+	 */
+	private static Supplier<Object> instantiator(Class<?> type) {
+		if(type.isInterface() || java.lang.reflect.Modifier.isAbstract(type.getModifiers())) {
+			throw new IllegalArgumentException("Can't bind the abstract container " + type.getName() + " to JSON!");
+		}
+		
+		if(!type.getModule().isOpen(type.getPackageName(), JSONMapper.class.getModule())) {
+			// The containers of the JDK, such as the immutable lists, can still be written.
+			return () -> {
+				throw new IllegalStateException("The container " + type.getName() + " can't be instantiated, its package isn't open to the mapper!");
+			};
+		}
+		
+		JSONObjectCodec<?> codec = new JSONObjectCodec<>(type);
+		return codec::newInstance;
+	}
+	
+	private static void checkKey(Class<?> type, Type key) {
+		if(key != String.class && !(key instanceof TypeVariable) && !(key instanceof WildcardType)) {
+			throw new IllegalArgumentException("Can't bind the map " + type.getName() + " with keys of type " + key + " to JSON!");
+		}
+	}
+	
+	/**
+	 * Return the raw class of the provided generic type, using the upper bound of the type variables
+	 * and wildcards.
+	 * 
+	 * @param type The generic type (not null).
+	 * @return	   The raw class of the type (not null).
+	 */
+	private static Class<?> raw(Type type) {
+		if(type instanceof Class) {
+			return (Class<?>) type;
+		} else if(type instanceof ParameterizedType) {
+			return raw(((ParameterizedType) type).getRawType());
+		} else if(type instanceof GenericArrayType) {
+			return java.lang.reflect.Array.newInstance(raw(((GenericArrayType) type).getGenericComponentType()), 0).getClass();
+		} else if(type instanceof WildcardType) {
+			return raw(((WildcardType) type).getUpperBounds()[0]);
+		} else if(type instanceof TypeVariable) {
+			return raw(((TypeVariable<?>) type).getBounds()[0]);
+		}
+		return Object.class;
+	}
+}
@@ -1,31 +1,101 @@
 package fr.alchemy.utilities.file.json;
 
 import java.io.IOException;
+import java.math.BigDecimal;
 
 import fr.alchemy.utilities.Validator;
+import fr.alchemy.utilities.file.json.JSONNumbers.Decimal;
 
 /**
  * <code>JSONNumber</code> is an implementation of {@link JSONValue} for numbers.
+ * <p>
+ * The number is stored as a decimal significand and a power of ten, so that the numbers read by the {@link JSONParser} don't
+ * need to be kept as text. Only the numbers with more significant digits than a long can hold, or with a huge exponent, are kept
+ * as text. The notation of the exponent is kept as well, so that the numbers are written back as they were read. The conversions
+ * to a double and to a {@link BigDecimal} are cached.
  * 
  * @author GnosticOccultist
  */
 class JSONNumber extends JSONValue {
 	
-	private static final long serialVersionUID = 1L;
+	private static final long serialVersionUID = 2L;
 	
 	/**
-	 * The readed number value.
+	 * The decimal significand of the number, negative for negative numbers.
+	 */
+	private final long significand;
+	/**
+	 * The power of ten of the number.
+	 */
+	private final int exponent;
+	/**
+	 * The notation of the explicit exponent of the number as written, or 0 if none.
+	 */
+	private final int notation;
+	/**
+	 * The text of the number, or null if it is represented by its significand and exponent.
 	 */
 	private final String value;
+	/**
+	 * The cached double value, or null if not computed yet. It is boxed in a single field so that it can be
+	 * read concurrently, as the value of a <code>Double</code> is final.
+	 */
+	private transient Double doubleValue;
+	/**
+	 * The cached big decimal value, or null if not computed yet.
+	 */
+	private transient BigDecimal decimal;
 	
+	/**
+	 * Instantiates a new <code>JSONNumber</code> with the provided text, which must follow the JSON
+	 * number grammar.
+	 * 
+	 * @param value The text of the number (not null, not empty).
+	 * 
+	 * @throws NumberFormatException Thrown if the text isn't a valid JSON number.
+	 */
 	JSONNumber(String value) {
 		Validator.nonEmpty(value, "The number value can't be null or empty!");
-		this.value = value;
+		
+		Decimal decimal = new Decimal();
+		if(!decimal.parse(value)) {
+			throw new NumberFormatException("The text '" + value + "' isn't a valid JSON number!");
+		}
+		
+		this.significand = decimal.significand;
+		this.exponent = decimal.exponent;
+		this.notation = decimal.notation;
+		this.value = decimal.exact ? null : value;
+	}
+	
+	/**
+	 * Instantiates a new <code>JSONNumber</code> representing <code>significand &times; 10<sup>exponent</sup></code>.
+	 * 
+	 * @param significand The decimal significand of the number, negative for negative numbers.
+	 * @param exponent	  The power of ten of the number.
+	 */
+	JSONNumber(long significand, int exponent) {
+		this(significand, exponent, 0);
+	}
+	
+	/**
+	 * Instantiates a new <code>JSONNumber</code> representing <code>significand &times; 10<sup>exponent</sup></code>,
+	 * written with the provided notation of its explicit exponent.
+	 * 
+	 * @param significand The decimal significand of the number, negative for negative numbers.
+	 * @param exponent	  The power of ten of the number.
+	 * @param notation	  The notation of the explicit exponent, or 0 if written without exponent.
+	 */
+	JSONNumber(long significand, int exponent, int notation) {
+		this.significand = significand;
+		this.exponent = exponent;
+		this.notation = notation;
+		this.value = null;
 	}
 	
 	@Override
 	void write(JSONWriter writer) throws IOException {
-		writer.writeNumber(value);
+		writer.writeNumber(toString());
 	}
 	
 	@Override
@@ -35,12 +105,54 @@ class JSONNumber extends JSONValue {
 	
 	@Override
 	public int asInt() {
-		return Integer.parseInt(value, 10);
+		long value = asLong();
+		if((int) value != value) {
+			throw new NumberFormatException("The number " + this + " isn't an int!");
+		}
+		return (int) value;
+	}
+	
+	@Override
+	public long asLong() {
+		if(value == null) {
+			return JSONNumbers.toLong(significand, exponent);
+		}
+		
+		try {
+			return asBigDecimal().longValueExact();
+		} catch (ArithmeticException ex) {
+			throw new NumberFormatException("The number " + value + " isn't a long!");
+		}
+	}
+	
+	@Override
+	public double asDouble() {
+		Double result = doubleValue;
+		if(result == null) {
+			result = value == null ? JSONNumbers.toDouble(significand, exponent) : Double.parseDouble(value);
+			this.doubleValue = result;
+		}
+		return result;
+	}
+	
+	@Override
+	public float asFloat() {
+		return value == null ? JSONNumbers.toFloat(significand, exponent) : Float.parseFloat(value);
+	}
+	
+	@Override
+	public BigDecimal asBigDecimal() {
+		BigDecimal result = decimal;
+		if(result == null) {
+			result = value == null ? JSONNumbers.toBigDecimal(significand, exponent) : new BigDecimal(value);
+			this.decimal = result;
+		}
+		return result;
 	}
 	
 	@Override
 	public int hashCode() {
-		return value.hashCode();
+		return value != null ? value.hashCode() : 31 * Long.hashCode(significand) + exponent;
 	}
 	
 	@Override
@@ -55,11 +167,14 @@ class JSONNumber extends JSONValue {
 	        return false;
 		}
 		JSONNumber other = (JSONNumber) o;
-		return value.equals(other.value);
+		if(value != null || other.value != null) {
+			return toString().equals(other.toString());
+		}
+		return significand == other.significand && exponent == other.exponent;
 	}
 	
 	@Override
 	public String toString() {
-		return value;
+		return value != null ? value : JSONNumbers.toString(significand, exponent, notation);
 	}
 }
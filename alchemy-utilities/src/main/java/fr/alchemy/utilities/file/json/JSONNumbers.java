@@ -0,0 +1,488 @@
+package fr.alchemy.utilities.file.json;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+/**
+ * <code>JSONNumbers</code> provides the conversions of the decimal numbers read by the {@link JSONParser}, which are represented
+ * by a decimal significand and a power of ten, into binary floating-point values.
+ * <p>
+ * The conversion to a double first tries the exact fast path when both the significand and the power of ten are exactly
+ * representable as doubles, then the Eisel-Lemire algorithm which uses a 128-bit truncated table of the powers of five. If the
+ * algorithm can't decide the correctly rounded result, the conversion falls back to {@link Double#parseDouble(String)}.
+ * 
+ * @version 0.3.0
+ * @since 0.3.0
+ * 
+ * @author GnosticOccultist
+ */
+final class JSONNumbers {
+	
+	/**
+	 * The smallest power of ten for which a non-zero double can be represented.
+	 */
+	private static final int SMALLEST_POWER_OF_TEN = -342;
+	/**
+	 * The largest power of ten for which a finite double can be represented.
+	 */
+	private static final int LARGEST_POWER_OF_TEN = 308;
+	/**
+	 * The largest exponent for which the value is kept as a decimal significand and a power of ten,
+	 * larger exponents are kept as text.
+	 */
+	static final int MAX_EXPONENT = 10_000;
+	/**
+	 * The flag of a notation written with an explicit exponent.
+	 */
+	private static final int NOTATION_EXPONENT = 1;
+	/**
+	 * The flag of a notation written with an upper-case exponent marker.
+	 */
+	private static final int NOTATION_UPPER_CASE = 2;
+	/**
+	 * The flag of a notation written with an explicit positive exponent sign.
+	 */
+	private static final int NOTATION_PLUS = 4;
+	/**
+	 * The flag of a notation written with a negative exponent.
+	 */
+	private static final int NOTATION_NEGATIVE = 8;
+	/**
+	 * The shift of the written exponent in a notation.
+	 */
+	private static final int NOTATION_SHIFT = 4;
+	/**
+	 * The exact powers of ten representable as doubles.
+	 */
+	private static final double[] DOUBLE_POWERS_OF_TEN = {
+		1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+		1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+	};
+	/**
+	 * The exact powers of ten representable as floats.
+	 */
+	private static final float[] FLOAT_POWERS_OF_TEN = {
+		1e0f, 1e1f, 1e2f, 1e3f, 1e4f, 1e5f, 1e6f, 1e7f, 1e8f, 1e9f, 1e10f
+	};
+	/**
+	 * The powers of ten representable as longs.
+	 */
+	private static final long[] LONG_POWERS_OF_TEN = new long[19];
+	/**
+	 * The 128-bit truncated powers of five, from 5^-342 to 5^308, stored as pairs of high and low bits.
+	 */
+	private static final long[] POWERS_OF_FIVE = new long[2 * (LARGEST_POWER_OF_TEN - SMALLEST_POWER_OF_TEN + 1)];
+	
+	static {
+		LONG_POWERS_OF_TEN[0] = 1;
+		for(int i = 1; i < LONG_POWERS_OF_TEN.length; i++) {
+			LONG_POWERS_OF_TEN[i] = LONG_POWERS_OF_TEN[i - 1] * 10;
+		}
+		
+		BigInteger five = BigInteger.valueOf(5);
+		for(int q = SMALLEST_POWER_OF_TEN; q <= LARGEST_POWER_OF_TEN; q++) {
+			BigInteger value;
+			if(q < 0) {
+				BigInteger power = five.pow(-q);
+				int z = power.bitLength();
+				// Compute the reciprocal of the power of five, rounded up.
+				int b = q >= -27 ? z + 127 : 2 * z + 128;
+				value = BigInteger.ONE.shiftLeft(b).divide(power).add(BigInteger.ONE);
+			} else {
+				value = five.pow(q);
+			}
+			
+			// Normalize the value so that its most significant bit is the 128th one.
+			int shift = value.bitLength() - 128;
+			value = shift > 0 ? value.shiftRight(shift) : value.shiftLeft(-shift);
+			
+			int index = 2 * (q - SMALLEST_POWER_OF_TEN);
+			POWERS_OF_FIVE[index] = value.shiftRight(64).longValue();
+			POWERS_OF_FIVE[index + 1] = value.longValue();
+		}
+	}
+	
+	/**
+	 * Private constructor to inhibit instantiation of <code>JSONNumbers</code>.
+	 */
+	private JSONNumbers() {}
+	
+	/**
+	 * Converts the decimal number <code>significand &times; 10<sup>exponent</sup></code> into the closest double.
+	 * 
+	 * @param significand The decimal significand of the number, which is negative for negative numbers.
+	 * @param exponent	  The power of ten of the number.
+	 * @return			  The closest double to the number.
+	 */
+	static double toDouble(long significand, int exponent) {
+		boolean negative = significand < 0;
+		long w = negative ? -significand : significand;
+		
+		if(w == 0) {
+			return negative ? -0.0 : 0.0;
+		}
+		
+		// Both the significand and the power of ten are exactly representable, so a single
+		// operation gives the correctly rounded result.
+		if(w <= 1L << 53 && exponent >= -22 && exponent <= 22) {
+			double value = w;
+			value = exponent < 0 ? value / DOUBLE_POWERS_OF_TEN[-exponent] : value * DOUBLE_POWERS_OF_TEN[exponent];
+			return negative ? -value : value;
+		}
+		
+		long bits = eiselLemire(w, exponent);
+		if(bits == -1) {
+			return Double.parseDouble(toString(significand, exponent, 0));
+		}
+		
+		double value = Double.longBitsToDouble(bits);
+		return negative ? -value : value;
+	}
+	
+	/**
+	 * Converts the decimal number <code>significand &times; 10<sup>exponent</sup></code> into the closest float.
+	 * 
+	 * @param significand The decimal significand of the number, which is negative for negative numbers.
+	 * @param exponent	  The power of ten of the number.
+	 * @return			  The closest float to the number.
+	 */
+	static float toFloat(long significand, int exponent) {
+		long w = Math.abs(significand);
+		if(w <= 1L << 24 && exponent >= -10 && exponent <= 10) {
+			float value = w;
+			value = exponent < 0 ? value / FLOAT_POWERS_OF_TEN[-exponent] : value * FLOAT_POWERS_OF_TEN[exponent];
+			return significand < 0 ? -value : value;
+		}
+		
+		// Rounding the double to a float might round twice, so parse the float directly.
+		return Float.parseFloat(toString(significand, exponent, 0));
+	}
+	
+	/**
+	 * Converts the decimal number <code>significand &times; 10<sup>exponent</sup></code> into a long, if it is
+	 * an integer in the range of a long.
+	 * 
+	 * @param significand The decimal significand of the number, which is negative for negative numbers.
+	 * @param exponent	  The power of ten of the number.
+	 * @return			  The number as a long.
+	 * 
+	 * @throws NumberFormatException Thrown if the number isn't an integer in the range of a long.
+	 */
+	static long toLong(long significand, int exponent) {
+		if(exponent == 0) {
+			return significand;
+		}
+		
+		if(exponent > 0 && exponent < LONG_POWERS_OF_TEN.length) {
+			long power = LONG_POWERS_OF_TEN[exponent];
+			long value = significand * power;
+			if(Math.multiplyHigh(significand, power) == (value >> 63)) {
+				return value;
+			}
+		}
+		
+		try {
+			return toBigDecimal(significand, exponent).longValueExact();
+		} catch (ArithmeticException ex) {
+			throw new NumberFormatException("The number " + toString(significand, exponent, 0) + " isn't a long!");
+		}
+	}
+	
+	/**
+	 * Converts the decimal number <code>significand &times; 10<sup>exponent</sup></code> into a {@link BigDecimal}.
+	 * 
+	 * @param significand The decimal significand of the number, which is negative for negative numbers.
+	 * @param exponent	  The power of ten of the number.
+	 * @return			  The number as a big decimal (not null).
+	 */
+	static BigDecimal toBigDecimal(long significand, int exponent) {
+		return BigDecimal.valueOf(significand, -exponent);
+	}
+	
+	/**
+	 * Return the JSON text of the decimal number <code>significand &times; 10<sup>exponent</sup></code> as it was
+	 * written in the document, according to its notation.
+	 * 
+	 * @param significand The decimal significand of the number, which is negative for negative numbers.
+	 * @param exponent	  The power of ten of the number.
+	 * @param notation	  The notation of the explicit exponent, or 0 if written without exponent.
+	 * @return			  The text of the number (not null).
+	 * 
+	 * @see Decimal#notation
+	 */
+	static String toString(long significand, int exponent, int notation) {
+		int written = notation >>> NOTATION_SHIFT;
+		int fraction = ((notation & NOTATION_NEGATIVE) != 0 ? -written : written) - exponent;
+		if(notation == 0 && fraction == 0) {
+			return Long.toString(significand);
+		} else if(fraction < 0) {
+			// The number wasn't read from a document.
+			return toBigDecimal(significand, exponent).toString();
+		}
+		
+		String digits = Long.toString(significand);
+		int start = significand < 0 ? 1 : 0;
+		StringBuilder builder = new StringBuilder(digits.length() + fraction + 8);
+		if(fraction == 0) {
+			builder.append(digits);
+		} else if(digits.length() - start > fraction) {
+			int point = digits.length() - fraction;
+			builder.append(digits, 0, point).append('.').append(digits, point, digits.length());
+		} else {
+			builder.append(digits, 0, start).append("0.");
+			for(int i = digits.length() - start; i < fraction; i++) {
+				builder.append('0');
+			}
+			builder.append(digits, start, digits.length());
+		}
+		
+		if(notation != 0) {
+			builder.append((notation & NOTATION_UPPER_CASE) != 0 ? 'E' : 'e');
+			if((notation & NOTATION_NEGATIVE) != 0) {
+				builder.append('-');
+			} else if((notation & NOTATION_PLUS) != 0) {
+				builder.append('+');
+			}
+			builder.append(written);
+		}
+		return builder.toString();
+	}
+	
+	/**
+	 * Computes the bits of the double closest to <code>w &times; 10<sup>q</sup></code> using the Eisel-Lemire
+	 * algorithm, or return -1 if the result can't be decided or is subnormal.
+	 * 
+	 * @param w The decimal significand of the number (&gt;0, &le;{@link Long#MAX_VALUE}).
+	 * @param q The power of ten of the number.
+	 * @return	The bits of the double, or -1 if the conversion needs to fall back.
+	 */
+	private static long eiselLemire(long w, int q) {
+		if(q < SMALLEST_POWER_OF_TEN) {
+			return 0L;
+		}
+		if(q > LARGEST_POWER_OF_TEN) {
+			return Double.doubleToRawLongBits(Double.POSITIVE_INFINITY);
+		}
+		
+		int lz = Long.numberOfLeadingZeros(w);
+		w <<= lz;
+		
+		// Multiply the normalized significand by the 128-bit power of five, only computing
+		// the lower part if the upper one doesn't have enough precision.
+		int index = 2 * (q - SMALLEST_POWER_OF_TEN);
+		long high = unsignedMultiplyHigh(w, POWERS_OF_FIVE[index]);
+		long low = w * POWERS_OF_FIVE[index];
+		if((high & 0x1FF) == 0x1FF) {
+			long secondHigh = unsignedMultiplyHigh(w, POWERS_OF_FIVE[index + 1]);
+			low += secondHigh;
+			if(Long.compareUnsigned(secondHigh, low) > 0) {
+				high++;
+			}
+			
+			if(low == -1L && (q < -27 || q > 55)) {
+				return -1L;
+			}
+		}
+		
+		int upperBit = (int) (high >>> 63);
+		int shift = upperBit + 9;
+		long mantissa = high >>> shift;
+		int power2 = (((152170 + 65536) * q) >> 16) + 63 + upperBit - lz + 1023;
+		if(power2 <= 0) {
+			// Subnormal numbers are rare enough to fall back.
+			return -1L;
+		}
+		
+		// The number might be exactly halfway between two doubles, in which case it is rounded to even.
+		if(Long.compareUnsigned(low, 1) <= 0 && q >= -4 && q <= 23 && (mantissa & 3) == 1) {
+			if(mantissa << shift == high) {
+				mantissa &= ~1L;
+			}
+		}
+		
+		mantissa += mantissa & 1;
+		mantissa >>>= 1;
+		if(mantissa >= 2L << 52) {
+			mantissa = 1L << 52;
+			power2++;
+		}
+		mantissa &= ~(1L << 52);
+		
+		if(power2 >= 0x7FF) {
+			return Double.doubleToRawLongBits(Double.POSITIVE_INFINITY);
+		}
+		return mantissa | (long) power2 << 52;
+	}
+	
+	/**
+	 * Return the upper 64 bits of the unsigned 128-bit product of the provided values.
+	 * 
+	 * @param x The first unsigned value.
+	 * @param y The second unsigned value.
+	 * @return	The upper bits of the unsigned product.
+	 */
+	private static long unsignedMultiplyHigh(long x, long y) {
+		return Math.multiplyHigh(x, y) + ((x >> 63) & y) + ((y >> 63) & x);
+	}
+	
+	/**
+	 * <code>Decimal</code> accumulates the decimal significand and power of ten of a JSON number while it is read, 
+	 * it can be reset to read another number without any allocation.
+	 * 
+	 * @author GnosticOccultist
+	 */
+	static final class Decimal {
+		
+		/**
+		 * The decimal significand, negative for negative numbers once finished.
+		 */
+		long significand;
+		/**
+		 * The power of ten.
+		 */
+		int exponent;
+		/**
+		 * Whether the significand and the exponent represent the number exactly.
+		 */
+		boolean exact;
+		/**
+		 * The notation of the explicit exponent as written, packing its value with the flags of its marker
+		 * case and sign, or 0 if the number is written without exponent. It allows to write the number back
+		 * as it was read.
+		 */
+		int notation;
+		
+		/**
+		 * Resets the <code>Decimal</code> to read a new number.
+		 */
+		void reset() {
+			this.significand = 0;
+			this.exponent = 0;
+			this.exact = true;
+			this.notation = 0;
+		}
+		
+		/**
+		 * Parses the provided text following the JSON number grammar.
+		 * 
+		 * @param text The text to parse (not null, not empty).
+		 * @return	   Whether the text is a valid JSON number.
+		 */
+		boolean parse(String text) {
+			reset();
+			int length = text.length();
+			int i = 0;
+			
+			boolean negative = text.charAt(0) == '-';
+			if(negative) {
+				i++;
+			}
+			
+			if(i == length || !isDigit(text.charAt(i))) {
+				return false;
+			}
+			if(text.charAt(i) == '0') {
+				i++;
+			} else {
+				for(; i < length && isDigit(text.charAt(i)); i++) {
+					append(text.charAt(i) - '0', false);
+				}
+			}
+			
+			if(i < length && text.charAt(i) == '.') {
+				if(++i == length || !isDigit(text.charAt(i))) {
+					return false;
+				}
+				for(; i < length && isDigit(text.charAt(i)); i++) {
+					append(text.charAt(i) - '0', true);
+				}
+			}
+			
+			if(i < length && (text.charAt(i) == 'e' || text.charAt(i) == 'E')) {
+				boolean upperCase = text.charAt(i++) == 'E';
+				boolean negativeExponent = i < length && text.charAt(i) == '-';
+				boolean plus = i < length && text.charAt(i) == '+';
+				if(negativeExponent || plus) {
+					i++;
+				}
+				if(i == length || !isDigit(text.charAt(i))) {
+					return false;
+				}
+				
+				int exponent = 0;
+				for(; i < length && isDigit(text.charAt(i)); i++) {
+					exponent = appendExponent(exponent, text.charAt(i) - '0');
+				}
+				exponent(exponent, negativeExponent, upperCase, plus);
+			}
+			
+			finish(negative);
+			return i == length;
+		}
+		
+		/**
+		 * Applies the provided explicit exponent to the power of ten, and records its notation.
+		 * 
+		 * @param exponent		   The absolute value of the explicit exponent (&ge;0).
+		 * @param negativeExponent Whether the explicit exponent is negative.
+		 * @param upperCase		   Whether the exponent marker is upper-case.
+		 * @param plus			   Whether the explicit exponent has a positive sign.
+		 */
+		void exponent(int exponent, boolean negativeExponent, boolean upperCase, boolean plus) {
+			this.exponent += negativeExponent ? -exponent : exponent;
+			this.notation = exponent << NOTATION_SHIFT | NOTATION_EXPONENT | (upperCase ? NOTATION_UPPER_CASE : 0) 
+					| (plus ? NOTATION_PLUS : 0) | (negativeExponent ? NOTATION_NEGATIVE : 0);
+		}
+		
+		/**
+		 * Appends the provided digit to the significand.
+		 * 
+		 * @param digit		 The digit to append (&ge;0, &le;9).
+		 * @param fractional Whether the digit belongs to the fraction.
+		 */
+		void append(int digit, boolean fractional) {
+			if(significand < 922337203685477580L || significand == 922337203685477580L && digit <= 7) {
+				significand = significand * 10 + digit;
+				if(fractional) {
+					exponent--;
+				}
+			} else {
+				// The digit can't be stored, the number is only approximated.
+				exact = false;
+				if(!fractional) {
+					exponent++;
+				}
+			}
+		}
+		
+		/**
+		 * Appends the provided digit to the given explicit exponent, saturating it above {@link #MAX_EXPONENT}.
+		 * 
+		 * @param exponent The explicit exponent read so far (&ge;0).
+		 * @param digit	   The digit to append (&ge;0, &le;9).
+		 * @return		   The explicit exponent with the appended digit (&ge;0).
+		 */
+		static int appendExponent(int exponent, int digit) {
+			return Math.min(exponent * 10 + digit, MAX_EXPONENT + 1);
+		}
+		
+		/**
+		 * Finishes the decimal representation by applying the sign and checking whether
+		 * it represents the number exactly.
+		 * 
+		 * @param negative Whether the number is negative.
+		 */
+		void finish(boolean negative) {
+			if(negative) {
+				significand = -significand;
+			}
+			if(Math.abs(exponent) > MAX_EXPONENT || negative && significand == 0) {
+				exact = false;
+			}
+		}
+		
+		private static boolean isDigit(char c) {
+			return c >= '0' && c <= '9';
+		}
+	}
+}
@@ -1,10 +1,12 @@
 package fr.alchemy.utilities.file.json;
 
 import java.io.IOException;
-import java.util.ArrayList;
-import java.util.Collections;
+import java.io.ObjectInputStream;
+import java.util.AbstractList;
+import java.util.Arrays;
 import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
 import java.util.Optional;
 
 import fr.alchemy.utilities.Validator;
@@ -15,54 +17,75 @@ import fr.alchemy.utilities.file.json.JSONObject.JSONPair;
  * are {@link JSONValue}.
  * <p>
  * Members can be added using the {@link #add(String, JSONValue)} methods which accept instances of {@link JSONValue}. To modify
- * certain values of an object, use the 
+ * certain values of an object, use the {@link #set(String, JSONValue)} methods.
+ * <p>
+ * The members are stored in a single array interleaving their names and values, which is sized exactly when the object
+ * is parsed. Small objects are searched linearly, while an open-addressing index of the members is built as soon as
+ * the object exceeds {@link #INDEX_THRESHOLD} members, so that the lookup of a member stays constant on large objects.
+ * The index is only updated when the object is modified, so an object which isn't modified anymore can be read concurrently
+ * once safely published.
  * 
  * @author GnosticOccultist
  */
 public class JSONObject extends JSONValue implements Iterable<JSONPair> {
 
-	private static final long serialVersionUID = 1L;
+	private static final long serialVersionUID = 2L;
+	
+	/**
+	 * The members array of empty objects.
+	 */
+	private static final Object[] EMPTY_MEMBERS = new Object[0];
+	/**
+	 * The count of members above which the members are indexed.
+	 */
+	static final int INDEX_THRESHOLD = 8;
 	
 	/**
-	 * The list of names for the values.
+	 * The members of the object, interleaving their names and their values.
 	 */
-	private final List<String> names;
+	private Object[] members;
 	/**
-	 * The list of the JSON values.
+	 * The number of members.
 	 */
-	private final List<JSONValue> values;
+	private int size;
 	/**
-	 * The index table to keep track of the indexes.
+	 * The open-addressing index of the members, storing the index of the last member 
+	 * with a name plus one, or null if the object doesn't exceed the threshold.
 	 */
-	private transient HashIndexTable table;
+	private transient int[] index;
 	
 	/**
 	 * Instantiates a new empty <code>JSONObject</code>.
 	 */
 	public JSONObject() {
-		names = new ArrayList<String>();
-		values = new ArrayList<JSONValue>();
-		table = new HashIndexTable();
+		this.members = EMPTY_MEMBERS;
+	}
+	
+	/**
+	 * Instantiates a new <code>JSONObject</code> with the provided members, interleaving their names and 
+	 * their values. The array is used directly by the object.
+	 * 
+	 * @param members The members of the object, interleaving their names and their values (not null).
+	 */
+	JSONObject(Object[] members) {
+		this.members = members;
+		this.size = members.length >> 1;
+		if(size > INDEX_THRESHOLD) {
+			this.index = buildIndex();
+		}
 	}
 	
 	@Override
 	void write(JSONWriter writer) throws IOException {
 		writer.writeObjectOpen();
-		Iterator<String> namesIterator = names.iterator();
-	    Iterator<JSONValue> valuesIterator = values.iterator();
-	    if(namesIterator.hasNext()) {
-	    	writer.writeMemberName(namesIterator.next());
-	        writer.writeMemberSeparator();
-	        valuesIterator.next().write(writer);
-	        
-	        while (namesIterator.hasNext()) {
-	        	writer.writeObjectSeparator();
-	            writer.writeMemberName(namesIterator.next());
-	            writer.writeMemberSeparator();
-	            valuesIterator.next().write(writer);
-	        }
-	    }
-	    
+		for(int i = 0; i < size; i++) {
+			if(i > 0) {
+				writer.writeObjectSeparator();
+			}
+			writer.writeMemberName(name(i));
+			writer.writeMemberSeparator();
+			value(i).write(writer);
+		}
 	    writer.writeObjectClose();
 	}
 	
@@ -88,9 +111,22 @@ public class JSONObject extends JSONValue implements Iterable<JSONPair> {
 		Validator.nonNull(name);
 		Validator.nonNull(value);
 		
-		table.add(name, names.size());
-		names.add(name);
-		values.add(value);
+		if(size << 1 == members.length) {
+			members = Arrays.copyOf(members, Math.max(8, size << 2));
+		}
+		
+		members[size << 1] = name;
+		members[(size << 1) + 1] = value;
+		size++;
+		
+		if(size > INDEX_THRESHOLD) {
+			// Rebuild the index once it is half full, otherwise insert the member.
+			if(index == null || size << 1 > index.length) {
+				this.index = buildIndex();
+			} else {
+				insert(index, name, size - 1);
+			}
+		}
 		return this;
 	}
 	
@@ -114,11 +150,9 @@ public class JSONObject extends JSONValue implements Iterable<JSONPair> {
 		
 		int index = indexOf(name);
 		if(index != -1) {
-			values.set(index, value);
+			members[(index << 1) + 1] = value;
 		} else {
-			table.add(name, names.size());
-			names.add(name);
-			values.add(value);
+			add(name, value);
 		}
 		return this;
 	}
@@ -134,7 +168,7 @@ public class JSONObject extends JSONValue implements Iterable<JSONPair> {
 	public JSONValue get(String name) {
 		Validator.nonNull(name);
 		int index = indexOf(name);
-	    return index != -1 ? values.get(index) : null;
+	    return index != -1 ? value(index) : null;
 	}
 	
 	/**
@@ -148,12 +182,13 @@ public class JSONObject extends JSONValue implements Iterable<JSONPair> {
 	public Optional<JSONValue> getOptional(String name) {
 		Validator.nonNull(name);
 		int index = indexOf(name);
-	    return index != -1 ? Optional.ofNullable(values.get(index)) : Optional.empty();
+	    return index != -1 ? Optional.ofNullable(value(index)) : Optional.empty();
 	}
 	
 	public JSONPair getPair(int index) {
 		Validator.nonNegative(index, "The index can't be negative!");
-		return new JSONPair(names.get(index), values.get(index));
+		checkIndex(index);
+		return new JSONPair(name(index), value(index));
 	}
 	
 	/**
@@ -165,7 +200,7 @@ public class JSONObject extends JSONValue implements Iterable<JSONPair> {
 	 * @return	   Whether the specified member is present.
 	 */
 	public boolean contains(String name) {
-		return names.contains(name);
+		return name != null && indexOf(name) != -1;
 	}
 	
 	/**
@@ -174,7 +209,7 @@ public class JSONObject extends JSONValue implements Iterable<JSONPair> {
 	 * @return The number of members in the JSON object.
 	 */
 	public int size() {
-		return names.size();
+		return size;
 	}
 	
 	/**
@@ -183,23 +218,134 @@ public class JSONObject extends JSONValue implements Iterable<JSONPair> {
 	 * @return Whether the JSON object contains no members.
 	 */
 	public boolean isEmpty() {
-		return names.isEmpty();
+		return size == 0;
 	}
 	
+	/**
+	 * Returns an unmodifiable view of the names of the members of this <code>JSONObject</code>,
+	 * in document order.
+	 * 
+	 * @return A read-only list of the members names (not null).
+	 */
 	public List<String> names() {
-		return Collections.unmodifiableList(names);
+		return new AbstractList<String>() {
+			
+			@Override
+			public String get(int index) {
+				checkIndex(index);
+				return name(index);
+			}
+			
+			@Override
+			public int size() {
+				return size;
+			}
+		};
 	}
 	
+	/**
+	 * Returns an unmodifiable view of the values of the members of this <code>JSONObject</code>,
+	 * in document order.
+	 * 
+	 * @return A read-only list of the members values (not null).
+	 */
 	public List<JSONValue> values() {
-		return Collections.unmodifiableList(values);
+		return new AbstractList<JSONValue>() {
+			
+			@Override
+			public JSONValue get(int index) {
+				checkIndex(index);
+				return value(index);
+			}
+			
+			@Override
+			public int size() {
+				return size;
+			}
+		};
 	}
 	
+	/**
+	 * Return the index of the last member with the specified name.
+	 * 
+	 * @param name The name of the member to look for (not null).
+	 * @return	   The index of the last member with the name, or -1 if none.
+	 */
 	int indexOf(String name) {
-		int index = table.get(name);
-		if(index != -1 && name.equals(names.get(index))) {
-			return index;
+		if(size <= INDEX_THRESHOLD) {
+			for(int i = size - 1; i >= 0; i--) {
+				if(name.equals(members[i << 1])) {
+					return i;
+				}
+			}
+			return -1;
+		}
+		
+		int[] index = this.index;
+		int mask = index.length - 1;
+		for(int slot = mix(name.hashCode()) & mask; index[slot] != 0; slot = slot + 1 & mask) {
+			int candidate = index[slot] - 1;
+			if(name.equals(members[candidate << 1])) {
+				return candidate;
+			}
+		}
+		return -1;
+	}
+	
+	/**
+	 * Builds the open-addressing index of the members, with a load factor of at most one half.
+	 * 
+	 * @return The built index (not null).
+	 */
+	private int[] buildIndex() {
+		int[] index = new int[Integer.highestOneBit(Math.max(size, 2) * 4 - 1)];
+		for(int i = 0; i < size; i++) {
+			insert(index, name(i), i);
+		}
+		return index;
+	}
+	
+	/**
+	 * Inserts the member at the provided index into the open-addressing index, replacing the
+	 * previous member with the same name.
+	 * 
+	 * @param index	 The index to insert into (not null).
+	 * @param name	 The name of the member (not null).
+	 * @param member The index of the member.
+	 */
+	private void insert(int[] index, String name, int member) {
+		int mask = index.length - 1;
+		int slot = mix(name.hashCode()) & mask;
+		while (index[slot] != 0 && !name.equals(members[index[slot] - 1 << 1])) {
+			slot = slot + 1 & mask;
+		}
+		index[slot] = member + 1;
+	}
+	
+	/**
+	 * Spreads the bits of the provided hash code, so that the names with close hash codes
+	 * don't cluster in the index.
+	 * 
+	 * @param hash The hash code of a name.
+	 * @return	   The mixed hash code.
+	 */
+	private static int mix(int hash) {
+		hash *= 0x9E3779B9;
+		return hash ^ hash >>> 16;
+	}
+	
+	private String name(int index) {
+		return (String) members[index << 1];
+	}
+	
+	private JSONValue value(int index) {
+		return (JSONValue) members[(index << 1) + 1];
+	}
+	
+	private void checkIndex(int index) {
+		if(index >= size) {
+			throw new IndexOutOfBoundsException("The index " + index + " is out of bounds for size " + size + "!");
 		}
-		return names.lastIndexOf(name);
 	}
 	
 	@Override
@@ -214,18 +360,21 @@ public class JSONObject extends JSONValue implements Iterable<JSONPair> {
 	
 	@Override
 	public Iterator<JSONPair> iterator() {
-		final Iterator<String> namesIterator = names.iterator();
-	    final Iterator<JSONValue> valuesIterator = values.iterator();
 	    return new Iterator<JSONPair>() {
 	    	
+	    	private int cursor;
+	    	
 	    	public boolean hasNext() {
-	    		return namesIterator.hasNext();
+	    		return cursor < size;
 	    	}
 
 	    	public JSONPair next() {
-	    		String name = namesIterator.next();
-	    		JSONValue value = valuesIterator.next();
-	    		return new JSONPair(name, value);
+	    		if(cursor >= size) {
+	    			throw new NoSuchElementException();
+	    		}
+	    		JSONPair pair = new JSONPair(name(cursor), value(cursor));
+	    		cursor++;
+	    		return pair;
 	    	}
 
 	    	public void remove() {
@@ -237,8 +386,8 @@ public class JSONObject extends JSONValue implements Iterable<JSONPair> {
 	@Override
 	public int hashCode() {
 		int result = 1;
-	    result = 31 * result + names.hashCode();
-	    result = 31 * result + values.hashCode();
+	    result = 31 * result + names().hashCode();
+	    result = 31 * result + values().hashCode();
 	    return result;
 	}
 	
@@ -247,14 +396,28 @@ public class JSONObject extends JSONValue implements Iterable<JSONPair> {
 	    if (this == o) {
 	        return true;
 	    }
-	    if (o == null) {
+	    // A lazily parsed object is compared through its materialized value.
+	    if (!(o instanceof JSONValue) || !((JSONValue) o).isObject()) {
 	    	return false;
 	    }
-	    if (getClass() != o.getClass()) {
+	    JSONObject other = ((JSONValue) o).asObject();
+	    if (size != other.size) {
 	    	return false;
 	    }
-	    JSONObject other = (JSONObject) o;
-	    return names.equals(other.names) && values.equals(other.values);
+	    for (int i = 0; i < size << 1; i++) {
+	    	if (!members[i].equals(other.members[i])) {
+	    		return false;
+	    	}
+	    }
+	    return true;
+	}
+	
+	private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+		in.defaultReadObject();
+		// The index isn't serialized, so it is rebuilt for the large objects.
+		if(size > INDEX_THRESHOLD) {
+			this.index = buildIndex();
+		}
 	}
 	
 	public static class JSONPair {
@@ -276,45 +439,4 @@ public class JSONObject extends JSONValue implements Iterable<JSONPair> {
 			return value;
 		}
 	}
-	
-	static class HashIndexTable {
-
-		private final byte[] hashTable = new byte[32]; 
-
-		HashIndexTable() {}
-
-		HashIndexTable(HashIndexTable original) {
-			System.arraycopy(original.hashTable, 0, hashTable, 0, hashTable.length);
-		}
-
-		void add(String name, int index) {
-			int slot = hashSlotFor(name);
-			if (index < 0xff) {
-				// increment by 1, 0 stands for empty
-				hashTable[slot] = (byte)(index + 1);
-			} else {
-				hashTable[slot] = 0;
-			}
-		}
-		
-		void remove(int index) {
-			for (int i = 0; i < hashTable.length; i++) {
-				if ((hashTable[i] & 0xff) == index + 1) {
-					hashTable[i] = 0;
-				} else if ((hashTable[i] & 0xff) > index + 1) {
-					hashTable[i]--;
-				}
-			}
-		}
-
-		int get(Object name) {
-			int slot = hashSlotFor(name);
-			// subtract 1, 0 stands for empty
-			return (hashTable[slot] & 0xff) - 1;
-		}
-
-		private int hashSlotFor(Object element) {
-			return element.hashCode() & hashTable.length - 1;
-		}	
-	}
 }
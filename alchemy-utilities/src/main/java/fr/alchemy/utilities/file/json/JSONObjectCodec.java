@@ -0,0 +1,482 @@
+package fr.alchemy.utilities.file.json;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Type;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import fr.alchemy.utilities.file.json.JSONCodecs.IntegerCodec;
+import fr.alchemy.utilities.file.json.JSONReader.Token;
+
+/**
+ * <code>JSONObjectCodec</code> is an implementation of {@link JSONCodec} for the plain Java classes, which are represented
+ * by JSON objects with a member for each of their instance fields, including the inherited ones but excluding the transient ones.
+ * <p>
+ * The fields are accessed through {@link MethodHandle} created once for the class, with dedicated properties for the primitive
+ * fields so that their values are never boxed. The codecs of the fields are only resolved on first use, which allows recursive
+ * types. Reading an object requires the class to declare a constructor without any parameter, which may be private.
+ * 
+ * @param <T> The type of objects.
+ * 
+ * @version 0.3.0
+ * @since 0.3.0
+ * 
+ * @author GnosticOccultist
+ */
+final class JSONObjectCodec<T> implements JSONCodec<T> {
+	
+	/**
+	 * The class of the objects.
+	 */
+	private final Class<T> type;
+	/**
+	 * The handle creating a new object, or null if the class doesn't have a constructor without parameters.
+	 */
+	private final MethodHandle constructor;
+	/**
+	 * The properties of the objects in the fields order, or null if not resolved yet.
+	 */
+	private volatile Property[] properties;
+	/**
+	 * The properties of the objects by their name, or null if not resolved yet.
+	 */
+	private volatile Map<String, Property> propertiesByName;
+	
+	/**
+	 * Instantiates a new <code>JSONObjectCodec</code> for the provided class.
+	 * 
+	 * @param type The class of the objects (not null).
+	 * 
+	 * @throws IllegalArgumentException Thrown if the class is abstract, if its package isn't open or if its members aren't accessible.
+	 */
+	JSONObjectCodec(Class<T> type) {
+		if(type.isInterface() || Modifier.isAbstract(type.getModifiers())) {
+			throw new IllegalArgumentException("Can't bind the abstract type " + type.getName() + " to JSON!");
+		}
+		if(!type.getModule().isOpen(type.getPackageName(), JSONObjectCodec.class.getModule())) {
+			// The classes of the JDK and of the other modules can't be reflected upon.
+			throw new IllegalArgumentException("Can't bind the type " + type.getName() + " to JSON, its package "
+					+ type.getPackageName() + " isn't open to the mapper!");
+		}
+		
+		this.type = type;
+		this.constructor = constructor(type);
+	}
+	
+	@Override
+	public void write(JSONGenerator generator, T value) throws IOException {
+		if(value == null) {
+			generator.nullValue();
+			return;
+		}
+		
+		generator.beginObject();
+		for(Property property : properties()) {
+			property.write(generator, value);
+		}
+		generator.endObject();
+	}
+	
+	@Override
+	public T read(JSONReader reader) throws IOException {
+		Token token = reader.currentToken();
+		if(token == Token.NULL) {
+			return null;
+		}
+		if(token != Token.BEGIN_OBJECT) {
+			throw JSONCodecs.mismatch(reader, "an object");
+		}
+		
+		properties();
+		Map<String, Property> propertiesByName = this.propertiesByName;
+		T instance = newInstance();
+		
+		while (reader.nextToken() == Token.NAME) {
+			Property property = propertiesByName.get(reader.name());
+			if(property == null) {
+				// Ignore the unknown members.
+				reader.skipValue();
+				continue;
+			}
+			
+			reader.nextToken();
+			property.read(reader, instance);
+		}
+		return instance;
+	}
+	
+	/**
+	 * Creates a new object with the constructor without parameters of the class.
+	 * 
+	 * @return A new object of the class (not null).
+	 * 
+	 * @throws IllegalStateException Thrown if the class doesn't declare a constructor without parameters.
+	 */
+	T newInstance() {
+		if(constructor == null) {
+			throw new IllegalStateException("The type " + type.getName() + " doesn't declare a constructor without parameters!");
+		}
+		
+		try {
+			return type.cast((Object) constructor.invokeExact());
+		} catch (Throwable ex) {
+			throw JSONCodecs.rethrow(ex);
+		}
+	}
+	
+	/**
+	 * Return the properties of the objects, resolving them on first use.
+	 * 
+	 * @return The properties of the objects (not null).
+	 */
+	private Property[] properties() {
+		Property[] properties = this.properties;
+		if(properties == null) {
+			List<Property> list = new ArrayList<>();
+			Map<String, Property> byName = new HashMap<>();
+			for(Field field : fields(type)) {
+				Property property = property(field);
+				list.add(property);
+				byName.put(property.name, property);
+			}
+			
+			this.propertiesByName = byName;
+			this.properties = properties = list.toArray(new Property[list.size()]);
+		}
+		return properties;
+	}
+	
+	@Override
+	public String toString() {
+		return getClass().getSimpleName() + "[" + type.getName() + "]";
+	}
+	
+	/**
+	 * Return the fields to bind of the provided class, starting with the fields of its superclasses.
+	 * 
+	 * @param type The class to get the fields of (not null).
+	 * @return	   The fields to bind of the class (not null).
+	 */
+	private static List<Field> fields(Class<?> type) {
+		Deque<Class<?>> hierarchy = new ArrayDeque<>();
+		for(Class<?> current = type; current != null && current != Object.class; current = current.getSuperclass()) {
+			hierarchy.push(current);
+		}
+		
+		List<Field> fields = new ArrayList<>();
+		for(Class<?> current : hierarchy) {
+			for(Field field : current.getDeclaredFields()) {
+				int modifiers = field.getModifiers();
+				if(!Modifier.isStatic(modifiers) && !Modifier.isTransient(modifiers) && !field.isSynthetic()) {
+					fields.add(field);
+				}
+			}
+		}
+		return fields;
+	}
+	
+	/**
+	 * Creates the handle invoking the constructor without parameters of the provided class.
+	 * 
+	 * @param type The class to get the constructor of (not null).
+	 * @return	   The handle creating a new object, or null if the class doesn't have such a constructor.
+	 */
+	private static MethodHandle constructor(Class<?> type) {
+		Constructor<?> constructor;
+		try {
+			constructor = type.getDeclaredConstructor();
+		} catch (NoSuchMethodException ex) {
+			return null;
+		}
+		
+		try {
+			constructor.setAccessible(true);
+			return MethodHandles.lookup().unreflectConstructor(constructor).asType(MethodType.methodType(Object.class));
+		} catch (IllegalAccessException | RuntimeException ex) {
+			throw new IllegalArgumentException("The constructor of " + type.getName() + " isn't accessible!", ex);
+		}
+	}
+	
+	/**
+	 * Creates the property binding the provided field, using the handles to get and set its value.
+	 * 
+	 * @param field The field to bind (not null).
+	 * @return		The property of the field (not null).
+	 */
+	private static Property property(Field field) {
+		MethodHandle getter, setter;
+		try {
+			field.setAccessible(true);
+			getter = MethodHandles.lookup().unreflectGetter(field);
+			setter = MethodHandles.lookup().unreflectSetter(field);
+		} catch (IllegalAccessException | RuntimeException ex) {
+			throw new IllegalArgumentException("The field " + field + " isn't accessible!", ex);
+		}
+		
+		Class<?> type = field.getType();
+		String name = field.getName();
+		if(type == int.class) {
+			return new IntProperty(name, getter, setter, Integer.MIN_VALUE, Integer.MAX_VALUE);
+		} else if(type == short.class) {
+			return new IntProperty(name, getter, setter, Short.MIN_VALUE, Short.MAX_VALUE);
+		} else if(type == byte.class) {
+			return new IntProperty(name, getter, setter, Byte.MIN_VALUE, Byte.MAX_VALUE);
+		} else if(type == long.class) {
+			return new LongProperty(name, getter, setter);
+		} else if(type == double.class) {
+			return new DoubleProperty(name, getter, setter);
+		} else if(type == boolean.class) {
+			return new BooleanProperty(name, getter, setter);
+		}
+		return new ReferenceProperty(name, getter, setter, field.getGenericType());
+	}
+	
+	/**
+	 * <code>Property</code> binds a field of the objects to a member of the JSON objects.
+	 */
+	abstract static class Property {
+		
+		/**
+		 * The name of the property.
+		 */
+		final String name;
+		/**
+		 * The name of the property, already encoded for the generator.
+		 */
+		final byte[] encodedName;
+		
+		Property(String name) {
+			this.name = name;
+			this.encodedName = JSONGenerator.encodeName(name);
+		}
+		
+		/**
+		 * Writes the member of the property for the provided object.
+		 * 
+		 * @param generator The generator to write the member to (not null).
+		 * @param instance	The object to get the value of the property from (not null).
+		 * @throws IOException Thrown if an I/O error occurs while writing to the output.
+		 */
+		abstract void write(JSONGenerator generator, Object instance) throws IOException;
+		
+		/**
+		 * Reads the value of the property starting at the current token, and sets it to the provided object.
+		 * The <code>null</code> literals are ignored for the primitive properties.
+		 * 
+		 * @param reader   The reader positioned on the first token of the value (not null).
+		 * @param instance The object to set the value of the property to (not null).
+		 * @throws IOException Thrown if an I/O error occurs in the reader, or if the value doesn't match the property.
+		 */
+		abstract void read(JSONReader reader, Object instance) throws IOException;
+	}
+	
+	/**
+	 * <code>IntProperty</code> is a {@link Property} for the <code>int</code>, <code>short</code> and <code>byte</code> fields.
+	 */
+	static final class IntProperty extends Property {
+		
+		private final MethodHandle getter;
+		private final MethodHandle setter;
+		private final long min;
+		private final long max;
+		
+		IntProperty(String name, MethodHandle getter, MethodHandle setter, long min, long max) {
+			super(name);
+			this.getter = MethodHandles.explicitCastArguments(getter, MethodType.methodType(int.class, Object.class));
+			this.setter = MethodHandles.explicitCastArguments(setter, MethodType.methodType(void.class, Object.class, int.class));
+			this.min = min;
+			this.max = max;
+		}
+		
+		@Override
+		void write(JSONGenerator generator, Object instance) throws IOException {
+			int value;
+			try {
+				value = (int) getter.invokeExact(instance);
+			} catch (Throwable ex) {
+				throw JSONCodecs.rethrow(ex);
+			}
+			generator.name(encodedName).value(value);
+		}
+		
+		@Override
+		void read(JSONReader reader, Object instance) throws IOException {
+			if(JSONCodecs.checkNumber(reader)) {
+				int value = (int) IntegerCodec.readLong(reader, min, max);
+				try {
+					setter.invokeExact(instance, value);
+				} catch (Throwable ex) {
+					throw JSONCodecs.rethrow(ex);
+				}
+			}
+		}
+	}
+	
+	/**
+	 * <code>LongProperty</code> is a {@link Property} for the <code>long</code> fields.
+	 */
+	static final class LongProperty extends Property {
+		
+		private final MethodHandle getter;
+		private final MethodHandle setter;
+		
+		LongProperty(String name, MethodHandle getter, MethodHandle setter) {
+			super(name);
+			this.getter = getter.asType(MethodType.methodType(long.class, Object.class));
+			this.setter = setter.asType(MethodType.methodType(void.class, Object.class, long.class));
+		}
+		
+		@Override
+		void write(JSONGenerator generator, Object instance) throws IOException {
+			long value;
+			try {
+				value = (long) getter.invokeExact(instance);
+			} catch (Throwable ex) {
+				throw JSONCodecs.rethrow(ex);
+			}
+			generator.name(encodedName).value(value);
+		}
+		
+		@Override
+		void read(JSONReader reader, Object instance) throws IOException {
+			if(JSONCodecs.checkNumber(reader)) {
+				long value = reader.longValue();
+				try {
+					setter.invokeExact(instance, value);
+				} catch (Throwable ex) {
+					throw JSONCodecs.rethrow(ex);
+				}
+			}
+		}
+	}
+	
+	/**
+	 * <code>DoubleProperty</code> is a {@link Property} for the <code>double</code> fields.
+	 */
+	static final class DoubleProperty extends Property {
+		
+		private final MethodHandle getter;
+		private final MethodHandle setter;
+		
+		DoubleProperty(String name, MethodHandle getter, MethodHandle setter) {
+			super(name);
+			this.getter = getter.asType(MethodType.methodType(double.class, Object.class));
+			this.setter = setter.asType(MethodType.methodType(void.class, Object.class, double.class));
+		}
+		
+		@Override
+		void write(JSONGenerator generator, Object instance) throws IOException {
+			double value;
+			try {
+				value = (double) getter.invokeExact(instance);
+			} catch (Throwable ex) {
+				throw JSONCodecs.rethrow(ex);
+			}
+			generator.name(encodedName).value(value);
+		}
+		
+		@Override
+		void read(JSONReader reader, Object instance) throws IOException {
+			if(JSONCodecs.checkNumber(reader)) {
+				double value = reader.doubleValue();
+				try {
+					setter.invokeExact(instance, value);
+				} catch (Throwable ex) {
+					throw JSONCodecs.rethrow(ex);
+				}
+			}
+		}
+	}
+	
+	/**
+	 * <code>BooleanProperty</code> is a {@link Property} for the <code>boolean</code> fields.
+	 */
+	static final class BooleanProperty extends Property {
+		
+		private final MethodHandle getter;
+		private final MethodHandle setter;
+		
+		BooleanProperty(String name, MethodHandle getter, MethodHandle setter) {
+			super(name);
+			this.getter = getter.asType(MethodType.methodType(boolean.class, Object.class));
+			this.setter = setter.asType(MethodType.methodType(void.class, Object.class, boolean.class));
+		}
+		
+		@Override
+		void write(JSONGenerator generator, Object instance) throws IOException {
+			boolean value;
+			try {
+				value = (boolean) getter.invokeExact(instance);
+			} catch (Throwable ex) {
+				throw JSONCodecs.rethrow(ex);
+			}
+			generator.name(encodedName).value(value);
+		}
+		
+		@Override
+		void read(JSONReader reader, Object instance) throws IOException {
+			Boolean value = JSONCodecs.BOOLEAN.read(reader);
+			if(value != null) {
+				try {
+					setter.invokeExact(instance, value.booleanValue());
+				} catch (Throwable ex) {
+					throw JSONCodecs.rethrow(ex);
+				}
+			}
+		}
+	}
+	
+	/**
+	 * <code>ReferenceProperty</code> is a {@link Property} for the fields of any other type, which are converted by the
+	 * codec of their declared type. The <code>float</code> and <code>char</code> fields are boxed.
+	 */
+	static final class ReferenceProperty extends Property {
+		
+		private final MethodHandle getter;
+		private final MethodHandle setter;
+		private final boolean primitive;
+		private final JSONCodec<Object> codec;
+		
+		ReferenceProperty(String name, MethodHandle getter, MethodHandle setter, Type type) {
+			super(name);
+			this.getter = getter.asType(MethodType.methodType(Object.class, Object.class));
+			this.setter = setter.asType(MethodType.methodType(void.class, Object.class, Object.class));
+			this.primitive = setter.type().parameterType(1).isPrimitive();
+			this.codec = JSONMapper.codec(type);
+		}
+		
+		@Override
+		void write(JSONGenerator generator, Object instance) throws IOException {
+			Object value;
+			try {
+				value = (Object) getter.invokeExact(instance);
+			} catch (Throwable ex) {
+				throw JSONCodecs.rethrow(ex);
+			}
+			generator.name(encodedName);
+			codec.write(generator, value);
+		}
+		
+		@Override
+		void read(JSONReader reader, Object instance) throws IOException {
+			Object value = codec.read(reader);
+			if(value != null || !primitive) {
+				try {
+					setter.invokeExact(instance, value);
+				} catch (Throwable ex) {
+					throw JSONCodecs.rethrow(ex);
+				}
+			}
+		}
+	}
+}
@@ -3,20 +3,22 @@ package fr.alchemy.utilities.file.json;
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.Reader;
+import java.util.Arrays;
 
 import fr.alchemy.utilities.Validator;
+import fr.alchemy.utilities.file.json.JSONNumbers.Decimal;
 
 public final class JSONParser {
 	
-	private static final int MAX_NESTING_LEVEL = 1000;
-
+	static final int MAX_NESTING_LEVEL = 1000;
+	
 	
 	public JSONValue value;
 	
 	/**
 	 * The default buffer size, by default 1024.
 	 */
-	private static final int DEFAULT_BUFFER_SIZE = 1024;
+	static final int DEFAULT_BUFFER_SIZE = 1024;
 	
 	/**
 	 * The reader to parse the JSON file.
@@ -58,8 +60,28 @@ public final class JSONParser {
 	 * The capture start index.
 	 */
 	private int captureStart;
-
+	
 	private int nestingLevel;
+	/**
+	 * The decimal representation of the last read number.
+	 */
+	private final Decimal decimal = new Decimal();
+	/**
+	 * The bit stack of the containers being skipped, a set bit marking an array, lazily allocated.
+	 */
+	private long[] skippedArrays;
+	/**
+	 * The stack of the members of the objects being read, interleaving their names and values.
+	 */
+	private Object[] members = new Object[32];
+	/**
+	 * The top of the members stack.
+	 */
+	private int membersTop;
+	/**
+	 * The symbol table canonicalizing the member names, lazily created if not provided.
+	 */
+	private JSONSymbolTable symbols;
 	
 	/**
 	 * Instantiates a new <code>JSONParser</code> with the provided
@@ -72,6 +94,20 @@ public final class JSONParser {
 		return new JSONParser(reader);
 	}
 	
+	/**
+	 * Instantiates a new <code>JSONParser</code> with the provided {@link Reader} to parse the file,
+	 * canonicalizing the member names with the provided {@link JSONSymbolTable}.
+	 * 
+	 * @param reader  The reader to parse the JSON file.
+	 * @param symbols The symbol table for the member names, or null to use one for this parser only.
+	 * @return		  The JSON parser instance.
+	 */
+	static JSONParser newParser(Reader reader, JSONSymbolTable symbols) {
+		JSONParser parser = new JSONParser(reader);
+		parser.symbols = symbols;
+		return parser;
+	}
+	
 	/**
 	 * Private constructor to inhibit instantiation of <code>JSONParser</code>.
 	 * Use {@link AlchemyJSON#parse(Reader)} instead to load from a {@link Reader}.
@@ -96,7 +132,7 @@ public final class JSONParser {
 	public void parse() throws IOException {
 		parse(DEFAULT_BUFFER_SIZE);
 	}
-
+	
 	/**
 	 * Reads the entire input from the given {@link Reader} and parses it as JSON. The input must contain
 	 * a valid JSON value, optionally padded with whitespace.
@@ -109,13 +145,7 @@ public final class JSONParser {
 	 * @throws IOException Thrown if an I/O error occurs in the reader.
 	 */
 	public void parse(int bufferSize) throws IOException {
-		Validator.nonNegative(bufferSize);
-		
-		if(buffer == null) {
-			this.buffer = new char[bufferSize];
-		}
-		reset();
-		read();
+		begin(bufferSize);
 		trim();
 		readValue();
 		trim();
@@ -126,6 +156,23 @@ public final class JSONParser {
 		}
 	}
 	
+	/**
+	 * Prepares the <code>JSONParser</code> to tokenize the input, by allocating its input buffer 
+	 * of the provided size if needed and reading the first character.
+	 * 
+	 * @param bufferSize The size of the input buffer in characters.
+	 * @throws IOException Thrown if an I/O error occurs in the reader.
+	 */
+	void begin(int bufferSize) throws IOException {
+		Validator.nonNegative(bufferSize);
+		
+		if(buffer == null) {
+			this.buffer = new char[bufferSize];
+		}
+		reset();
+		read();
+	}
+	
 	private void read() throws IOException {
 		if(index == fill) {
 			if(captureStart != -1) {
@@ -148,7 +195,13 @@ public final class JSONParser {
 		current = buffer[index++];
 	}
 	
-	private void readValue() throws IOException {
+	/**
+	 * Reads the JSON value starting at the current character, which is then stored in {@link #value}.
+	 * 
+	 * @return The read JSON value (not null).
+	 * @throws IOException Thrown if an I/O error occurs in the reader or if the value is malformed.
+	 */
+	JSONValue readValue() throws IOException {
 		switch (current) {
 			case 'n':
 				readNull();
@@ -186,6 +239,7 @@ public final class JSONParser {
 			    int column = offset - lineOffset + 1;
 				throw new UnsupportedOperationException(Character.getName(current) + " " + line + " " + column);
 		}
+		return value;
 	}
 	
 	  private void readArray() throws IOException {
@@ -212,9 +266,9 @@ public final class JSONParser {
 		    nestingLevel--;
 		    value = array;
 		  }
-
+		  
 		  private void readObject() throws IOException {
-		    JSONObject object = new JSONObject();
+		    int base = membersTop;
 		    read();
 		    if (++nestingLevel > MAX_NESTING_LEVEL) {
 		      throw new IOException("Nesting too deep");
@@ -222,7 +276,7 @@ public final class JSONParser {
 		    trim();
 		    if (readChar('}')) {
 		      nestingLevel--;
-		      this.value = object;
+		      this.value = new JSONObject();
 		      return;
 		    }
 		    do {
@@ -234,14 +288,14 @@ public final class JSONParser {
 		      }
 		      trim();
 		      readValue();
-		      object.add(name, value);
+		      pushMember(name, value);
 		      trim();
 		    } while (readChar(','));
 		    if (!readChar('}')) {
 		      throw new IOException("',' or '}'");
 		    }
 		    nestingLevel--;
-		   this.value = object;
+		   this.value = popObject(base);
 		  }
 		  
 	
@@ -253,7 +307,14 @@ public final class JSONParser {
 		value = AlchemyJSON.NULL;
 	}
 	
-	private boolean readChar(char ch) throws IOException {
+	/**
+	 * Consumes the current character if it matches the provided one.
+	 * 
+	 * @param ch The expected character.
+	 * @return	 Whether the character has been consumed.
+	 * @throws IOException Thrown if an I/O error occurs in the reader.
+	 */
+	boolean readChar(char ch) throws IOException {
 		if (current != ch) {
 			return false;
 		}
@@ -261,28 +322,62 @@ public final class JSONParser {
 		return true;
 	}
 	
-	private boolean readDigit() throws IOException {
-		if (!digit()) {
-			return false;
-		}
-		read();
-		return true;
-	}
-	
-	private String readName() throws IOException {
+	/**
+	 * Reads the member name starting at the current character, which must be a quote.
+	 * 
+	 * @return The read member name (not null).
+	 * @throws IOException Thrown if an I/O error occurs in the reader or if the name is malformed.
+	 */
+	String readName() throws IOException {
 		if (current != '"') {
 			int offset = bufferOffset + index - 1;
 		    int column = offset - lineOffset + 1;
 			throw new IOException("name " + offset + " " + column);
 		}
-		return readStringInternal();	
+		if(symbols == null) {
+			symbols = new JSONSymbolTable();
+		}
+		
+		read();
+		startCapture();
+		// Hash the name while reading it, so a name already in the symbol table isn't materialized.
+		int hash = 0;
+		while (current != '"') {
+			if (current == '\\') {
+				pauseCapture();
+				readEscape();
+				startCapture();
+			} else if (current < 0x20) {
+				throw new IOException("valid string character");
+			} else {
+				hash = 31 * hash + current;
+				read();
+			}
+		}
+		
+		String name;
+		if(captureBuffer.length() > 0) {
+			// The name spans several buffer fills or contains escape sequences.
+			name = symbols.intern(endCapture());
+		} else {
+			name = symbols.intern(buffer, captureStart, index - 1 - captureStart, hash);
+			captureStart = -1;
+		}
+		read();
+		return name;
 	}
 	
 	private void readString() throws IOException {
 		value = new JSONString(readStringInternal());
 	}
 	
-	private String readStringInternal() throws IOException {
+	/**
+	 * Reads the string starting at the current character, which must be a quote.
+	 * 
+	 * @return The read string content, with the escape sequences resolved (not null).
+	 * @throws IOException Thrown if an I/O error occurs in the reader or if the string is malformed.
+	 */
+	String readStringInternal() throws IOException {
 		read();
 		startCapture();
 		while (current != '"') {
@@ -300,7 +395,7 @@ public final class JSONParser {
 		read();
 		return string;
 	}
-
+	
 	private void readEscape() throws IOException {
 		read();
 		switch (current) {
@@ -342,17 +437,183 @@ public final class JSONParser {
 		  }
 	
 	private void readNumber() throws IOException {
+		String text = readNumberInternal();
+		value = text == null ? new JSONNumber(decimal.significand, decimal.exponent, decimal.notation) : new JSONNumber(text);
+	}
+	
+	/**
+	 * Reads the number starting at the current character, following the full JSON number grammar. The significand
+	 * and the power of ten of the number are accumulated in {@link #decimal} while reading, so that the number text
+	 * is only captured when it can't be represented exactly by them.
+	 * 
+	 * @return The text of the read number, or null if it is exactly represented by the decimal.
+	 * @throws IOException Thrown if an I/O error occurs in the reader or if the number is malformed.
+	 */
+	String readNumberInternal() throws IOException {
 		startCapture();
-		readChar('-');
+		decimal.reset();
+		
+		boolean negative = readChar('-');
 		int firstDigit = current;
-		if (!readDigit()) {
-			throw new IOException("digit");
+		if (!digit()) {
+			throw error("digit");
+		}
+		if (firstDigit == '0') {
+			read();
+		} else {
+			do {
+				decimal.append(current - '0', false);
+				read();
+			} while (digit());
+		}
+		
+		if (readChar('.')) {
+			if (!digit()) {
+				throw error("digit");
+			}
+			do {
+				decimal.append(current - '0', true);
+				read();
+			} while (digit());
+		}
+		
+		if (current == 'e' || current == 'E') {
+			boolean upperCase = current == 'E';
+			read();
+			boolean negativeExponent = readChar('-');
+			boolean plus = !negativeExponent && readChar('+');
+			if (!digit()) {
+				throw error("digit");
+			}
+			int exponent = 0;
+			do {
+				exponent = Decimal.appendExponent(exponent, current - '0');
+				read();
+			} while (digit());
+			decimal.exponent(exponent, negativeExponent, upperCase, plus);
 		}
-		if (firstDigit != '0') {
-			while (readDigit()) {
+		
+		decimal.finish(negative);
+		if (decimal.exact) {
+			discardCapture();
+			return null;
+		}
+		return endCapture();
+	}
+	
+	/**
+	 * Return the significand and power of ten of the last number read by the <code>JSONParser</code>.
+	 * 
+	 * @return The decimal representation of the last read number (not null).
+	 */
+	Decimal decimal() {
+		return decimal;
+	}
+	
+	/**
+	 * Skips the JSON value starting at the current character, without materializing it. The content of
+	 * the skipped arrays and objects is only checked for balanced brackets and well-formed strings.
+	 * 
+	 * @throws IOException Thrown if an I/O error occurs in the reader or if the value is malformed.
+	 */
+	void skipValue() throws IOException {
+		switch (current) {
+			case '"':
+				skipString();
+				break;
+			case '[':
+			case '{':
+				boolean array = current == '[';
+				read();
+				skipContainer(array);
+				break;
+			case 'n':
+			case 't':
+			case 'f':
+				readValue();
+				break;
+			default:
+				readNumberInternal();
+		}
+	}
+	
+	/**
+	 * Skips the remaining content of an array or an object whose opening bracket has already been consumed, 
+	 * up to and including its matching closing bracket.
+	 * 
+	 * @param array Whether the skipped container is an array or an object.
+	 * 
+	 * @throws IOException Thrown if an I/O error occurs in the reader, if a closing bracket doesn't match its
+	 * 					   opening one or if the end of the input is reached.
+	 */
+	void skipContainer(boolean array) throws IOException {
+		long[] arrays = skippedArrays;
+		if (arrays == null) {
+			arrays = skippedArrays = new long[(MAX_NESTING_LEVEL >> 6) + 1];
+		}
+		
+		int depth = 0;
+		arrays[0] = array ? 1L : 0L;
+		while (depth >= 0) {
+			switch (current) {
+				case -1:
+					throw error("'" + closing(arrays, depth) + "'");
+				case '"':
+					skipString();
+					continue;
+				case '[':
+				case '{':
+					if (++depth >= MAX_NESTING_LEVEL) {
+						throw new IOException("Nesting too deep");
+					}
+					// Remember the kind of the opened container, to check its closing bracket.
+					if (current == '[') {
+						arrays[depth >> 6] |= 1L << depth;
+					} else {
+						arrays[depth >> 6] &= ~(1L << depth);
+					}
+					break;
+				case ']':
+				case '}':
+					char closing = closing(arrays, depth);
+					if (current != closing) {
+						throw error("'" + closing + "'");
+					}
+					depth--;
+					break;
+				default:
+					break;
 			}
+			read();
 		}
-		value = new JSONNumber(endCapture());
+	}
+	
+	/**
+	 * Return the closing bracket expected for the skipped container at the given depth of the bit stack.
+	 */
+	private static char closing(long[] arrays, int depth) {
+		return (arrays[depth >> 6] & (1L << depth)) != 0 ? ']' : '}';
+	}
+	
+	/**
+	 * Skips the string starting at the current character, which must be a quote, without capturing it.
+	 * 
+	 * @throws IOException Thrown if an I/O error occurs in the reader or if the string is malformed.
+	 */
+	private void skipString() throws IOException {
+		read();
+		while (current != '"') {
+			if (current == '\\') {
+				read();
+				if (end()) {
+					throw error("valid escape sequence");
+				}
+			} else if (current < 0x20) {
+				throw error("valid string character");
+			}
+			read();
+		}
+		read();
 	}
 	
 	private void readTrue() throws IOException {
@@ -362,7 +623,7 @@ public final class JSONParser {
 		readRequiredChar('e');
 		value = AlchemyJSON.TRUE;
 	}
-
+	
 	private void readFalse() throws IOException {
 		read();
 		readRequiredChar('a');
@@ -378,13 +639,20 @@ public final class JSONParser {
 		}
 		captureStart = index - 1;
 	}
-
+	
 	private void pauseCapture() {
 		int end = current == -1 ? index : index - 1;
 		captureBuffer.append(buffer, captureStart, end - captureStart);
 	    captureStart = -1;
 	}
-
+	
+	private void discardCapture() {
+		captureStart = -1;
+		if (captureBuffer.length() > 0) {
+			captureBuffer.setLength(0);
+		}
+	}
+	
 	private String endCapture() {
 		int start = captureStart;
 		int end = index - 1;
@@ -398,7 +666,13 @@ public final class JSONParser {
 	    return new String(buffer, start, end - start);
 	}
 	
-	private void readRequiredChar(char ch) throws IOException {
+	/**
+	 * Consumes the current character, which must match the provided one.
+	 * 
+	 * @param ch The expected character.
+	 * @throws IOException Thrown if an I/O error occurs in the reader or if the character doesn't match.
+	 */
+	void readRequiredChar(char ch) throws IOException {
 		if (!readChar(ch)) {
 			throw new IOException("'" + ch + "'");
 		}	
@@ -418,16 +692,49 @@ public final class JSONParser {
 	        || current >= 'A' && current <= 'F';
 	}
 	
-	private boolean end() {
+	boolean end() {
 		return current == -1;
 	}
 	
 	/**
+	 * Return the current character of the <code>JSONParser</code>, or -1 if the end of the input 
+	 * has been reached.
+	 * 
+	 * @return The current character.
+	 */
+	int current() {
+		return current;
+	}
+	
+	/**
+	 * Creates an {@link IOException} describing the expected input at the current position of the 
+	 * <code>JSONParser</code>.
+	 * 
+	 * @param expected The description of the expected input.
+	 * @return		   A new exception describing the parsing error (not null).
+	 */
+	IOException error(String expected) {
+		String found = end() ? "end of input" : "'" + (char) current + "'";
+		return new IOException("Expected " + expected + " but found " + found + " at " + location() + "!");
+	}
+	
+	/**
+	 * Return the description of the current position of the <code>JSONParser</code> in the document.
 	 * 
+	 * @return The line and column of the current position (not null).
+	 */
+	String location() {
+		int offset = bufferOffset + index - 1;
+		int column = offset - lineOffset + 1;
+		return "line " + line + ", column " + column;
+	}
+	
+	/**
+	 * Skips the whitespace characters from the current position.
 	 * 
-	 * @throws IOException
+	 * @throws IOException Thrown if an I/O error occurs in the reader.
 	 */
-	private void trim() throws IOException {
+	void trim() throws IOException {
 		while(whitespace()) {
 			read();
 		}
@@ -446,4 +753,32 @@ public final class JSONParser {
 	    current = 0;
 	    captureStart = -1;
 	}
+	
+	/**
+	 * Pushes the provided member on the stack of the members of the objects being read.
+	 * 
+	 * @param name  The name of the member (not null).
+	 * @param value The value of the member (not null).
+	 */
+	private void pushMember(String name, JSONValue value) {
+		if(membersTop + 2 > members.length) {
+			members = Arrays.copyOf(members, members.length << 1);
+		}
+		members[membersTop++] = name;
+		members[membersTop++] = value;
+	}
+	
+	/**
+	 * Pops the members pushed since the provided base of the stack into a new {@link JSONObject},
+	 * whose members array is sized exactly.
+	 * 
+	 * @param base The top of the members stack when the object started.
+	 * @return	   The object with the popped members (not null).
+	 */
+	private JSONObject popObject(int base) {
+		JSONObject object = new JSONObject(Arrays.copyOfRange(members, base, membersTop));
+		Arrays.fill(members, base, membersTop, null);
+		this.membersTop = base;
+		return object;
+	}
 }
@@ -0,0 +1,550 @@
+package fr.alchemy.utilities.file.json;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Arrays;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+import fr.alchemy.utilities.Validator;
+import fr.alchemy.utilities.collections.array.Array;
+import fr.alchemy.utilities.file.json.JSONObject.JSONPair;
+import fr.alchemy.utilities.file.json.JSONReader.Token;
+
+/**
+ * <code>JSONPath</code> is a compiled query selecting values of a JSON document, which can be evaluated while the document is
+ * being read so that only the selected values are materialized as {@link JSONValue}, the other subtrees being skipped by the tokenizer.
+ * <p>
+ * Two syntaxes are supported by {@link #compile(String)}:
+ * <ul>
+ * <li>the JSON Pointer of the RFC 6901, such as <code>/store/books/0/title</code>, whose tokens match a member name or an array index,</li>
+ * <li>a subset of JSONPath starting with <code>$</code>, made of the member names <code>.title</code> or <code>['title']</code>, the array
+ * indices <code>[0]</code>, the wildcards <code>.*</code> or <code>[*]</code> and the descendants <code>..title</code>.</li>
+ * </ul>
+ * The query is compiled into a small automaton whose active states are tracked for each value of the document, a value being
+ * selected once the final state is reached, and skipped as soon as no state is active anymore.
+ * <pre>
+ * JSONPath titles = JSONPath.compile("$.store.books[*].title");
+ * titles.evaluate(reader, title -&gt; System.out.println(title.asString()));
+ * </pre>
+ * 
+ * @version 0.3.0
+ * @since 0.3.0
+ * 
+ * @author GnosticOccultist
+ */
+public final class JSONPath {
+	
+	/**
+	 * The step matching a member name.
+	 */
+	private static final byte MEMBER = 0;
+	/**
+	 * The step matching an array index.
+	 */
+	private static final byte INDEX = 1;
+	/**
+	 * The step of a JSON Pointer matching either a member name or an array index.
+	 */
+	private static final byte MEMBER_OR_INDEX = 2;
+	/**
+	 * The step matching any member or array element.
+	 */
+	private static final byte WILDCARD = 3;
+	/**
+	 * The step matching any number of nested levels, including none.
+	 */
+	private static final byte DESCENDANT = 4;
+	/**
+	 * The maximum number of steps of a query, as the states are tracked in a long.
+	 */
+	private static final int MAX_STEPS = Long.SIZE - 1;
+	
+	/**
+	 * The expression of the query.
+	 */
+	private final String expression;
+	/**
+	 * The kind of each step.
+	 */
+	private final byte[] kinds;
+	/**
+	 * The member name matched by each step, or null.
+	 */
+	private final String[] names;
+	/**
+	 * The array index matched by each step, or -1.
+	 */
+	private final int[] indices;
+	/**
+	 * The number of steps.
+	 */
+	private final int size;
+	
+	/**
+	 * Instantiates a new <code>JSONPath</code> for the provided expression and its compiled steps.
+	 * Use {@link #compile(String)} instead.
+	 * 
+	 * @param expression The expression of the query (not null).
+	 * @param kinds		 The kind of each step (not null).
+	 * @param names		 The member name matched by each step (not null).
+	 * @param indices	 The array index matched by each step (not null).
+	 * @param size		 The number of steps.
+	 */
+	private JSONPath(String expression, byte[] kinds, String[] names, int[] indices, int size) {
+		this.expression = expression;
+		this.kinds = kinds;
+		this.names = names;
+		this.indices = indices;
+		this.size = size;
+	}
+	
+	/**
+	 * Compiles the provided JSON Pointer or JSONPath expression into a <code>JSONPath</code>.
+	 * 
+	 * @param expression The expression to compile, either a JSON Pointer or a JSONPath starting with <code>$</code> (not null).
+	 * @return			 The compiled query (not null).
+	 * 
+	 * @throws IllegalArgumentException Thrown if the expression is malformed or has too many steps.
+	 */
+	public static JSONPath compile(String expression) {
+		Validator.nonNull(expression, "The expression can't be null!");
+		
+		Compiler compiler = new Compiler(expression);
+		if(expression.isEmpty() || expression.charAt(0) == '/') {
+			compiler.compilePointer();
+		} else if(expression.charAt(0) == '$') {
+			compiler.compilePath();
+		} else {
+			throw new IllegalArgumentException("The expression '" + expression + "' must start with '/' or '$'!");
+		}
+		return compiler.build();
+	}
+	
+	/**
+	 * Evaluates the <code>JSONPath</code> on the JSON document of the provided {@link Reader}, passing each selected
+	 * value to the callback in document order.
+	 * 
+	 * @param reader   The reader of the JSON document (not null).
+	 * @param callback The callback of the selected values (not null).
+	 * @throws IOException Thrown if an I/O error occurs in the reader or if the document is malformed.
+	 */
+	public void evaluate(Reader reader, Consumer<JSONValue> callback) throws IOException {
+		try (JSONReader json = AlchemyJSON.reader(reader)) {
+			evaluate(json, callback);
+		}
+	}
+	
+	/**
+	 * Evaluates the <code>JSONPath</code> on the next value of the provided {@link JSONReader}, passing each selected
+	 * value to the callback in document order.
+	 * 
+	 * @param reader   The reader of the JSON document (not null).
+	 * @param callback The callback of the selected values (not null).
+	 * @throws IOException Thrown if an I/O error occurs in the reader or if the document is malformed.
+	 */
+	public void evaluate(JSONReader reader, Consumer<JSONValue> callback) throws IOException {
+		Validator.nonNull(reader, "The reader can't be null!");
+		Validator.nonNull(callback, "The callback can't be null!");
+		
+		reader.nextToken();
+		visit(reader, closure(1L), value -> {
+			callback.accept(value);
+			return true;
+		});
+	}
+	
+	/**
+	 * Evaluates the <code>JSONPath</code> on the JSON document of the provided {@link Reader}.
+	 * 
+	 * @param reader The reader of the JSON document (not null).
+	 * @return		 The selected values in document order (not null).
+	 * @throws IOException Thrown if an I/O error occurs in the reader or if the document is malformed.
+	 */
+	public Array<JSONValue> evaluate(Reader reader) throws IOException {
+		Array<JSONValue> results = Array.ofType(JSONValue.class);
+		evaluate(reader, results::add);
+		return results;
+	}
+	
+	/**
+	 * Evaluates the <code>JSONPath</code> on the JSON document of the provided {@link Reader}, stopping to read the
+	 * document as soon as a value is selected.
+	 * 
+	 * @param reader The reader of the JSON document (not null).
+	 * @return		 The first selected value, or null if none.
+	 * @throws IOException Thrown if an I/O error occurs in the reader or if the document is malformed.
+	 */
+	public JSONValue first(Reader reader) throws IOException {
+		JSONValue[] result = new JSONValue[1];
+		try (JSONReader json = AlchemyJSON.reader(reader)) {
+			json.nextToken();
+			visit(json, closure(1L), value -> {
+				result[0] = value;
+				return false;
+			});
+		}
+		return result[0];
+	}
+	
+	/**
+	 * Evaluates the <code>JSONPath</code> on the provided {@link JSONValue} tree.
+	 * 
+	 * @param root The root value to query (not null).
+	 * @return	   The selected values in document order (not null).
+	 */
+	public Array<JSONValue> evaluate(JSONValue root) {
+		Validator.nonNull(root, "The root value can't be null!");
+		
+		Array<JSONValue> results = Array.ofType(JSONValue.class);
+		visit(root, closure(1L), results::add);
+		return results;
+	}
+	
+	/**
+	 * Return whether the <code>JSONPath</code> selects at most one value, that is if it doesn't contain
+	 * any wildcard or descendant step.
+	 * 
+	 * @return Whether the query selects at most one value.
+	 */
+	public boolean isDefinite() {
+		for(int i = 0; i < size; i++) {
+			if(kinds[i] == WILDCARD || kinds[i] == DESCENDANT) {
+				return false;
+			}
+		}
+		return true;
+	}
+	
+	/**
+	 * Visits the value starting at the current token of the reader with the provided active states, skipping
+	 * it if no state is active.
+	 * 
+	 * @param reader The reader positioned on the first token of the value (not null).
+	 * @param states The active states for the value.
+	 * @param sink	 The sink of the selected values, returning whether to continue (not null).
+	 * @return		 Whether the evaluation should continue.
+	 * @throws IOException Thrown if an I/O error occurs in the reader or if the document is malformed.
+	 */
+	private boolean visit(JSONReader reader, long states, Predicate<JSONValue> sink) throws IOException {
+		if((states & finalState()) != 0) {
+			JSONValue value = reader.currentValue();
+			if(!sink.test(value)) {
+				return false;
+			}
+			// The descendant steps may also select values nested in the selected one.
+			long remaining = states & ~finalState();
+			return remaining == 0 || visitChildren(value, remaining, sink);
+		}
+		
+		Token token = reader.currentToken();
+		if(token == Token.BEGIN_OBJECT) {
+			while (reader.nextToken() == Token.NAME) {
+				long next = transition(states, reader.name(), -1);
+				if(next == 0) {
+					reader.skipValue();
+				} else {
+					reader.nextToken();
+					if(!visit(reader, next, sink)) {
+						return false;
+					}
+				}
+			}
+		} else if(token == Token.BEGIN_ARRAY) {
+			for(int index = 0; reader.nextToken() != Token.END_ARRAY; index++) {
+				long next = transition(states, null, index);
+				if(next == 0) {
+					reader.skipValue();
+				} else if(!visit(reader, next, sink)) {
+					return false;
+				}
+			}
+		} else if(token == null || token == Token.END_DOCUMENT) {
+			throw new IOException("Expected a value but found " + token + "!");
+		}
+		return true;
+	}
+	
+	/**
+	 * Visits the provided value of a tree with the provided active states.
+	 * 
+	 * @param value  The value to visit (not null).
+	 * @param states The active states for the value.
+	 * @param sink	 The sink of the selected values, returning whether to continue (not null).
+	 * @return		 Whether the evaluation should continue.
+	 */
+	private boolean visit(JSONValue value, long states, Predicate<JSONValue> sink) {
+		if((states & finalState()) != 0 && !sink.test(value)) {
+			return false;
+		}
+		
+		long remaining = states & ~finalState();
+		return remaining == 0 || visitChildren(value, remaining, sink);
+	}
+	
+	private boolean visitChildren(JSONValue value, long states, Predicate<JSONValue> sink) {
+		if(value.isObject()) {
+			for(JSONPair pair : value.asObject()) {
+				long next = transition(states, pair.getName(), -1);
+				if(next != 0 && !visit(pair.getValue(), next, sink)) {
+					return false;
+				}
+			}
+		} else if(value.isArray()) {
+			int index = 0;
+			for(JSONValue element : value.asArray()) {
+				long next = transition(states, null, index++);
+				if(next != 0 && !visit(element, next, sink)) {
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+	
+	/**
+	 * Computes the states active for a member or an element from the states active for its container.
+	 * 
+	 * @param states The active states of the container.
+	 * @param name	 The name of the member, or null for an array element.
+	 * @param index	 The index of the array element, or -1 for a member.
+	 * @return		 The active states of the member or element, 0 if none.
+	 */
+	private long transition(long states, String name, int index) {
+		long next = 0L;
+		for(long remaining = states; remaining != 0; remaining &= remaining - 1) {
+			int state = Long.numberOfTrailingZeros(remaining);
+			if(state == size) {
+				continue;
+			}
+			
+			boolean matches;
+			switch (kinds[state]) {
+				case MEMBER:
+					matches = name != null && name.equals(names[state]);
+					break;
+				case INDEX:
+					matches = name == null && index == indices[state];
+					break;
+				case MEMBER_OR_INDEX:
+					matches = name != null ? name.equals(names[state]) : index == indices[state];
+					break;
+				case DESCENDANT:
+					// Stay on the descendant step for any nested level.
+					next |= 1L << state;
+					matches = false;
+					break;
+				default:
+					matches = true;
+			}
+			
+			if(matches) {
+				next |= 1L << state + 1;
+			}
+		}
+		return closure(next);
+	}
+	
+	/**
+	 * Adds to the provided states the ones following the descendant steps, which can match no level at all.
+	 * 
+	 * @param states The active states.
+	 * @return		 The active states with the ones following the descendant steps.
+	 */
+	private long closure(long states) {
+		for(int state = 0; state < size; state++) {
+			if(kinds[state] == DESCENDANT && (states & 1L << state) != 0) {
+				states |= 1L << state + 1;
+			}
+		}
+		return states;
+	}
+	
+	private long finalState() {
+		return 1L << size;
+	}
+	
+	@Override
+	public int hashCode() {
+		return expression.hashCode();
+	}
+	
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) {
+			return true;
+		}
+		if (o == null || getClass() != o.getClass()) {
+			return false;
+		}
+		return expression.equals(((JSONPath) o).expression);
+	}
+	
+	@Override
+	public String toString() {
+		return expression;
+	}
+	
+	/**
+	 * <code>Compiler</code> parses an expression into the steps of a {@link JSONPath}.
+	 */
+	private static final class Compiler {
+		
+		private final String expression;
+		private final byte[] kinds = new byte[MAX_STEPS];
+		private final String[] names = new String[MAX_STEPS];
+		private final int[] indices = new int[MAX_STEPS];
+		private int size;
+		private int position;
+		
+		Compiler(String expression) {
+			this.expression = expression;
+		}
+		
+		/**
+		 * Compiles a JSON Pointer, made of tokens preceded by a slash where '~1' stands for a slash and
+		 * '~0' for a tilde.
+		 */
+		void compilePointer() {
+			while (position < expression.length()) {
+				// Skip the slash.
+				position++;
+				StringBuilder token = new StringBuilder();
+				while (position < expression.length() && expression.charAt(position) != '/') {
+					char ch = expression.charAt(position++);
+					if(ch == '~') {
+						char escaped = position < expression.length() ? expression.charAt(position++) : 0;
+						if(escaped != '0' && escaped != '1') {
+							throw error("'~0' or '~1'");
+						}
+						ch = escaped == '0' ? '~' : '/';
+					}
+					token.append(ch);
+				}
+				
+				String name = token.toString();
+				add(MEMBER_OR_INDEX, name, index(name));
+			}
+		}
+		
+		/**
+		 * Compiles a JSONPath starting with '$'.
+		 */
+		void compilePath() {
+			position = 1;
+			while (position < expression.length()) {
+				char ch = expression.charAt(position);
+				if(ch == '.') {
+					position++;
+					if(position < expression.length() && expression.charAt(position) == '.') {
+						position++;
+						add(DESCENDANT, null, -1);
+						if(position < expression.length() && expression.charAt(position) == '[') {
+							continue;
+						}
+					}
+					compileDotStep();
+				} else if(ch == '[') {
+					position++;
+					compileBracketStep();
+				} else {
+					throw error("'.' or '['");
+				}
+			}
+		}
+		
+		private void compileDotStep() {
+			if(position < expression.length() && expression.charAt(position) == '*') {
+				position++;
+				add(WILDCARD, null, -1);
+				return;
+			}
+			
+			int start = position;
+			while (position < expression.length() && expression.charAt(position) != '.' && expression.charAt(position) != '[') {
+				position++;
+			}
+			if(position == start) {
+				throw error("member name");
+			}
+			add(MEMBER, expression.substring(start, position), -1);
+		}
+		
+		private void compileBracketStep() {
+			if(position >= expression.length()) {
+				throw error("'*', index or quoted name");
+			}
+			
+			char ch = expression.charAt(position);
+			if(ch == '*') {
+				position++;
+				add(WILDCARD, null, -1);
+			} else if(ch == '\'' || ch == '"') {
+				position++;
+				StringBuilder name = new StringBuilder();
+				while (position < expression.length() && expression.charAt(position) != ch) {
+					char current = expression.charAt(position++);
+					if(current == '\\' && position < expression.length()) {
+						current = expression.charAt(position++);
+					}
+					name.append(current);
+				}
+				if(position++ >= expression.length()) {
+					throw error("closing quote");
+				}
+				add(MEMBER, name.toString(), -1);
+			} else {
+				int start = position;
+				while (position < expression.length() && expression.charAt(position) != ']') {
+					position++;
+				}
+				int index = index(expression.substring(start, position));
+				if(index < 0) {
+					throw error("'*', index or quoted name");
+				}
+				add(INDEX, null, index);
+			}
+			
+			if(position >= expression.length() || expression.charAt(position++) != ']') {
+				throw error("']'");
+			}
+		}
+		
+		private void add(byte kind, String name, int index) {
+			if(size == MAX_STEPS) {
+				throw new IllegalArgumentException("The expression '" + expression + "' has more than " + MAX_STEPS + " steps!");
+			}
+			kinds[size] = kind;
+			names[size] = name;
+			indices[size] = index;
+			size++;
+		}
+		
+		/**
+		 * Return the array index represented by the provided token, without any leading zero.
+		 * 
+		 * @param token The token to parse (not null).
+		 * @return		The array index, or -1 if the token isn't an array index.
+		 */
+		private static int index(String token) {
+			if(token.isEmpty() || token.length() > 9 || token.length() > 1 && token.charAt(0) == '0') {
+				return -1;
+			}
+			for(int i = 0; i < token.length(); i++) {
+				if(token.charAt(i) < '0' || token.charAt(i) > '9') {
+					return -1;
+				}
+			}
+			return Integer.parseInt(token);
+		}
+		
+		private IllegalArgumentException error(String expected) {
+			return new IllegalArgumentException("Expected " + expected + " at " + position + " in the expression '" + expression + "'!");
+		}
+		
+		JSONPath build() {
+			return new JSONPath(expression, Arrays.copyOf(kinds, size), Arrays.copyOf(names, size), 
+					Arrays.copyOf(indices, size), size);
+		}
+	}
+}
@@ -0,0 +1,558 @@
+package fr.alchemy.utilities.file.json;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.util.Arrays;
+
+import fr.alchemy.utilities.Validator;
+
+/**
+ * <code>JSONReader</code> is a pull-based streaming reader of a JSON document, which exposes the document as a sequence of
+ * {@link Token} instead of building a {@link JSONValue} tree. It uses the buffered tokenizer of the {@link JSONParser}, therefore
+ * a document of any size can be read in constant memory.
+ * <p>
+ * The tokens are pulled one at a time with {@link #nextToken()}, the content of the current token being accessible with
+ * {@link #name()}, {@link #stringValue()}, {@link #longValue()}, {@link #doubleValue()} or {@link #booleanValue()}. Uninteresting subtrees can be skipped
+ * with {@link #skipValue()} without materializing them, and interesting ones can be read as a tree with {@link #nextValue()}.
+ * <pre>
+ * try (JSONReader reader = AlchemyJSON.reader(input)) {
+ *     reader.nextToken(); // BEGIN_OBJECT
+ *     while (reader.nextToken() == Token.NAME) {
+ *         if (reader.name().equals("id")) {
+ *             reader.nextToken();
+ *             long id = reader.longValue();
+ *         } else {
+ *             reader.skipValue();
+ *         }
+ *     }
+ * }
+ * </pre>
+ * 
+ * @version 0.3.0
+ * @since 0.3.0
+ * 
+ * @see AlchemyJSON#reader(Reader)
+ * 
+ * @author GnosticOccultist
+ */
+public final class JSONReader implements Closeable {
+	
+	/**
+	 * The context of the document's root, before its value has been read.
+	 */
+	private static final int EMPTY_DOCUMENT = 0;
+	/**
+	 * The context of the document's root, after its value has been read.
+	 */
+	private static final int NONEMPTY_DOCUMENT = 1;
+	/**
+	 * The context of an array without any element read yet.
+	 */
+	private static final int EMPTY_ARRAY = 2;
+	/**
+	 * The context of an array with at least one element read.
+	 */
+	private static final int NONEMPTY_ARRAY = 3;
+	/**
+	 * The context of an object without any member read yet.
+	 */
+	private static final int EMPTY_OBJECT = 4;
+	/**
+	 * The context of an object whose member name has been read, but not its value.
+	 */
+	private static final int DANGLING_NAME = 5;
+	/**
+	 * The context of an object with at least one member read.
+	 */
+	private static final int NONEMPTY_OBJECT = 6;
+	
+	/**
+	 * The reader of the JSON document.
+	 */
+	private final Reader reader;
+	/**
+	 * The parser used to tokenize the document.
+	 */
+	private final JSONParser parser;
+	/**
+	 * The stack of contexts of the nested arrays and objects.
+	 */
+	private int[] stack = new int[32];
+	/**
+	 * The size of the stack of contexts.
+	 */
+	private int depth;
+	/**
+	 * The current token, or null if none has been read yet.
+	 */
+	private Token token;
+	/**
+	 * The text of the current token, for names, strings and the numbers which can't be represented
+	 * by a decimal significand and power of ten.
+	 */
+	private String text;
+	/**
+	 * The decimal significand of the current number.
+	 */
+	private long significand;
+	/**
+	 * The power of ten of the current number.
+	 */
+	private int exponent;
+	/**
+	 * The notation of the explicit exponent of the current number, or 0 if none.
+	 */
+	private int notation;
+	
+	/**
+	 * Instantiates a new <code>JSONReader</code> reading the JSON document from the provided {@link Reader}.
+	 * Use {@link AlchemyJSON#reader(Reader)} instead.
+	 * 
+	 * @param reader The reader of the JSON document (not null).
+	 */
+	JSONReader(Reader reader) {
+		Validator.nonNull(reader, "The reader can't be null!");
+		this.reader = reader;
+		this.parser = JSONParser.newParser(reader);
+		this.stack[depth++] = EMPTY_DOCUMENT;
+	}
+	
+	/**
+	 * Reads the next {@link Token} of the JSON document.
+	 * 
+	 * @return The next token, or {@link Token#END_DOCUMENT} if the whole document has been read (not null).
+	 * @throws IOException Thrown if an I/O error occurs in the reader or if the document is malformed.
+	 */
+	public Token nextToken() throws IOException {
+		this.text = null;
+		
+		Token token = advance();
+		if(token != null) {
+			return this.token = token;
+		}
+		
+		switch (parser.current()) {
+			case '{':
+				parser.readChar('{');
+				push(EMPTY_OBJECT);
+				return this.token = Token.BEGIN_OBJECT;
+			case '[':
+				parser.readChar('[');
+				push(EMPTY_ARRAY);
+				return this.token = Token.BEGIN_ARRAY;
+			case '"':
+				this.text = parser.readStringInternal();
+				return this.token = Token.STRING;
+			case 'n':
+			case 't':
+			case 'f':
+				JSONValue literal = parser.readValue();
+				return this.token = literal.isNull() ? Token.NULL : literal.isTrue() ? Token.TRUE : Token.FALSE;
+			case '-':
+			case '0':
+			case '1':
+			case '2':
+			case '3':
+			case '4':
+			case '5':
+			case '6':
+			case '7':
+			case '8':
+			case '9':
+				this.text = parser.readNumberInternal();
+				this.significand = parser.decimal().significand;
+				this.exponent = parser.decimal().exponent;
+				this.notation = parser.decimal().notation;
+				return this.token = Token.NUMBER;
+			default:
+				throw parser.error("value");
+		}
+	}
+	
+	/**
+	 * Reads the next value of the JSON document as a {@link JSONValue} tree. This can be used to materialize
+	 * only the interesting parts of a large document.
+	 * 
+	 * @return The next value of the document (not null).
+	 * @throws IOException Thrown if an I/O error occurs in the reader, if the document is malformed or
+	 * 					   if the next token isn't a value.
+	 */
+	public JSONValue nextValue() throws IOException {
+		this.text = null;
+		
+		Token token = advance();
+		if(token != null) {
+			throw new IOException("Expected a value but found " + token + "!");
+		}
+		
+		JSONValue value = parser.readValue();
+		this.token = null;
+		return value;
+	}
+	
+	/**
+	 * Reads the value starting at the current token as a {@link JSONValue} tree, leaving the reader on the
+	 * last token of the value. This is used when the first token of a value has already been read.
+	 * 
+	 * @return The current value of the document (not null).
+	 * @throws IOException Thrown if an I/O error occurs in the reader, if the document is malformed or
+	 * 					   if the current token doesn't start a value.
+	 */
+	public JSONValue currentValue() throws IOException {
+		if(token == null) {
+			throw new IllegalStateException("No current token to read a value from!");
+		}
+		
+		switch (token) {
+			case BEGIN_OBJECT:
+				JSONObject object = new JSONObject();
+				while (nextToken() == Token.NAME) {
+					String name = text;
+					nextToken();
+					object.add(name, currentValue());
+				}
+				return object;
+			case BEGIN_ARRAY:
+				JSONArray array = new JSONArray();
+				while (nextToken() != Token.END_ARRAY) {
+					array.add(currentValue());
+				}
+				return array;
+			case STRING:
+				return new JSONString(text);
+			case NUMBER:
+				return text == null ? new JSONNumber(significand, exponent, notation) : new JSONNumber(text);
+			case TRUE:
+				return AlchemyJSON.TRUE;
+			case FALSE:
+				return AlchemyJSON.FALSE;
+			case NULL:
+				return AlchemyJSON.NULL;
+			default:
+				throw new IOException("Expected a value but found " + token + "!");
+		}
+	}
+	
+	/**
+	 * Skips the current value of the JSON document without materializing it. If the current token is the beginning
+	 * of an array or an object, the reader skips to its end. If the current token is a member name, its value is skipped.
+	 * Otherwise, the method does nothing as scalar values are entirely read with their token.
+	 * 
+	 * @throws IOException Thrown if an I/O error occurs in the reader or if the document is malformed.
+	 */
+	public void skipValue() throws IOException {
+		if(token == Token.BEGIN_OBJECT || token == Token.BEGIN_ARRAY) {
+			parser.skipContainer(token == Token.BEGIN_ARRAY);
+			this.token = token == Token.BEGIN_OBJECT ? Token.END_OBJECT : Token.END_ARRAY;
+			depth--;
+		} else if(token == Token.NAME) {
+			Token next = advance();
+			if(next != null) {
+				throw new IOException("Expected a value but found " + next + "!");
+			}
+			parser.skipValue();
+			this.token = null;
+		}
+		this.text = null;
+	}
+	
+	/**
+	 * Consumes the separators preceding the next token depending on the current context, and reads the tokens
+	 * which aren't values.
+	 * 
+	 * @return The next token if it isn't a value, or null if the parser is positioned at the start of a value.
+	 * @throws IOException Thrown if an I/O error occurs in the reader or if the document is malformed.
+	 */
+	private Token advance() throws IOException {
+		int context = stack[depth - 1];
+		switch (context) {
+			case EMPTY_DOCUMENT:
+				parser.begin(JSONParser.DEFAULT_BUFFER_SIZE);
+				stack[depth - 1] = NONEMPTY_DOCUMENT;
+				break;
+			case NONEMPTY_DOCUMENT:
+				parser.trim();
+				if(!parser.end()) {
+					throw parser.error("end of input");
+				}
+				return Token.END_DOCUMENT;
+			case EMPTY_ARRAY:
+			case NONEMPTY_ARRAY:
+				parser.trim();
+				if(parser.readChar(']')) {
+					depth--;
+					return Token.END_ARRAY;
+				}
+				if(context == NONEMPTY_ARRAY && !parser.readChar(',')) {
+					throw parser.error("',' or ']'");
+				}
+				stack[depth - 1] = NONEMPTY_ARRAY;
+				break;
+			case EMPTY_OBJECT:
+			case NONEMPTY_OBJECT:
+				parser.trim();
+				if(parser.readChar('}')) {
+					depth--;
+					return Token.END_OBJECT;
+				}
+				if(context == NONEMPTY_OBJECT && !parser.readChar(',')) {
+					throw parser.error("',' or '}'");
+				}
+				parser.trim();
+				if(parser.current() != '"') {
+					throw parser.error("name");
+				}
+				this.text = parser.readName();
+				stack[depth - 1] = DANGLING_NAME;
+				return Token.NAME;
+			case DANGLING_NAME:
+				parser.trim();
+				if(!parser.readChar(':')) {
+					throw parser.error("':'");
+				}
+				stack[depth - 1] = NONEMPTY_OBJECT;
+				break;
+			default:
+				throw new IllegalStateException("Unknown context " + context + "!");
+		}
+		
+		parser.trim();
+		if(parser.end()) {
+			throw parser.error("value");
+		}
+		return null;
+	}
+	
+	/**
+	 * Pushes the provided context on top of the stack.
+	 * 
+	 * @param context The context to push.
+	 * @throws IOException Thrown if the nesting is too deep.
+	 */
+	private void push(int context) throws IOException {
+		if(depth > JSONParser.MAX_NESTING_LEVEL) {
+			throw new IOException("Nesting too deep!");
+		}
+		if(depth == stack.length) {
+			stack = Arrays.copyOf(stack, depth * 2);
+		}
+		stack[depth++] = context;
+	}
+	
+	/**
+	 * Return the current {@link Token} of the <code>JSONReader</code>.
+	 * 
+	 * @return The current token, or null if none has been read or if a value has just been skipped or read.
+	 */
+	public Token currentToken() {
+		return token;
+	}
+	
+	/**
+	 * Return the member name of the current {@link Token#NAME} token.
+	 * 
+	 * @return The name of the current member (not null).
+	 * 
+	 * @throws IllegalStateException Thrown if the current token isn't a name.
+	 */
+	public String name() {
+		if(token != Token.NAME) {
+			throw new IllegalStateException("The current token " + token + " isn't a name!");
+		}
+		return text;
+	}
+	
+	/**
+	 * Return the text of the current token, which is either a {@link Token#STRING}, a {@link Token#NAME}
+	 * or a {@link Token#NUMBER}.
+	 * 
+	 * @return The text of the current token (not null).
+	 * 
+	 * @throws IllegalStateException Thrown if the current token doesn't have any text.
+	 */
+	public String stringValue() {
+		if(token == Token.NUMBER && text == null) {
+			return JSONNumbers.toString(significand, exponent, notation);
+		}
+		if(text == null) {
+			throw new IllegalStateException("The current token " + token + " doesn't have a text value!");
+		}
+		return text;
+	}
+	
+	/**
+	 * Return the value of the current {@link Token#NUMBER} token as a long.
+	 * 
+	 * @return The value of the current number.
+	 * 
+	 * @throws IOException Thrown if the number isn't an integer in the range of a long.
+	 * 
+	 * @throws IllegalStateException Thrown if the current token isn't a number.
+	 */
+	public long longValue() throws IOException {
+		checkNumber();
+		try {
+			return text == null ? JSONNumbers.toLong(significand, exponent) : new BigDecimal(text).longValueExact();
+		} catch (NumberFormatException | ArithmeticException ex) {
+			throw new IOException("Expected a long but found the number " + stringValue() + " at " + location() + "!", ex);
+		}
+	}
+	
+	/**
+	 * Return the value of the current {@link Token#NUMBER} token as a double.
+	 * 
+	 * @return The closest double to the current number.
+	 * 
+	 * @throws IllegalStateException Thrown if the current token isn't a number.
+	 */
+	public double doubleValue() {
+		checkNumber();
+		return text == null ? JSONNumbers.toDouble(significand, exponent) : Double.parseDouble(text);
+	}
+	
+	/**
+	 * Return the value of the current {@link Token#NUMBER} token as a {@link BigDecimal}.
+	 * 
+	 * @return The current number as a big decimal (not null).
+	 * 
+	 * @throws IllegalStateException Thrown if the current token isn't a number.
+	 */
+	public BigDecimal decimalValue() {
+		checkNumber();
+		return text == null ? JSONNumbers.toBigDecimal(significand, exponent) : new BigDecimal(text);
+	}
+	
+	/**
+	 * Return the value of the current {@link Token#NUMBER} token as a float.
+	 * 
+	 * @return The closest float to the current number.
+	 * 
+	 * @throws IllegalStateException Thrown if the current token isn't a number.
+	 */
+	public float floatValue() {
+		checkNumber();
+		return text == null ? JSONNumbers.toFloat(significand, exponent) : Float.parseFloat(text);
+	}
+	
+	/**
+	 * Return the value of the current {@link Token#NUMBER} token as a {@link Long} if it is written as an
+	 * integer in the range of a long, or as a {@link Double} otherwise.
+	 * 
+	 * @return The current number as a long or a double (not null).
+	 * 
+	 * @throws IllegalStateException Thrown if the current token isn't a number.
+	 */
+	Number numberValue() {
+		checkNumber();
+		if(text == null && exponent == 0) {
+			return significand;
+		}
+		return doubleValue();
+	}
+	
+	private void checkNumber() {
+		if(token != Token.NUMBER) {
+			throw new IllegalStateException("The current token " + token + " isn't a number!");
+		}
+	}
+	
+	/**
+	 * Return the value of the current {@link Token#TRUE} or {@link Token#FALSE} token.
+	 * 
+	 * @return The value of the current boolean literal.
+	 * 
+	 * @throws IllegalStateException Thrown if the current token isn't a boolean literal.
+	 */
+	public boolean booleanValue() {
+		if(token != Token.TRUE && token != Token.FALSE) {
+			throw new IllegalStateException("The current token " + token + " isn't a boolean!");
+		}
+		return token == Token.TRUE;
+	}
+	
+	/**
+	 * Return the nesting depth of the current position in the document, 0 being the document's root.
+	 * 
+	 * @return The nesting depth of the reader (&ge;0).
+	 */
+	public int depth() {
+		return depth - 1;
+	}
+	
+	/**
+	 * Return the description of the position of the <code>JSONReader</code> in the document, right after
+	 * its current token.
+	 * 
+	 * @return The line and column of the current position (not null).
+	 */
+	String location() {
+		return parser.location();
+	}
+	
+	/**
+	 * Closes the <code>JSONReader</code> and its underlying {@link Reader}.
+	 */
+	@Override
+	public void close() throws IOException {
+		reader.close();
+	}
+	
+	@Override
+	public String toString() {
+		return getClass().getSimpleName() + " [token=" + token + ", depth=" + depth() + "]";
+	}
+	
+	/**
+	 * <code>Token</code> enumerates the tokens of a JSON document read by a {@link JSONReader}.
+	 * 
+	 * @author GnosticOccultist
+	 */
+	public enum Token {
+		/**
+		 * The beginning of a JSON object.
+		 */
+		BEGIN_OBJECT,
+		/**
+		 * The end of a JSON object.
+		 */
+		END_OBJECT,
+		/**
+		 * The beginning of a JSON array.
+		 */
+		BEGIN_ARRAY,
+		/**
+		 * The end of a JSON array.
+		 */
+		END_ARRAY,
+		/**
+		 * The name of an object's member.
+		 */
+		NAME,
+		/**
+		 * A JSON string.
+		 */
+		STRING,
+		/**
+		 * A JSON number.
+		 */
+		NUMBER,
+		/**
+		 * The JSON literal <code>true</code>.
+		 */
+		TRUE,
+		/**
+		 * The JSON literal <code>false</code>.
+		 */
+		FALSE,
+		/**
+		 * The JSON literal <code>null</code>.
+		 */
+		NULL,
+		/**
+		 * The end of the JSON document.
+		 */
+		END_DOCUMENT;
+	}
+}
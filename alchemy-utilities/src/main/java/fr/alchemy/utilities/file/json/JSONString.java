@@ -1,12 +1,17 @@
 package fr.alchemy.utilities.file.json;
 
 import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.nio.ByteBuffer;
 
 import fr.alchemy.utilities.Validator;
 
 /**
  * <code>JSONString</code> is an implementation of {@link JSONValue} for
  * strings.
+ * <p>
+ * A string read by the {@link JSONByteParser} without any escape sequence only references its UTF-8 bytes
+ * in the parsed buffer, and is decoded on first access.
  * 
  * @author GnosticOccultist
  */
@@ -15,18 +20,65 @@ class JSONString extends JSONValue {
 	private static final long serialVersionUID = 1L;
 	
 	/**
-	 * The readed string value.
+	 * The readed string value, or null if not decoded yet.
 	 */
-	private final String value;
+	private String value;
+	/**
+	 * The buffer containing the UTF-8 bytes of the string, or null if created from a value. It isn't 
+	 * released once decoded, so that the string can be decoded concurrently.
+	 */
+	private transient ByteBuffer source;
+	/**
+	 * The offset of the string's bytes in the buffer.
+	 */
+	private transient int offset;
+	/**
+	 * The length of the string in bytes.
+	 */
+	private transient int length;
+	/**
+	 * Whether the string's bytes are all ASCII.
+	 */
+	private transient boolean ascii;
 	
 	JSONString(String value) {
-		Validator.nonEmpty(value, "The string value can't be null or empty!");
+		Validator.nonNull(value, "The string value can't be null!");
 		this.value = value;
 	}
 	
+	/**
+	 * Instantiates a new <code>JSONString</code> which is lazily decoded from the provided range 
+	 * of UTF-8 bytes, without any escape sequence.
+	 * 
+	 * @param source The buffer containing the bytes of the string (not null).
+	 * @param offset The offset of the string's bytes in the buffer (&ge;0).
+	 * @param length The length of the string in bytes (&ge;0).
+	 * @param ascii	 Whether the string's bytes are all ASCII.
+	 */
+	JSONString(ByteBuffer source, int offset, int length, boolean ascii) {
+		this.source = source;
+		this.offset = offset;
+		this.length = length;
+		this.ascii = ascii;
+	}
+	
+	/**
+	 * Return the string value, decoding it if needed.
+	 * 
+	 * @return The string value (not null).
+	 */
+	private String value() {
+		String result = value;
+		if(result == null) {
+			result = JSONByteParser.decode(source, offset, length, ascii);
+			this.value = result;
+		}
+		return result;
+	}
+	
 	@Override
 	void write(JSONWriter writer) throws IOException {
-		writer.writeString(value);
+		writer.writeString(value());
 	}
 	
 	@Override
@@ -36,12 +88,12 @@ class JSONString extends JSONValue {
 	
 	@Override
 	public String asString() {
-		return value;
+		return value();
 	}
 	
 	@Override
 	public int hashCode() {
-		return value.hashCode();
+		return value().hashCode();
 	}
 	
 	@Override
@@ -56,11 +108,17 @@ class JSONString extends JSONValue {
 	        return false;
 		}
 		JSONString other = (JSONString) o;
-		return value.equals(other.value);
+		return value().equals(other.value());
 	}
 	
 	@Override
 	public String toString() {
-		return value;
+		return value();
+	}
+	
+	private void writeObject(ObjectOutputStream out) throws IOException {
+		// Decode the string before serializing it, since the buffer isn't serializable.
+		value();
+		out.defaultWriteObject();
 	}
-}
\ No newline at end of file
+}
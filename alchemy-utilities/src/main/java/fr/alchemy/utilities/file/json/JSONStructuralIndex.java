@@ -0,0 +1,154 @@
+package fr.alchemy.utilities.file.json;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+
+/**
+ * <code>JSONStructuralIndex</code> is the structural index of a JSON document built by {@link JSONByteParser#index()}, from which
+ * the values of the document are materialized on first access.
+ * <p>
+ * The index is a tape of <code>long</code> entries, one for each token of the document in order: the names and values of the members,
+ * the elements and the brackets of the containers. The high half of an entry holds the offset of the token in the buffer, and the low
+ * half of a bracket's entry holds the tape index of its matching bracket, allowing to skip a container at once. The objects and arrays
+ * are represented by a {@link JSONLazyValue} until accessed, when their own members or elements are read: the nested containers stay
+ * lazy and the strings without any escape sequence are only decoded when accessed.
+ * <p>
+ * The materialization is synchronized on the index, so a lazily parsed document can be read concurrently.
+ * 
+ * @version 0.3.0
+ * @since 0.3.0
+ * 
+ * @see AlchemyJSON#parseLazily(ByteBuffer)
+ * 
+ * @author GnosticOccultist
+ */
+final class JSONStructuralIndex {
+	
+	/**
+	 * The parser reading the scalar values and the member names.
+	 */
+	private final JSONByteParser parser;
+	/**
+	 * The buffer containing the UTF-8 bytes of the document.
+	 */
+	private final ByteBuffer input;
+	/**
+	 * The tape of entries, one for each token of the document.
+	 */
+	private final long[] tape;
+	
+	/**
+	 * Instantiates a new <code>JSONStructuralIndex</code> with the provided tape of entries.
+	 * 
+	 * @param parser The parser which has indexed the document (not null).
+	 * @param input	 The buffer containing the UTF-8 bytes of the document (not null).
+	 * @param tape	 The tape of entries, one for each token of the document (not null, not empty).
+	 */
+	JSONStructuralIndex(JSONByteParser parser, ByteBuffer input, long[] tape) {
+		this.parser = parser;
+		this.input = input;
+		this.tape = tape;
+	}
+	
+	/**
+	 * Return the root value of the document, which is lazy if it is an object or an array.
+	 * 
+	 * @return The root value of the document (not null).
+	 */
+	JSONValue root() {
+		return value(0);
+	}
+	
+	/**
+	 * Return whether the entry at the provided tape index is the opening bracket of an object.
+	 * 
+	 * @param entry The tape index of the opening bracket of a container (&ge;0).
+	 * @return		Whether the container is an object.
+	 */
+	boolean isObject(int entry) {
+		return input.get(offset(entry)) == '{';
+	}
+	
+	/**
+	 * Materializes the object or array starting at the provided tape index, reading its members or elements.
+	 * The nested containers are left lazy.
+	 * 
+	 * @param entry The tape index of the opening bracket of the container (&ge;0).
+	 * @return		The materialized object or array (not null).
+	 */
+	synchronized JSONValue materialize(int entry) {
+		int close = match(entry);
+		if(isObject(entry)) {
+			int count = 0;
+			for (int i = entry + 1; i < close; i = next(next(i))) {
+				count++;
+			}
+			
+			Object[] members = new Object[count << 1];
+			int i = entry + 1;
+			for (int m = 0; m < members.length; m += 2) {
+				try {
+					members[m] = parser.readName(offset(i));
+				} catch (IOException ex) {
+					throw new UncheckedIOException(ex);
+				}
+				i = next(i);
+				members[m + 1] = value(i);
+				i = next(i);
+			}
+			return new JSONObject(members);
+		}
+		
+		JSONArray array = new JSONArray();
+		for (int i = entry + 1; i < close; i = next(i)) {
+			array.add(value(i));
+		}
+		return array;
+	}
+	
+	/**
+	 * Return the value starting at the provided tape index, which is read unless it is an object or an array.
+	 * 
+	 * @param entry The tape index of the first token of the value (&ge;0).
+	 * @return		The value (not null).
+	 */
+	private JSONValue value(int entry) {
+		if(match(entry) != 0) {
+			return new JSONLazyValue(this, entry);
+		}
+		
+		synchronized (this) {
+			try {
+				return parser.readScalar(offset(entry));
+			} catch (IOException ex) {
+				// The value has already been validated while indexing.
+				throw new UncheckedIOException(ex);
+			}
+		}
+	}
+	
+	/**
+	 * Return the tape index following the value starting at the provided tape index.
+	 * 
+	 * @param entry The tape index of the first token of the value (&ge;0).
+	 * @return		The tape index of the next value, or of the closing bracket of the parent.
+	 */
+	private int next(int entry) {
+		int match = match(entry);
+		return match != 0 ? match + 1 : entry + 1;
+	}
+	
+	private int offset(int entry) {
+		return (int) (tape[entry] >>> 32);
+	}
+	
+	private int match(int entry) {
+		return (int) tape[entry];
+	}
+	
+	@Override
+	public String toString() {
+		return getClass().getSimpleName() + "[entries=" + tape.length + "]";
+	}
+}
@@ -0,0 +1,177 @@
+package fr.alchemy.utilities.file.json;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import fr.alchemy.utilities.Validator;
+
+/**
+ * <code>JSONSymbolTable</code> is a bounded cache canonicalizing the member names read by the JSON parsers, so that the objects
+ * of a document repeating the same names share a single {@link String} instance for each of them.
+ * <p>
+ * The names are looked up by hashing their range of characters or bytes in the input, before any string is created, so a repeated
+ * name doesn't allocate anything. The table is direct-mapped with a fixed capacity: a name colliding with another one simply replaces
+ * it, and the names longer than {@link #MAX_LENGTH} characters aren't cached at all.
+ * <p>
+ * A table can be passed to the parsing methods of {@link AlchemyJSON} to be shared across parses of documents with similar names,
+ * even concurrently: the entries are immutable strings which are always compared before being returned, so a concurrent replacement
+ * can at worst miss the cache.
+ * 
+ * @version 0.3.0
+ * @since 0.3.0
+ * 
+ * @author GnosticOccultist
+ */
+public final class JSONSymbolTable {
+	
+	/**
+	 * The default capacity of a symbol table, by default 1024.
+	 */
+	public static final int DEFAULT_CAPACITY = 1024;
+	/**
+	 * The maximum length of the names to cache, by default 64.
+	 */
+	public static final int MAX_LENGTH = 64;
+	
+	/**
+	 * The cached names, indexed by their mixed hash code.
+	 */
+	private final String[] symbols;
+	
+	/**
+	 * Instantiates a new <code>JSONSymbolTable</code> with the {@link #DEFAULT_CAPACITY}.
+	 */
+	public JSONSymbolTable() {
+		this(DEFAULT_CAPACITY);
+	}
+	
+	/**
+	 * Instantiates a new <code>JSONSymbolTable</code> able to hold up to the provided number of names,
+	 * rounded up to a power of two.
+	 * 
+	 * @param capacity The capacity of the symbol table (&gt;0, &le;2<sup>30</sup>).
+	 */
+	public JSONSymbolTable(int capacity) {
+		Validator.inRange(capacity, "The capacity must be between 1 and 2^30!", 1, 1 << 30);
+		this.symbols = new String[capacity == 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1];
+	}
+	
+	/**
+	 * Return the canonical instance of the provided name, caching it if it isn't already.
+	 * 
+	 * @param name The name to canonicalize (not null).
+	 * @return	   The canonical instance of the name (not null).
+	 */
+	public String intern(String name) {
+		Validator.nonNull(name, "The name to intern can't be null!");
+		if(name.length() > MAX_LENGTH) {
+			return name;
+		}
+		
+		int slot = slot(name.hashCode());
+		String symbol = symbols[slot];
+		if(name.equals(symbol)) {
+			return symbol;
+		}
+		
+		symbols[slot] = name;
+		return name;
+	}
+	
+	/**
+	 * Return the canonical instance of the name in the provided range of characters, only creating a
+	 * string if it isn't cached yet.
+	 * 
+	 * @param chars	 The characters containing the name (not null).
+	 * @param offset The offset of the name in the characters.
+	 * @param length The length of the name.
+	 * @param hash	 The hash code of the name, as computed by {@link String#hashCode()}.
+	 * @return		 The canonical instance of the name (not null).
+	 */
+	String intern(char[] chars, int offset, int length, int hash) {
+		if(length > MAX_LENGTH) {
+			return new String(chars, offset, length);
+		}
+		
+		int slot = slot(hash);
+		String symbol = symbols[slot];
+		if(symbol != null && symbol.hashCode() == hash && symbol.length() == length) {
+			int i = 0;
+			while (i < length && symbol.charAt(i) == chars[offset + i]) {
+				i++;
+			}
+			if(i == length) {
+				return symbol;
+			}
+		}
+		
+		symbol = new String(chars, offset, length);
+		symbols[slot] = symbol;
+		return symbol;
+	}
+	
+	/**
+	 * Return the canonical instance of the ASCII name in the provided range of bytes, only creating a
+	 * string if it isn't cached yet.
+	 * 
+	 * @param input	 The buffer containing the ASCII bytes of the name (not null).
+	 * @param offset The offset of the name in the buffer.
+	 * @param length The length of the name.
+	 * @param hash	 The hash code of the name, as computed by {@link String#hashCode()}.
+	 * @return		 The canonical instance of the name (not null).
+	 */
+	String intern(ByteBuffer input, int offset, int length, int hash) {
+		if(length > MAX_LENGTH) {
+			return JSONByteParser.decode(input, offset, length, true);
+		}
+		
+		int slot = slot(hash);
+		String symbol = symbols[slot];
+		if(symbol != null && symbol.hashCode() == hash && symbol.length() == length) {
+			int i = 0;
+			while (i < length && symbol.charAt(i) == input.get(offset + i)) {
+				i++;
+			}
+			if(i == length) {
+				return symbol;
+			}
+		}
+		
+		symbol = JSONByteParser.decode(input, offset, length, true);
+		symbols[slot] = symbol;
+		return symbol;
+	}
+	
+	/**
+	 * Clears all the names cached by the <code>JSONSymbolTable</code>.
+	 */
+	public void clear() {
+		Arrays.fill(symbols, null);
+	}
+	
+	/**
+	 * Return the maximum number of names the <code>JSONSymbolTable</code> can hold.
+	 * 
+	 * @return The capacity of the symbol table (&gt;0).
+	 */
+	public int capacity() {
+		return symbols.length;
+	}
+	
+	/**
+	 * Return the slot of the table for the provided hash code, spreading its bits so that the
+	 * names with close hash codes don't collide.
+	 * 
+	 * @param hash The hash code of a name.
+	 * @return	   The slot of the name in the table.
+	 */
+	private int slot(int hash) {
+		hash *= 0x9E3779B9;
+		return (hash ^ hash >>> 16) & symbols.length - 1;
+	}
+	
+	@Override
+	public String toString() {
+		return getClass().getSimpleName() + "[capacity=" + symbols.length + "]";
+	}
+}
@@ -4,6 +4,7 @@ import java.io.IOException;
 import java.io.Serializable;
 import java.io.StringWriter;
 import java.io.Writer;
+import java.math.BigDecimal;
 
 import fr.alchemy.utilities.file.io.FastBufferedWriter;
 import fr.alchemy.utilities.file.json.JSONWriter.PrettyJSONWriter;
@@ -22,7 +23,7 @@ import fr.alchemy.utilities.file.json.JSONWriter.PrettyJSONWriter;
  * </p>
  * <p>
  * If the type of a JSON value is known by the user, the methods {@link #asObject()}, {@link #asArray()}, {@link #asBoolean()}, {@link #asString()},
- * {@link #asInt()}, ect. can be used to cast the value to the appropriate type.
+ * {@link #asInt()}, {@link #asDouble()}, ect. can be used to cast the value to the appropriate type.
  * </p>
  * <p>
  * This class is <strong>not supposed to be extended</strong> by clients.
@@ -149,8 +150,8 @@ public abstract class JSONValue implements Serializable {
 	 * Return the <code>JSONValue</code> as an integer value, assuming that the value is representing
 	 * a {@link JSONNumber} that can be intepreted as an integer, otherwise an exception is thrown.
 	 * <p>
-	 * The number must be in range of the Java's {@link Integer} and don't contain a fraction or an 
-	 * exponent part.
+	 * The number must be an integer in range of the Java's {@link Integer}, it may however be written 
+	 * with an exponent or a zero fraction.
 	 * 
 	 * @return The value casted as an int.
 	 * 
@@ -160,6 +161,62 @@ public abstract class JSONValue implements Serializable {
 		throw new UnsupportedOperationException("The JSON value " + this + " can't be cast as an number!");
 	}
 	
+	/**
+	 * Return the <code>JSONValue</code> as a long value, assuming that the value is representing
+	 * a {@link JSONNumber} that can be intepreted as a long, otherwise an exception is thrown.
+	 * <p>
+	 * The number must be an integer in range of the Java's {@link Long}, it may however be written 
+	 * with an exponent or a zero fraction.
+	 * 
+	 * @return The value casted as a long.
+	 * 
+	 * @throws UnsupportedOperationException Thrown if the value isn't representing a JSON number.
+	 * @throws NumberFormatException		 Thrown if the number isn't an integer in range of a long.
+	 */
+	public long asLong() {
+		throw new UnsupportedOperationException("The JSON value " + this + " can't be cast as an number!");
+	}
+	
+	/**
+	 * Return the <code>JSONValue</code> as a double value, assuming that the value is representing
+	 * a {@link JSONNumber}, otherwise an exception is thrown.
+	 * <p>
+	 * The number is converted to the closest double, and the conversion is cached by the number.
+	 * 
+	 * @return The value casted as a double.
+	 * 
+	 * @throws UnsupportedOperationException Thrown if the value isn't representing a JSON number.
+	 */
+	public double asDouble() {
+		throw new UnsupportedOperationException("The JSON value " + this + " can't be cast as an number!");
+	}
+	
+	/**
+	 * Return the <code>JSONValue</code> as a float value, assuming that the value is representing
+	 * a {@link JSONNumber}, otherwise an exception is thrown.
+	 * 
+	 * @return The value casted as a float.
+	 * 
+	 * @throws UnsupportedOperationException Thrown if the value isn't representing a JSON number.
+	 */
+	public float asFloat() {
+		throw new UnsupportedOperationException("The JSON value " + this + " can't be cast as an number!");
+	}
+	
+	/**
+	 * Return the <code>JSONValue</code> as a {@link BigDecimal}, assuming that the value is representing
+	 * a {@link JSONNumber}, otherwise an exception is thrown.
+	 * <p>
+	 * The conversion is exact and cached by the number.
+	 * 
+	 * @return The value casted as a big decimal (not null).
+	 * 
+	 * @throws UnsupportedOperationException Thrown if the value isn't representing a JSON number.
+	 */
+	public BigDecimal asBigDecimal() {
+		throw new UnsupportedOperationException("The JSON value " + this + " can't be cast as an number!");
+	}
+	
 	/**
 	 * Return the <code>JSONValue</code> as a boolean value, assuming that the value is representing
 	 * a <code>true</code> or <code>false</code> literal, otherwise an exception is thrown.
@@ -19,6 +19,14 @@ class JSONWriter {
 	private static final char[] UNICODE_2029_CHARS = { '\\', 'u', '2', '0', '2', '9' };
 	private static final char[] HEX_DIGITS = { '0', '1', '2', '3', '4', '5', '6', '7', '8', '9', 'a', 'b', 'c', 'd',
 			'e', 'f' };
+	// The unicode escapes of the control characters, computed once.
+	private static final char[][] CONTROL_CHARS = new char[CONTROL_CHARACTERS_END + 1][];
+	
+	static {
+		for (int ch = 0; ch <= CONTROL_CHARACTERS_END; ch++) {
+			CONTROL_CHARS[ch] = new char[] { '\\', 'u', '0', '0', HEX_DIGITS[ch >> 4 & 0x000f], HEX_DIGITS[ch & 0x000f] };
+		}
+	}
 
 	protected final Writer writer;
 
@@ -118,7 +126,7 @@ class JSONWriter {
 		if (ch == '\t') {
 			return TAB_CHARS;
 		}
-		return new char[] { '\\', 'u', '0', '0', HEX_DIGITS[ch >> 4 & 0x000f], HEX_DIGITS[ch & 0x000f] };
+		return CONTROL_CHARS[ch];
 	}
 	
 	static class PrettyJSONWriter extends JSONWriter {
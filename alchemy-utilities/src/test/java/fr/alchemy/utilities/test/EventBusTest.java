@@ -0,0 +1,618 @@
+package fr.alchemy.utilities.test;
+
+import java.lang.StackWalker.Option;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import fr.alchemy.utilities.collections.pool.FastReusablePool;
+import fr.alchemy.utilities.collections.pool.Reusable;
+import fr.alchemy.utilities.event.AsyncDeliveryEngine;
+import fr.alchemy.utilities.event.BatchEventListener;
+import fr.alchemy.utilities.event.CancellableEvent;
+import fr.alchemy.utilities.event.DeliveryFuture;
+import fr.alchemy.utilities.event.DeliveryFuture.DeliveryException;
+import fr.alchemy.utilities.event.ErrorEvent;
+import fr.alchemy.utilities.event.EventBus;
+import fr.alchemy.utilities.event.EventBusMetrics;
+import fr.alchemy.utilities.event.EventChannel;
+import fr.alchemy.utilities.event.EventChannel.WaitStrategy;
+import fr.alchemy.utilities.event.EventCoalescer;
+import fr.alchemy.utilities.event.EventListener;
+import fr.alchemy.utilities.event.EventSubscriber;
+import fr.alchemy.utilities.event.EventType;
+import fr.alchemy.utilities.event.MailboxDeliveryEngine;
+import fr.alchemy.utilities.event.MailboxDeliveryEngine.BackPressurePolicy;
+
+/**
+ * <code>EventBusTest</code> is a test class concerning {@link EventBus} features.
+ * 
+ * @version 0.3.0
+ * @since 0.3.0
+ * 
+ * @author GnosticOccultist
+ */
+public class EventBusTest {
+	
+	private static final EventType<String> DUMMY_EVENT = EventType.create("DummyEvent", String.class);
+	
+	@Test
+	void testEventTypeIdentifiers() {
+		EventType<String> same = EventType.create("DummyEvent", String.class);
+		EventType<String> other = EventType.create("OtherEvent", String.class);
+		
+		Assertions.assertEquals(DUMMY_EVENT, same);
+		Assertions.assertEquals(DUMMY_EVENT.hashCode(), same.hashCode());
+		Assertions.assertEquals(DUMMY_EVENT.getId(), same.getId());
+		Assertions.assertTrue(DUMMY_EVENT.getId() != other.getId());
+		
+		// The types only differing by their super type are attributed their own identifier.
+		EventType<String> variant = EventType.create("DummyEvent", String.class, other);
+		EventType<String> sameVariant = EventType.create("DummyEvent", String.class, other);
+		Assertions.assertTrue(DUMMY_EVENT.getId() != variant.getId());
+		Assertions.assertEquals(variant.getId(), sameVariant.getId());
+	}
+	
+	@Test
+	void testPublishEvent() {
+		EventBus eventBus = new EventBus();
+		StringBuilder received = new StringBuilder();
+		
+		eventBus.addEventListener(DUMMY_EVENT, (type, event) -> received.append(event));
+		eventBus.publishEvent(DUMMY_EVENT, "Test");
+		eventBus.publishEvent(EventType.create("UnlistenedEvent", String.class), "Undelivered");
+		
+		Assertions.assertEquals("Test", received.toString());
+	}
+	
+	@Test
+	void testConcurrentRegistration() throws InterruptedException {
+		EventBus eventBus = new EventBus();
+		AtomicInteger received = new AtomicInteger();
+		Thread[] threads = new Thread[4];
+		for(int i = 0; i < threads.length; i++) {
+			EventType<String> type = EventType.create("DummyConcurrentEvent" + i, String.class);
+			threads[i] = new Thread(() -> {
+				for(int j = 0; j < 250; j++) {
+					eventBus.addEventListener(DUMMY_EVENT, (t, event) -> received.incrementAndGet());
+					eventBus.addEventListeners(type, (t, event) -> received.incrementAndGet(), 
+							(t, event) -> received.incrementAndGet());
+				}
+			});
+			threads[i].start();
+		}
+		for(Thread thread : threads) {
+			thread.join();
+		}
+		
+		eventBus.publishEvent(DUMMY_EVENT, "Test");
+		Assertions.assertEquals(1000, received.get());
+		for(int i = 0; i < threads.length; i++) {
+			eventBus.publishEvent(EventType.create("DummyConcurrentEvent" + i, String.class), "Test");
+		}
+		Assertions.assertEquals(3000, received.get());
+	}
+	
+	@Test
+	void testEventTypeHierarchy() {
+		EventBus eventBus = new EventBus();
+		EventType<String> subType = EventType.create("DummySubEvent", String.class, DUMMY_EVENT);
+		StringBuilder received = new StringBuilder();
+		
+		Assertions.assertTrue(subType.isSubTypeOf(DUMMY_EVENT));
+		Assertions.assertFalse(DUMMY_EVENT.isSubTypeOf(subType));
+		
+		eventBus.addEventListener(DUMMY_EVENT, (type, event) -> received.append("super:").append(event).append(" "));
+		eventBus.publishEvent(subType, "A");
+		
+		eventBus.addEventListener(subType, (type, event) -> received.append("sub:").append(event).append(" "));
+		eventBus.publishEvent(subType, "B");
+		eventBus.publishEvent(DUMMY_EVENT, "C");
+		
+		Assertions.assertEquals("super:A sub:B super:B super:C ", received.toString());
+		
+		// The types only differing by their super type are dispatched to their own hierarchy.
+		EventType<String> otherBase = EventType.create("DummyOtherBaseEvent", String.class);
+		EventType<String> first = EventType.create("DummyVariantEvent", String.class, DUMMY_EVENT);
+		EventType<String> second = EventType.create("DummyVariantEvent", String.class, otherBase);
+		Assertions.assertNotEquals(first, second);
+		
+		eventBus.addEventListener(otherBase, (type, event) -> received.append("other:").append(event).append(" "));
+		received.setLength(0);
+		eventBus.publishEvent(first, "D");
+		eventBus.publishEvent(second, "E");
+		eventBus.publishEvent(first, "F");
+		Assertions.assertEquals("super:D other:E super:F ", received.toString());
+	}
+	
+	@Test
+	void testAsyncOrderedDelivery() throws InterruptedException {
+		EventBus eventBus = new EventBus();
+		eventBus.setAsyncDeliveryEngine(new MailboxDeliveryEngine(4, 64, BackPressurePolicy.BLOCK));
+		EventType<Integer> type = EventType.create("DummyAsyncEvent", Integer.class);
+		List<Integer> first = new ArrayList<>();
+		List<Integer> second = new ArrayList<>();
+		
+		eventBus.addEventListener(type, (t, event) -> first.add(event));
+		eventBus.addEventListener(type, (t, event) -> second.add(event));
+		for(int i = 0; i < 10000; i++) {
+			eventBus.publishAsyncEvent(type, i);
+		}
+		
+		Assertions.assertTrue(eventBus.shutdownAsync(10, TimeUnit.SECONDS));
+		Assertions.assertEquals(0, eventBus.getAsyncDeliveryEngine().pending());
+		Assertions.assertEquals(10000, first.size());
+		Assertions.assertEquals(10000, second.size());
+		for(int i = 0; i < 10000; i++) {
+			Assertions.assertEquals(i, first.get(i).intValue());
+			Assertions.assertEquals(i, second.get(i).intValue());
+		}
+	}
+	
+	@Test
+	void testPublishAsyncCompletion() throws InterruptedException, ExecutionException, TimeoutException {
+		EventBus eventBus = new EventBus();
+		eventBus.setAsyncDeliveryEngine(new MailboxDeliveryEngine(2, 64, BackPressurePolicy.BLOCK));
+		EventType<Integer> type = EventType.create("DummyTrackedEvent", Integer.class);
+		AtomicInteger received = new AtomicInteger();
+		
+		Assertions.assertTrue(eventBus.publishAsync(type, 0).isDone());
+		
+		eventBus.addEventListener(type, (t, event) -> received.addAndGet(event));
+		eventBus.addEventListener(type, (t, event) -> received.addAndGet(event));
+		eventBus.publishAsync(type, 1).get(10, TimeUnit.SECONDS);
+		Assertions.assertEquals(2, received.get());
+		
+		eventBus.publishAsync(type, 1, ForkJoinPool.commonPool()).get(10, TimeUnit.SECONDS);
+		Assertions.assertEquals(4, received.get());
+		
+		eventBus.addEventListener(type, (t, event) -> {
+			throw new IllegalStateException("Failed event " + event);
+		});
+		CompletableFuture<Void> future = eventBus.publishAsync(type, 1, 10, TimeUnit.SECONDS);
+		ExecutionException ex = Assertions.assertThrows(ExecutionException.class, () -> future.get());
+		Assertions.assertTrue(ex.getCause() instanceof DeliveryException);
+		Assertions.assertTrue(ex.getCause().getCause() instanceof IllegalStateException);
+		Assertions.assertEquals(6, received.get());
+		
+		Assertions.assertTrue(eventBus.shutdownAsync(10, TimeUnit.SECONDS));
+	}
+	
+	@Test
+	void testRejectedAsyncDelivery() throws InterruptedException {
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		executor.shutdown();
+		
+		EventBus eventBus = new EventBus();
+		eventBus.setAsyncDeliveryEngine(new MailboxDeliveryEngine(executor, 64, BackPressurePolicy.BLOCK));
+		EventType<Integer> type = EventType.create("DummyRejectedEvent", Integer.class);
+		Thread publisher = Thread.currentThread();
+		List<Thread> threads = new ArrayList<>();
+		List<ErrorEvent> errors = new ArrayList<>();
+		
+		eventBus.addEventListener(type, (t, event) -> threads.add(Thread.currentThread()));
+		eventBus.addEventListener(ErrorEvent.DISPATCH_ERROR, (t, event) -> errors.add(event));
+		
+		// The rejected deliveries mustn't be executed in the publishing thread.
+		CompletableFuture<Void> future = eventBus.publishAsync(type, 1);
+		ExecutionException ex = Assertions.assertThrows(ExecutionException.class, () -> future.get());
+		Assertions.assertTrue(ex.getCause().getCause() instanceof RejectedExecutionException);
+		Assertions.assertTrue(errors.isEmpty());
+		
+		eventBus.publishAsyncEvent(type, 2);
+		Assertions.assertEquals(1, errors.size());
+		Assertions.assertTrue(errors.get(0).getError() instanceof RejectedExecutionException);
+		Assertions.assertEquals(2, errors.get(0).getOriginalEvent());
+		Assertions.assertFalse(threads.contains(publisher));
+		Assertions.assertEquals(0, eventBus.getAsyncDeliveryEngine().pending());
+	}
+	
+	@Test
+	void testCustomDeliveryEngine() throws InterruptedException, ExecutionException, TimeoutException {
+		EventBus eventBus = new EventBus();
+		List<EventListener<?>> scheduled = new ArrayList<>();
+		eventBus.setAsyncDeliveryEngine(new AsyncDeliveryEngine() {
+			
+			@Override
+			public <E> boolean deliver(EventBus eventBus, EventType<E> type, E event, EventListener<? super E> listener, DeliveryFuture future) {
+				scheduled.add(listener);
+				if(future == null) {
+					eventBus.deliverTo(type, event, listener);
+				} else {
+					future.delivered(eventBus.tryDeliverTo(type, event, listener));
+				}
+				return true;
+			}
+			
+			@Override
+			public int pending() {
+				return 0;
+			}
+			
+			@Override
+			public void shutdown() {}
+			
+			@Override
+			public boolean awaitTermination(long timeout, TimeUnit unit) {
+				return true;
+			}
+		});
+		
+		EventType<Integer> type = EventType.create("DummyCustomEngineEvent", Integer.class);
+		AtomicInteger received = new AtomicInteger();
+		EventListener<Integer> listener = (t, event) -> received.addAndGet(event);
+		eventBus.addEventListener(type, listener);
+		
+		// Both the untracked and the tracked deliveries are scheduled with the original listener.
+		eventBus.publishAsyncEvent(type, 1);
+		eventBus.publishAsync(type, 2).get(10, TimeUnit.SECONDS);
+		Assertions.assertEquals(3, received.get());
+		Assertions.assertEquals(2, scheduled.size());
+		Assertions.assertSame(listener, scheduled.get(0));
+		Assertions.assertSame(listener, scheduled.get(1));
+	}
+	
+	@Test
+	void testEventChannel() throws InterruptedException {
+		EventBus eventBus = new EventBus();
+		EventType<int[]> type = EventType.create("DummyChannelEvent", int[].class);
+		EventChannel<int[]> channel = eventBus.createChannel(type, 64, () -> new int[1]);
+		List<Integer> first = new ArrayList<>();
+		List<Integer> second = new ArrayList<>();
+		
+		EventChannel<int[]>.Consumer consumer = channel.addConsumer((t, event) -> first.add(event[0]));
+		// The second consumer must see the events only once processed by the first.
+		channel.addConsumer((t, event) -> second.add(first.size()), WaitStrategy.PARK, consumer);
+		channel.start();
+		
+		for(int i = 0; i < 10000; i++) {
+			channel.publish((event, value) -> event[0] = value, i);
+		}
+		
+		Assertions.assertTrue(channel.shutdown(10, TimeUnit.SECONDS));
+		Assertions.assertEquals(0L, channel.pending());
+		Assertions.assertEquals(10000, first.size());
+		Assertions.assertEquals(10000, second.size());
+		for(int i = 0; i < 10000; i++) {
+			Assertions.assertEquals(i, first.get(i).intValue());
+			Assertions.assertTrue(second.get(i) > i);
+		}
+		
+		// The default consumer publishes through the bus, and the references are cleared once consumed.
+		EventChannel<int[]> references = eventBus.createChannel(type, 8);
+		List<Object> global = new ArrayList<>();
+		eventBus.listenAll((t, event) -> global.add(event));
+		references.start();
+		for(int i = 0; i < 100; i++) {
+			references.publish(new int[] { i });
+		}
+		
+		Assertions.assertTrue(references.shutdown(10, TimeUnit.SECONDS));
+		Assertions.assertEquals(100, global.size());
+		for(int i = 0; i < references.capacity(); i++) {
+			Assertions.assertNull(references.get(i));
+		}
+	}
+	
+	@Test
+	void testEventCoalescer() throws InterruptedException {
+		EventBus eventBus = new EventBus();
+		EventCoalescer<String> coalescer = eventBus.createCoalescer(DUMMY_EVENT, Function.identity());
+		List<List<String>> batches = new ArrayList<>();
+		StringBuilder received = new StringBuilder();
+		
+		eventBus.addEventListener(DUMMY_EVENT, (BatchEventListener<String>) (type, events) -> batches.add(events));
+		eventBus.addEventListener(DUMMY_EVENT, (type, event) -> received.append(event));
+		for(int i = 0; i < 1000; i++) {
+			coalescer.publish(i % 2 == 0 ? "A" : "B");
+		}
+		
+		Assertions.assertEquals(2, coalescer.pending());
+		Assertions.assertTrue(batches.isEmpty());
+		Assertions.assertEquals(2, coalescer.flush());
+		Assertions.assertEquals(0, coalescer.flush());
+		
+		Assertions.assertEquals(1, batches.size());
+		Assertions.assertEquals(Arrays.asList("A", "B"), batches.get(0));
+		Assertions.assertEquals("AB", received.toString());
+		
+		// A manual flush cancels the automatic flush scheduled for the previous events.
+		EventCoalescer<String> windowed = eventBus.createCoalescer(DUMMY_EVENT, Function.identity(), 300, TimeUnit.MILLISECONDS);
+		windowed.publish("C");
+		Assertions.assertEquals(1, windowed.flush());
+		Thread.sleep(200);
+		windowed.publish("D");
+		Thread.sleep(200);
+		Assertions.assertEquals(1, windowed.pending());
+		Assertions.assertEquals(1, windowed.flush());
+	}
+	
+	@Test
+	void testEventBusMetrics() {
+		EventBus eventBus = new EventBus();
+		EventBusMetrics metrics = eventBus.enableMetrics();
+		EventType<String> undelivered = EventType.create("UndeliveredEvent", String.class);
+		EventListener<String> listener = (type, event) -> {
+			if(event.isEmpty()) {
+				throw new IllegalStateException("Empty event!");
+			}
+		};
+		
+		eventBus.addEventListener(DUMMY_EVENT, listener);
+		for(int i = 0; i < 100; i++) {
+			eventBus.publishEvent(DUMMY_EVENT, "Test");
+		}
+		eventBus.publishEvent(DUMMY_EVENT, "");
+		eventBus.publishEvent(undelivered, "Undelivered");
+		
+		Assertions.assertSame(metrics, eventBus.enableMetrics());
+		Assertions.assertEquals(101L, metrics.getPublished(DUMMY_EVENT));
+		Assertions.assertEquals(101L, metrics.getDelivered(DUMMY_EVENT));
+		Assertions.assertEquals(1L, metrics.getErrors(DUMMY_EVENT));
+		Assertions.assertEquals(1L, metrics.getPublished(ErrorEvent.DISPATCH_ERROR));
+		Assertions.assertEquals(1L, metrics.getUndelivered(undelivered));
+		Assertions.assertEquals(101L, metrics.getLatency(listener).count());
+		// Querying a type without any activity doesn't create its counters.
+		Assertions.assertEquals(0L, metrics.getDelivered(EventType.create("UnseenEvent", String.class)));
+		Assertions.assertEquals(3, metrics.snapshot().getTypes().size());
+		
+		eventBus.disableMetrics();
+		eventBus.publishEvent(DUMMY_EVENT, "Test");
+		Assertions.assertNull(eventBus.getMetrics());
+		Assertions.assertEquals(101L, metrics.getPublished(DUMMY_EVENT));
+		
+		// The latencies are recorded under the listeners as they were registered.
+		EventBus wrapped = new EventBus();
+		metrics = wrapped.enableMetrics();
+		DummyListener methods = new DummyListener();
+		wrapped.addWeakEventListener(DUMMY_EVENT, listener);
+		wrapped.addListenerMethods(methods, DUMMY_EVENT);
+		wrapped.publishEvent(DUMMY_EVENT, "Test");
+		wrapped.publishEvent(DUMMY_EVENT, "Test");
+		Assertions.assertEquals(2L, metrics.getLatency(listener).count());
+		Assertions.assertEquals(2L, metrics.getLatency(methods).count());
+	}
+	
+	@Test
+	void testListenerPriorities() {
+		EventBus eventBus = new EventBus();
+		EventType<CancellableEvent> baseType = EventType.create("BasePriorityEvent", CancellableEvent.class);
+		EventType<CancellableEvent> type = EventType.create("PriorityEvent", CancellableEvent.class, baseType);
+		
+		StringBuilder builder = new StringBuilder();
+		eventBus.addEventListener(type, (t, e) -> builder.append("B"));
+		eventBus.addEventListener(type, (t, e) -> builder.append("D"), -10);
+		eventBus.addEventListener(baseType, (t, e) -> builder.append("A"), 10);
+		eventBus.addEventListener(type, (t, e) -> builder.append("C"));
+		eventBus.addEventListener(baseType, (t, e) -> builder.append("E"), -10);
+		
+		eventBus.publishEvent(type, new DummyCancellableEvent());
+		Assertions.assertEquals("ABCDE", builder.toString());
+		
+		// Cancelling the event should prevent the lower priority listeners from being notified.
+		builder.setLength(0);
+		eventBus.addEventListener(type, (t, e) -> e.cancel(), 5);
+		
+		DummyCancellableEvent event = new DummyCancellableEvent();
+		eventBus.publishEvent(type, event);
+		Assertions.assertEquals("A", builder.toString());
+		Assertions.assertTrue(event.isCancelled());
+	}
+	
+	@Test
+	void testPublishRecyclableEvent() {
+		EventBus eventBus = new EventBus();
+		EventType<DummyReusableEvent> type = EventType.create("ReusableEvent", DummyReusableEvent.class);
+		
+		FastReusablePool<DummyReusableEvent> pool = new FastReusablePool<>(DummyReusableEvent.class, DummyReusableEvent::new, 1);
+		DummyReusableEvent event = pool.retrieve();
+		event.pool = pool;
+		event.value = 5;
+		
+		AtomicInteger received = new AtomicInteger();
+		eventBus.addEventListener(type, (t, e) -> received.set(e.value));
+		eventBus.publishRecyclableEvent(type, event);
+		
+		// The event should have been delivered, then freed and injected back to its pool.
+		Assertions.assertEquals(5, received.get());
+		Assertions.assertEquals(0, event.value);
+		Assertions.assertSame(event, pool.retrieve());
+	}
+	
+	@Test
+	void testWeakEventListener() throws InterruptedException {
+		// Record the count of listeners each event is dispatched to.
+		List<Integer> counts = new ArrayList<>();
+		EventBus eventBus = new EventBus() {
+			
+			@Override
+			protected <E> boolean deliver(EventType<E> type, E event, EventListener<?>[] listeners) {
+				if(type != null) {
+					counts.add(listeners.length);
+				}
+				return super.deliver(type, event, listeners);
+			}
+		};
+		StringBuilder received = new StringBuilder();
+		EventListener<String> listener = (type, event) -> received.append(event);
+		
+		eventBus.addWeakEventListener(DUMMY_EVENT, listener);
+		eventBus.publishEvent(DUMMY_EVENT, "A");
+		eventBus.removeEventListener(DUMMY_EVENT, listener);
+		eventBus.publishEvent(DUMMY_EVENT, "B");
+		Assertions.assertEquals("A", received.toString());
+		
+		DummyEventListener collected = new DummyEventListener(received);
+		WeakReference<?> reference = new WeakReference<>(collected);
+		eventBus.addWeakEventListener(DUMMY_EVENT, collected);
+		collected = null;
+		for(int i = 0; i < 50 && reference.get() != null; i++) {
+			System.gc();
+			Thread.sleep(10);
+		}
+		Assertions.assertNull(reference.get());
+		
+		// The collected listener is pruned, but the live one is still notified.
+		eventBus.addWeakEventListener(DUMMY_EVENT, listener);
+		counts.clear();
+		eventBus.publishEvent(DUMMY_EVENT, "C");
+		eventBus.publishEvent(DUMMY_EVENT, "D");
+		Assertions.assertEquals("ACD", received.toString());
+		Assertions.assertEquals(Arrays.asList(2, 1), counts);
+	}
+	
+	@Test
+	void testListenerMethods() {
+		EventBus eventBus = new EventBus();
+		DummyListener listener = new DummyListener();
+		
+		eventBus.addListenerMethods(listener, DUMMY_EVENT);
+		eventBus.publishEvent(DUMMY_EVENT, "Test");
+		
+		Assertions.assertEquals("Test", listener.received);
+		// The method is called directly by the invoker spun by the LambdaMetafactory, rather than through 
+		// a method handle or reflection.
+		Assertions.assertTrue(listener.caller.startsWith(DummyListener.class.getName() + "$$Lambda"), listener.caller);
+		
+		eventBus.removeListenerMethods(listener, DUMMY_EVENT);
+		eventBus.publishEvent(DUMMY_EVENT, "Removed");
+		
+		Assertions.assertEquals("Test", listener.received);
+	}
+	
+	@Test
+	void testListenerAnnotatedMethods() {
+		EventBus eventBus = new EventBus();
+		DummyListener listener = new DummyListener();
+		
+		eventBus.addListenerAnnotatedMethods(listener, DUMMY_EVENT);
+		eventBus.publishEvent(DUMMY_EVENT, "Test");
+		
+		Assertions.assertEquals("Test", listener.annotated);
+		
+		// A listening method with several parameters is rejected with a clear error on registration.
+		Assertions.assertThrows(IllegalArgumentException.class, () -> eventBus.addListenerAnnotatedMethods(new Object() {
+			
+			@EventSubscriber(types = "DummyEvent")
+			void handle(String event, String other) {}
+		}, DUMMY_EVENT));
+	}
+	
+	@Test
+	void testListenerInstances() {
+		EventBus eventBus = new EventBus();
+		DummyListener[] listeners = new DummyListener[1000];
+		for(int i = 0; i < listeners.length; i++) {
+			listeners[i] = new DummyListener();
+			eventBus.addListenerMethods(listeners[i], DUMMY_EVENT);
+			eventBus.addListenerAnnotatedMethods(listeners[i], DUMMY_EVENT);
+		}
+		
+		eventBus.publishEvent(DUMMY_EVENT, "Test");
+		for(DummyListener listener : listeners) {
+			Assertions.assertEquals("Test", listener.received);
+			Assertions.assertEquals("Test", listener.annotated);
+		}
+		
+		Assertions.assertThrows(IllegalArgumentException.class, 
+				() -> eventBus.addListenerMethods(new Object(), DUMMY_EVENT));
+	}
+	
+	/**
+	 * <code>DummyEventListener</code> represents a dummy event listener for testing purposes.
+	 * 
+	 * @author GnosticOccultist
+	 */
+	static class DummyEventListener implements EventListener<String> {
+		
+		final StringBuilder received;
+		
+		DummyEventListener(StringBuilder received) {
+			this.received = received;
+		}
+		
+		@Override
+		public void newEvent(EventType<String> type, String event) {
+			received.append(event);
+		}
+	}
+	
+	/**
+	 * <code>DummyListener</code> represents a dummy listener for testing purposes.
+	 * 
+	 * @author GnosticOccultist
+	 */
+	static class DummyListener {
+		
+		String received;
+		String annotated;
+		String caller;
+		
+		private void onDummyEvent(String event) {
+			this.received = event;
+			// The compiled invokers are hidden classes, so they must be shown to find the caller.
+			this.caller = StackWalker.getInstance(Option.SHOW_HIDDEN_FRAMES)
+					.walk(frames -> frames.skip(1).findFirst()).get().getClassName();
+		}
+		
+		@EventSubscriber(types = "DummyEvent")
+		private void handle(String event) {
+			this.annotated = event;
+		}
+	}
+	
+	/**
+	 * <code>DummyCancellableEvent</code> represents a dummy cancellable event for testing purposes.
+	 * 
+	 * @author GnosticOccultist
+	 */
+	static class DummyCancellableEvent implements CancellableEvent {
+		
+		boolean cancelled;
+		
+		@Override
+		public boolean isCancelled() {
+			return cancelled;
+		}
+		
+		@Override
+		public void cancel() {
+			this.cancelled = true;
+		}
+	}
+	
+	/**
+	 * <code>DummyReusableEvent</code> represents a dummy pooled event for testing purposes.
+	 * 
+	 * @author GnosticOccultist
+	 */
+	static class DummyReusableEvent implements Reusable {
+		
+		FastReusablePool<DummyReusableEvent> pool;
+		int value;
+		
+		@Override
+		public void free() {
+			this.value = 0;
+		}
+		
+		@Override
+		public void release() {
+			pool.inject(this);
+		}
+	}
+}
@@ -0,0 +1,520 @@
+package fr.alchemy.utilities.test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import fr.alchemy.utilities.collections.array.Array;
+
+import fr.alchemy.utilities.file.json.AlchemyJSON;
+import fr.alchemy.utilities.file.json.JSONArray;
+import fr.alchemy.utilities.file.json.JSONGenerator;
+import fr.alchemy.utilities.file.json.JSONLines;
+import fr.alchemy.utilities.file.json.JSONMapper;
+import fr.alchemy.utilities.file.json.JSONObject;
+import fr.alchemy.utilities.file.json.JSONPath;
+import fr.alchemy.utilities.file.json.JSONReader;
+import fr.alchemy.utilities.file.json.JSONReader.Token;
+import fr.alchemy.utilities.file.json.JSONSymbolTable;
+import fr.alchemy.utilities.file.json.JSONValue;
+
+/**
+ * <code>JSONTest</code> is a test class concerning {@link AlchemyJSON} features.
+ * 
+ * @version 0.3.0
+ * @since 0.3.0
+ * 
+ * @author GnosticOccultist
+ */
+public class JSONTest {
+	
+	@Test
+	void testStreamingReader() throws IOException {
+		String json = "{ \"id\": 42, \"ignored\": { \"nested\": [1, \"}\", { \"a\": null }] }, "
+				+ "\"tags\": [\"a\", true, false, null], \"child\": { \"name\": \"b\" } }";
+		
+		try (JSONReader reader = AlchemyJSON.reader(new StringReader(json))) {
+			Assertions.assertEquals(Token.BEGIN_OBJECT, reader.nextToken());
+			Assertions.assertEquals(Token.NAME, reader.nextToken());
+			Assertions.assertEquals("id", reader.name());
+			Assertions.assertEquals(Token.NUMBER, reader.nextToken());
+			Assertions.assertEquals(42L, reader.longValue());
+			
+			// The skipped subtree shouldn't be confused by the brackets in strings.
+			Assertions.assertEquals(Token.NAME, reader.nextToken());
+			reader.skipValue();
+			
+			Assertions.assertEquals(Token.NAME, reader.nextToken());
+			Assertions.assertEquals(Token.BEGIN_ARRAY, reader.nextToken());
+			Assertions.assertEquals(Token.STRING, reader.nextToken());
+			Assertions.assertEquals("a", reader.stringValue());
+			Assertions.assertEquals(Token.TRUE, reader.nextToken());
+			Assertions.assertEquals(Token.FALSE, reader.nextToken());
+			Assertions.assertEquals(Token.NULL, reader.nextToken());
+			Assertions.assertEquals(Token.END_ARRAY, reader.nextToken());
+			
+			Assertions.assertEquals(Token.NAME, reader.nextToken());
+			JSONValue child = reader.nextValue();
+			Assertions.assertEquals("b", child.asObject().get("name").asString());
+			
+			Assertions.assertEquals(Token.END_OBJECT, reader.nextToken());
+			Assertions.assertEquals(Token.END_DOCUMENT, reader.nextToken());
+		}
+		
+		try (JSONReader reader = AlchemyJSON.reader(new StringReader("[1 2]"))) {
+			reader.nextToken();
+			reader.nextToken();
+			Assertions.assertThrows(IOException.class, reader::nextToken);
+		}
+		
+		// A number which isn't a long is reported as malformed input.
+		try (JSONReader reader = AlchemyJSON.reader(new StringReader("[1.5, 1e19]"))) {
+			reader.nextToken();
+			reader.nextToken();
+			Assertions.assertThrows(IOException.class, reader::longValue);
+			reader.nextToken();
+			Assertions.assertThrows(IOException.class, reader::longValue);
+		}
+		
+		// Skipping a truncated value should report the malformed input.
+		for (String truncated : new String[] { "{\"a\": [\"\\", "{\"a\": [\"b", "{\"a\": {\"b\": [1, ", "{\"a\": tr" }) {
+			try (JSONReader reader = AlchemyJSON.reader(new StringReader(truncated))) {
+				reader.nextToken();
+				reader.nextToken();
+				Assertions.assertThrows(IOException.class, reader::skipValue);
+			}
+		}
+		
+		// Skipping should check that each closing bracket matches its opening one.
+		try (JSONReader reader = AlchemyJSON.reader(new StringReader("[1}"))) {
+			reader.nextToken();
+			Assertions.assertThrows(IOException.class, reader::skipValue);
+		}
+		for (String mismatched : new String[] { "{\"a\": [1}}", "{\"a\": {\"b\": [{]}}}" }) {
+			try (JSONReader reader = AlchemyJSON.reader(new StringReader(mismatched))) {
+				reader.nextToken();
+				reader.nextToken();
+				Assertions.assertThrows(IOException.class, reader::skipValue);
+			}
+		}
+		try (JSONReader reader = AlchemyJSON.reader(new StringReader("{\"a\": [{\"b\": [[], {}]}, \"]}\"], \"c\": 1}"))) {
+			reader.nextToken();
+			reader.nextToken();
+			reader.skipValue();
+			Assertions.assertEquals(Token.NAME, reader.nextToken());
+			Assertions.assertEquals("c", reader.name());
+		}
+	}
+	
+	@Test
+	void testNumbers() throws IOException {
+		JSONArray array = AlchemyJSON.parse("[0, -12, 1.5, 2.50e3, 1E-2, 12345678901234567890123, -0.0, 0.1]").asArray();
+		
+		Assertions.assertEquals(0, array.get(0).asInt());
+		Assertions.assertEquals(-12L, array.get(1).asLong());
+		Assertions.assertEquals(1.5, array.get(2).asDouble());
+		Assertions.assertEquals(1.5f, array.get(2).asFloat());
+		Assertions.assertEquals(2500L, array.get(3).asLong());
+		Assertions.assertEquals(new BigDecimal("2.50e3"), array.get(3).asBigDecimal());
+		Assertions.assertEquals(0.01, array.get(4).asDouble());
+		Assertions.assertEquals(new BigDecimal("12345678901234567890123"), array.get(5).asBigDecimal());
+		Assertions.assertEquals(1.2345678901234568E22, array.get(5).asDouble());
+		Assertions.assertThrows(NumberFormatException.class, () -> array.get(5).asLong());
+		Assertions.assertThrows(NumberFormatException.class, () -> array.get(2).asInt());
+		Assertions.assertEquals(-0.0, array.get(6).asDouble());
+		Assertions.assertEquals(0.1, array.get(7).asDouble());
+		
+		// The numbers should be written back as they were read.
+		Assertions.assertEquals("2.50e3", array.get(3).toString());
+		Assertions.assertEquals("12345678901234567890123", array.get(5).toString());
+		String numbers = "[0.0000001,1e2,1E+2,-3.25e-4,10.0,0,-0.05]";
+		Assertions.assertEquals(numbers, AlchemyJSON.parse(numbers).toString().replaceAll("\\s", ""));
+		Assertions.assertEquals(numbers, AlchemyJSON.parse(ByteBuffer.wrap(numbers.getBytes(StandardCharsets.UTF_8))).toString().replaceAll("\\s", ""));
+		
+		Assertions.assertThrows(RuntimeException.class, () -> AlchemyJSON.parse("[1.]"));
+		Assertions.assertThrows(RuntimeException.class, () -> AlchemyJSON.parse("[1e]"));
+		Assertions.assertThrows(RuntimeException.class, () -> AlchemyJSON.parse("01"));
+	}
+	
+	@Test
+	void testByteParser() throws IOException {
+		String json = "\uFEFF{ \"name\": \"caf\u00e9 \u2603\", \"escaped\": \"a\\n\\u0041\u00e9\\\"\", "
+				+ "\"cl\u00e9\": [1.25, -3, true, null, \"\"], \"nested\": { \"x\": 1e2 } }";
+		
+		JSONValue expected = AlchemyJSON.parse(json.substring(1));
+		JSONValue value = AlchemyJSON.parse(ByteBuffer.wrap(json.getBytes(StandardCharsets.UTF_8)));
+		Assertions.assertEquals(expected, value);
+		Assertions.assertEquals("caf\u00e9 \u2603", value.asObject().get("name").asString());
+		Assertions.assertEquals("a\nA\u00e9\"", value.asObject().get("escaped").asString());
+		Assertions.assertEquals(-3, value.asObject().get("cl\u00e9").asArray().get(1).asInt());
+		
+		// Parse from a memory-mapped file.
+		Path file = Files.createTempFile("alchemy", ".json");
+		try {
+			Files.write(file, json.getBytes(StandardCharsets.UTF_8));
+			Assertions.assertEquals(expected, AlchemyJSON.parse(file));
+		} finally {
+			Files.delete(file);
+		}
+		
+		Assertions.assertThrows(IOException.class, () -> AlchemyJSON.parse(ByteBuffer.wrap("{\"a\": tru}".getBytes(StandardCharsets.UTF_8))));
+		Assertions.assertThrows(IOException.class, () -> AlchemyJSON.parse(ByteBuffer.wrap(new byte[] { '"', '\\', (byte) 0xC3, '"' })));
+		
+		// The UTF-8 sequences are strictly validated, whether the strings are lazily decoded or not.
+		Assertions.assertEquals("\uD83D\uDE00", AlchemyJSON.parse(ByteBuffer.wrap(new byte[] { '"', (byte) 0xF0, (byte) 0x9F, (byte) 0x98, (byte) 0x80, '"' })).asString());
+		byte[][] invalids = { { (byte) 0xFF }, { (byte) 0xC0, (byte) 0xAF }, { (byte) 0xE0, (byte) 0x80, (byte) 0xAF }, 
+				{ (byte) 0xED, (byte) 0xA0, (byte) 0x80 }, { (byte) 0xF4, (byte) 0x90, (byte) 0x80, (byte) 0x80 }, { (byte) 0xC3 } };
+		for (byte[] invalid : invalids) {
+			for (String template : new String[] { "\"#\"", "\"#\\n\"", "{\"#\": 1}", "{\"#\\n\": 1}" }) {
+				ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+				bytes.write(template.getBytes(StandardCharsets.UTF_8), 0, template.indexOf('#'));
+				bytes.write(invalid, 0, invalid.length);
+				bytes.write(template.getBytes(StandardCharsets.UTF_8), template.indexOf('#') + 1, template.length() - template.indexOf('#') - 1);
+				Assertions.assertThrows(IOException.class, () -> AlchemyJSON.parse(ByteBuffer.wrap(bytes.toByteArray())));
+				Assertions.assertThrows(IOException.class, () -> AlchemyJSON.parseLazily(ByteBuffer.wrap(bytes.toByteArray())));
+			}
+		}
+	}
+	
+	@Test
+	void testObjectMembers() throws IOException, ClassNotFoundException {
+		StringBuilder json = new StringBuilder("{");
+		for(int i = 0; i < 1000; i++) {
+			json.append("\"key").append(i).append("\": ").append(i).append(", ");
+		}
+		json.append("\"key7\": \"duplicate\"}");
+		
+		JSONObject object = AlchemyJSON.parse(json.toString()).asObject();
+		Assertions.assertEquals(1001, object.size());
+		Assertions.assertEquals(999, object.get("key999").asInt());
+		Assertions.assertEquals("duplicate", object.get("key7").asString());
+		Assertions.assertFalse(object.contains("key1000"));
+		Assertions.assertEquals("key7", object.names().get(1000));
+		
+		// Modifications after the index has been built.
+		object.set("key999", AlchemyJSON.value(-1)).add("key1000", AlchemyJSON.value(true));
+		Assertions.assertEquals(-1, object.get("key999").asInt());
+		Assertions.assertTrue(object.get("key1000").isTrue());
+		Assertions.assertEquals(1002, object.size());
+		
+		// The index isn't serialized and is rebuilt when read.
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+			out.writeObject(object);
+		}
+		try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+			JSONObject copy = (JSONObject) in.readObject();
+			Assertions.assertEquals(object, copy);
+			Assertions.assertTrue(copy.get("key1000").isTrue());
+		}
+		
+		JSONObject built = new JSONObject();
+		for(int i = 0; i < 20; i++) {
+			built.add("key" + i, AlchemyJSON.value(i));
+		}
+		Assertions.assertEquals(19, built.get("key19").asInt());
+		Assertions.assertEquals(0, built.get("key0").asInt());
+		
+		JSONObject small = new JSONObject().add("a", AlchemyJSON.value(1)).add("a", AlchemyJSON.value(2));
+		Assertions.assertEquals(2, small.get("a").asInt());
+		Assertions.assertEquals(small, AlchemyJSON.parse("{\"a\": 1, \"a\": 2}"));
+		Assertions.assertEquals(small, AlchemyJSON.parse(ByteBuffer.wrap("{\"a\": 1, \"a\": 2}".getBytes(StandardCharsets.UTF_8))));
+	}
+	
+	@Test
+	void testSymbolTable() throws IOException {
+		String json = "[{\"id\": 1, \"caf\u00e9\": 2, \"a\\u0062\": 3}, {\"id\": 4, \"caf\u00e9\": 5, \"ab\": 6}]";
+		
+		JSONArray array = AlchemyJSON.parse(json).asArray();
+		Assertions.assertSame(array.get(0).asObject().names().get(0), array.get(1).asObject().names().get(0));
+		Assertions.assertSame(array.get(0).asObject().names().get(2), array.get(1).asObject().names().get(2));
+		
+		array = AlchemyJSON.parse(ByteBuffer.wrap(json.getBytes(StandardCharsets.UTF_8))).asArray();
+		Assertions.assertSame(array.get(0).asObject().names().get(0), array.get(1).asObject().names().get(0));
+		Assertions.assertSame(array.get(0).asObject().names().get(1), array.get(1).asObject().names().get(1));
+		Assertions.assertEquals(6, array.get(1).asObject().get("ab").asInt());
+		
+		// A shared table canonicalizes the names across parses.
+		JSONSymbolTable symbols = new JSONSymbolTable(16);
+		JSONValue first = AlchemyJSON.parse(new StringReader("{\"name\": 1}"), symbols);
+		JSONValue second = AlchemyJSON.parse(ByteBuffer.wrap("{\"name\": 2}".getBytes(StandardCharsets.UTF_8)), symbols);
+		Assertions.assertSame(first.asObject().names().get(0), second.asObject().names().get(0));
+		Assertions.assertSame(symbols.intern(new String("name")), first.asObject().names().get(0));
+	}
+	
+	@Test
+	void testGenerator() throws IOException {
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		try (JSONGenerator generator = AlchemyJSON.generator(output)) {
+			generator.beginObject();
+			generator.name("id").value(Long.MIN_VALUE);
+			generator.name("ratio").value(0.25).name("count").value(3.0);
+			generator.name("text").value("caf\u00e9 \ud83d\ude00 \"\\\n\u0001\u2028");
+			generator.name("flags").beginArray().value(true).nullValue().beginObject().endObject().endArray();
+			Assertions.assertThrows(IllegalStateException.class, () -> generator.value(1));
+			Assertions.assertThrows(IllegalStateException.class, generator::endArray);
+			generator.endObject();
+			Assertions.assertThrows(IllegalStateException.class, () -> generator.value(1));
+		}
+		
+		String json = new String(output.toByteArray(), StandardCharsets.UTF_8);
+		Assertions.assertEquals("{\"id\":-9223372036854775808,\"ratio\":0.25,\"count\":3,"
+				+ "\"text\":\"caf\u00e9 \ud83d\ude00 \\\"\\\\\\n\\u0001\\u2028\","
+				+ "\"flags\":[true,null,{}]}", json);
+		
+		// Write a large tree through a channel, exceeding the buffer size.
+		JSONArray array = new JSONArray();
+		for(int i = 0; i < 5000; i++) {
+			array.add(AlchemyJSON.object().add("index", AlchemyJSON.value(i)).add("name", AlchemyJSON.value("element " + i)));
+		}
+		output.reset();
+		try (JSONGenerator generator = AlchemyJSON.generator(Channels.newChannel(output))) {
+			generator.value(array);
+		}
+		Assertions.assertEquals(array, AlchemyJSON.parse(ByteBuffer.wrap(output.toByteArray())));
+	}
+	
+	@Test
+	void testPath() throws IOException {
+		String json = "{\"store\": {\"books\": [{\"title\": \"A\", \"price\": 8}, {\"title\": \"B\", \"price\": 12, "
+				+ "\"extra\": {\"title\": \"C\"}}], \"a/b\": {\"0\": true}, \"name\": \"shop\"}, \"title\": \"D\"}";
+		
+		Array<JSONValue> titles = JSONPath.compile("$.store.books[*].title").evaluate(new StringReader(json));
+		Assertions.assertEquals(2, titles.size());
+		Assertions.assertEquals("B", titles.get(1).asString());
+		
+		Array<JSONValue> all = JSONPath.compile("$..title").evaluate(new StringReader(json));
+		Assertions.assertEquals(4, all.size());
+		Assertions.assertEquals("C", all.get(2).asString());
+		Assertions.assertEquals(all, JSONPath.compile("$..title").evaluate(AlchemyJSON.parse(json)));
+		
+		Assertions.assertEquals(12, JSONPath.compile("/store/books/1/price").first(new StringReader(json)).asInt());
+		Assertions.assertTrue(JSONPath.compile("/store/a~1b/0").first(new StringReader(json)).isTrue());
+		Assertions.assertEquals("shop", JSONPath.compile("$['store'].name").first(new StringReader(json)).asString());
+		Assertions.assertEquals(AlchemyJSON.parse(json), JSONPath.compile("").first(new StringReader(json)));
+		Assertions.assertNull(JSONPath.compile("$.store.books[2]").first(new StringReader(json)));
+		Assertions.assertTrue(JSONPath.compile("/store/books/0").isDefinite());
+		Assertions.assertFalse(JSONPath.compile("$..books[0]").isDefinite());
+		
+		// Stops reading once the value is found, ignoring the malformed rest of the document.
+		Assertions.assertEquals(1, JSONPath.compile("/a").first(new StringReader("{\"a\": 1, \"b\": ]")).asInt());
+		Assertions.assertThrows(IllegalArgumentException.class, () -> JSONPath.compile("$.store["));
+		Assertions.assertThrows(IllegalArgumentException.class, () -> JSONPath.compile("store"));
+	}
+	
+	@Test
+	void testLines() throws IOException {
+		StringBuilder lines = new StringBuilder("\uFEFF");
+		for (int i = 0; i < 500; i++) {
+			lines.append("{\"id\": ").append(i).append(", \"name\": \"record").append(i).append("\"}");
+			lines.append(i % 7 == 0 ? "\r\n\n" : "\n");
+		}
+		
+		Path file = Files.createTempFile("alchemy", ".jsonl");
+		try {
+			Files.write(file, lines.toString().getBytes(StandardCharsets.UTF_8));
+			JSONLines reader = AlchemyJSON.lines(file);
+			Assertions.assertEquals(1, reader.chunkCount());
+			
+			reader = JSONLines.open(file, 64);
+			Assertions.assertTrue(reader.chunkCount() > 100);
+			
+			List<Integer> ordered = new ArrayList<>();
+			reader.forEachOrdered(value -> ordered.add(value.asObject().get("id").asInt()));
+			Assertions.assertEquals(500, ordered.size());
+			for (int i = 0; i < ordered.size(); i++) {
+				Assertions.assertEquals(i, (int) ordered.get(i));
+			}
+			
+			// The sink is called by one thread at a time, in order, with a bounded look-ahead.
+			ForkJoinPool pool = new ForkJoinPool(4);
+			try {
+				AtomicInteger calls = new AtomicInteger();
+				List<Integer> slow = new ArrayList<>();
+				reader.forEachOrdered(pool, value -> {
+					Assertions.assertEquals(1, calls.incrementAndGet());
+					slow.add(value.asObject().get("id").asInt());
+					calls.decrementAndGet();
+				});
+				Assertions.assertEquals(ordered, slow);
+			} finally {
+				pool.shutdown();
+			}
+			
+			AtomicLong sum = new AtomicLong();
+			reader.forEach(value -> sum.addAndGet(value.asObject().get("id").asInt()));
+			Assertions.assertEquals(499 * 500 / 2, sum.get());
+			
+			Assertions.assertEquals("record250", reader.stream().skip(250).findFirst().get().asObject().get("name").asString());
+			Assertions.assertEquals(499 * 500 / 2, reader.stream().mapToLong(value -> value.asObject().get("id").asInt()).sum());
+		} finally {
+			Files.delete(file);
+		}
+		
+		JSONLines malformed = JSONLines.of(ByteBuffer.wrap("[1]\n[2] [3]\n".getBytes(StandardCharsets.UTF_8)));
+		Assertions.assertThrows(IOException.class, () -> malformed.forEach(value -> {}));
+		Assertions.assertThrows(UncheckedIOException.class, () -> malformed.stream().count());
+		Assertions.assertThrows(IOException.class, () -> malformed.forEachOrdered(value -> {}));
+		
+		// A record can't span several lines, even inside a single chunk.
+		JSONLines spanning = JSONLines.of(ByteBuffer.wrap("[1,\n2]\n".getBytes(StandardCharsets.UTF_8)));
+		Assertions.assertThrows(IOException.class, () -> spanning.forEach(value -> {}));
+		JSONLines trailing = JSONLines.of(ByteBuffer.wrap("[1] \r\n\n[2]".getBytes(StandardCharsets.UTF_8)));
+		Assertions.assertEquals(2, trailing.stream().count());
+		Assertions.assertEquals(0, JSONLines.of(ByteBuffer.wrap("\n \n".getBytes(StandardCharsets.UTF_8))).stream().count());
+	}
+	
+	@Test
+	void testLazyParse() throws IOException {
+		String json = "{\"name\": \"alchemy\", \"tags\": [\"a\", \"b\\n\", {\"deep\": [1, 2.5, -3e2]}], "
+				+ "\"empty\": {}, \"none\": [], \"flags\": [true, false, null], \"text\": \"\\u00e9t\u00e9\"}";
+		ByteBuffer buffer = ByteBuffer.wrap(json.getBytes(StandardCharsets.UTF_8));
+		
+		JSONValue lazy = AlchemyJSON.parseLazily(buffer);
+		JSONValue eager = AlchemyJSON.parse(json);
+		Assertions.assertTrue(lazy.isObject());
+		Assertions.assertFalse(lazy.isArray());
+		Assertions.assertEquals(eager, lazy);
+		Assertions.assertEquals(lazy, eager);
+		Assertions.assertEquals(eager.hashCode(), lazy.hashCode());
+		Assertions.assertEquals(eager.toString(), lazy.toString());
+		
+		// The lazy containers are only objects or arrays once accessed through the conversion methods.
+		Assertions.assertFalse(lazy instanceof JSONObject);
+		JSONObject object = lazy.asObject();
+		Assertions.assertSame(object, lazy.asObject());
+		Assertions.assertEquals("b\n", object.get("tags").asArray().get(1).asString());
+		Assertions.assertEquals(-300, object.get("tags").asArray().get(2).asObject().get("deep").asArray().get(2).asInt());
+		Assertions.assertEquals("\u00e9t\u00e9", object.get("text").asString());
+		Assertions.assertTrue(object.get("empty").asObject().isEmpty());
+		Assertions.assertThrows(UnsupportedOperationException.class, () -> object.get("none").asObject());
+		
+		// Modifications are kept by the materialized values.
+		object.get("tags").asArray().add(AlchemyJSON.value(4));
+		Assertions.assertEquals(4, object.get("tags").asArray().size());
+		
+		Assertions.assertEquals(2.5, JSONPath.compile("$..deep[1]").evaluate(AlchemyJSON.parseLazily(buffer)).get(0).asDouble());
+		Assertions.assertEquals(42, AlchemyJSON.parseLazily(ByteBuffer.wrap("42".getBytes(StandardCharsets.UTF_8))).asInt());
+		Assertions.assertThrows(IOException.class, () -> AlchemyJSON.parseLazily(ByteBuffer.wrap("[1, 01]".getBytes(StandardCharsets.UTF_8))));
+		Assertions.assertThrows(IOException.class, () -> AlchemyJSON.parseLazily(ByteBuffer.wrap("{\"a\": \"\\x\"}".getBytes(StandardCharsets.UTF_8))));
+	}
+	
+	@Test
+	void testMapper() {
+		Player player = new Player();
+		player.name = "Gnostic \"Occultist\"";
+		player.level = 42;
+		player.experience = 1L << 40;
+		player.health = 0.75;
+		player.speed = 1.5F;
+		player.alive = true;
+		player.mode = Mode.HARDCORE;
+		player.inventory.add(new Item("sword", 1));
+		player.inventory.add(new Item("apple", 16));
+		player.scores = new int[] { 3, 1, 4 };
+		player.effects = Array.ofType(Mode.class);
+		player.effects.add(Mode.CREATIVE);
+		player.attributes.put("strength", 12L);
+		player.attributes.put("tags", new ArrayList<>(List.of("a", "b")));
+		player.cache = "ignored";
+		
+		String json = JSONMapper.toJSON(player);
+		Assertions.assertTrue(json.startsWith("{\"name\":\"Gnostic \\\"Occultist\\\"\",\"level\":42,"), json);
+		Assertions.assertFalse(json.contains("cache"));
+		
+		Player copy = JSONMapper.fromJSON("{\"unknown\": [1, {\"a\": 2}], " + json.substring(1), Player.class);
+		Assertions.assertEquals(player.name, copy.name);
+		Assertions.assertEquals(42, copy.level);
+		Assertions.assertEquals(1L << 40, copy.experience);
+		Assertions.assertEquals(0.75, copy.health);
+		Assertions.assertEquals(1.5F, copy.speed);
+		Assertions.assertTrue(copy.alive);
+		Assertions.assertEquals(Mode.HARDCORE, copy.mode);
+		Assertions.assertEquals(2, copy.inventory.size());
+		Assertions.assertEquals("apple", copy.inventory.get(1).name);
+		Assertions.assertEquals(16, copy.inventory.get(1).count);
+		Assertions.assertTrue(Arrays.equals(new int[] { 3, 1, 4 }, copy.scores));
+		Assertions.assertEquals(Mode.CREATIVE, copy.effects.get(0));
+		Assertions.assertEquals(player.attributes, copy.attributes);
+		Assertions.assertNull(copy.cache);
+		Assertions.assertEquals(json, JSONMapper.toJSON(copy));
+		
+		Assertions.assertThrows(RuntimeException.class, () -> JSONMapper.fromJSON("{\"level\": \"high\"}", Player.class));
+		Assertions.assertThrows(UncheckedIOException.class, () -> JSONMapper.fromJSON("{\"level\": 3000000000}", Player.class));
+		Assertions.assertThrows(UncheckedIOException.class, () -> JSONMapper.fromJSON("{\"level\": 1.5}", Player.class));
+		Assertions.assertNull(JSONMapper.fromJSON("null", Player.class));
+		
+		Assertions.assertThrows(IllegalArgumentException.class, () -> JSONMapper.toJSON(Float.NaN));
+		UncheckedIOException ex = Assertions.assertThrows(UncheckedIOException.class, 
+				() -> JSONMapper.fromJSON("{\"scores\": [1, null]}", Player.class));
+		Assertions.assertTrue(ex.getMessage().contains("column"), ex.getMessage());
+		
+		UUID id = UUID.randomUUID();
+		Assertions.assertEquals("\"" + id + "\"", JSONMapper.toJSON(id));
+		Assertions.assertEquals(id, JSONMapper.fromJSON("\"" + id + "\"", UUID.class));
+		Assertions.assertEquals("1", JSONMapper.toJSON(Optional.of(1)));
+		Assertions.assertEquals("null", JSONMapper.toJSON(Optional.empty()));
+		Assertions.assertEquals("{\"1\":\"a\"}", JSONMapper.toJSON(Map.of(1, "a")));
+		Assertions.assertThrows(IllegalArgumentException.class, () -> JSONMapper.toJSON(new StringBuilder("a")));
+	}
+	
+	enum Mode {
+		SURVIVAL, CREATIVE, HARDCORE;
+	}
+	
+	static class Item {
+		
+		private String name;
+		private int count;
+		
+		Item() {}
+		
+		Item(String name, int count) {
+			this.name = name;
+			this.count = count;
+		}
+	}
+	
+	static class Entity {
+		
+		String name;
+	}
+	
+	static class Player extends Entity {
+		
+		int level;
+		long experience;
+		double health;
+		float speed;
+		boolean alive;
+		Mode mode;
+		final List<Item> inventory = new ArrayList<>();
+		int[] scores;
+		Array<Mode> effects;
+		Map<String, Object> attributes = new LinkedHashMap<>();
+		transient String cache;
+	}
+}
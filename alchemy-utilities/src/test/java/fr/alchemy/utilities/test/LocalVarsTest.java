@@ -0,0 +1,88 @@
+package fr.alchemy.utilities.test;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import fr.alchemy.utilities.LocalVars;
+import fr.alchemy.utilities.LocalVars.Slot;
+import fr.alchemy.utilities.collections.pool.Lease;
+import fr.alchemy.utilities.collections.pool.Reusable;
+
+/**
+ * <code>LocalVarsTest</code> is a test class concerning {@link LocalVars} features.
+ * 
+ * @version 0.3.0
+ * @since 0.3.0
+ * 
+ * @author GnosticOccultist
+ */
+public class LocalVarsTest {
+	
+	private static final Slot<DummyVar> DUMMY_SLOT = LocalVars.slot(DummyVar.class, DummyVar::new);
+
+	@Test
+	void testSlotResolution() {
+		Slot<DummyVar> slot = LocalVars.slot(DummyVar.class, DummyVar::new);
+		
+		Assertions.assertSame(DUMMY_SLOT, slot);
+		Assertions.assertEquals(DummyVar.class, slot.getType());
+	}
+	
+	@Test
+	void testSlotAcquireRelease() {
+		DummyVar var = DUMMY_SLOT.acquire();
+		
+		Assertions.assertNotNull(var);
+		Assertions.assertTrue(var.reused);
+		
+		DUMMY_SLOT.release(var);
+		
+		Assertions.assertFalse(var.reused);
+		Assertions.assertSame(var, DUMMY_SLOT.acquire());
+	}
+	
+	@Test
+	void testSlotLease() {
+		DummyVar var;
+		try (Lease<DummyVar> lease = DUMMY_SLOT.lease()) {
+			var = lease.get();
+			Assertions.assertTrue(var.reused);
+		}
+		
+		Assertions.assertFalse(var.reused);
+		Assertions.assertSame(var, DUMMY_SLOT.acquire());
+	}
+	
+	@Test
+	void testSlotPerThread() throws InterruptedException {
+		DummyVar var = DUMMY_SLOT.acquire();
+		DummyVar[] other = new DummyVar[1];
+		
+		Thread thread = new Thread(() -> other[0] = DUMMY_SLOT.acquire());
+		thread.start();
+		thread.join();
+		
+		Assertions.assertNotNull(other[0]);
+		Assertions.assertNotSame(var, other[0]);
+	}
+	
+	/**
+	 * <code>DummyVar</code> represents a dummy reusable variable for testing purposes.
+	 * 
+	 * @author GnosticOccultist
+	 */
+	static class DummyVar implements Reusable {
+		
+		boolean reused;
+		
+		@Override
+		public void reuse() {
+			this.reused = true;
+		}
+		
+		@Override
+		public void free() {
+			this.reused = false;
+		}
+	}
+}
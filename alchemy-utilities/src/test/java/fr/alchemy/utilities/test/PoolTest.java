@@ -0,0 +1,58 @@
+package fr.alchemy.utilities.test;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import fr.alchemy.utilities.collections.pool.FastReusablePool;
+import fr.alchemy.utilities.collections.pool.Lease;
+import fr.alchemy.utilities.collections.pool.Reusable;
+
+/**
+ * <code>PoolTest</code> is a test class concerning pools features.
+ * 
+ * @version 0.3.0
+ * @since 0.3.0
+ * 
+ * @author GnosticOccultist
+ */
+public class PoolTest {
+
+	@Test
+	void testLease() {
+		FastReusablePool<DummyReusable> pool = new FastReusablePool<>(DummyReusable.class, DummyReusable::new, 1);
+		
+		Lease<DummyReusable> lease = pool.lease();
+		DummyReusable element = lease.get();
+		
+		Assertions.assertTrue(pool.isEmpty());
+		
+		lease.close();
+		
+		Assertions.assertTrue(lease.isReleased());
+		Assertions.assertEquals(1, pool.size());
+		Assertions.assertThrows(IllegalStateException.class, lease::get);
+		Assertions.assertSame(element, pool.retrieve());
+		Assertions.assertNull(pool.lease());
+	}
+	
+	@Test
+	void testApplyAndRelease() {
+		FastReusablePool<DummyReusable> pool = new FastReusablePool<>(DummyReusable.class, DummyReusable::new, 1);
+		
+		DummyReusable element = pool.applyAndRelease(e -> e);
+		
+		Assertions.assertEquals(1, pool.size());
+		Assertions.assertSame(element, pool.retrieve());
+		
+		pool.applyAndRelease(e -> e, DummyReusable::new);
+		
+		Assertions.assertEquals(1, pool.size());
+	}
+	
+	/**
+	 * <code>DummyReusable</code> represents a dummy reusable element for testing purposes.
+	 * 
+	 * @author GnosticOccultist
+	 */
+	static class DummyReusable implements Reusable {}
+}